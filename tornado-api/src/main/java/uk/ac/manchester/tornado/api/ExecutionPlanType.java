@@ -17,16 +17,21 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import uk.ac.manchester.tornado.api.plan.types.OffChromeEventTracer;
 import uk.ac.manchester.tornado.api.plan.types.OffConcurrentDevices;
+import uk.ac.manchester.tornado.api.plan.types.OffDataParallelSplit;
 import uk.ac.manchester.tornado.api.plan.types.OffMemoryLimit;
 import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
+import uk.ac.manchester.tornado.api.plan.types.OffTieredExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithChromeEventTracer;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
 import uk.ac.manchester.tornado.api.plan.types.WithConcurrentDevices;
+import uk.ac.manchester.tornado.api.plan.types.WithDataParallelSplit;
 import uk.ac.manchester.tornado.api.plan.types.WithDefaultScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithDevice;
 import uk.ac.manchester.tornado.api.plan.types.WithDynamicReconfiguration;
@@ -38,14 +43,15 @@ import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
 import uk.ac.manchester.tornado.api.plan.types.WithThreadInfo;
+import uk.ac.manchester.tornado.api.plan.types.WithTieredExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithWarmUp;
 
 public abstract sealed class ExecutionPlanType extends TornadoExecutionPlan //
-        permits OffConcurrentDevices, OffMemoryLimit, OffPrintKernel, OffProfiler, //
-        OffThreadInfo, WithAllGraphs, WithBatch, WithClearProfiles, WithCompilerFlags,  //
-        WithConcurrentDevices, WithDefaultScheduler, WithDevice, WithDynamicReconfiguration, //
+        permits OffChromeEventTracer, OffConcurrentDevices, OffDataParallelSplit, OffMemoryLimit, OffPrintKernel, OffProfiler, //
+        OffThreadInfo, OffTieredExecution, WithAllGraphs, WithBatch, WithChromeEventTracer, WithClearProfiles, WithCompilerFlags,  //
+        WithConcurrentDevices, WithDataParallelSplit, WithDefaultScheduler, WithDevice, WithDynamicReconfiguration, //
         WithFreeDeviceMemory, WithGraph, WithGridScheduler, WithMemoryLimit, WithPrintKernel, //
-        WithProfiler, WithResetDevice, WithThreadInfo, WithWarmUp { //
+        WithProfiler, WithResetDevice, WithThreadInfo, WithTieredExecution, WithWarmUp { //
 
     public ExecutionPlanType(TornadoExecutionPlan parentNode) {
 
@@ -22,6 +22,8 @@ import java.util.Collection;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 /**
@@ -54,6 +56,10 @@ public class ImmutableTaskGraph {
         taskGraph.warmup(executionPackage);
     }
 
+    void precompile(ExecutorFrame executionPackage) {
+        taskGraph.precompile(executionPackage);
+    }
+
     void withDevice(TornadoDevice device) {
         taskGraph.withDevice(device);
     }
@@ -66,6 +72,10 @@ public class ImmutableTaskGraph {
         taskGraph.freeDeviceMemory();
     }
 
+    void close() {
+        taskGraph.close();
+    }
+
     void transferToHost(Object... objects) {
         taskGraph.syncRuntimeTransferToHost(objects);
     }
@@ -126,6 +136,14 @@ public class ImmutableTaskGraph {
         return taskGraph.getTotalBytesCopyOut();
     }
 
+    long getTotalBytesCopyInSkipped() {
+        return taskGraph.getTotalBytesCopyInSkipped();
+    }
+
+    LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        return taskGraph.getLatencyHistogram(type);
+    }
+
     String getProfileLog() {
         return taskGraph.getProfileLog();
     }
@@ -150,8 +168,8 @@ public class ImmutableTaskGraph {
         taskGraph.useDefaultThreadScheduler(useDefaultScheduler);
     }
 
-    void withBatch(String batchSize) {
-        taskGraph.batch(batchSize);
+    void withBatch(String batchSize, int numBufferSets) {
+        taskGraph.batch(batchSize, numBufferSets);
     }
 
     void withMemoryLimit(String memoryLimit) {
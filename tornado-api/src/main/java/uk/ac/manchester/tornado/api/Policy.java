@@ -59,7 +59,22 @@ public enum Policy {
      * task without waiting for all executions to finish.
      * </p>
      */
-    LATENCY("Latency");
+    LATENCY("Latency"), //
+
+    /**
+     * Perform dynamic reconfiguration based on a cost model. Instead of running the
+     * task-graph on every device, the TornadoVM runtime predicts the execution time
+     * on each device from the times of previous executions, the size of the input
+     * data and the code features of the tasks, and it runs the task-graph only on
+     * the device with the lowest prediction. Occasionally, another device is
+     * selected to keep the model up to date.
+     *
+     * <p>
+     * The history of execution times is stored on disk
+     * ({@code -Dtornado.dr.history}) and reused across runs of the application.
+     * </p>
+     */
+    COST_MODEL("Cost_Model");
 
     private final String policyName;
 
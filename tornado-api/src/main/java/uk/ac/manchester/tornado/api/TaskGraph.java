@@ -44,6 +44,8 @@ import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
 
@@ -786,8 +788,8 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.setDevice(taskName, device);
     }
 
-    void batch(String batchSize) {
-        taskGraphImpl.withBatch(batchSize);
+    void batch(String batchSize, int numBufferSets) {
+        taskGraphImpl.withBatch(batchSize, numBufferSets);
     }
 
     void withMemoryLimit(String memoryLimit) {
@@ -802,6 +804,10 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.warmup(executionPackage);
     }
 
+    void precompile(ExecutorFrame executionPackage) {
+        taskGraphImpl.precompile(executionPackage);
+    }
+
     void dumpProfiles() {
         taskGraphImpl.dumpProfiles();
     }
@@ -814,6 +820,10 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.freeDeviceMemory();
     }
 
+    void close() {
+        taskGraphImpl.close();
+    }
+
     void syncRuntimeTransferToHost(Object... objects) {
         taskGraphImpl.syncRuntimeTransferToHost(objects);
     }
@@ -889,6 +899,14 @@ public class TaskGraph implements TaskGraphInterface {
         return taskGraphImpl.getTotalBytesCopyOut();
     }
 
+    long getTotalBytesCopyInSkipped() {
+        return taskGraphImpl.getTotalBytesCopyInSkipped();
+    }
+
+    LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        return taskGraphImpl.getLatencyHistogram(type);
+    }
+
     protected String getProfileLog() {
         return taskGraphImpl.getProfileLog();
     }
@@ -18,8 +18,10 @@
 package uk.ac.manchester.tornado.api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
@@ -27,16 +29,21 @@ import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.plan.types.OffChromeEventTracer;
 import uk.ac.manchester.tornado.api.plan.types.OffConcurrentDevices;
+import uk.ac.manchester.tornado.api.plan.types.OffDataParallelSplit;
 import uk.ac.manchester.tornado.api.plan.types.OffMemoryLimit;
 import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
+import uk.ac.manchester.tornado.api.plan.types.OffTieredExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithChromeEventTracer;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
 import uk.ac.manchester.tornado.api.plan.types.WithConcurrentDevices;
+import uk.ac.manchester.tornado.api.plan.types.WithDataParallelSplit;
 import uk.ac.manchester.tornado.api.plan.types.WithDefaultScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithDevice;
 import uk.ac.manchester.tornado.api.plan.types.WithDynamicReconfiguration;
@@ -48,7 +55,9 @@ import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
 import uk.ac.manchester.tornado.api.plan.types.WithThreadInfo;
+import uk.ac.manchester.tornado.api.plan.types.WithTieredExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithWarmUp;
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 
@@ -114,6 +123,8 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         updateAccess(immutableTaskGraphs);
         rootNode = this;
         planResults = new ArrayList<>();
+        // Start compiling the task-graphs recorded in the warm-up manifest of a previous run
+        tornadoExecutor.precompile(executionFrame);
     }
 
     /**
@@ -177,10 +188,44 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionResult execute() {
+        tornadoExecutor.awaitSubmittedExecutions();
+        return executeAndRecordResult();
+    }
+
+    /**
+     * Submit an execution of the execution plan without blocking the calling
+     * thread. The executions are queued and run one after the other, in
+     * submission order, by a thread that belongs to the execution plan. The
+     * device starts the next queued execution as soon as the previous one
+     * finishes, while the calling thread prepares further requests.
+     *
+     * <p>
+     * Queued executions do not overlap on the device: they share the device
+     * buffers and the host data of the task-graphs. Therefore, host data that is
+     * used by a queued execution must not be modified until its future completes.
+     * Calls to {@link #execute()}, {@link #freeDeviceMemory()},
+     * {@link #resetDevice()} and {@link #close()} wait for the queued
+     * executions. The execution plan must not be reconfigured with the
+     * {@code with*} methods while executions are queued.
+     * </p>
+     *
+     * @since 1.1.1
+     *
+     * @return A {@link CompletableFuture} that completes with the
+     *     {@link TornadoExecutionResult}, or exceptionally if the execution fails.
+     */
+    public CompletableFuture<TornadoExecutionResult> submit() {
+        return tornadoExecutor.submit(this::executeAndRecordResult, executionFrame.getExecutionPlanId());
+    }
+
+    private TornadoExecutionResult executeAndRecordResult() {
+        executionFrame.sampleChromeTrace();
         tornadoExecutor.execute(executionFrame);
         TornadoProfilerResult profilerResult = new TornadoProfilerResult(tornadoExecutor, this.getTraceExecutionPlan());
         TornadoExecutionResult executionResult = new TornadoExecutionResult(profilerResult);
-        planResults.add(executionResult);
+        synchronized (planResults) {
+            planResults.add(executionResult);
+        }
         return executionResult;
     }
 
@@ -305,6 +350,82 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new OffConcurrentDevices(this);
     }
 
+    /**
+     * Split the iteration space of a parallel task across multiple devices. The
+     * outermost parallel loop of the task is partitioned into contiguous ranges,
+     * one per device, and the arrays indexed by the loop are passed to each device
+     * as views of the corresponding range. The devices run concurrently and write
+     * their results directly into the host arrays.
+     *
+     * <p>
+     * The first partition is even. After a warm-up execution, the ranges are
+     * weighted by the throughput measured on each device. The split applies to
+     * task-graphs with a single task whose loop bound is the size of the output
+     * arrays (as in batch processing). Other task-graphs run on a single device as
+     * usual.
+     * </p>
+     *
+     * @since 1.1.1
+     *
+     * @param devices
+     *     Distinct devices to split the computation across.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withDataParallelSplit(TornadoDevice... devices) {
+        if (devices.length == 0 || Arrays.stream(devices).distinct().count() != devices.length) {
+            throw new TornadoRuntimeException("[ERROR] The data-parallel split requires a list of distinct devices");
+        }
+        executionFrame.setDataParallelDevices(devices);
+        return new WithDataParallelSplit(this, devices);
+    }
+
+    /**
+     * It disables the data-parallel split across multiple devices.
+     *
+     * @since 1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutDataParallelSplit() {
+        executionFrame.setDataParallelDevices((TornadoDevice[]) null);
+        return new OffDataParallelSplit(this);
+    }
+
+    /**
+     * It enables the tiered execution of the task-graphs. While the tasks are
+     * compiled for the device in the background, the executions run the Java
+     * code of the tasks sequentially on the host. Once the compilation
+     * finishes, the next execution runs on the device.
+     *
+     * <p>
+     * The tiered execution applies to task-graphs that are not compiled yet, and
+     * that do not use the {@link KernelContext}, pre-built tasks, batch
+     * processing, dynamic reconfiguration or the data-parallel split. Other
+     * task-graphs are compiled and run on the device as usual.
+     * </p>
+     *
+     * @since 1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withTieredExecution() {
+        executionFrame.setTieredExecution(true);
+        return new WithTieredExecution(this);
+    }
+
+    /**
+     * It disables the tiered execution. The first execution waits for the
+     * compilation of the tasks.
+     *
+     * @since 1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutTieredExecution() {
+        executionFrame.setTieredExecution(false);
+        return new OffTieredExecution(this);
+    }
+
     /**
      * It obtains the device for a specific immutable task-graph. Note that,
      * ideally, different task immutable task-graph could be executed on different
@@ -332,6 +453,7 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionPlan freeDeviceMemory() {
+        tornadoExecutor.awaitSubmittedExecutions();
         tornadoExecutor.freeDeviceMemory();
         return new WithFreeDeviceMemory(this);
     }
@@ -394,8 +516,31 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionPlan withBatch(String batchSize) {
-        tornadoExecutor.withBatch(batchSize);
-        return new WithBatch(this, batchSize);
+        tornadoExecutor.withBatch(batchSize, 1);
+        return new WithBatch(this, batchSize, 1);
+    }
+
+    /**
+     * Enable pipelined batch processing. As in {@link #withBatch(String)}, the
+     * iteration space is split in smaller batches. In addition, TornadoVM
+     * allocates {@code numBufferSets} device buffers per object and rotates the
+     * chunks over them, so the copy-in of the next chunk can overlap with the
+     * kernel of the current chunk and the copy-out of the previous one. The
+     * transfers and kernels of consecutive chunks are ordered with events.
+     * Therefore, the overlap only happens on devices that honour event
+     * dependencies (e.g., OpenCL with {@code -Dtornado.ooo-execution.enable=True}).
+     *
+     * @param batchSize
+     *     String in the format a number + "MB" Example "512MB".
+     * @param numBufferSets
+     *     Number of device buffers per object. Use 2 for double buffering and 3
+     *     for triple buffering. A value of 1 is equivalent to
+     *     {@link #withBatch(String)}.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withBatch(String batchSize, int numBufferSets) {
+        tornadoExecutor.withBatch(batchSize, numBufferSets);
+        return new WithBatch(this, batchSize, numBufferSets);
     }
 
     /**
@@ -422,6 +567,57 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new OffProfiler(this);
     }
 
+    /**
+     * Starts the {@link ChromeEventTracer} and traces every execution of this
+     * execution plan. The events are streamed to rotating trace files in the
+     * Chrome Trace Event format, which can be opened with Perfetto or
+     * {@code chrome://tracing}.
+     *
+     * @since 1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withChromeEventTracer() {
+        return withChromeEventTracer(1);
+    }
+
+    /**
+     * Starts the {@link ChromeEventTracer} and traces one in every
+     * {@code samplingRate} executions of this execution plan. Sampling bounds the
+     * overhead and the size of the trace of long-running applications.
+     *
+     * @since 1.1.1
+     *
+     * @param samplingRate
+     *     Trace one in every N executions. It must be greater than zero.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withChromeEventTracer(int samplingRate) {
+        if (samplingRate <= 0) {
+            throw new TornadoRuntimeException("[ERROR] The sampling rate of the Chrome event tracer must be greater than zero: " + samplingRate);
+        }
+        ChromeEventTracer.start();
+        executionFrame.setChromeTraceSamplingRate(samplingRate);
+        return new WithChromeEventTracer(this, samplingRate);
+    }
+
+    /**
+     * Stops tracing the executions of this execution plan. The events recorded so
+     * far are written to the trace file. Other execution plans keep tracing if
+     * the tracer is enabled.
+     *
+     * @since 1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutChromeEventTracer() {
+        executionFrame.setChromeTraceSamplingRate(0);
+        if (ChromeEventTracer.getTraceStream() != null) {
+            ChromeEventTracer.getTraceStream().flush();
+        }
+        return new OffChromeEventTracer(this);
+    }
+
     /**
      * This method sets a limit to the amount of memory used on the target
      * hardware accelerator. The TornadoVM runtime will check that the
@@ -462,6 +658,7 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionPlan resetDevice() {
+        tornadoExecutor.awaitSubmittedExecutions();
         tornadoExecutor.resetDevice();
         return new WithResetDevice(this);
     }
@@ -561,7 +758,9 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      */
     @Override
     public void close() throws TornadoExecutionPlanException {
+        tornadoExecutor.awaitSubmittedExecutions();
         tornadoExecutor.freeDeviceMemory();
+        tornadoExecutor.close();
     }
 
     /**
@@ -575,10 +774,12 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
     }
 
     public TornadoExecutionResult getPlanResult(int index) {
-        if (index >= planResults.size()) {
-            throw new TornadoRuntimeException("[ERROR] Execution result not found");
+        synchronized (planResults) {
+            if (index >= planResults.size()) {
+                throw new TornadoRuntimeException("[ERROR] Execution result not found");
+            }
+            return planResults.get(index);
         }
-        return planResults.get(index);
     }
 
     /**
@@ -20,11 +20,17 @@ package uk.ac.manchester.tornado.api;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 /**
@@ -38,11 +44,72 @@ class TornadoExecutor {
     private final List<ImmutableTaskGraph> immutableTaskGraphList;
     private List<ImmutableTaskGraph> subgraphList;
 
+    /**
+     * Thread that runs the submitted executions of the plan, in submission order.
+     * It is created on the first submitted execution.
+     */
+    private ExecutorService dispatcher;
+    private volatile Thread dispatcherThread;
+
+    /**
+     * Last execution submitted. It completes after all previously submitted
+     * executions.
+     */
+    private CompletableFuture<?> lastSubmittedExecution = CompletableFuture.completedFuture(null);
+
     TornadoExecutor(ImmutableTaskGraph... immutableTaskGraphs) {
         immutableTaskGraphList = new ArrayList<>();
         Collections.addAll(immutableTaskGraphList, immutableTaskGraphs);
     }
 
+    /**
+     * It queues an execution in the dispatcher thread of the executor. The
+     * executions are run one after the other, so the next one is dispatched to the
+     * device as soon as the previous one finishes, without waiting for the calling
+     * thread.
+     *
+     * @param execution
+     *     Action that executes the plan.
+     * @param planId
+     *     Identifier of the execution plan, used to name the dispatcher thread.
+     * @return A {@link CompletableFuture} that completes with the result of the
+     *     execution.
+     */
+    synchronized <T> CompletableFuture<T> submit(Supplier<T> execution, long planId) {
+        if (dispatcher == null) {
+            dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "TornadoVM-Plan-" + planId + "-Dispatcher");
+                thread.setDaemon(true);
+                dispatcherThread = thread;
+                return thread;
+            });
+        }
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(execution, dispatcher);
+        lastSubmittedExecution = future;
+        // Cancelling the future of the caller does not stop the execution, and
+        // later executions still wait for it
+        return future.copy();
+    }
+
+    /**
+     * It blocks until all executions submitted so far have finished. Failures are
+     * reported through the futures returned to the caller, so they are ignored
+     * here.
+     */
+    void awaitSubmittedExecutions() {
+        if (Thread.currentThread() == dispatcherThread) {
+            // Called from a completion stage of a submitted execution
+            return;
+        }
+        CompletableFuture<?> pending;
+        synchronized (this) {
+            pending = lastSubmittedExecution;
+        }
+        if (!pending.isDone()) {
+            pending.exceptionally(throwable -> null).join();
+        }
+    }
+
     void execute(ExecutorFrame executionPackage) {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.execute(executionPackage));
     }
@@ -60,8 +127,12 @@ class TornadoExecutor {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.warmup(executorFrame));
     }
 
-    void withBatch(String batchSize) {
-        immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize));
+    void precompile(ExecutorFrame executorFrame) {
+        immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.precompile(executorFrame));
+    }
+
+    void withBatch(String batchSize, int numBufferSets) {
+        immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize, numBufferSets));
     }
 
     void withMemoryLimit(String memoryLimit) {
@@ -98,6 +169,16 @@ class TornadoExecutor {
         immutableTaskGraphList.forEach(ImmutableTaskGraph::freeDeviceMemory);
     }
 
+    void close() {
+        immutableTaskGraphList.forEach(ImmutableTaskGraph::close);
+        synchronized (this) {
+            if (dispatcher != null) {
+                dispatcher.shutdown();
+                dispatcher = null;
+            }
+        }
+    }
+
     void transferToHost(Object... objects) {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.transferToHost(objects));
     }
@@ -168,6 +249,21 @@ class TornadoExecutor {
         return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getTotalBytesCopyOut).mapToLong(Long::longValue).sum();
     }
 
+    long getTotalBytesCopyInSkipped() {
+        return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getTotalBytesCopyInSkipped).mapToLong(Long::longValue).sum();
+    }
+
+    LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (ImmutableTaskGraph immutableTaskGraph : immutableTaskGraphList) {
+            LatencyHistogram taskGraphHistogram = immutableTaskGraph.getLatencyHistogram(type);
+            if (taskGraphHistogram != null) {
+                histogram.add(taskGraphHistogram);
+            }
+        }
+        return histogram;
+    }
+
     String getProfileLog() {
         return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getProfileLog).collect(Collectors.joining());
     }
@@ -18,7 +18,9 @@
 package uk.ac.manchester.tornado.api;
 
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerInterface;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 
 /**
  * Object that stores all information related to profiling an executor. To be
@@ -194,6 +196,71 @@ public class TornadoProfilerResult implements ProfilerInterface {
         return executor.getTotalBytesCopyOut();
     }
 
+    /**
+     * Returns the total number of bytes that were not transferred to the
+     * accelerator because the host data did not change since the last transfer.
+     * Unchanged data is only detected when the writes to the native arrays are
+     * tracked (option {@code -Dtornado.dirty.tracking=true}).
+     *
+     * @return long
+     *     Number of bytes
+     */
+    @Override
+    public long getTotalBytesCopyInSkipped() {
+        return executor.getTotalBytesCopyInSkipped();
+    }
+
+    /**
+     * Returns the kernel time (in nanoseconds) below which the given percentage of
+     * all kernel executions fall, since the profiler was enabled. For instance,
+     * {@code getKernelTimePercentile(99)} returns the p99 latency of the kernels.
+     *
+     * @param percentile
+     *     Percentile in the range [0, 100].
+     * @return long
+     */
+    public long getKernelTimePercentile(double percentile) {
+        return executor.getLatencyHistogram(ProfilerType.TASK_KERNEL_TIME).getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the time (in nanoseconds) below which the given percentage of all
+     * copies from the host to the device fall, since the profiler was enabled.
+     *
+     * @param percentile
+     *     Percentile in the range [0, 100].
+     * @return long
+     */
+    public long getCopyInTimePercentile(double percentile) {
+        return executor.getLatencyHistogram(ProfilerType.COPY_IN_TIME).getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the time (in nanoseconds) below which the given percentage of all
+     * copies from the device to the host fall, since the profiler was enabled.
+     *
+     * @param percentile
+     *     Percentile in the range [0, 100].
+     * @return long
+     */
+    public long getCopyOutTimePercentile(double percentile) {
+        return executor.getLatencyHistogram(ProfilerType.COPY_OUT_TIME).getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the distribution of the latencies of a profiler type, for all
+     * task-graphs of the executor. Histograms are kept for
+     * {@link ProfilerType#TASK_KERNEL_TIME}, {@link ProfilerType#COPY_IN_TIME} and
+     * {@link ProfilerType#COPY_OUT_TIME}.
+     *
+     * @param type
+     *     {@link ProfilerType}
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        return executor.getLatencyHistogram(type);
+    }
+
     TornadoExecutor getExecutor() {
         return executor;
     }
@@ -28,7 +28,9 @@ import uk.ac.manchester.tornado.api.common.TaskPackage;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerInterface;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TaskContextInterface;
 
@@ -50,7 +52,7 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void scheduleInner();
 
-    void withBatch(String batchSize);
+    void withBatch(String batchSize, int numBufferSets);
 
     void withMemoryLimit(String memoryLimit);
 
@@ -80,8 +82,22 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void warmup(ExecutorFrame executionPackage);
 
+    /**
+     * It compiles the task-graph in the background when the same configuration
+     * was compiled in a previous run and recorded in the warm-up manifest.
+     * Otherwise, it has no effect.
+     */
+    void precompile(ExecutorFrame executionPackage);
+
     void freeDeviceMemory();
 
+    /**
+     * It releases the runtime resources associated with the task-graph that are
+     * not device buffers (e.g., the Java threads used to run the TornadoVM
+     * interpreters concurrently).
+     */
+    void close();
+
     void syncRuntimeTransferToHost(Object... objects);
 
     void syncRuntimeTransferToHost(Object objects, long offset, long partialCopySize);
@@ -128,6 +144,8 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     long getCurrentDeviceMemoryUsage();
 
+    LatencyHistogram getLatencyHistogram(ProfilerType type);
+
     Map<String, List<Object>> getPersistedTaskToObjectsMap();
 
     void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags);
@@ -44,6 +44,12 @@ public class TaskPackage {
 
     private boolean isPrebuiltTask;
 
+    private TaskPackage(String id, int taskType, Object[] taskParameters) {
+        this.id = id;
+        this.taskType = taskType;
+        this.taskParameters = taskParameters;
+    }
+
     public TaskPackage(String id, Task code) {
         this.id = id;
         this.taskType = 0;
@@ -253,4 +259,26 @@ public class TaskPackage {
         return isPrebuiltTask;
     }
 
+    /**
+     * It creates a task package with the same identifier and code, but with a
+     * different list of arguments. This is used by the runtime to rewrite a task
+     * with new data (e.g., views of the original arrays).
+     *
+     * @param arguments
+     *     New arguments of the task. The number of arguments must match the task
+     *     type.
+     * @return {@link TaskPackage}
+     */
+    public TaskPackage withArguments(Object... arguments) {
+        if (arguments.length != taskParameters.length - 1) {
+            throw new IllegalArgumentException("Expected " + (taskParameters.length - 1) + " arguments for task " + id + ", but received " + arguments.length);
+        }
+        Object[] newParameters = new Object[taskParameters.length];
+        newParameters[0] = taskParameters[0];
+        System.arraycopy(arguments, 0, newParameters, 1, arguments.length);
+        TaskPackage taskPackage = new TaskPackage(id, taskType, newParameters);
+        taskPackage.numThreadsToRun = numThreadsToRun;
+        return taskPackage;
+    }
+
 }
@@ -23,14 +23,19 @@ import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 public final class WithBatch extends ExecutionPlanType {
 
     private final String batchSize;
+    private final int numBufferSets;
 
-    public WithBatch(TornadoExecutionPlan parent, String batchSize) {
+    public WithBatch(TornadoExecutionPlan parent, String batchSize, int numBufferSets) {
         super(parent);
         this.batchSize = batchSize;
+        this.numBufferSets = numBufferSets;
     }
 
     @Override
     public String toString() {
+        if (numBufferSets > 1) {
+            return parentLink.toString() + "\n -> withBatch(<" + batchSize + ">, <" + numBufferSets + ">";
+        }
         return parentLink.toString() + "\n -> withBatch(<" + batchSize + ">";
     }
 }
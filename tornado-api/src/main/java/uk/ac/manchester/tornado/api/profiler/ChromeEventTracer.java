@@ -17,9 +17,14 @@
  */
 package uk.ac.manchester.tornado.api.profiler;
 
-import java.io.File;
+import java.nio.file.Path;
 import java.util.Map;
 
+/**
+ * Tracer of events in the Chrome Trace Event format. The events are streamed to
+ * a {@link ChromeTraceStream}, which writes them to rotating, size-capped
+ * files while the application runs.
+ */
 public class ChromeEventTracer {
     /**
      * The filename for ChromeEventTracer to write json file.
@@ -27,11 +32,36 @@ public class ChromeEventTracer {
     public static final String CHROME_EVENT_TRACER_FILENAME_KEY = "tornado.chrome.event.tracer.filename";
     public static final String CHROME_EVENT_TRACER_FILENAME = System.getProperties().getProperty(CHROME_EVENT_TRACER_FILENAME_KEY, "chrome.json");
     public static final String CHROME_EVENT_TRACER_ENABLED_KEY = "tornado.chrome.event.tracer.enabled";
-    public static final ChromeEventJSonWriter json = new ChromeEventJSonWriter();
+
+    /**
+     * Number of events of the ring buffer. Events are dropped when the buffer is
+     * full.
+     */
+    public static final String CHROME_EVENT_TRACER_BUFFER_SIZE_KEY = "tornado.chrome.event.tracer.buffer.size";
+
+    /**
+     * Maximum size, in MB, of a trace file before it is rotated.
+     */
+    public static final String CHROME_EVENT_TRACER_FILE_SIZE_KEY = "tornado.chrome.event.tracer.file.size";
+
+    /**
+     * Number of trace files kept, including the one being written.
+     */
+    public static final String CHROME_EVENT_TRACER_FILES_KEY = "tornado.chrome.event.tracer.files";
+
+    /**
+     * Trace one in every N executions of an execution plan.
+     */
+    public static final String CHROME_EVENT_TRACER_SAMPLING_KEY = "tornado.chrome.event.tracer.sampling";
+
+    private static final int SAMPLING_RATE = Math.max(1, Integer.getInteger(CHROME_EVENT_TRACER_SAMPLING_KEY, 1));
+
+    private static volatile ChromeTraceStream stream;
+    private static volatile boolean enabled;
 
     static {
-        if (isEnabled()) {
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> json.write(new File(getChromeEventTracerFileName()))));
+        if (Boolean.getBoolean(CHROME_EVENT_TRACER_ENABLED_KEY)) {
+            start();
         }
     }
 
@@ -44,13 +74,14 @@ public class ChromeEventTracer {
     }
 
     /**
-     * Option to enable chrome event format for profiler. It can be disabled at any
-     * point during runtime.
+     * Option to enable chrome event format for profiler. It is enabled with the
+     * {@code tornado.chrome.event.tracer.enabled} flag, and it can be started and
+     * stopped at any point during runtime.
      *
      * @return boolean.
      */
     public static boolean isChromeEventTracerEnabled() {
-        return Boolean.getBoolean(CHROME_EVENT_TRACER_ENABLED_KEY);
+        return enabled;
     }
 
     public static ChromeEventTracer create() {
@@ -58,59 +89,121 @@ public class ChromeEventTracer {
     }
 
     public static boolean isEnabled() {
-        return isChromeEventTracerEnabled();
+        return enabled;
+    }
+
+    /**
+     * Starts recording events. The trace stream is created the first time the
+     * tracer starts, and it is closed when the JVM shuts down.
+     */
+    public static void start() {
+        if (stream == null) {
+            synchronized (ChromeEventTracer.class) {
+                if (stream == null) {
+                    ChromeTraceStream traceStream = new ChromeTraceStream(Path.of(getChromeEventTracerFileName()), //
+                            Integer.getInteger(CHROME_EVENT_TRACER_BUFFER_SIZE_KEY, 65536), //
+                            Long.getLong(CHROME_EVENT_TRACER_FILE_SIZE_KEY, 64) * 1024 * 1024, //
+                            Integer.getInteger(CHROME_EVENT_TRACER_FILES_KEY, 4));
+                    Runtime.getRuntime().addShutdownHook(new Thread(traceStream::close));
+                    stream = traceStream;
+                }
+            }
+        }
+        enabled = true;
+    }
+
+    /**
+     * Stops recording events and waits until the recorded events are written to
+     * the trace file.
+     */
+    public static void stop() {
+        enabled = false;
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    /**
+     * @return The {@link ChromeTraceStream}, or {@code null} if the tracer was
+     *     never started.
+     */
+    public static ChromeTraceStream getTraceStream() {
+        return stream;
+    }
+
+    /**
+     * Default sampling rate of the execution plans.
+     *
+     * @return The execution plans trace one in every N executions.
+     */
+    public static int getSamplingRate() {
+        return SAMPLING_RATE;
     }
 
     public static void enqueueWriteIfEnabled(String tag, long bytes, long startNs, long endNs) {
-        if (isEnabled()) {
-            json.x(tag, "write", startNs, endNs, () -> json.kv("bytes", bytes));
+        if (enabled) {
+            stream.complete(tag, "write", startNs, endNs, "bytes", bytes);
         }
     }
 
     public static void enqueueReadIfEnabled(String tag, long bytes, long startNs, long endNs) {
-        if (isEnabled()) {
-            json.x(tag, "read", startNs, endNs, () -> json.kv("bytes", bytes));
+        if (enabled) {
+            stream.complete(tag, "read", startNs, endNs, "bytes", bytes);
         }
     }
 
     public static void enqueueNDRangeKernelIfEnabled(String tag, long startNs, long endNs) {
-        if (isEnabled()) {
-            json.x(tag, "NDRangeKernel", startNs, endNs, null);
+        if (enabled) {
+            stream.complete(tag, "NDRangeKernel", startNs, endNs);
         }
     }
 
     public static void enqueueTaskIfEnabled(String tag, long startNs, long endNs) {
-        if (isEnabled()) {
-            json.x(tag, "exec", startNs, endNs, null);
+        if (enabled) {
+            stream.complete(tag, "exec", startNs, endNs);
+        }
+    }
+
+    public static void enqueueEventIfEnabled(String tag, String category, long startNs, long endNs) {
+        if (enabled) {
+            stream.complete(tag, category, startNs, endNs);
+        }
+    }
+
+    public static void enqueueEventIfEnabled(String tag, String category, long startNs, long endNs, String argKey, long argValue) {
+        if (enabled) {
+            stream.complete(tag, category, startNs, endNs, argKey, argValue);
         }
     }
 
     public static void trace(String tag, Runnable r) {
         long startNs = System.nanoTime();
         r.run();
-        if (isEnabled()) {
-            json.x(tag, "trace", startNs, System.nanoTime(), null);
+        if (enabled) {
+            stream.complete(tag, "trace", startNs, System.nanoTime());
         }
     }
 
     public static <T> T trace(String tag, Builder<T> b) {
         long startNs = System.nanoTime();
         T value = b.build();
-        if (isEnabled()) {
-            json.x(tag, "trace", startNs, System.nanoTime(), null);
+        if (enabled) {
+            stream.complete(tag, "trace", startNs, System.nanoTime());
         }
         return value;
     }
 
     public static void opencltimes(int localId, long queuedNs, long submitNs, long startNs, long endNs, Map<String, ?> meta) {
-        json.x("queued", null, queuedNs, endNs, meta == null ? null : () -> {
-            for (String k : meta.keySet()) {
-                json.kv(k, (String) meta.get(k));
+        if (enabled) {
+            if (meta == null) {
+                stream.complete("queued", null, queuedNs, endNs);
+            } else {
+                stream.complete("queued", null, queuedNs, endNs, meta);
             }
-        });
-        json.x("submit", null, submitNs, endNs, null);
-        json.x("start", null, startNs, endNs, null);
-        // order queue submit start end
+            stream.complete("submit", null, submitNs, endNs);
+            stream.complete("start", null, startNs, endNs);
+            // order queue submit start end
+        }
     }
 
     public interface Builder<T> {
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streaming sink for trace events in the Chrome Trace Event format. Events are
+ * stored in a bounded ring buffer and a background thread writes them to disk,
+ * so the memory used by the tracer does not grow with the length of the run.
+ *
+ * <p>
+ * Recording an event never blocks: if the ring buffer is full, the event is
+ * dropped and counted in {@link #getDroppedEvents()}.
+ * </p>
+ *
+ * <p>
+ * Files use the JSON Array Format, which the trace viewers can load even when
+ * the closing bracket is missing. Thus, the events written so far can be
+ * inspected if the JVM is killed. When the current file exceeds the maximum
+ * size, it is rotated: {@code chrome.json} is renamed to {@code chrome.1.json},
+ * {@code chrome.1.json} to {@code chrome.2.json}, and so on, and the oldest
+ * file is deleted.
+ * </p>
+ */
+public final class ChromeTraceStream implements AutoCloseable {
+
+    private static final long IDLE_PARK_NS = 10_000_000L;
+    private static final long EPOCH_NS = JSonWriter.EPOCH_US * 1000;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] names;
+    private final String[] categories;
+    private final String[] argKeys;
+    private final Map<?, ?>[] args;
+    private final long[] threadIds;
+    private final long[] startTimes;
+    private final long[] endTimes;
+    private final long[] argValues;
+
+    /**
+     * Next slot to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next slot to be written. Only accessed by the drainer thread.
+     */
+    private long head;
+
+    /**
+     * Number of events written and flushed to the current file.
+     */
+    private volatile long flushedEvents;
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private final Path file;
+    private final long maxFileSizeBytes;
+    private final int maxFiles;
+    private final StringBuilder line = new StringBuilder();
+    private Writer writer;
+    private long fileSizeBytes;
+    private boolean firstEventInFile;
+    private int numRotations;
+    private boolean failed;
+
+    private volatile boolean closed;
+    private final Thread drainer;
+
+    /**
+     * Creates a stream and starts its drainer thread.
+     *
+     * @param file
+     *     Path of the trace file.
+     * @param bufferSize
+     *     Number of events of the ring buffer. It is rounded up to the next
+     *     power of two.
+     * @param maxFileSizeBytes
+     *     Size after which the trace file is rotated.
+     * @param maxFiles
+     *     Number of trace files that are kept, including the current one.
+     */
+    public ChromeTraceStream(Path file, int bufferSize, long maxFileSizeBytes, int maxFiles) {
+        if (bufferSize <= 0 || maxFileSizeBytes <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("Invalid configuration of the trace stream: bufferSize=" + bufferSize + ", maxFileSize=" + maxFileSizeBytes + ", maxFiles=" + maxFiles);
+        }
+        final int capacity = Integer.highestOneBit(Math.min(bufferSize, 1 << 30) * 2 - 1);
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.names = new String[capacity];
+        this.categories = new String[capacity];
+        this.argKeys = new String[capacity];
+        this.args = new Map<?, ?>[capacity];
+        this.threadIds = new long[capacity];
+        this.startTimes = new long[capacity];
+        this.endTimes = new long[capacity];
+        this.argValues = new long[capacity];
+
+        this.file = file;
+        this.maxFileSizeBytes = maxFileSizeBytes;
+        this.maxFiles = maxFiles;
+        try {
+            openFile();
+        } catch (IOException e) {
+            fail(e);
+        }
+
+        drainer = new Thread(this::drain, "tornado-chrome-trace");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public boolean complete(String name, String category, long startNs, long endNs) {
+        return enqueue(name, category, startNs, endNs, null, 0, null);
+    }
+
+    public boolean complete(String name, String category, long startNs, long endNs, String argKey, long argValue) {
+        return enqueue(name, category, startNs, endNs, argKey, argValue, null);
+    }
+
+    public boolean complete(String name, String category, long startNs, long endNs, Map<String, ?> arguments) {
+        return enqueue(name, category, startNs, endNs, null, 0, arguments);
+    }
+
+    private boolean enqueue(String name, String category, long startNs, long endNs, String argKey, long argValue, Map<?, ?> arguments) {
+        if (closed) {
+            droppedEvents.increment();
+            return false;
+        }
+        long position = tail.get();
+        int index;
+        for (;;) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot has not been written yet: the buffer is full
+                droppedEvents.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        names[index] = name;
+        categories[index] = category;
+        argKeys[index] = argKey;
+        args[index] = arguments;
+        threadIds[index] = Thread.currentThread().threadId();
+        startTimes[index] = startNs;
+        endTimes[index] = endNs;
+        argValues[index] = argValue;
+        // Publish the slot to the drainer
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    private void drain() {
+        for (;;) {
+            final boolean finish = closed;
+            if (drainAvailable() == 0) {
+                flushFile();
+                if (finish) {
+                    closeFile();
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NS);
+            }
+        }
+    }
+
+    private int drainAvailable() {
+        int count = 0;
+        for (;;) {
+            final int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                return count;
+            }
+            writeEvent(index);
+            names[index] = null;
+            categories[index] = null;
+            argKeys[index] = null;
+            args[index] = null;
+            // Release the slot for the producers
+            sequences.set(index, head + mask + 1);
+            head++;
+            count++;
+        }
+    }
+
+    private void writeEvent(int index) {
+        if (failed) {
+            return;
+        }
+        line.setLength(0);
+        line.append("{\"ph\":\"X\",\"name\":");
+        appendString(names[index]);
+        if (categories[index] != null) {
+            line.append(",\"cat\":");
+            appendString(categories[index]);
+        }
+        line.append(",\"pid\":0,\"tid\":").append(threadIds[index]);
+        line.append(",\"ts\":");
+        appendMicroseconds(startTimes[index] - EPOCH_NS);
+        line.append(",\"dur\":");
+        appendMicroseconds(Math.max(0, endTimes[index] - startTimes[index]));
+        if (argKeys[index] != null) {
+            line.append(",\"args\":{");
+            appendString(argKeys[index]);
+            line.append(':').append(argValues[index]).append('}');
+        } else if (args[index] != null) {
+            line.append(",\"args\":{");
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : args[index].entrySet()) {
+                if (!first) {
+                    line.append(',');
+                }
+                appendString(String.valueOf(entry.getKey()));
+                line.append(':');
+                appendString(String.valueOf(entry.getValue()));
+                first = false;
+            }
+            line.append('}');
+        }
+        line.append('}');
+
+        try {
+            if (!firstEventInFile && fileSizeBytes + line.length() > maxFileSizeBytes) {
+                rotate();
+            }
+            writeLine();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeLine() throws IOException {
+        writer.append(firstEventInFile ? "\n" : ",\n");
+        writer.append(line);
+        fileSizeBytes += line.length() + 2;
+        firstEventInFile = false;
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void appendMicroseconds(long valueNs) {
+        if (valueNs < 0) {
+            line.append('-');
+            valueNs = -valueNs;
+        }
+        final long fraction = valueNs % 1000;
+        line.append(valueNs / 1000).append('.');
+        if (fraction < 100) {
+            line.append(fraction < 10 ? "00" : "0");
+        }
+        line.append(fraction);
+    }
+
+    private void openFile() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.append("[");
+        fileSizeBytes = 1;
+        firstEventInFile = true;
+
+        // Metadata event with the name of the process
+        line.setLength(0);
+        line.append("{\"ph\":\"M\",\"name\":\"process_name\",\"pid\":0,\"args\":{\"name\":\"TornadoVM\"}}");
+        writeLine();
+    }
+
+    private void closeFile() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.append("\n]\n");
+            writer.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        writer = null;
+    }
+
+    private void flushFile() {
+        if (writer != null && !failed) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        flushedEvents = head;
+    }
+
+    private Path getRotatedFile(int index) {
+        final String fileName = file.getFileName().toString();
+        final int dot = fileName.lastIndexOf('.');
+        final String rotatedName = (dot > 0) ? fileName.substring(0, dot) + "." + index + fileName.substring(dot) : fileName + "." + index;
+        return file.resolveSibling(rotatedName);
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        if (maxFiles > 1) {
+            Files.deleteIfExists(getRotatedFile(maxFiles - 1));
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                Path rotated = getRotatedFile(i);
+                if (Files.exists(rotated)) {
+                    Files.move(rotated, getRotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, getRotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        numRotations++;
+        openFile();
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.err.println("[TornadoVM] Error writing the trace file " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until all the events recorded before this call are written to the
+     * trace file.
+     */
+    public void flush() {
+        final long target = tail.get();
+        while (flushedEvents < target && drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(this, IDLE_PARK_NS / 10);
+        }
+    }
+
+    /**
+     * Writes the pending events, closes the trace file and stops the drainer
+     * thread. Events recorded after this call are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return Number of events that were recorded in the ring buffer.
+     */
+    public long getRecordedEvents() {
+        return tail.get();
+    }
+
+    /**
+     * @return Number of events that were dropped because the ring buffer was
+     *     full or the stream was closed.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * @return Number of times the trace file was rotated. Only valid after
+     *     {@link #flush()} or {@link #close()}.
+     */
+    public int getNumRotations() {
+        return numRotations;
+    }
+}
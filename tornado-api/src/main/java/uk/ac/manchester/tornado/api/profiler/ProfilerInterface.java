@@ -45,6 +45,8 @@ public interface ProfilerInterface {
 
     long getTotalBytesCopyOut();
 
+    long getTotalBytesCopyInSkipped();
+
     long getTotalBytesTransferred();
 
     long getTotalDeviceMemoryUsage();
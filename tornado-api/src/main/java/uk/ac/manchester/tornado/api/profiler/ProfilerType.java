@@ -36,6 +36,7 @@ public enum ProfilerType {
     ALLOCATION_BYTES("Allocation-(Bytes)"),
     TOTAL_COPY_IN_SIZE_BYTES("CopyIn-Size-(Bytes)"),
     TOTAL_COPY_OUT_SIZE_BYTES("CopyOut-Size-(Bytes)"),
+    TOTAL_COPY_IN_SKIPPED_SIZE_BYTES("CopyIn-Skipped-Size-(Bytes)"),
     TASK_COMPILE_DRIVER_TIME("Task-Compile-Driver"),
     TASK_COMPILE_GRAAL_TIME("Task-Compile-Graal"),
 
@@ -48,6 +49,9 @@ public enum ProfilerType {
     TOTAL_CODE_GENERATION_TIME("Total-Task-Code-Generation-Time"),
     TOTAL_KERNEL_TIME("Kernel-Time"),
     TOTAL_TASK_GRAPH_TIME("TS-Total-Time"),
+    SKETCH_CACHE_HITS("Sketch-Cache-Hits"),
+    SKETCH_CACHE_MISSES("Sketch-Cache-Misses"),
+    SKETCH_CACHE_EVICTIONS("Sketch-Cache-Evictions"),
     POWER_USAGE_mW("Task-Power-Usage-(mW)"),
     SYSTEM_POWER_CONSUMPTION_W("System-Power-Consumption-(W)"),
     SYSTEM_VOLTAGE_V("System-Voltage-(V)"),
@@ -63,4 +63,16 @@ public interface TornadoProfiler {
 
     void sum(ProfilerType type, long timer);
 
+    /**
+     * Returns the distribution of the latencies recorded for a profiler type since
+     * the profiler was created. Histograms are kept for
+     * {@link ProfilerType#TASK_KERNEL_TIME}, {@link ProfilerType#COPY_IN_TIME} and
+     * {@link ProfilerType#COPY_OUT_TIME}.
+     *
+     * @param type
+     *     {@link ProfilerType}
+     * @return {@link LatencyHistogram}, or null if the type is not tracked.
+     */
+    LatencyHistogram getLatencyHistogram(ProfilerType type);
+
 }
@@ -20,7 +20,9 @@ package uk.ac.manchester.tornado.api.runtime;
 import uk.ac.manchester.tornado.api.DRMode;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
 
 /**
  * Class to store all objects and parameters related to the dispatch of an execution plan.
@@ -32,6 +34,17 @@ public class ExecutorFrame {
     private Policy dynamicReconfigurationPolicy;
     private GridScheduler gridScheduler;
     private ProfilerMode profilerMode;
+    private TornadoDevice[] dataParallelDevices;
+    private boolean tieredExecution;
+
+    /**
+     * Trace one in every N executions. A negative value uses the default sampling
+     * rate while the {@link ChromeEventTracer} is enabled, and zero disables the
+     * trace of the execution plan.
+     */
+    private int chromeTraceSamplingRate = -1;
+    private long chromeTraceCounter;
+    private boolean traceExecution;
 
     public ExecutorFrame(long id) {
         this.executionPlanId = id;
@@ -79,4 +92,48 @@ public class ExecutorFrame {
     public ProfilerMode getProfilerMode() {
         return profilerMode;
     }
+
+    public ExecutorFrame setDataParallelDevices(TornadoDevice... devices) {
+        this.dataParallelDevices = devices;
+        return this;
+    }
+
+    public TornadoDevice[] getDataParallelDevices() {
+        return dataParallelDevices;
+    }
+
+    public ExecutorFrame setTieredExecution(boolean tieredExecution) {
+        this.tieredExecution = tieredExecution;
+        return this;
+    }
+
+    public boolean isTieredExecution() {
+        return tieredExecution;
+    }
+
+    public ExecutorFrame setChromeTraceSamplingRate(int samplingRate) {
+        this.chromeTraceSamplingRate = samplingRate;
+        this.chromeTraceCounter = 0;
+        return this;
+    }
+
+    public int getChromeTraceSamplingRate() {
+        return chromeTraceSamplingRate;
+    }
+
+    /**
+     * It decides whether the next execution of the execution plan is traced.
+     */
+    public void sampleChromeTrace() {
+        final int samplingRate = chromeTraceSamplingRate < 0 ? ChromeEventTracer.getSamplingRate() : chromeTraceSamplingRate;
+        traceExecution = samplingRate > 0 && ChromeEventTracer.isEnabled() && (chromeTraceCounter++ % samplingRate) == 0;
+    }
+
+    /**
+     * @return {@code true} if the current execution records events in the
+     *     {@link ChromeEventTracer}.
+     */
+    public boolean isTraceExecution() {
+        return traceExecution;
+    }
 }
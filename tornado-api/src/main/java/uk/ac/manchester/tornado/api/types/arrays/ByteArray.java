@@ -20,9 +20,12 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_BYTE;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -45,6 +48,8 @@ public final class ByteArray extends TornadoNativeArray {
 
     private long segmentByteSize;
 
+    private boolean isView;
+
     /**
      * Constructs a new instance of the {@link ByteArray} that will store a user-specified number of elements.
      *
@@ -55,12 +60,32 @@ public final class ByteArray extends TornadoNativeArray {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / BYTE_BYTES;
-        segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * BYTE_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
+    /**
+     * Internal constructor used to wrap a {@link MemorySegment} that already stores the header, such as a view that shares the memory of
+     * another {@link ByteArray} or a mapped file.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the view. It starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     * @param isView
+     *     Whether the segment belongs to another {@link ByteArray}.
+     */
+    private ByteArray(MemorySegment segment, int numberOfElements, boolean isView) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / BYTE_BYTES;
+        segmentByteSize = segment.byteSize();
+        this.segment = segment;
+        this.isView = isView;
+    }
+
     /**
      * Constructs a new {@link ByteArray} instance by concatenating the contents of the given array of {@link ByteArray} instances.
      *
@@ -124,6 +149,44 @@ public final class ByteArray extends TornadoNativeArray {
         return byteArray;
     }
 
+    /**
+     * Creates a new instance of the {@link ByteArray} class that maps a file. The elements start after {@link TornadoNativeArray#ARRAY_HEADER}
+     * bytes, as in the files written through {@link #fromFile(Path, FileChannel.MapMode, long, int)}. The data is not copied: the
+     * operating system loads the pages of the file when they are accessed, so the file can be larger than the physical memory.
+     *
+     * @param path
+     *     The path of the file.
+     * @param mode
+     *     The {@link FileChannel.MapMode}. Writes are stored in the file in {@link FileChannel.MapMode#READ_WRITE} mode.
+     * @return A new {@link ByteArray} instance backed by the file.
+     * @throws IOException
+     *     If the file cannot be mapped.
+     */
+    public static ByteArray fromFile(Path path, FileChannel.MapMode mode) throws IOException {
+        return fromFile(path, mode, TornadoNativeArray.ARRAY_HEADER, numberOfElementsInFile(path, BYTE_BYTES));
+    }
+
+    /**
+     * Creates a new instance of the {@link ByteArray} class that maps a region of a file. The {@link TornadoNativeArray#ARRAY_HEADER} bytes
+     * before the first element are used as the header of the array. In {@link FileChannel.MapMode#READ_WRITE} mode, the file is created
+     * or extended if needed.
+     *
+     * @param path
+     *     The path of the file.
+     * @param mode
+     *     The {@link FileChannel.MapMode}.
+     * @param dataOffset
+     *     The offset, in bytes, of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements to map.
+     * @return A new {@link ByteArray} instance backed by the file.
+     * @throws IOException
+     *     If the file cannot be mapped.
+     */
+    public static ByteArray fromFile(Path path, FileChannel.MapMode mode, long dataOffset, int numberOfElements) throws IOException {
+        return new ByteArray(mapFile(path, mode, dataOffset, numberOfElements, BYTE_BYTES), numberOfElements, false);
+    }
+
     /**
      * Creates a new instance of the {@link ByteArray} class from a {@link ByteBuffer}.
      *
@@ -162,6 +225,9 @@ public final class ByteArray extends TornadoNativeArray {
      */
     public void set(int index, byte value) {
         segment.setAtIndex(JAVA_BYTE, baseIndex + index, value);
+        if (DIRTY_TRACKING) {
+            markDirty();
+        }
     }
 
     /**
@@ -198,6 +264,9 @@ public final class ByteArray extends TornadoNativeArray {
         for (int i = 0; i < getSize(); i++) {
             segment.setAtIndex(JAVA_BYTE, baseIndex + i, value);
         }
+        if (DIRTY_TRACKING) {
+            markDirty();
+        }
     }
 
     /**
@@ -306,4 +375,38 @@ public final class ByteArray extends TornadoNativeArray {
         ByteArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of the {@link ByteArray}. Unlike {@link #slice(int, int)}, the data is not copied:
+     * the view shares the memory of this array, so updates through the view are visible in this array and vice versa.
+     * When the view is used in a task-graph, only its elements are transferred to and from the device.
+     *
+     * <p>
+     * A view and the array it comes from, or two overlapping views, should not be used as outputs of the same task-graph.
+     * </p>
+     *
+     * @param offset
+     *     The starting index of the view, inclusive.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link ByteArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public ByteArray view(int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > getSize()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        // The elements of the view start at baseIndex, as in any other array
+        MemorySegment viewSegment = segment.asSlice((long) offset * BYTE_BYTES, TornadoNativeArray.ARRAY_HEADER + (long) length * BYTE_BYTES);
+        ByteArray view = new ByteArray(viewSegment, length, true);
+        view.shareWriteVersion(this);
+        return view;
+    }
+
+    @Override
+    public boolean isView() {
+        return isView;
+    }
 }
@@ -20,8 +20,11 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -48,6 +51,8 @@ public final class HalfFloatArray extends TornadoNativeArray {
 
     private long segmentByteSize;
 
+    private boolean isView;
+
     /**
      * Constructs a new instance of the {@link HalfFloatArray} that will store a user-specified number of elements.
      *
@@ -58,12 +63,32 @@ public final class HalfFloatArray extends TornadoNativeArray {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
-        segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
+    /**
+     * Internal constructor used to wrap a {@link MemorySegment} that already stores the header, such as a view that shares the memory of
+     * another {@link HalfFloatArray} or a mapped file.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the view. It starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     * @param isView
+     *     Whether the segment belongs to another {@link HalfFloatArray}.
+     */
+    private HalfFloatArray(MemorySegment segment, int numberOfElements, boolean isView) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
+        segmentByteSize = segment.byteSize();
+        this.segment = segment;
+        this.isView = isView;
+    }
+
     /**
      * Constructs a new {@link HalfFloatArray} instance by concatenating the contents of the given array of {@link HalfFloatArray} instances.
      *
@@ -127,6 +152,44 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return halfFloatArray;
     }
 
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class that maps a file. The elements start after {@link TornadoNativeArray#ARRAY_HEADER}
+     * bytes, as in the files written through {@link #fromFile(Path, FileChannel.MapMode, long, int)}. The data is not copied: the
+     * operating system loads the pages of the file when they are accessed, so the file can be larger than the physical memory.
+     *
+     * @param path
+     *     The path of the file.
+     * @param mode
+     *     The {@link FileChannel.MapMode}. Writes are stored in the file in {@link FileChannel.MapMode#READ_WRITE} mode.
+     * @return A new {@link HalfFloatArray} instance backed by the file.
+     * @throws IOException
+     *     If the file cannot be mapped.
+     */
+    public static HalfFloatArray fromFile(Path path, FileChannel.MapMode mode) throws IOException {
+        return fromFile(path, mode, TornadoNativeArray.ARRAY_HEADER, numberOfElementsInFile(path, HALF_FLOAT_BYTES));
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class that maps a region of a file. The {@link TornadoNativeArray#ARRAY_HEADER} bytes
+     * before the first element are used as the header of the array. In {@link FileChannel.MapMode#READ_WRITE} mode, the file is created
+     * or extended if needed.
+     *
+     * @param path
+     *     The path of the file.
+     * @param mode
+     *     The {@link FileChannel.MapMode}.
+     * @param dataOffset
+     *     The offset, in bytes, of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements to map.
+     * @return A new {@link HalfFloatArray} instance backed by the file.
+     * @throws IOException
+     *     If the file cannot be mapped.
+     */
+    public static HalfFloatArray fromFile(Path path, FileChannel.MapMode mode, long dataOffset, int numberOfElements) throws IOException {
+        return new HalfFloatArray(mapFile(path, mode, dataOffset, numberOfElements, HALF_FLOAT_BYTES), numberOfElements, false);
+    }
+
     /**
      * Converts the {@link HalfFloat} data from off-heap to on-heap, by copying the values of a {@link HalfFloatArray}
      * instance into a new on-heap {@link HalfFloat}.
@@ -166,6 +229,9 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public void set(int index, HalfFloat value) {
         segment.setAtIndex(JAVA_SHORT, baseIndex + index, value.getHalfFloatValue());
+        if (DIRTY_TRACKING) {
+            markDirty();
+        }
     }
 
     /**
@@ -203,6 +269,9 @@ public final class HalfFloatArray extends TornadoNativeArray {
         for (int i = 0; i < getSize(); i++) {
             segment.setAtIndex(JAVA_SHORT, baseIndex + i, value.getHalfFloatValue());
         }
+        if (DIRTY_TRACKING) {
+            markDirty();
+        }
     }
 
     /**
@@ -313,4 +382,37 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return slice;
     }
 
+    /**
+     * Creates a view of a range of elements of the {@link HalfFloatArray}. Unlike {@link #slice(int, int)}, the data is not copied:
+     * the view shares the memory of this array, so updates through the view are visible in this array and vice versa.
+     * When the view is used in a task-graph, only its elements are transferred to and from the device.
+     *
+     * <p>
+     * A view and the array it comes from, or two overlapping views, should not be used as outputs of the same task-graph.
+     * </p>
+     *
+     * @param offset
+     *     The starting index of the view, inclusive.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link HalfFloatArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public HalfFloatArray view(int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > getSize()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        // The elements of the view start at baseIndex, as in any other array
+        MemorySegment viewSegment = segment.asSlice((long) offset * HALF_FLOAT_BYTES, TornadoNativeArray.ARRAY_HEADER + (long) length * HALF_FLOAT_BYTES);
+        HalfFloatArray view = new HalfFloatArray(viewSegment, length, true);
+        view.shareWriteVersion(this);
+        return view;
+    }
+
+    @Override
+    public boolean isView() {
+        return isView;
+    }
 }
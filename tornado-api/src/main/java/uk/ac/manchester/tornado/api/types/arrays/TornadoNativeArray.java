@@ -17,7 +17,13 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
 
@@ -48,6 +54,25 @@ public abstract sealed class TornadoNativeArray //
      */
     public static final long ARRAY_HEADER = Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
+    /**
+     * Whether the writes from the host to the native arrays are tracked. When enabled, the arrays that are transferred to
+     * the device in every execution are only copied if they were modified since the last copy. It can be enabled through
+     * the "tornado.dirty.tracking" system property.
+     */
+    public static final boolean DIRTY_TRACKING = Boolean.parseBoolean(System.getProperty("tornado.dirty.tracking", "false"));
+
+    /**
+     * Value of {@link #getWriteVersion()} for the arrays whose writes are not tracked.
+     */
+    public static final long UNTRACKED_WRITE_VERSION = -1;
+
+    /**
+     * Array that holds the write version. Views share the write version of the array they come from.
+     */
+    private TornadoNativeArray writeVersionHolder = this;
+
+    private long writeVersion;
+
     /**
      * Returns the number of elements stored in the native array.
      *
@@ -90,6 +115,42 @@ public abstract sealed class TornadoNativeArray //
 
     public abstract int getElementSize();
 
+    /**
+     * Returns whether the native array is a view that shares the memory of another native array. The header bytes of a
+     * view belong to the array it comes from, so they must not be written back from the device.
+     *
+     * @return true if the native array is a view.
+     */
+    public boolean isView() {
+        return false;
+    }
+
+    /**
+     * Marks the native array as modified by the host. The element setters and the initialization methods call this method
+     * when {@link #DIRTY_TRACKING} is enabled. It must be called explicitly after writing to the underlying
+     * {@link MemorySegment} directly (e.g., via {@link #getSegment()}).
+     */
+    public final void markDirty() {
+        writeVersionHolder.writeVersion++;
+    }
+
+    /**
+     * Returns a counter that changes every time the native array, or any view that shares its memory, is modified by the
+     * host.
+     *
+     * @return The write version, or {@link #UNTRACKED_WRITE_VERSION} if the writes are not tracked.
+     */
+    public long getWriteVersion() {
+        return DIRTY_TRACKING ? writeVersionHolder.writeVersion : UNTRACKED_WRITE_VERSION;
+    }
+
+    /**
+     * Shares the write version with another native array (e.g., the array a view comes from).
+     */
+    void shareWriteVersion(TornadoNativeArray array) {
+        writeVersionHolder = array.writeVersionHolder;
+    }
+
     /**
      * Checks that the byte size is a multiple of the element size.
      */
@@ -99,4 +160,97 @@ public abstract sealed class TornadoNativeArray //
         }
     }
 
+    /**
+     * Returns the number of elements stored in a file in which the elements start after {@link #ARRAY_HEADER} bytes.
+     */
+    static int numberOfElementsInFile(Path path, int elementSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long dataBytes = channel.size() - ARRAY_HEADER;
+            if (dataBytes < 0) {
+                throw new IOException(format("The file %s is smaller than the array header (%d bytes)", path, ARRAY_HEADER));
+            }
+            ensureMultipleOfElementSize(dataBytes, elementSize);
+            long numberOfElements = dataBytes / elementSize;
+            if (numberOfElements > Integer.MAX_VALUE) {
+                throw new IOException(format("The file %s stores more than %d elements", path, Integer.MAX_VALUE));
+            }
+            return (int) numberOfElements;
+        }
+    }
+
+    /**
+     * Maps the region of a file that stores a native array. The mapping starts {@link #ARRAY_HEADER} bytes before the
+     * first element, so the bytes before the data are used as the header of the array. The header stores the number of
+     * elements, as expected by the kernels.
+     *
+     * <p>
+     * In {@link FileChannel.MapMode#READ_ONLY} mode, if the header in the file does not store the number of elements,
+     * the file is mapped in {@link FileChannel.MapMode#PRIVATE} mode to write the header, and the segment is returned as
+     * read-only. In {@link FileChannel.MapMode#READ_WRITE} mode, the file is created or extended if it is too small.
+     * </p>
+     *
+     * @param path
+     *     The path of the file.
+     * @param mode
+     *     The {@link FileChannel.MapMode}.
+     * @param dataOffset
+     *     The offset, in bytes, of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements to map.
+     * @param elementSize
+     *     The size of each element in bytes.
+     * @return The mapped {@link MemorySegment}. It is unmapped when it is no longer reachable.
+     * @throws IOException
+     *     If the file cannot be opened or mapped.
+     */
+    static MemorySegment mapFile(Path path, FileChannel.MapMode mode, long dataOffset, int numberOfElements, int elementSize) throws IOException {
+        if (numberOfElements < 0) {
+            throw new IllegalArgumentException(format("Invalid number of elements: %d", numberOfElements));
+        }
+        if (dataOffset < ARRAY_HEADER) {
+            throw new IllegalArgumentException(format("The data offset (%d) must leave room for the array header (%d bytes)", dataOffset, ARRAY_HEADER));
+        }
+        if (dataOffset % Math.max(elementSize, Integer.BYTES) != 0) {
+            throw new IllegalArgumentException(format("The data offset (%d) is not aligned to the element size (%d)", dataOffset, elementSize));
+        }
+        final long mappingOffset = dataOffset - ARRAY_HEADER;
+        final long mappingSize = ARRAY_HEADER + (long) numberOfElements * elementSize;
+
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                MemorySegment segment = channel.map(mode, mappingOffset, mappingSize, Arena.ofAuto());
+                segment.set(ValueLayout.JAVA_INT, 0, numberOfElements);
+                return segment;
+            }
+        } else if (mode == FileChannel.MapMode.READ_ONLY) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ensureFileSize(path, channel, mappingOffset + mappingSize);
+                MemorySegment segment = channel.map(mode, mappingOffset, mappingSize, Arena.ofAuto());
+                if (segment.get(ValueLayout.JAVA_INT, 0) == numberOfElements) {
+                    return segment;
+                }
+            }
+            // The header is written in a private copy of the first page of the mapping
+            return mapPrivate(path, mappingOffset, mappingSize, numberOfElements).asReadOnly();
+        } else if (mode == FileChannel.MapMode.PRIVATE) {
+            return mapPrivate(path, mappingOffset, mappingSize, numberOfElements);
+        }
+        throw new IllegalArgumentException(format("Unsupported map mode: %s", mode));
+    }
+
+    private static MemorySegment mapPrivate(Path path, long mappingOffset, long mappingSize, int numberOfElements) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ensureFileSize(path, channel, mappingOffset + mappingSize);
+            MemorySegment segment = channel.map(FileChannel.MapMode.PRIVATE, mappingOffset, mappingSize, Arena.ofAuto());
+            segment.set(ValueLayout.JAVA_INT, 0, numberOfElements);
+            return segment;
+        }
+    }
+
+    private static void ensureFileSize(Path path, FileChannel channel, long requiredSize) throws IOException {
+        if (channel.size() < requiredSize) {
+            throw new IOException(format("The file %s (%d bytes) is smaller than the mapped region (%d bytes)", path, channel.size(), requiredSize));
+        }
+    }
+
 }
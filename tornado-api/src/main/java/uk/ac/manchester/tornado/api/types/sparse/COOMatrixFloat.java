@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import static java.lang.String.format;
+
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Sparse matrix of floats in the coordinate (COO) format. Each element is
+ * stored with its row and its column, in any order.
+ */
+public final class COOMatrixFloat extends SparseMatrixType {
+
+    /**
+     * Row of each element.
+     */
+    private final IntArray rowIndices;
+
+    /**
+     * Column of each element.
+     */
+    private final IntArray columnIndices;
+
+    /**
+     * Value of each element.
+     */
+    private final FloatArray values;
+
+    /**
+     * Creates a COO matrix from its arrays. The arrays are not copied.
+     *
+     * @param numRows
+     *     number of rows
+     * @param numColumns
+     *     number of columns
+     * @param rowIndices
+     *     row of each element
+     * @param columnIndices
+     *     column of each element
+     * @param values
+     *     value of each element
+     */
+    public COOMatrixFloat(int numRows, int numColumns, IntArray rowIndices, IntArray columnIndices, FloatArray values) {
+        super(numRows, numColumns, values.getSize());
+        checkSize("rowIndices", rowIndices.getSize(), values.getSize());
+        checkSize("columnIndices", columnIndices.getSize(), values.getSize());
+        this.rowIndices = rowIndices;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Creates a COO matrix with space for the given number of elements.
+     *
+     * @param numRows
+     *     number of rows
+     * @param numColumns
+     *     number of columns
+     * @param numNonZeros
+     *     number of elements
+     */
+    public COOMatrixFloat(int numRows, int numColumns, int numNonZeros) {
+        this(numRows, numColumns, new IntArray(numNonZeros), new IntArray(numNonZeros), new FloatArray(numNonZeros));
+    }
+
+    public IntArray getRowIndices() {
+        return rowIndices;
+    }
+
+    public IntArray getColumnIndices() {
+        return columnIndices;
+    }
+
+    public FloatArray getValues() {
+        return values;
+    }
+
+    /**
+     * Computes {@code y = A * x} on the host.
+     *
+     * @param x
+     *     input vector ({@code numColumns} elements)
+     * @param y
+     *     output vector ({@code numRows} elements)
+     */
+    public void multiply(FloatArray x, FloatArray y) {
+        y.init(0.0f);
+        for (int i = 0; i < NON_ZEROS; i++) {
+            int row = rowIndices.get(i);
+            y.set(row, y.get(row) + values.get(i) * x.get(columnIndices.get(i)));
+        }
+    }
+
+    /**
+     * Converts the matrix to the CSR format. The elements are sorted by row with
+     * a counting sort, and then each row is sorted by column.
+     *
+     * @return {@link CSRMatrixFloat}
+     */
+    public CSRMatrixFloat toCSR() {
+        IntArray rowPointers = new IntArray(ROWS + 1);
+        rowPointers.clear();
+        for (int i = 0; i < NON_ZEROS; i++) {
+            int row = rowIndices.get(i);
+            rowPointers.set(row + 1, rowPointers.get(row + 1) + 1);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            rowPointers.set(i + 1, rowPointers.get(i + 1) + rowPointers.get(i));
+        }
+
+        IntArray next = new IntArray(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            next.set(i, rowPointers.get(i));
+        }
+        IntArray csrColumns = new IntArray(NON_ZEROS);
+        FloatArray csrValues = new FloatArray(NON_ZEROS);
+        for (int i = 0; i < NON_ZEROS; i++) {
+            int row = rowIndices.get(i);
+            int position = next.get(row);
+            next.set(row, position + 1);
+            csrColumns.set(position, columnIndices.get(i));
+            csrValues.set(position, values.get(i));
+        }
+
+        CSRMatrixFloat matrix = new CSRMatrixFloat(ROWS, COLUMNS, rowPointers, csrColumns, csrValues);
+        matrix.sortRows();
+        return matrix;
+    }
+
+    @Override
+    public long getNumBytes() {
+        return rowIndices.getNumBytesOfSegment() + columnIndices.getNumBytesOfSegment() + values.getNumBytesOfSegment();
+    }
+
+    @Override
+    public String toString() {
+        return format("COOMatrixFloat <%d x %d, %d non-zeros>", ROWS, COLUMNS, NON_ZEROS);
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import static java.lang.String.format;
+
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Sparse matrix of doubles in the Compressed Sparse Row (CSR) format. The
+ * elements of row {@code i} are stored in the positions
+ * {@code [rowPointers[i], rowPointers[i + 1])} of {@code columnIndices} and
+ * {@code values}, sorted by column.
+ *
+ * <p>
+ * Example of a task that multiplies the matrix by a vector:
+ * </p>
+ *
+ * <pre>{@code
+ * for (@Parallel int i = 0; i < matrix.getNumRows(); i++) {
+ *     double sum = 0;
+ *     for (int j = matrix.getRowPointers().get(i); j < matrix.getRowPointers().get(i + 1); j++) {
+ *         sum += matrix.getValues().get(j) * x.get(matrix.getColumnIndices().get(j));
+ *     }
+ *     y.set(i, sum);
+ * }
+ * }</pre>
+ */
+public final class CSRMatrixDouble extends SparseMatrixType {
+
+    /**
+     * Index of the first element of each row, plus the number of elements.
+     */
+    private final IntArray rowPointers;
+
+    /**
+     * Column of each element.
+     */
+    private final IntArray columnIndices;
+
+    /**
+     * Value of each element.
+     */
+    private final DoubleArray values;
+
+    /**
+     * Creates a CSR matrix from its arrays. The arrays are not copied.
+     *
+     * @param numRows
+     *     number of rows
+     * @param numColumns
+     *     number of columns
+     * @param rowPointers
+     *     index of the first element of each row ({@code numRows + 1} elements)
+     * @param columnIndices
+     *     column of each element
+     * @param values
+     *     value of each element
+     */
+    public CSRMatrixDouble(int numRows, int numColumns, IntArray rowPointers, IntArray columnIndices, DoubleArray values) {
+        super(numRows, numColumns, values.getSize());
+        checkSize("rowPointers", rowPointers.getSize(), numRows + 1);
+        checkSize("columnIndices", columnIndices.getSize(), values.getSize());
+        checkSize("rowPointers[numRows]", rowPointers.get(numRows), values.getSize());
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Creates a CSR matrix with the non-zero elements of a dense matrix.
+     *
+     * @param matrix
+     *     dense matrix
+     */
+    public CSRMatrixDouble(double[][] matrix) {
+        this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length, countNonZeros(matrix));
+        int index = 0;
+        for (int i = 0; i < matrix.length; i++) {
+            rowPointers.set(i, index);
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] != 0) {
+                    columnIndices.set(index, j);
+                    values.set(index, matrix[i][j]);
+                    index++;
+                }
+            }
+        }
+        rowPointers.set(ROWS, index);
+    }
+
+    private CSRMatrixDouble(int numRows, int numColumns, int numNonZeros) {
+        super(numRows, numColumns, numNonZeros);
+        this.rowPointers = new IntArray(numRows + 1);
+        this.columnIndices = new IntArray(numNonZeros);
+        this.values = new DoubleArray(numNonZeros);
+    }
+
+    private static int countNonZeros(double[][] matrix) {
+        int count = 0;
+        for (double[] row : matrix) {
+            for (double value : row) {
+                if (value != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public IntArray getRowPointers() {
+        return rowPointers;
+    }
+
+    public IntArray getColumnIndices() {
+        return columnIndices;
+    }
+
+    public DoubleArray getValues() {
+        return values;
+    }
+
+    /**
+     * It returns the element in the given row and column, or zero if it is not
+     * stored. The columns of the row must be sorted.
+     */
+    public double get(int row, int column) {
+        int low = rowPointers.get(row);
+        int high = rowPointers.get(row + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int current = columnIndices.get(middle);
+            if (current < column) {
+                low = middle + 1;
+            } else if (current > column) {
+                high = middle - 1;
+            } else {
+                return values.get(middle);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts the elements of each row by column.
+     */
+    public void sortRows() {
+        for (int i = 0; i < ROWS; i++) {
+            SparseRows.sortByColumn(columnIndices, values, rowPointers.get(i), rowPointers.get(i + 1));
+        }
+    }
+
+    /**
+     * Computes {@code y = A * x} on the host.
+     *
+     * @param x
+     *     input vector ({@code numColumns} elements)
+     * @param y
+     *     output vector ({@code numRows} elements)
+     */
+    public void multiply(DoubleArray x, DoubleArray y) {
+        for (int i = 0; i < ROWS; i++) {
+            double sum = 0;
+            for (int j = rowPointers.get(i); j < rowPointers.get(i + 1); j++) {
+                sum += values.get(j) * x.get(columnIndices.get(j));
+            }
+            y.set(i, sum);
+        }
+    }
+
+    @Override
+    public long getNumBytes() {
+        return rowPointers.getNumBytesOfSegment() + columnIndices.getNumBytesOfSegment() + values.getNumBytesOfSegment();
+    }
+
+    @Override
+    public String toString() {
+        return format("CSRMatrixDouble <%d x %d, %d non-zeros>", ROWS, COLUMNS, NON_ZEROS);
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import static java.lang.String.format;
+
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Sparse matrix of floats in the ELLPACK format. Every row is padded to the
+ * length of the longest row ({@code width}), and the elements are stored in
+ * column-major order: element {@code k} of row {@code i} is in the position
+ * {@code k * numRows + i}. Consecutive threads that process consecutive rows
+ * access consecutive memory positions. Padding elements have column 0 and
+ * value 0, so they can be processed as any other element.
+ *
+ * <p>
+ * Example of a task that multiplies the matrix by a vector:
+ * </p>
+ *
+ * <pre>{@code
+ * for (@Parallel int i = 0; i < matrix.getNumRows(); i++) {
+ *     float sum = 0;
+ *     for (int k = 0; k < matrix.getRowLengths().get(i); k++) {
+ *         int index = k * matrix.getNumRows() + i;
+ *         sum += matrix.getValues().get(index) * x.get(matrix.getColumnIndices().get(index));
+ *     }
+ *     y.set(i, sum);
+ * }
+ * }</pre>
+ */
+public final class ELLMatrixFloat extends SparseMatrixType {
+
+    /**
+     * Number of elements stored for each row.
+     */
+    private final int width;
+
+    /**
+     * Number of non-padding elements of each row.
+     */
+    private final IntArray rowLengths;
+
+    /**
+     * Column of each element, in column-major order.
+     */
+    private final IntArray columnIndices;
+
+    /**
+     * Value of each element, in column-major order.
+     */
+    private final FloatArray values;
+
+    /**
+     * Creates an ELLPACK matrix from its arrays. The arrays are not copied.
+     *
+     * @param numRows
+     *     number of rows
+     * @param numColumns
+     *     number of columns
+     * @param numNonZeros
+     *     number of non-padding elements
+     * @param width
+     *     number of elements stored for each row
+     * @param rowLengths
+     *     number of non-padding elements of each row
+     * @param columnIndices
+     *     column of each element ({@code numRows * width} elements)
+     * @param values
+     *     value of each element ({@code numRows * width} elements)
+     */
+    public ELLMatrixFloat(int numRows, int numColumns, int numNonZeros, int width, IntArray rowLengths, IntArray columnIndices, FloatArray values) {
+        super(numRows, numColumns, numNonZeros);
+        checkSize("rowLengths", rowLengths.getSize(), numRows);
+        checkSize("columnIndices", columnIndices.getSize(), Math.multiplyExact(numRows, width));
+        checkSize("values", values.getSize(), Math.multiplyExact(numRows, width));
+        this.width = width;
+        this.rowLengths = rowLengths;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    ELLMatrixFloat(int numRows, int numColumns, int numNonZeros, int width) {
+        this(numRows, numColumns, numNonZeros, width, new IntArray(numRows), new IntArray(Math.multiplyExact(numRows, width)), new FloatArray(Math.multiplyExact(numRows, width)));
+        // Padding elements
+        columnIndices.clear();
+        values.clear();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public IntArray getRowLengths() {
+        return rowLengths;
+    }
+
+    public IntArray getColumnIndices() {
+        return columnIndices;
+    }
+
+    public FloatArray getValues() {
+        return values;
+    }
+
+    /**
+     * @return The number of elements stored for each element that is not
+     *     padding. A large overhead means that the length of the rows is very
+     *     irregular, and the SELL-C-sigma format (see {@link SELLMatrixFloat})
+     *     might be a better fit.
+     */
+    public float getPaddingOverhead() {
+        return NON_ZEROS == 0 ? 1.0f : (float) ((double) ROWS * width / NON_ZEROS);
+    }
+
+    /**
+     * Computes {@code y = A * x} on the host.
+     *
+     * @param x
+     *     input vector ({@code numColumns} elements)
+     * @param y
+     *     output vector ({@code numRows} elements)
+     */
+    public void multiply(FloatArray x, FloatArray y) {
+        for (int i = 0; i < ROWS; i++) {
+            float sum = 0;
+            for (int k = 0; k < rowLengths.get(i); k++) {
+                int index = k * ROWS + i;
+                sum += values.get(index) * x.get(columnIndices.get(index));
+            }
+            y.set(i, sum);
+        }
+    }
+
+    @Override
+    public long getNumBytes() {
+        return rowLengths.getNumBytesOfSegment() + columnIndices.getNumBytesOfSegment() + values.getNumBytesOfSegment();
+    }
+
+    @Override
+    public String toString() {
+        return format("ELLMatrixFloat <%d x %d, %d non-zeros, width %d>", ROWS, COLUMNS, NON_ZEROS, width);
+    }
+
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Reader of sparse matrices in the Matrix Market coordinate format
+ * (https://math.nist.gov/MatrixMarket/formats.html). It builds the CSR
+ * matrix directly in native arrays, without creating an object per element.
+ *
+ * <p>
+ * Files are mapped in memory and split in chunks that are parsed in parallel
+ * in two passes. The first pass counts the elements of each row, which gives
+ * the row pointers of the CSR matrix. The second pass writes each element in
+ * its row. Finally, the elements of each row are sorted by column.
+ * </p>
+ *
+ * <p>
+ * Supported formats: {@code coordinate} matrices with {@code real},
+ * {@code integer} or {@code pattern} values, and {@code general},
+ * {@code symmetric} or {@code skew-symmetric} symmetry. The elements of
+ * pattern matrices have the value 1.
+ * </p>
+ */
+public final class MatrixMarketReader {
+
+    private static final String BANNER = "%%MatrixMarket";
+
+    /**
+     * Minimum number of bytes parsed by each thread.
+     */
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private enum Field {
+        REAL, INTEGER, PATTERN
+    }
+
+    private enum Symmetry {
+        GENERAL, SYMMETRIC, SKEW_SYMMETRIC
+    }
+
+    private record Header(int numRows, int numColumns, long numEntries, Field field, Symmetry symmetry, long dataOffset) {
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void set(int index, double value);
+    }
+
+    private MatrixMarketReader() {
+    }
+
+    /**
+     * Reads a matrix of floats from a file.
+     *
+     * @param path
+     *     path of the Matrix Market file
+     * @return {@link CSRMatrixFloat}
+     * @throws IOException
+     *     if the file cannot be read, or it is not a valid Matrix Market file.
+     */
+    public static CSRMatrixFloat readCSRFloat(Path path) throws IOException {
+        try (Arena arena = Arena.ofShared(); FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readCSRFloat(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        }
+    }
+
+    /**
+     * Reads a matrix of floats from a stream. The stream is read into memory
+     * before it is parsed, so {@link #readCSRFloat(Path)} should be used for
+     * large files.
+     *
+     * @param inputStream
+     *     stream with the contents of a Matrix Market file
+     * @return {@link CSRMatrixFloat}
+     * @throws IOException
+     *     if the stream cannot be read, or it is not a valid Matrix Market file.
+     */
+    public static CSRMatrixFloat readCSRFloat(InputStream inputStream) throws IOException {
+        return readCSRFloat(MemorySegment.ofArray(inputStream.readAllBytes()));
+    }
+
+    /**
+     * Reads a matrix of doubles from a file.
+     *
+     * @param path
+     *     path of the Matrix Market file
+     * @return {@link CSRMatrixDouble}
+     * @throws IOException
+     *     if the file cannot be read, or it is not a valid Matrix Market file.
+     */
+    public static CSRMatrixDouble readCSRDouble(Path path) throws IOException {
+        try (Arena arena = Arena.ofShared(); FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readCSRDouble(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        }
+    }
+
+    /**
+     * Reads a matrix of doubles from a stream. The stream is read into memory
+     * before it is parsed, so {@link #readCSRDouble(Path)} should be used for
+     * large files.
+     *
+     * @param inputStream
+     *     stream with the contents of a Matrix Market file
+     * @return {@link CSRMatrixDouble}
+     * @throws IOException
+     *     if the stream cannot be read, or it is not a valid Matrix Market file.
+     */
+    public static CSRMatrixDouble readCSRDouble(InputStream inputStream) throws IOException {
+        return readCSRDouble(MemorySegment.ofArray(inputStream.readAllBytes()));
+    }
+
+    private static CSRMatrixFloat readCSRFloat(MemorySegment data) throws IOException {
+        Header header = readHeader(data);
+        long[] chunks = splitInChunks(data, header.dataOffset());
+        AtomicIntegerArray rowCounters = new AtomicIntegerArray(header.numRows());
+        IntArray rowPointers = countElements(data, header, chunks, rowCounters);
+
+        int numNonZeros = rowPointers.get(header.numRows());
+        IntArray columns = new IntArray(numNonZeros);
+        FloatArray values = new FloatArray(numNonZeros);
+        writeElements(data, header, chunks, rowCounters, columns, (index, value) -> values.set(index, (float) value));
+        IntStream.range(0, header.numRows()).parallel().forEach(i -> SparseRows.sortByColumn(columns, values, rowPointers.get(i), rowPointers.get(i + 1)));
+        return new CSRMatrixFloat(header.numRows(), header.numColumns(), rowPointers, columns, values);
+    }
+
+    private static CSRMatrixDouble readCSRDouble(MemorySegment data) throws IOException {
+        Header header = readHeader(data);
+        long[] chunks = splitInChunks(data, header.dataOffset());
+        AtomicIntegerArray rowCounters = new AtomicIntegerArray(header.numRows());
+        IntArray rowPointers = countElements(data, header, chunks, rowCounters);
+
+        int numNonZeros = rowPointers.get(header.numRows());
+        checkNumElements(numNonZeros, Double.BYTES);
+        IntArray columns = new IntArray(numNonZeros);
+        DoubleArray values = new DoubleArray(numNonZeros);
+        writeElements(data, header, chunks, rowCounters, columns, values::set);
+        IntStream.range(0, header.numRows()).parallel().forEach(i -> SparseRows.sortByColumn(columns, values, rowPointers.get(i), rowPointers.get(i + 1)));
+        return new CSRMatrixDouble(header.numRows(), header.numColumns(), rowPointers, columns, values);
+    }
+
+    private static Header readHeader(MemorySegment data) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(data, 0, data.byteSize());
+        String[] banner = tokenizer.nextLine().trim().split("\\s+");
+        if (banner.length != 5 || !banner[0].equals(BANNER) || !banner[1].equalsIgnoreCase("matrix")) {
+            throw new IOException("Invalid Matrix Market banner: " + String.join(" ", banner));
+        }
+        if (!banner[2].equalsIgnoreCase("coordinate")) {
+            throw new IOException("Unsupported Matrix Market format: " + banner[2] + " (only sparse coordinate matrices are supported)");
+        }
+        Field field = switch (banner[3].toLowerCase(Locale.ROOT)) {
+            case "real" -> Field.REAL;
+            case "integer" -> Field.INTEGER;
+            case "pattern" -> Field.PATTERN;
+            default -> throw new IOException("Unsupported Matrix Market field: " + banner[3]);
+        };
+        Symmetry symmetry = switch (banner[4].toLowerCase(Locale.ROOT)) {
+            case "general" -> Symmetry.GENERAL;
+            case "symmetric" -> Symmetry.SYMMETRIC;
+            case "skew-symmetric" -> Symmetry.SKEW_SYMMETRIC;
+            default -> throw new IOException("Unsupported Matrix Market symmetry: " + banner[4]);
+        };
+
+        if (!tokenizer.nextEntry()) {
+            throw new IOException("Missing size of the matrix");
+        }
+        long numRows = tokenizer.nextLong();
+        long numColumns = tokenizer.nextLong();
+        long numEntries = tokenizer.nextLong();
+        tokenizer.skipLine();
+        if (numRows < 0 || numRows >= Integer.MAX_VALUE || numColumns < 0 || numColumns > Integer.MAX_VALUE || numEntries < 0) {
+            throw new IOException(String.format("Invalid size of the matrix: rows=%d, columns=%d, entries=%d", numRows, numColumns, numEntries));
+        }
+        return new Header((int) numRows, (int) numColumns, numEntries, field, symmetry, tokenizer.position);
+    }
+
+    /**
+     * Splits the data in chunks that start at the beginning of a line.
+     *
+     * @return Offsets of the chunks, plus the end of the data.
+     */
+    private static long[] splitInChunks(MemorySegment data, long offset) {
+        long size = data.byteSize() - offset;
+        int numChunks = (int) Math.clamp(size / MIN_CHUNK_SIZE, 1, 4L * Runtime.getRuntime().availableProcessors());
+        long[] chunks = new long[numChunks + 1];
+        chunks[0] = offset;
+        for (int i = 1; i < numChunks; i++) {
+            long position = Math.max(offset + size * i / numChunks, chunks[i - 1]);
+            while (position < data.byteSize() && data.get(JAVA_BYTE, position - 1) != '\n') {
+                position++;
+            }
+            chunks[i] = position;
+        }
+        chunks[numChunks] = data.byteSize();
+        return chunks;
+    }
+
+    private static void checkNumElements(long numElements, int elementSize) throws IOException {
+        if (numElements > (Integer.MAX_VALUE - TornadoNativeArray.ARRAY_HEADER) / elementSize) {
+            throw new IOException("Too many non-zero elements for a native array: " + numElements);
+        }
+    }
+
+    /**
+     * First pass: it counts the elements of each row.
+     *
+     * @return The row pointers of the CSR matrix. The counters are set to the
+     *     first position of each row.
+     */
+    private static IntArray countElements(MemorySegment data, Header header, long[] chunks, AtomicIntegerArray rowCounters) throws IOException {
+        long[] entriesPerChunk = new long[chunks.length - 1];
+        forEachChunk(chunks, chunk -> {
+            Tokenizer tokenizer = new Tokenizer(data, chunks[chunk], chunks[chunk + 1]);
+            long entries = 0;
+            while (tokenizer.nextEntry()) {
+                int row = tokenizer.nextIndex(header.numRows());
+                int column = tokenizer.nextIndex(header.numColumns());
+                tokenizer.skipLine();
+                rowCounters.incrementAndGet(row);
+                if (header.symmetry() != Symmetry.GENERAL && row != column) {
+                    rowCounters.incrementAndGet(column);
+                }
+                entries++;
+            }
+            entriesPerChunk[chunk] = entries;
+        });
+
+        long numEntries = 0;
+        for (long entries : entriesPerChunk) {
+            numEntries += entries;
+        }
+        if (numEntries != header.numEntries()) {
+            throw new IOException(String.format("Invalid number of entries: %d (expected %d)", numEntries, header.numEntries()));
+        }
+
+        long numNonZeros = 0;
+        for (int i = 0; i < header.numRows(); i++) {
+            numNonZeros += rowCounters.get(i);
+        }
+        checkNumElements(numNonZeros, Float.BYTES);
+
+        IntArray rowPointers = new IntArray(header.numRows() + 1);
+        int position = 0;
+        for (int i = 0; i < header.numRows(); i++) {
+            rowPointers.set(i, position);
+            int count = rowCounters.get(i);
+            rowCounters.set(i, position);
+            position += count;
+        }
+        rowPointers.set(header.numRows(), position);
+        return rowPointers;
+    }
+
+    /**
+     * Second pass: it writes each element in the next free position of its row.
+     */
+    private static void writeElements(MemorySegment data, Header header, long[] chunks, AtomicIntegerArray rowCounters, IntArray columns, ValueWriter values) throws IOException {
+        forEachChunk(chunks, chunk -> {
+            Tokenizer tokenizer = new Tokenizer(data, chunks[chunk], chunks[chunk + 1]);
+            while (tokenizer.nextEntry()) {
+                int row = tokenizer.nextIndex(header.numRows());
+                int column = tokenizer.nextIndex(header.numColumns());
+                double value = (header.field() == Field.PATTERN) ? 1.0 : tokenizer.nextDouble();
+                tokenizer.skipLine();
+
+                int position = rowCounters.getAndIncrement(row);
+                columns.set(position, column);
+                values.set(position, value);
+                if (header.symmetry() != Symmetry.GENERAL && row != column) {
+                    position = rowCounters.getAndIncrement(column);
+                    columns.set(position, row);
+                    values.set(position, (header.symmetry() == Symmetry.SKEW_SYMMETRIC) ? -value : value);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ChunkParser {
+        void parse(int chunk) throws IOException;
+    }
+
+    private static void forEachChunk(long[] chunks, ChunkParser parser) throws IOException {
+        try {
+            IntStream.range(0, chunks.length - 1).parallel().forEach(chunk -> {
+                try {
+                    parser.parse(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parser of the numbers of a range of the data. Numbers are parsed directly
+     * from the bytes, without creating strings.
+     */
+    private static final class Tokenizer {
+        private final MemorySegment data;
+        private final long end;
+        private long position;
+
+        Tokenizer(MemorySegment data, long start, long end) {
+            this.data = data;
+            this.position = start;
+            this.end = end;
+        }
+
+        private byte peek() {
+            return position < end ? data.get(JAVA_BYTE, position) : (byte) '\n';
+        }
+
+        private static boolean isDigit(byte c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isSpace(byte c) {
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+
+        private void skipSpaces() {
+            while (position < end && isSpace(data.get(JAVA_BYTE, position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Moves to the beginning of the next line.
+         */
+        void skipLine() {
+            while (position < end && data.get(JAVA_BYTE, position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        String nextLine() {
+            long start = position;
+            skipLine();
+            return new String(data.asSlice(start, Math.min(position, end) - start).toArray(JAVA_BYTE), StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Skips empty lines and comments.
+         *
+         * @return {@code true} if there is another entry.
+         */
+        boolean nextEntry() {
+            while (position < end) {
+                skipSpaces();
+                byte c = peek();
+                if (c == '\n' || c == '%') {
+                    skipLine();
+                } else {
+                    return position < end;
+                }
+            }
+            return false;
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at byte " + position);
+        }
+
+        long nextLong() throws IOException {
+            skipSpaces();
+            boolean negative = peek() == '-';
+            if (negative || peek() == '+') {
+                position++;
+            }
+            if (!isDigit(peek())) {
+                throw error("Expected an integer");
+            }
+            long value = 0;
+            while (isDigit(peek())) {
+                value = value * 10 + (peek() - '0');
+                if (value > Integer.MAX_VALUE * 4L) {
+                    throw error("Integer out of range");
+                }
+                position++;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses a one-based index and returns it as a zero-based index.
+         */
+        int nextIndex(int size) throws IOException {
+            long index = nextLong();
+            if (index < 1 || index > size) {
+                throw error("Index out of range: " + index);
+            }
+            return (int) index - 1;
+        }
+
+        /**
+         * Parses a decimal number. Numbers with at most 18 significant digits and
+         * an exponent of at most 22 are computed exactly from the digits, and the
+         * rest are parsed by {@link Double#parseDouble(String)}.
+         */
+        double nextDouble() throws IOException {
+            skipSpaces();
+            final long start = position;
+            boolean negative = peek() == '-';
+            if (negative || peek() == '+') {
+                position++;
+            }
+            long mantissa = 0;
+            int significantDigits = 0;
+            int exponent = 0;
+            boolean anyDigit = false;
+            boolean truncated = false;
+            while (isDigit(peek())) {
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (peek() - '0');
+                    significantDigits += (mantissa != 0) ? 1 : 0;
+                } else {
+                    exponent++;
+                    truncated |= peek() != '0';
+                }
+                anyDigit = true;
+                position++;
+            }
+            if (peek() == '.') {
+                position++;
+                while (isDigit(peek())) {
+                    if (significantDigits < 18) {
+                        mantissa = mantissa * 10 + (peek() - '0');
+                        significantDigits += (mantissa != 0) ? 1 : 0;
+                        exponent--;
+                    } else {
+                        truncated |= peek() != '0';
+                    }
+                    anyDigit = true;
+                    position++;
+                }
+            }
+            if (anyDigit && (peek() == 'e' || peek() == 'E')) {
+                position++;
+                boolean negativeExponent = peek() == '-';
+                if (negativeExponent || peek() == '+') {
+                    position++;
+                }
+                if (!isDigit(peek())) {
+                    return parseSlow(start);
+                }
+                int value = 0;
+                while (isDigit(peek())) {
+                    value = Math.min(value * 10 + (peek() - '0'), 100_000);
+                    position++;
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+            byte next = peek();
+            if (!anyDigit || truncated || !(isSpace(next) || next == '\n') || Math.abs(exponent) >= POWERS_OF_TEN.length || mantissa > (1L << 53)) {
+                return parseSlow(start);
+            }
+            double value = (exponent >= 0) ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        private double parseSlow(long start) throws IOException {
+            position = start;
+            while (position < end && !isSpace(peek()) && peek() != '\n') {
+                position++;
+            }
+            String token = new String(data.asSlice(start, position - start).toArray(JAVA_BYTE), StandardCharsets.US_ASCII);
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number: " + token);
+            }
+        }
+    }
+
+}
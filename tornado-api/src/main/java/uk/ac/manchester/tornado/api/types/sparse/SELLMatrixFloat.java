@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import static java.lang.String.format;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Sparse matrix of floats in the SELL-C-sigma format. The rows are sorted by
+ * length within windows of {@code sortingScope} (sigma) rows, and they are
+ * grouped in chunks of {@code chunkSize} (C) rows. Each chunk is stored as a
+ * small ELLPACK matrix (see {@link ELLMatrixFloat}) padded to its longest row,
+ * so rows with very different lengths only add padding within their chunk.
+ *
+ * <p>
+ * Rows are processed in the sorted order: the position {@code p} holds the
+ * row {@code rowPermutation[p]}, and the element {@code k} of that row is in
+ * {@code chunkPointers[p / C] + k * C + p % C}. Example of a task that
+ * multiplies the matrix by a vector:
+ * </p>
+ *
+ * <pre>{@code
+ * for (@Parallel int p = 0; p < matrix.getNumRows(); p++) {
+ *     int start = matrix.getChunkPointers().get(p / matrix.getChunkSize()) + p % matrix.getChunkSize();
+ *     float sum = 0;
+ *     for (int k = 0; k < matrix.getRowLengths().get(p); k++) {
+ *         int index = start + k * matrix.getChunkSize();
+ *         sum += matrix.getValues().get(index) * x.get(matrix.getColumnIndices().get(index));
+ *     }
+ *     y.set(matrix.getRowPermutation().get(p), sum);
+ * }
+ * }</pre>
+ */
+public final class SELLMatrixFloat extends SparseMatrixType {
+
+    /**
+     * Number of rows of each chunk (C).
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of consecutive rows sorted by length (sigma).
+     */
+    private final int sortingScope;
+
+    /**
+     * Row stored in each position.
+     */
+    private final IntArray rowPermutation;
+
+    /**
+     * Number of non-padding elements of the row in each position.
+     */
+    private final IntArray rowLengths;
+
+    /**
+     * Index of the first element of each chunk, plus the number of elements.
+     */
+    private final IntArray chunkPointers;
+
+    /**
+     * Column of each element.
+     */
+    private final IntArray columnIndices;
+
+    /**
+     * Value of each element.
+     */
+    private final FloatArray values;
+
+    private SELLMatrixFloat(int numRows, int numColumns, int numNonZeros, int chunkSize, int sortingScope, IntArray rowPermutation, IntArray rowLengths, IntArray chunkPointers) {
+        super(numRows, numColumns, numNonZeros);
+        this.chunkSize = chunkSize;
+        this.sortingScope = sortingScope;
+        this.rowPermutation = rowPermutation;
+        this.rowLengths = rowLengths;
+        this.chunkPointers = chunkPointers;
+        int numElements = chunkPointers.get(chunkPointers.getSize() - 1);
+        this.columnIndices = new IntArray(numElements);
+        this.values = new FloatArray(numElements);
+        // Padding elements
+        columnIndices.clear();
+        values.clear();
+    }
+
+    static SELLMatrixFloat fromCSR(CSRMatrixFloat csr, int chunkSize, int sortingScope) {
+        if (chunkSize < 1 || sortingScope < 1) {
+            throw new IllegalArgumentException(format("Invalid SELL-C-sigma parameters: C=%d, sigma=%d", chunkSize, sortingScope));
+        }
+        final int numRows = csr.getNumRows();
+        final IntArray csrRows = csr.getRowPointers();
+
+        // Sort the rows of each window by decreasing length. The row is kept in the
+        // lower bits of the key, so rows with the same length keep their order.
+        long[] keys = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+            int length = csrRows.get(i + 1) - csrRows.get(i);
+            keys[i] = ((long) (Integer.MAX_VALUE - length) << 32) | i;
+        }
+        for (int from = 0; from < numRows; from += sortingScope) {
+            Arrays.sort(keys, from, Math.min(from + sortingScope, numRows));
+        }
+
+        IntArray rowPermutation = new IntArray(numRows);
+        IntArray rowLengths = new IntArray(numRows);
+        for (int p = 0; p < numRows; p++) {
+            int row = (int) keys[p];
+            rowPermutation.set(p, row);
+            rowLengths.set(p, csrRows.get(row + 1) - csrRows.get(row));
+        }
+
+        int numChunks = (numRows + chunkSize - 1) / chunkSize;
+        IntArray chunkPointers = new IntArray(numChunks + 1);
+        chunkPointers.set(0, 0);
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            int width = 0;
+            for (int p = chunk * chunkSize; p < Math.min((chunk + 1) * chunkSize, numRows); p++) {
+                width = Math.max(width, rowLengths.get(p));
+            }
+            chunkPointers.set(chunk + 1, Math.addExact(chunkPointers.get(chunk), Math.multiplyExact(width, chunkSize)));
+        }
+
+        SELLMatrixFloat matrix = new SELLMatrixFloat(numRows, csr.getNumColumns(), csr.getNumNonZeros(), chunkSize, sortingScope, rowPermutation, rowLengths, chunkPointers);
+        for (int p = 0; p < numRows; p++) {
+            int start = chunkPointers.get(p / chunkSize) + p % chunkSize;
+            int csrStart = csrRows.get(rowPermutation.get(p));
+            for (int k = 0; k < rowLengths.get(p); k++) {
+                matrix.columnIndices.set(start + k * chunkSize, csr.getColumnIndices().get(csrStart + k));
+                matrix.values.set(start + k * chunkSize, csr.getValues().get(csrStart + k));
+            }
+        }
+        return matrix;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getSortingScope() {
+        return sortingScope;
+    }
+
+    public IntArray getRowPermutation() {
+        return rowPermutation;
+    }
+
+    public IntArray getRowLengths() {
+        return rowLengths;
+    }
+
+    public IntArray getChunkPointers() {
+        return chunkPointers;
+    }
+
+    public IntArray getColumnIndices() {
+        return columnIndices;
+    }
+
+    public FloatArray getValues() {
+        return values;
+    }
+
+    /**
+     * @return The number of elements stored for each element that is not
+     *     padding.
+     */
+    public float getPaddingOverhead() {
+        return NON_ZEROS == 0 ? 1.0f : (float) ((double) values.getSize() / NON_ZEROS);
+    }
+
+    /**
+     * Computes {@code y = A * x} on the host.
+     *
+     * @param x
+     *     input vector ({@code numColumns} elements)
+     * @param y
+     *     output vector ({@code numRows} elements)
+     */
+    public void multiply(FloatArray x, FloatArray y) {
+        for (int p = 0; p < ROWS; p++) {
+            int start = chunkPointers.get(p / chunkSize) + p % chunkSize;
+            float sum = 0;
+            for (int k = 0; k < rowLengths.get(p); k++) {
+                int index = start + k * chunkSize;
+                sum += values.get(index) * x.get(columnIndices.get(index));
+            }
+            y.set(rowPermutation.get(p), sum);
+        }
+    }
+
+    @Override
+    public long getNumBytes() {
+        return rowPermutation.getNumBytesOfSegment() + rowLengths.getNumBytesOfSegment() + chunkPointers.getNumBytesOfSegment() + columnIndices.getNumBytesOfSegment() + values.getNumBytesOfSegment();
+    }
+
+    @Override
+    public String toString() {
+        return format("SELLMatrixFloat <%d x %d, %d non-zeros, C=%d, sigma=%d>", ROWS, COLUMNS, NON_ZEROS, chunkSize, sortingScope);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+/**
+ * Base class of the sparse matrices. The data of a sparse matrix is stored in
+ * native arrays ({@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray}),
+ * so a sparse matrix can be passed to a task and it is transferred to the
+ * device as a single object, with all its arrays.
+ */
+public abstract class SparseMatrixType {
+
+    /**
+     * Number of rows.
+     */
+    protected final int ROWS;
+
+    /**
+     * Number of columns.
+     */
+    protected final int COLUMNS;
+
+    /**
+     * Number of non-zero elements.
+     */
+    protected final int NON_ZEROS;
+
+    SparseMatrixType(int numRows, int numColumns, int numNonZeros) {
+        if (numRows < 0 || numColumns < 0 || numNonZeros < 0) {
+            throw new IllegalArgumentException(String.format("Invalid sparse matrix: rows=%d, columns=%d, non-zeros=%d", numRows, numColumns, numNonZeros));
+        }
+        this.ROWS = numRows;
+        this.COLUMNS = numColumns;
+        this.NON_ZEROS = numNonZeros;
+    }
+
+    public int getNumRows() {
+        return ROWS;
+    }
+
+    public int getNumColumns() {
+        return COLUMNS;
+    }
+
+    public int getNumNonZeros() {
+        return NON_ZEROS;
+    }
+
+    /**
+     * @return The number of bytes of all the native arrays of the matrix.
+     */
+    public abstract long getNumBytes();
+
+    static void checkSize(String name, int size, int expected) {
+        if (size != expected) {
+            throw new IllegalArgumentException(String.format("Invalid size of %s: %d (expected %d)", name, size, expected));
+        }
+    }
+
+}
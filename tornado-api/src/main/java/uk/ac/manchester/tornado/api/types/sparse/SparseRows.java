@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.sparse;
+
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Sorting of the elements of the rows of a sparse matrix by column. The
+ * columns and the values are swapped in place, so no temporary arrays are
+ * allocated.
+ */
+final class SparseRows {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private interface Swap {
+        void swap(int i, int j);
+    }
+
+    private SparseRows() {
+    }
+
+    static void sortByColumn(IntArray columns, FloatArray values, int from, int to) {
+        sort(columns, from, to - 1, (i, j) -> {
+            int column = columns.get(i);
+            columns.set(i, columns.get(j));
+            columns.set(j, column);
+            float value = values.get(i);
+            values.set(i, values.get(j));
+            values.set(j, value);
+        });
+    }
+
+    static void sortByColumn(IntArray columns, DoubleArray values, int from, int to) {
+        sort(columns, from, to - 1, (i, j) -> {
+            int column = columns.get(i);
+            columns.set(i, columns.get(j));
+            columns.set(j, column);
+            double value = values.get(i);
+            values.set(i, values.get(j));
+            values.set(j, value);
+        });
+    }
+
+    static boolean isSorted(IntArray columns, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (columns.get(i - 1) > columns.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quicksort with Hoare partitioning. The smallest partition is sorted
+     * recursively, so the depth of the recursion is logarithmic.
+     */
+    private static void sort(IntArray keys, int low, int high, Swap swap) {
+        if (isSorted(keys, low, high + 1)) {
+            return;
+        }
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            int pivot = keys.get(low + (high - low) / 2);
+            int i = low - 1;
+            int j = high + 1;
+            while (true) {
+                do {
+                    i++;
+                } while (keys.get(i) < pivot);
+                do {
+                    j--;
+                } while (keys.get(j) > pivot);
+                if (i >= j) {
+                    break;
+                }
+                swap.swap(i, j);
+            }
+            if (j - low < high - j) {
+                sort(keys, low, j, swap);
+                low = j + 1;
+            } else {
+                sort(keys, j + 1, high, swap);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && keys.get(j - 1) > keys.get(j); j--) {
+                swap.swap(j - 1, j);
+            }
+        }
+    }
+
+}
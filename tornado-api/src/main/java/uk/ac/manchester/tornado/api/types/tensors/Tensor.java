@@ -34,4 +34,14 @@ public abstract non-sealed class Tensor extends TornadoNativeArray {
 
     public abstract DType getDType();
 
+    /**
+     * The writes to tensors are not tracked, so tensors are always transferred.
+     *
+     * @return {@link TornadoNativeArray#UNTRACKED_WRITE_VERSION}
+     */
+    @Override
+    public long getWriteVersion() {
+        return UNTRACKED_WRITE_VERSION;
+    }
+
 }
@@ -2,6 +2,22 @@
 
 for /f %%b in (%TORNADO_SDK%\etc\tornado.backend) do set backends=%%b
 
+echo:
+echo Testing the TornadoVM Interpreter
+echo:
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestInterpreterAllocations
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestBatchPipeline
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.common.tests.TestBufferProvider
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.common.tests.TestPersistentKernelCache
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestWarmUpManifest
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestDeviceCostModel
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestElementWiseAnalysis
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestTaskFusion
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestParallelCompilation
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestTieredExecution
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestBatchCompilations
+python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.runtime.tests.TestWorkGroupTuner
+
 echo %backends% | findstr "\<opencl\>" >nul
 if not errorlevel 1 (
 	echo:
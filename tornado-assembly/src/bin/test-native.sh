@@ -18,6 +18,21 @@
 #
 
 read -ra selected_backends < "${TORNADO_SDK}/etc/tornado.backend"
+
+echo -e "\nTesting the TornadoVM Interpreter\n"
+tornado uk.ac.manchester.tornado.runtime.tests.TestInterpreterAllocations
+tornado uk.ac.manchester.tornado.runtime.tests.TestBatchPipeline
+tornado uk.ac.manchester.tornado.drivers.common.tests.TestBufferProvider
+tornado uk.ac.manchester.tornado.drivers.common.tests.TestPersistentKernelCache
+tornado uk.ac.manchester.tornado.runtime.tests.TestWarmUpManifest
+tornado uk.ac.manchester.tornado.runtime.tests.TestDeviceCostModel
+tornado uk.ac.manchester.tornado.runtime.tests.TestElementWiseAnalysis
+tornado uk.ac.manchester.tornado.runtime.tests.TestTaskFusion
+tornado uk.ac.manchester.tornado.runtime.tests.TestParallelCompilation
+tornado uk.ac.manchester.tornado.runtime.tests.TestTieredExecution
+tornado uk.ac.manchester.tornado.runtime.tests.TestBatchCompilations
+tornado uk.ac.manchester.tornado.runtime.tests.TestWorkGroupTuner
+
 if [[ $selected_backends == *"ptx"* ]]; then
   echo -e "\nTesting the Native PTX API\n"
   tornado uk.ac.manchester.tornado.drivers.ptx.tests.TestPTXJITCompiler
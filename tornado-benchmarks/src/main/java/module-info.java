@@ -30,6 +30,7 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.convolvearray;
     exports uk.ac.manchester.tornado.benchmarks.convolveimage;
     exports uk.ac.manchester.tornado.benchmarks.dft;
+    exports uk.ac.manchester.tornado.benchmarks.dispatcher;
     exports uk.ac.manchester.tornado.benchmarks.dgemm;
     exports uk.ac.manchester.tornado.benchmarks.dotimage;
     exports uk.ac.manchester.tornado.benchmarks.dotvector;
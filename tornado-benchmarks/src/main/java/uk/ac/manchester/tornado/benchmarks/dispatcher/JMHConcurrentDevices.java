@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.dispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoRuntime;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+
+/**
+ * <p>
+ * Measures the per-execute() overhead of running a task-graph concurrently on
+ * multiple devices (one TornadoVM interpreter per device context). The kernels
+ * are small, so the time is dominated by the dispatch of the interpreters.
+ * </p>
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.dispatcher.JMHConcurrentDevices
+ * </code>
+ * <p>
+ * Virtual threads can be selected with
+ * {@code -Dtornado.concurrent.devices.virtual=true}. Each context runs on its
+ * own device: the runs with more contexts than devices in the system fail
+ * instead of measuring fewer contexts.
+ * </p>
+ */
+public class JMHConcurrentDevices {
+
+    public static void scale(FloatArray a, float alpha) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) * alpha);
+        }
+    }
+
+    private static List<TornadoDevice> getAllDevices() {
+        TornadoRuntime runtime = TornadoRuntimeProvider.getTornadoRuntime();
+        List<TornadoDevice> devices = new ArrayList<>();
+        for (int i = 0; i < runtime.getNumBackends(); i++) {
+            TornadoBackend backend = runtime.getBackend(i);
+            for (int j = 0; j < backend.getNumDevices(); j++) {
+                devices.add(backend.getDevice(j));
+            }
+        }
+        return devices;
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "2", "3", "4" })
+        private int numContexts;
+
+        private int numElements = Integer.parseInt(System.getProperty("x", "256"));
+        private FloatArray[] arrays;
+
+        private TornadoExecutionPlan executor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            List<TornadoDevice> devices = getAllDevices();
+            if (devices.size() < numContexts) {
+                throw new TornadoRuntimeException("[ERROR] " + numContexts + " concurrent contexts need " + numContexts + " devices, but only " + devices.size() + " are available");
+            }
+
+            arrays = new FloatArray[numContexts];
+            TaskGraph taskGraph = new TaskGraph("benchmark");
+            for (int i = 0; i < numContexts; i++) {
+                arrays[i] = new FloatArray(numElements);
+                arrays[i].init(1.0f);
+                taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, arrays[i]) //
+                        .task("scale" + i, JMHConcurrentDevices::scale, arrays[i], 1.0f) //
+                        .transferToHost(DataTransferMode.UNDER_DEMAND, arrays[i]);
+            }
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            executor = new TornadoExecutionPlan(immutableTaskGraph);
+            for (int i = 0; i < numContexts; i++) {
+                executor.withDevice("benchmark.scale" + i, devices.get(i));
+            }
+            executor.withConcurrentDevices().withWarmUp();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws TornadoExecutionPlanException {
+            executor.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    public void concurrentDevicesTornado(BenchmarkSetup state, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executor;
+        executor.execute();
+        blackhole.consume(executor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHConcurrentDevices.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.NANOSECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
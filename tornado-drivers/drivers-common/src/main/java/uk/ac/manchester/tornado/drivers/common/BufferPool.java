@@ -0,0 +1,324 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+
+/**
+ * Pool of device buffers with the same access type, used by the
+ * {@link TornadoBufferProvider}.
+ *
+ * <p>
+ * Buffers are allocated with the size of a size class. There are four size
+ * classes per power of two (as in jemalloc), so the capacity of a buffer is at
+ * most 25% larger than the requested size. Free buffers are grouped by size
+ * class, and a bitmap records the size classes with free buffers. Therefore,
+ * finding a free buffer that fits a request, and releasing a buffer, are O(1)
+ * operations.
+ * </p>
+ *
+ * <p>
+ * Free buffers are also kept in the order in which they were released, so
+ * the least recently released buffers are the first ones to be freed on the
+ * device when it runs out of memory.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe. The buffer provider synchronizes the
+ * accesses to its pools.
+ * </p>
+ */
+final class BufferPool {
+
+    static final long MIN_CLASS_SIZE = 256;
+    private static final int MIN_CLASS_SHIFT = 8;
+    private static final int SUB_CLASSES_SHIFT = 2;
+    static final int NUM_SIZE_CLASSES = sizeClassOf(Long.MAX_VALUE) + 1;
+
+    private final Access access;
+    private final List<LinkedHashSet<BufferContainer>> freeBuffers;
+    private final long[] nonEmptySizeClasses;
+    private final LinkedHashSet<BufferContainer> releaseOrder;
+    private final LinkedHashMap<Long, BufferContainer> usedBuffers;
+    private final HashMap<Long, Integer> usedRequestedSizes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long bytesCached;
+    private long bytesInUse;
+    private long bytesRequested;
+
+    BufferPool(Access access) {
+        this.access = access;
+        this.freeBuffers = new ArrayList<>(Collections.nCopies(NUM_SIZE_CLASSES, null));
+        this.nonEmptySizeClasses = new long[(NUM_SIZE_CLASSES + Long.SIZE - 1) / Long.SIZE];
+        this.releaseOrder = new LinkedHashSet<>();
+        this.usedBuffers = new LinkedHashMap<>();
+        this.usedRequestedSizes = new HashMap<>();
+    }
+
+    /**
+     * @param size
+     *     Size in bytes.
+     * @return The index of the smallest size class that can hold {@code size}
+     *     bytes.
+     */
+    static int sizeClassOf(long size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        // 2^exponent < size <= 2^(exponent + 1)
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(size - 1);
+        final int stepShift = exponent - SUB_CLASSES_SHIFT;
+        final long subClass = ((size - (1L << exponent)) + (1L << stepShift) - 1) >>> stepShift;
+        return ((exponent - MIN_CLASS_SHIFT) << SUB_CLASSES_SHIFT) + (int) subClass;
+    }
+
+    /**
+     * @param sizeClass
+     *     Index of the size class.
+     * @return The size in bytes of the buffers of the size class.
+     */
+    static long sizeOfClass(int sizeClass) {
+        if (sizeClass == 0) {
+            return MIN_CLASS_SIZE;
+        }
+        final int exponent = ((sizeClass - 1) >> SUB_CLASSES_SHIFT) + MIN_CLASS_SHIFT;
+        final long subClass = ((sizeClass - 1) & ((1 << SUB_CLASSES_SHIFT) - 1)) + 1;
+        final long size = (1L << exponent) + (subClass << (exponent - SUB_CLASSES_SHIFT));
+        return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    /**
+     * @return The index of the largest size class whose buffers fit in
+     *     {@code capacity} bytes, or -1 if the capacity is smaller than the
+     *     smallest size class.
+     */
+    private static int floorSizeClassOf(long capacity) {
+        int sizeClass = sizeClassOf(capacity);
+        return sizeOfClass(sizeClass) > capacity ? sizeClass - 1 : sizeClass;
+    }
+
+    private void markSizeClass(int sizeClass, boolean nonEmpty) {
+        if (nonEmpty) {
+            nonEmptySizeClasses[sizeClass >>> 6] |= 1L << sizeClass;
+        } else {
+            nonEmptySizeClasses[sizeClass >>> 6] &= ~(1L << sizeClass);
+        }
+    }
+
+    private int nextNonEmptySizeClass(int fromSizeClass) {
+        int word = fromSizeClass >>> 6;
+        long bits = nonEmptySizeClasses[word] & (-1L << fromSizeClass);
+        while (bits == 0) {
+            if (++word == nonEmptySizeClasses.length) {
+                return -1;
+            }
+            bits = nonEmptySizeClasses[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    private void removeFromSizeClass(BufferContainer bufferContainer) {
+        final int sizeClass = floorSizeClassOf(bufferContainer.capacity());
+        LinkedHashSet<BufferContainer> buffers = freeBuffers.get(sizeClass);
+        buffers.remove(bufferContainer);
+        if (buffers.isEmpty()) {
+            markSizeClass(sizeClass, false);
+        }
+    }
+
+    /**
+     * It takes a free buffer that can hold {@code sizeInBytes} bytes. The most
+     * recently released buffer of the size class is returned, since it is the
+     * most likely to be resident on the device.
+     *
+     * @param sizeInBytes
+     *     Requested size in bytes.
+     * @param allowLargerSizeClass
+     *     If true, and there are no free buffers of the size class of the
+     *     request, a buffer of the next non-empty size class is returned.
+     * @return The {@link BufferContainer} marked as used, or null if there is no
+     *     free buffer.
+     */
+    BufferContainer takeFreeBuffer(long sizeInBytes, boolean allowLargerSizeClass) {
+        final int requestedSizeClass = sizeClassOf(sizeInBytes);
+        final int sizeClass = allowLargerSizeClass ? nextNonEmptySizeClass(requestedSizeClass) : requestedSizeClass;
+        if (sizeClass == -1 || freeBuffers.get(sizeClass) == null || freeBuffers.get(sizeClass).isEmpty()) {
+            return null;
+        }
+        LinkedHashSet<BufferContainer> buffers = freeBuffers.get(sizeClass);
+        BufferContainer free = buffers.removeLast();
+        if (buffers.isEmpty()) {
+            markSizeClass(sizeClass, false);
+        }
+        releaseOrder.remove(free);
+        bytesCached -= free.capacity();
+        hits++;
+        BufferContainer bufferContainer = new BufferContainer(free.buffer(), free.capacity(), sizeInBytes, access, 0);
+        markUsed(bufferContainer);
+        return bufferContainer;
+    }
+
+    /**
+     * It registers a new buffer allocated on the device as used.
+     */
+    BufferContainer addNewBuffer(long buffer, long capacity, long sizeInBytes) {
+        misses++;
+        BufferContainer bufferContainer = new BufferContainer(buffer, capacity, sizeInBytes, access, 0);
+        markUsed(bufferContainer);
+        return bufferContainer;
+    }
+
+    private void markUsed(BufferContainer bufferContainer) {
+        usedBuffers.put(bufferContainer.buffer(), bufferContainer);
+        usedRequestedSizes.merge(bufferContainer.requestedSize(), 1, Integer::sum);
+        bytesInUse += bufferContainer.capacity();
+        bytesRequested += bufferContainer.requestedSize();
+    }
+
+    /**
+     * It moves a used buffer to the free buffers of its size class.
+     *
+     * @param buffer
+     *     Native pointer of the buffer.
+     * @param releaseStamp
+     *     Order of the release. It is shared by the pools of a buffer provider,
+     *     so the least recently released buffers of all pools can be found.
+     * @return The {@link BufferContainer} of the buffer, or null if the buffer
+     *     is not used.
+     */
+    BufferContainer release(long buffer, long releaseStamp) {
+        BufferContainer used = usedBuffers.remove(buffer);
+        if (used == null) {
+            return null;
+        }
+        usedRequestedSizes.computeIfPresent(used.requestedSize(), (size, count) -> count == 1 ? null : count - 1);
+        bytesInUse -= used.capacity();
+        bytesRequested -= used.requestedSize();
+
+        BufferContainer free = new BufferContainer(used.buffer(), used.capacity(), 0, access, releaseStamp);
+        final int sizeClass = floorSizeClassOf(free.capacity());
+        if (sizeClass == -1) {
+            // Too small to be reused. It is released when memory is reclaimed.
+            releaseOrder.addFirst(free);
+        } else {
+            if (freeBuffers.get(sizeClass) == null) {
+                freeBuffers.set(sizeClass, new LinkedHashSet<>());
+            }
+            freeBuffers.get(sizeClass).add(free);
+            markSizeClass(sizeClass, true);
+            releaseOrder.add(free);
+        }
+        bytesCached += free.capacity();
+        return free;
+    }
+
+    /**
+     * @return The free buffer that was released the longest time ago, or null if
+     *     there are no free buffers.
+     */
+    BufferContainer peekLeastRecentlyReleased() {
+        return releaseOrder.isEmpty() ? null : releaseOrder.getFirst();
+    }
+
+    /**
+     * It removes the free buffer that was released the longest time ago from
+     * the pool. The caller is responsible for releasing the buffer on the
+     * device.
+     *
+     * @return The removed {@link BufferContainer}, or null if there are no free
+     *     buffers.
+     */
+    BufferContainer evictLeastRecentlyReleased() {
+        if (releaseOrder.isEmpty()) {
+            return null;
+        }
+        BufferContainer free = releaseOrder.removeFirst();
+        if (floorSizeClassOf(free.capacity()) != -1) {
+            removeFromSizeClass(free);
+        }
+        bytesCached -= free.capacity();
+        evictions++;
+        return free;
+    }
+
+    int getNumFreeBuffers() {
+        return releaseOrder.size();
+    }
+
+    int getNumUsedBuffers() {
+        return usedBuffers.size();
+    }
+
+    boolean isBufferUsedWithSize(long requestedSize) {
+        return usedRequestedSizes.containsKey(requestedSize);
+    }
+
+    BufferPoolStatistics getStatistics() {
+        return new BufferPoolStatistics(access, hits, misses, evictions, releaseOrder.size(), bytesCached, usedBuffers.size(), bytesInUse, bytesRequested);
+    }
+
+    /**
+     * Device buffer managed by the pool.
+     *
+     * @param buffer
+     *     Native pointer of the buffer.
+     * @param capacity
+     *     Size in bytes of the buffer on the device.
+     * @param requestedSize
+     *     Size in bytes requested by the last allocation that used the buffer,
+     *     or zero if the buffer is free.
+     * @param access
+     *     Access type of the buffer.
+     * @param releaseStamp
+     *     Order in which a free buffer was released, or zero if it is used.
+     */
+    record BufferContainer(long buffer, long capacity, long requestedSize, Access access, long releaseStamp) {
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof BufferContainer that)) {
+                return false;
+            }
+            return buffer == that.buffer;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(buffer);
+        }
+    }
+}
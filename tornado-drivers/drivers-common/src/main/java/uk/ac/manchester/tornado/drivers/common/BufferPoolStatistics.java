@@ -0,0 +1,75 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import uk.ac.manchester.tornado.api.common.Access;
+
+/**
+ * Statistics of the pool of buffers of a {@link TornadoBufferProvider} for an
+ * access type.
+ *
+ * @param access
+ *     Access type of the buffers of the pool.
+ * @param hits
+ *     Number of allocations served with a free buffer of the pool.
+ * @param misses
+ *     Number of allocations that created a new buffer on the device.
+ * @param evictions
+ *     Number of free buffers released on the device.
+ * @param freeBuffers
+ *     Number of free buffers cached by the pool.
+ * @param bytesCached
+ *     Size in bytes of the free buffers cached by the pool.
+ * @param usedBuffers
+ *     Number of buffers in use.
+ * @param bytesInUse
+ *     Size in bytes of the buffers in use.
+ * @param bytesRequested
+ *     Size in bytes requested by the allocations of the buffers in use.
+ */
+public record BufferPoolStatistics(Access access, long hits, long misses, long evictions, int freeBuffers, long bytesCached, int usedBuffers, long bytesInUse, long bytesRequested) {
+
+    /**
+     * @return Ratio of allocations served by the pool without allocating a new
+     *     buffer on the device.
+     */
+    public double hitRate() {
+        long allocations = hits + misses;
+        return allocations == 0 ? 0 : (double) hits / allocations;
+    }
+
+    /**
+     * @return Ratio of the memory of the buffers in use that is not used by the
+     *     allocations, due to rounding up the requested sizes to size classes.
+     */
+    public double fragmentation() {
+        return bytesInUse == 0 ? 0 : 1.0 - (double) bytesRequested / bytesInUse;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s] hits=%d, misses=%d, hit rate=%.2f, evictions=%d, cached=%d buffers (%d bytes), used=%d buffers (%d bytes), fragmentation=%.2f", access, hits, misses, hitRate(),
+                evictions, freeBuffers, bytesCached, usedBuffers, bytesInUse, fragmentation());
+    }
+}
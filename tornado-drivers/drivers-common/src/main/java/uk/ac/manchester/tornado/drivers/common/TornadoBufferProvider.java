@@ -25,31 +25,31 @@ package uk.ac.manchester.tornado.drivers.common;
 import static uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray.ARRAY_HEADER;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEVICE_AVAILABLE_MEMORY;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.TornadoTargetDevice;
 import uk.ac.manchester.tornado.api.common.Access;
-import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.BufferPool.BufferContainer;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
-import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 /**
  * This class implements a cache of allocated buffers on the device and also
  * handles the logic to allocate and free buffers. This class is extended for
- * each backend. The logic is as follows: it maintains a list of used buffers
- * and another list of free buffers. When performing an allocation, it first
- * checks if memory is available on the device. If it is not, then it will try
- * to reuse a buffer from the free list of buffers.
+ * each backend. The logic is as follows: it maintains a {@link BufferPool} per
+ * access type, in which buffers are grouped in size classes. When performing an
+ * allocation, it first tries to reuse a free buffer of the same size class.
+ * If there is none, it allocates a new buffer if memory is available on the
+ * device. Otherwise, it tries to reuse a larger free buffer, and finally it
+ * releases the least recently released buffers until the allocation fits.
  */
 public abstract class TornadoBufferProvider {
 
     protected final TornadoDeviceContext deviceContext;
-    protected final HashMap<Access, ArrayList<BufferContainer>> freeBuffers;
-    protected final HashMap<Access, ArrayList<BufferContainer>> usedBuffers;
+    private final EnumMap<Access, BufferPool> pools;
     protected long currentMemoryAvailable;
+    private long releaseCounter;
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
     private static final String RESET = "\u001B[0m";
@@ -58,23 +58,16 @@ public abstract class TornadoBufferProvider {
 
     protected TornadoBufferProvider(TornadoDeviceContext deviceContext) {
         this.deviceContext = deviceContext;
-        this.usedBuffers = initializeBufferHashMap();
-        this.freeBuffers = initializeBufferHashMap();
-        currentMemoryAvailable = TornadoOptions.DEVICE_AVAILABLE_MEMORY;
-    }
-
-    private HashMap<Access, ArrayList<BufferContainer>> initializeBufferHashMap() {
-        HashMap<Access, ArrayList<BufferContainer>> bufferAccesses = new HashMap<>();
+        this.pools = new EnumMap<>(Access.class);
         for (Access access : Access.values()) {
-            ArrayList<BufferContainer> bufferList = new ArrayList<>();
-            bufferAccesses.put(access, bufferList);
+            pools.put(access, new BufferPool(access));
         }
-        return bufferAccesses;
+        currentMemoryAvailable = DEVICE_AVAILABLE_MEMORY;
     }
 
     /**
      * This function is invoked before the allocation with batch processing takes place.
-     * It iterates over the list of used buffers, and if a buffer with the same
+     * It checks the list of used buffers, and if a buffer with the same
      * access type and size has already been allocated, it returns true to signify that
      * this buffer can be reused for this batch. Otherwise, it returns false.
      *
@@ -84,19 +77,14 @@ public abstract class TornadoBufferProvider {
      *
      * @return True if a buffer to reuse is available, or false otherwise.
      */
-    public boolean reuseBufferForBatchProcessing(long batchSize, Access access, int numberOfBuffersForAccessType) {
-        boolean matchFound = false;
-        if (!usedBuffers.get(access).isEmpty()) {
-            for (BufferContainer bufferContainer : usedBuffers.get(access)) {
-                if (usedBuffers.get(access).size() < numberOfBuffersForAccessType) {
-                    return false;
-                }
-                long size = bufferContainer.size;
-                matchFound = (size == batchSize + ARRAY_HEADER);
-                if (matchFound) {
-                    logger.debug("Reuse buffer %s from the used-list for batch processing. Batch Size = %s, Access = %s %n", bufferContainer, batchSize, access);
-                }
-            }
+    public synchronized boolean reuseBufferForBatchProcessing(long batchSize, Access access, int numberOfBuffersForAccessType) {
+        BufferPool pool = pools.get(access);
+        if (pool.getNumUsedBuffers() == 0 || pool.getNumUsedBuffers() < numberOfBuffersForAccessType) {
+            return false;
+        }
+        boolean matchFound = pool.isBufferUsedWithSize(batchSize + ARRAY_HEADER);
+        if (matchFound) {
+            logger.debug("Reuse buffer from the used-list for batch processing. Batch Size = %s, Access = %s %n", batchSize, access);
         }
         return matchFound;
     }
@@ -105,90 +93,81 @@ public abstract class TornadoBufferProvider {
 
     protected abstract void releaseBuffer(long buffer);
 
-    private synchronized long allocate(long size, Access access) {
-        long buffer = allocateBuffer(size, access);
-        currentMemoryAvailable -= size;
-        BufferContainer bufferInfo = new BufferContainer(buffer, size, access);
-        usedBuffers.get(access).add(bufferInfo);
+    private synchronized long allocate(long capacity, long sizeInBytes, Access access) {
+        long buffer = allocateBuffer(capacity, access);
+        currentMemoryAvailable -= capacity;
+        BufferContainer bufferInfo = pools.get(access).addNewBuffer(buffer, capacity, sizeInBytes);
         logger.debug("Buffer %s has been allocated and included in the usedBuffers list with access: %s", bufferInfo, access);
-        return bufferInfo.buffer;
+        return bufferInfo.buffer();
     }
 
-    private synchronized void freeBuffers(long size, Access access) {
-        // Attempts to free buffers of given size.
-        long remainingSize = size;
-        while (!freeBuffers.get(access).isEmpty() && remainingSize > 0) {
-            BufferContainer bufferInfo = freeBuffers.get(access).removeFirst();
-            TornadoInternalError.guarantee(!usedBuffers.get(access).contains(bufferInfo), "This buffer should not be used");
-            remainingSize -= bufferInfo.size;
-            currentMemoryAvailable += bufferInfo.size;
-            releaseBuffer(bufferInfo.buffer);
+    private void release(BufferContainer bufferInfo) {
+        currentMemoryAvailable += bufferInfo.capacity();
+        releaseBuffer(bufferInfo.buffer());
+    }
+
+    /**
+     * It releases, on the device, the least recently released free buffers of
+     * all access types until {@code sizeInBytes} bytes are available.
+     */
+    private synchronized void freeBuffers(long sizeInBytes) {
+        while (currentMemoryAvailable < sizeInBytes) {
+            BufferPool leastRecentlyUsedPool = null;
+            long oldestReleaseStamp = Long.MAX_VALUE;
+            for (BufferPool pool : pools.values()) {
+                BufferContainer candidate = pool.peekLeastRecentlyReleased();
+                if (candidate != null && candidate.releaseStamp() < oldestReleaseStamp) {
+                    oldestReleaseStamp = candidate.releaseStamp();
+                    leastRecentlyUsedPool = pool;
+                }
+            }
+            if (leastRecentlyUsedPool == null) {
+                return;
+            }
+            release(leastRecentlyUsedPool.evictLeastRecentlyReleased());
         }
     }
 
     public synchronized long deallocate(Access access) {
         // Attempts to free buffers of given size.
         long spaceDeallocated = 0;
-        while (!freeBuffers.get(access).isEmpty()) {
-            BufferContainer bufferInfo = freeBuffers.get(access).removeFirst();
-            TornadoInternalError.guarantee(!usedBuffers.get(access).contains(bufferInfo), "This buffer should not be used");
-            currentMemoryAvailable += bufferInfo.size;
-            spaceDeallocated += bufferInfo.size;
-            releaseBuffer(bufferInfo.buffer);
+        BufferPool pool = pools.get(access);
+        BufferContainer bufferInfo;
+        while ((bufferInfo = pool.evictLeastRecentlyReleased()) != null) {
+            spaceDeallocated += bufferInfo.capacity();
+            release(bufferInfo);
         }
         return spaceDeallocated;
     }
 
-    private synchronized BufferContainer markBufferUsed(int freeBufferIndex, Access access) {
-        BufferContainer buffer = freeBuffers.get(access).get(freeBufferIndex);
-        usedBuffers.get(access).add(buffer);
-        freeBuffers.get(access).remove(buffer);
-        return buffer;
-    }
-
-    /**
-     * First check if there is an available buffer of a given size. Perform a
-     * sequential search through the freeBuffers to get the buffer with the smaller
-     * size than can fulfill the allocation. The number of allocated buffers is
-     * usually low, so searching sequentially should not take a lot of time.
-     *
-     * @param sizeInBytes
-     *     Size in bytes for the requested buffer.
-     * @return returns the index position of a free buffer within the free buffer
-     *     list. It returns -1 if a free buffer slot is not found.
-     */
-    private synchronized int bufferIndexOfAFreeSpace(long sizeInBytes, Access access) {
-        int minBufferIndex = -1;
-        for (int i = 0; i < freeBuffers.get(access).size(); i++) {
-            BufferContainer bufferInfo = freeBuffers.get(access).get(i);
-            if (bufferInfo.size >= sizeInBytes && (minBufferIndex == -1 || bufferInfo.size < freeBuffers.get(access).get(minBufferIndex).size)) {
-                minBufferIndex = i;
-            }
-        }
-        return minBufferIndex;
-    }
-
     /**
      * There is no buffer to fulfill the size. Start freeing unused buffers and try
      * to allocate.
      *
+     * @param capacity
+     *     Size in bytes of the buffer to allocate.
      * @param sizeInBytes
      *     Size in bytes for the requested buffer.
      * @return It returns a buffer native pointer.
      */
-    private synchronized long freeUnusedNativeBufferAndAssignRegion(long sizeInBytes, Access access) {
-        freeBuffers(sizeInBytes, access);
-        if (sizeInBytes <= currentMemoryAvailable) {
-            return allocate(sizeInBytes, access);
+    private synchronized long freeUnusedNativeBufferAndAssignRegion(long capacity, long sizeInBytes, Access access) {
+        freeBuffers(capacity);
+        if (capacity <= currentMemoryAvailable) {
+            return allocate(capacity, sizeInBytes, access);
+        } else if (sizeInBytes <= currentMemoryAvailable) {
+            return allocate(sizeInBytes, sizeInBytes, access);
         } else {
             throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
         }
     }
 
     /**
-     * Method that finds a suitable buffer for a requested buffer size. If a free
-     * memory buffer is found, it performs the native buffer allocation on the
-     * target device. Otherwise, it throws an exception.
+     * Method that finds a suitable buffer for a requested buffer size. The size
+     * is rounded up to its size class. If a free buffer of the same size class is
+     * found, it is reused. Otherwise, if memory is available, it performs the
+     * native buffer allocation on the target device. Otherwise, it reuses a free
+     * buffer of a larger size class, or it releases free buffers until the
+     * allocation fits.
      *
      * @param sizeInBytes
      *     Size in bytes for the requested buffer.
@@ -199,40 +178,43 @@ public abstract class TornadoBufferProvider {
      */
     public synchronized long getOrAllocateBufferWithSize(long sizeInBytes, Access access) {
         TornadoTargetDevice device = deviceContext.getDevice();
-        if (sizeInBytes <= currentMemoryAvailable && sizeInBytes < device.getDeviceMaxAllocationSize()) {
-            // Allocate if there is enough device memory.
-            return allocate(sizeInBytes, access);
-        } else if (sizeInBytes < device.getDeviceMaxAllocationSize()) {
-            int minBufferIndex = bufferIndexOfAFreeSpace(sizeInBytes, access);
-            // If a buffer was found, mark it as used and return it.
-            if (minBufferIndex != -1) {
-                return markBufferUsed(minBufferIndex, access).buffer;
-            } else {
-                return freeUnusedNativeBufferAndAssignRegion(sizeInBytes, access);
-            }
-        } else {
+        final long maxAllocationSize = device.getDeviceMaxAllocationSize();
+        if (sizeInBytes >= maxAllocationSize) {
             throw new TornadoOutOfMemoryException("[ERROR] Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
         }
+
+        BufferPool pool = pools.get(access);
+        BufferContainer bufferInfo = pool.takeFreeBuffer(sizeInBytes, false);
+        if (bufferInfo != null) {
+            logger.debug("Buffer %s has been reused from the freeBuffers list with access: %s", bufferInfo, access);
+            return bufferInfo.buffer();
+        }
+
+        long capacity = BufferPool.sizeOfClass(BufferPool.sizeClassOf(sizeInBytes));
+        if (capacity >= maxAllocationSize) {
+            capacity = sizeInBytes;
+        }
+        if (capacity <= currentMemoryAvailable) {
+            // Allocate if there is enough device memory.
+            return allocate(capacity, sizeInBytes, access);
+        }
+
+        // Not enough memory: use a larger free buffer, if any, before releasing buffers
+        bufferInfo = pool.takeFreeBuffer(sizeInBytes, true);
+        if (bufferInfo != null) {
+            logger.debug("Buffer %s has been reused from the freeBuffers list with access: %s", bufferInfo, access);
+            return bufferInfo.buffer();
+        }
+        return freeUnusedNativeBufferAndAssignRegion(capacity, sizeInBytes, access);
     }
 
     /**
-     * Removes the buffer from the {@link #usedBuffers} list and add it to
-     * the @{@link #freeBuffers} list.
+     * Removes the buffer from the list of used buffers and adds it to the free
+     * buffers of its size class.
      */
     public synchronized void markBufferReleased(long buffer, Access access) {
-        int foundIndex = -1;
-        for (int i = 0; i < usedBuffers.get(access).size(); i++) {
-            // find the buffer slot to mark it as free
-            if (usedBuffers.get(access).get(i) != null && usedBuffers.get(access).get(i).buffer == buffer) {
-                foundIndex = i;
-                break;
-            }
-        }
-
-        if (foundIndex != -1) {
-            // if found, we mark it as free by inserting it into the free list
-            BufferContainer removedBuffer = usedBuffers.get(access).remove(foundIndex);
-            freeBuffers.get(access).add(removedBuffer);
+        BufferContainer removedBuffer = pools.get(access).release(buffer, ++releaseCounter);
+        if (removedBuffer != null) {
             logger.debug("Buffer %s has been released and included in the freeBuffers list for access: %s", removedBuffer, access);
         }
     }
@@ -244,30 +226,21 @@ public abstract class TornadoBufferProvider {
      *     Number of free buffers.
      * @return boolean.
      */
-    public boolean isNumFreeBuffersAvailable(int numBuffers, Access access) {
-        return freeBuffers.get(access).size() >= numBuffers;
+    public synchronized boolean isNumFreeBuffersAvailable(int numBuffers, Access access) {
+        return pools.get(access).getNumFreeBuffers() >= numBuffers;
     }
 
     public synchronized void resetBuffers(Access access) {
-        freeBuffers(DEVICE_AVAILABLE_MEMORY, access);
+        deallocate(access);
     }
 
-    private record BufferContainer(long buffer, long size, Access access) {
-
-        @Override
-        public boolean equals(Object object) {
-            if (this == object) {
-                return true;
-            }
-            if (!(object instanceof BufferContainer that)) {
-                return false;
-            }
-            return buffer == that.buffer && size == that.size;
-        }
-
-        @Override
-        public int hashCode() {
-            return (int) buffer;
-        }
+    /**
+     * @param access
+     *     Access type of the pool.
+     * @return {@link BufferPoolStatistics} of the pool of buffers for the access
+     *     type.
+     */
+    public synchronized BufferPoolStatistics getStatistics(Access access) {
+        return pools.get(access).getStatistics();
     }
 }
@@ -67,6 +67,18 @@ public class CodeUtil {
         return getCallingConvention(type, retType, argTypes, codeCache.getTarget(), locals);
     }
 
+    /**
+     * Create the calling convention of a kernel from the types of its parameters,
+     * for kernels that are not compiled from a single Java method.
+     */
+    public static CallingConvention getCallingConvention(CodeCacheProvider codeCache, CallingConvention.Type type, Local[] parameters) {
+        JavaType[] argTypes = new JavaType[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            argTypes[i] = parameters[i].getType();
+        }
+        return getCallingConvention(type, null, argTypes, codeCache.getTarget(), parameters);
+    }
+
     private static CallingConvention getCallingConvention(Type type, JavaType returnType, JavaType[] argTypes, TargetDescription target, Local[] locals) {
         int variableIndex = 0;
 
@@ -0,0 +1,433 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.code;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.module.ModuleDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.graalvm.compiler.bytecode.BytecodeStream;
+import org.graalvm.compiler.bytecode.Bytecodes;
+
+import jdk.vm.ci.meta.JavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Persistent cache of the kernels generated by the OpenCL, PTX and SPIR-V
+ * backends. It is enabled with {@code -Dtornado.kernel.cache.enable=True}.
+ *
+ * <p>
+ * A kernel is stored in a file named after a SHA-256 key of all the inputs of
+ * the compilation: the bytecode of the task method and of the methods that it
+ * calls, the arguments used to specialise the kernel (scalar values, array
+ * sizes and fields of objects), the batch and grid configuration, the compiler
+ * flags, the TornadoVM options, the backend and the device. Any change to the
+ * inputs produces a new key, so stale kernels are never loaded. They are
+ * eventually removed when the cache exceeds its maximum size
+ * ({@code -Dtornado.kernel.cache.size}), in least recently used order.
+ * </p>
+ *
+ * <p>
+ * Files are written to a temporary file and atomically moved into the cache
+ * directory, so the cache can be shared by multiple JVMs.
+ * </p>
+ */
+public final class PersistentKernelCache {
+
+    /**
+     * Version of the file format and of the key. Increase it when the generated
+     * code depends on new inputs.
+     */
+    private static final int FORMAT_VERSION = 3;
+    private static final int MAGIC = 0x54564D4B;
+    private static final String FILE_EXTENSION = ".kernel";
+    private static final int MAX_FIELD_DEPTH = 4;
+    private static final int MAX_METHODS = 512;
+
+    private static final TornadoLogger logger = new TornadoLogger(PersistentKernelCache.class);
+    private static final Path CACHE_DIRECTORY = Paths.get(TornadoOptions.PERSISTENT_KERNEL_CACHE_DIR, "v" + FORMAT_VERSION);
+
+    private PersistentKernelCache() {
+    }
+
+    /**
+     * Kernel loaded from the cache.
+     *
+     * @param entryPoint
+     *     Name of the kernel.
+     * @param code
+     *     Source code or binary of the kernel.
+     * @param domain
+     *     Parallel domain of the kernel, or null if it has no parallel loops.
+     * @param localMemoryTileSize
+     *     Tile size of the loops staged in local memory, or 0 if the kernel
+     *     does not use local memory tiling.
+     */
+    public record CachedKernel(String entryPoint, byte[] code, DomainTree domain, int localMemoryTileSize) {
+
+        /**
+         * It sets the meta-data that the compiler would have set for the task.
+         */
+        public void restoreMetaData(TaskDataContext meta) {
+            if (domain != null) {
+                meta.setDomain(domain);
+            }
+            // Tiled kernels must be launched with work-groups of the tile size
+            meta.setLocalMemoryTileSize(localMemoryTileSize);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return TornadoOptions.PERSISTENT_KERNEL_CACHE;
+    }
+
+    /**
+     * @return Directory of the kernels stored with the current format version.
+     */
+    public static Path getCacheDirectory() {
+        return CACHE_DIRECTORY;
+    }
+
+    /**
+     * It computes the key of the kernel of a task.
+     *
+     * @param task
+     *     Task to compile.
+     * @param resolvedMethod
+     *     Task method.
+     * @param backendType
+     *     Backend of the device.
+     * @param deviceName
+     *     Name of the device.
+     * @return Hexadecimal SHA-256 key.
+     */
+    public static String computeKey(CompilableTask task, ResolvedJavaMethod resolvedMethod, TornadoVMBackendType backendType, String deviceName) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new TornadoRuntimeException("[ERROR] SHA-256 is not available for the kernel cache: " + e.getMessage());
+        }
+        final TaskDataContext meta = task.meta();
+        update(digest, FORMAT_VERSION);
+        update(digest, getTornadoVersion());
+        update(digest, System.getProperty("java.vm.version"));
+        update(digest, backendType.name());
+        update(digest, deviceName);
+        update(digest, meta.getCompilerFlags(backendType));
+        updateTornadoProperties(digest);
+        updateMethods(digest, resolvedMethod);
+
+        update(digest, meta.getNumThreads());
+        if (meta.getNumThreads() <= 0 && task.getBatchThreads() != 0) {
+            // Batch kernels read the number of threads and the offset of each chunk at run time
+            update(digest, -1);
+        } else {
+            update(digest, task.getBatchThreads());
+            update(digest, task.getBatchNumber());
+            update(digest, task.getBatchSize());
+        }
+        update(digest, task.isGridSchedulerEnabled() ? 1 : 0);
+        for (Object argument : task.getArguments()) {
+            updateArgument(digest, argument, 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String getTornadoVersion() {
+        ModuleDescriptor descriptor = PersistentKernelCache.class.getModule().getDescriptor();
+        if (descriptor == null || descriptor.rawVersion().isEmpty()) {
+            return "unknown";
+        }
+        return descriptor.rawVersion().get();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(MessageDigest digest, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            digest.update((byte) (value >>> (i * Byte.SIZE)));
+        }
+    }
+
+    /**
+     * TornadoVM options, such as math optimizations, change the generated code.
+     */
+    private static void updateTornadoProperties(MessageDigest digest) {
+        TreeMap<String, String> properties = new TreeMap<>();
+        System.getProperties().forEach((key, value) -> {
+            String property = key.toString();
+            if (property.startsWith("tornado.") && !property.startsWith("tornado.kernel.cache.")) {
+                properties.put(property, value.toString());
+            }
+        });
+        properties.forEach((key, value) -> {
+            update(digest, key);
+            update(digest, value);
+        });
+    }
+
+    /**
+     * It adds the bytecode of the method and of all the methods that it can
+     * invoke. Methods of the JDK are identified by the version of the JVM.
+     */
+    private static void updateMethods(MessageDigest digest, ResolvedJavaMethod rootMethod) {
+        final Set<ResolvedJavaMethod> visited = new HashSet<>();
+        final Deque<ResolvedJavaMethod> workList = new ArrayDeque<>();
+        workList.push(rootMethod);
+        while (!workList.isEmpty() && visited.size() < MAX_METHODS) {
+            final ResolvedJavaMethod method = workList.pop();
+            if (!visited.add(method)) {
+                continue;
+            }
+            update(digest, method.format("%H.%n(%P)%R"));
+            final byte[] code = method.getCode();
+            if (code == null || isJDKMethod(method)) {
+                continue;
+            }
+            update(digest, code.length);
+            digest.update(code);
+
+            final BytecodeStream stream = new BytecodeStream(code);
+            while (stream.currentBC() != Bytecodes.END) {
+                final int opcode = stream.currentBC();
+                if (opcode == Bytecodes.INVOKESTATIC || opcode == Bytecodes.INVOKEVIRTUAL || opcode == Bytecodes.INVOKESPECIAL || opcode == Bytecodes.INVOKEINTERFACE) {
+                    JavaMethod callee = method.getConstantPool().lookupMethod(stream.readCPI(), opcode, method);
+                    if (callee instanceof ResolvedJavaMethod resolvedCallee) {
+                        workList.push(resolvedCallee);
+                    } else {
+                        update(digest, callee.format("%H.%n(%P)%R"));
+                    }
+                }
+                stream.next();
+            }
+        }
+    }
+
+    private static boolean isJDKMethod(ResolvedJavaMethod method) {
+        final String className = method.getDeclaringClass().toJavaName();
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+
+    /**
+     * The kernels are specialised with the values of scalar arguments, the sizes
+     * of arrays and the values of the fields of objects.
+     */
+    private static void updateArgument(MessageDigest digest, Object argument, int depth) {
+        if (argument == null) {
+            update(digest, "null");
+            return;
+        }
+        final Class<?> klass = argument.getClass();
+        update(digest, klass.getName());
+        if (RuntimeUtilities.isBoxedPrimitiveClass(klass)) {
+            update(digest, argument.toString());
+        } else if (klass.isArray()) {
+            update(digest, Array.getLength(argument));
+        } else if (argument instanceof TornadoNativeArray nativeArray) {
+            update(digest, nativeArray.getSize());
+        } else if (depth < MAX_FIELD_DEPTH && !klass.getName().startsWith("java.") && !klass.getName().startsWith("jdk.")) {
+            for (Class<?> current = klass; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || !field.trySetAccessible()) {
+                        continue;
+                    }
+                    update(digest, field.getName());
+                    try {
+                        updateArgument(digest, field.get(argument), depth + 1);
+                    } catch (IllegalAccessException e) {
+                        update(digest, "inaccessible");
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path getPath(String key) {
+        return CACHE_DIRECTORY.resolve(key + FILE_EXTENSION);
+    }
+
+    /**
+     * @param key
+     *     Key computed with {@link #computeKey}.
+     * @return The {@link CachedKernel} of the key, or null if it is not in the
+     *     cache.
+     */
+    public static CachedKernel load(String key) {
+        final Path path = getPath(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                throw new IOException("invalid header");
+            }
+            final String entryPoint = input.readUTF();
+            final int depth = input.readInt();
+            DomainTree domain = null;
+            if (depth >= 0) {
+                domain = new DomainTree(depth);
+                for (int i = 0; i < depth; i++) {
+                    domain.set(i, new IntDomain(input.readInt(), input.readInt(), input.readInt()));
+                }
+            }
+            final int localMemoryTileSize = input.readInt();
+            final byte[] code = new byte[input.readInt()];
+            input.readFully(code);
+            // Used as the access time for the eviction of the least recently used kernels
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            logger.debug("Kernel %s loaded from the persistent cache: %s", entryPoint, path);
+            return new CachedKernel(entryPoint, code, domain, localMemoryTileSize);
+        } catch (IOException e) {
+            logger.warn("Removing invalid kernel from the persistent cache %s: %s", path, e.getMessage());
+            delete(path);
+            return null;
+        }
+    }
+
+    /**
+     * It stores a kernel in the cache. Errors are logged, and the kernel is not
+     * cached.
+     */
+    public static void store(String key, String entryPoint, byte[] code, DomainTree domain, int localMemoryTileSize) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(code.length + 256);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(entryPoint);
+            if (domain == null) {
+                output.writeInt(-1);
+            } else {
+                output.writeInt(domain.getDepth());
+                for (int i = 0; i < domain.getDepth(); i++) {
+                    IntDomain intDomain = (IntDomain) domain.get(i);
+                    output.writeInt(intDomain.getOffset());
+                    output.writeInt(intDomain.getStep());
+                    output.writeInt(intDomain.cardinality());
+                }
+            }
+            output.writeInt(localMemoryTileSize);
+            output.writeInt(code.length);
+            output.write(code);
+
+            Files.createDirectories(CACHE_DIRECTORY);
+            final Path temporaryFile = Files.createTempFile(CACHE_DIRECTORY, key, ".tmp");
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, getPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Kernel %s stored in the persistent cache: %s", entryPoint, getPath(key));
+        } catch (IOException | ClassCastException e) {
+            logger.warn("Unable to store kernel %s in the persistent cache: %s", entryPoint, e.getMessage());
+            return;
+        }
+        evictLeastRecentlyUsedKernels(TornadoOptions.PERSISTENT_KERNEL_CACHE_SIZE);
+    }
+
+    private static void evictLeastRecentlyUsedKernels(long maxSize) {
+        record CacheFile(Path path, long size, long lastModified) {
+        }
+        final List<CacheFile> files = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> paths = Files.list(CACHE_DIRECTORY)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(FILE_EXTENSION)).toList()) {
+                CacheFile file = new CacheFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+                files.add(file);
+                totalSize += file.size();
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to list the persistent kernel cache %s: %s", CACHE_DIRECTORY, e.getMessage());
+            return;
+        }
+        if (totalSize <= maxSize) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(CacheFile::lastModified));
+        for (CacheFile file : files) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            delete(file.path());
+            totalSize -= file.size();
+        }
+    }
+
+    /**
+     * It removes all the kernels from the persistent cache.
+     */
+    public static void invalidate() {
+        if (!Files.isDirectory(CACHE_DIRECTORY)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.list(CACHE_DIRECTORY)) {
+            paths.forEach(PersistentKernelCache::delete);
+        } catch (IOException e) {
+            logger.warn("Unable to invalidate the persistent kernel cache %s: %s", CACHE_DIRECTORY, e.getMessage());
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Unable to remove %s from the persistent kernel cache: %s", path, e.getMessage());
+        }
+    }
+}
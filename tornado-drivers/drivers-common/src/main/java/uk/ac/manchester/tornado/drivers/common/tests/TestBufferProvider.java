@@ -0,0 +1,326 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.drivers.common.BufferPoolStatistics;
+import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+
+/**
+ * Test for the {@link TornadoBufferProvider}. It uses a buffer provider that
+ * records the native allocations and releases of a mock device with a few KB
+ * of memory.
+ *
+ * <p>
+ * The test checks that buffers are allocated with the size of their size
+ * class, that free buffers are reused without new allocations, and that the
+ * least recently released buffers are the first ones to be released on the
+ * device when it runs out of memory.
+ * </p>
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.drivers.common.tests.TestBufferProvider
+ * </code>
+ */
+public class TestBufferProvider {
+
+    private static final long DEVICE_MEMORY = 4096;
+    private static final long MAX_ALLOCATION_SIZE = 4096;
+
+    private static class MockBufferProvider extends TornadoBufferProvider {
+
+        private final List<Long> allocations = new ArrayList<>();
+        private final List<Long> releases = new ArrayList<>();
+        private long nextBuffer = 0x1000;
+
+        MockBufferProvider(long memory) {
+            super(new MockDeviceContext());
+            currentMemoryAvailable = memory;
+        }
+
+        @Override
+        protected long allocateBuffer(long size, Access access) {
+            allocations.add(size);
+            nextBuffer += 0x1000;
+            return nextBuffer;
+        }
+
+        @Override
+        protected void releaseBuffer(long buffer) {
+            releases.add(buffer);
+        }
+
+        long getCurrentMemoryAvailable() {
+            return currentMemoryAvailable;
+        }
+    }
+
+    private static class MockDeviceContext implements TornadoDeviceContext {
+
+        private final MockTargetDevice device = new MockTargetDevice();
+
+        @Override
+        public TornadoTargetDevice getDevice() {
+            return device;
+        }
+
+        @Override
+        public TornadoMemoryProvider getMemoryManager() {
+            return null;
+        }
+
+        @Override
+        public boolean wasReset() {
+            return false;
+        }
+
+        @Override
+        public void reset(long executionPlanId) {
+        }
+
+        @Override
+        public void setResetToFalse() {
+        }
+
+        @Override
+        public boolean isPlatformFPGA() {
+            return false;
+        }
+
+        @Override
+        public boolean isPlatformXilinxFPGA() {
+            return false;
+        }
+
+        @Override
+        public boolean isFP64Supported() {
+            return true;
+        }
+
+        @Override
+        public boolean isCached(long executionPlanId, String methodName, SchedulableTask task) {
+            return false;
+        }
+
+        @Override
+        public int getDeviceIndex() {
+            return 0;
+        }
+
+        @Override
+        public int getDevicePlatform() {
+            return 0;
+        }
+
+        @Override
+        public String getDeviceName() {
+            return device.getDeviceName();
+        }
+
+        @Override
+        public int getDriverIndex() {
+            return 0;
+        }
+
+        @Override
+        public Set<Long> getRegisteredPlanIds() {
+            return Set.of();
+        }
+    }
+
+    private static class MockTargetDevice implements TornadoTargetDevice {
+
+        @Override
+        public String getDeviceName() {
+            return "MockDevice";
+        }
+
+        @Override
+        public long getDeviceGlobalMemorySize() {
+            return DEVICE_MEMORY;
+        }
+
+        @Override
+        public long getDeviceLocalMemorySize() {
+            return 0;
+        }
+
+        @Override
+        public int getDeviceMaxComputeUnits() {
+            return 1;
+        }
+
+        @Override
+        public long[] getDeviceMaxWorkItemSizes() {
+            return new long[] { 1, 1, 1 };
+        }
+
+        @Override
+        public long[] getDeviceMaxWorkGroupSize() {
+            return new long[] { 1 };
+        }
+
+        @Override
+        public int getMaxThreadsPerBlock() {
+            return 1;
+        }
+
+        @Override
+        public int getDeviceMaxClockFrequency() {
+            return 0;
+        }
+
+        @Override
+        public long getDeviceMaxConstantBufferSize() {
+            return DEVICE_MEMORY;
+        }
+
+        @Override
+        public long getDeviceMaxAllocationSize() {
+            return MAX_ALLOCATION_SIZE;
+        }
+
+        @Override
+        public String getDeviceInfo() {
+            return "Mock device for buffer provider tests";
+        }
+    }
+
+    private static boolean check(boolean condition, String message) {
+        if (!condition) {
+            System.out.print("\n\t" + message);
+        }
+        return condition;
+    }
+
+    /**
+     * Allocations are rounded up to their size class, and a released buffer is
+     * reused by the next request of the same size class without a new native
+     * allocation.
+     */
+    private static boolean testSizeClassReuse() {
+        MockBufferProvider provider = new MockBufferProvider(DEVICE_MEMORY);
+        long a = provider.getOrAllocateBufferWithSize(1000, Access.READ_WRITE);
+        long b = provider.getOrAllocateBufferWithSize(1100, Access.READ_WRITE);
+        boolean pass = check(provider.allocations.equals(List.of(1024L, 1280L)), "Unexpected capacities: " + provider.allocations);
+        pass &= check(provider.getCurrentMemoryAvailable() == DEVICE_MEMORY - 1024 - 1280, "Unexpected memory available: " + provider.getCurrentMemoryAvailable());
+
+        provider.markBufferReleased(a, Access.READ_WRITE);
+        provider.markBufferReleased(b, Access.READ_WRITE);
+        pass &= check(provider.isNumFreeBuffersAvailable(2, Access.READ_WRITE), "Expected two free buffers");
+
+        // 900 bytes fall in the size class of 1024 bytes
+        long c = provider.getOrAllocateBufferWithSize(900, Access.READ_WRITE);
+        pass &= check(c == a, "Expected buffer reuse");
+        pass &= check(provider.allocations.size() == 2, "Unexpected native allocation");
+        // Free buffers are per access type
+        provider.getOrAllocateBufferWithSize(1100, Access.READ_ONLY);
+        pass &= check(provider.allocations.size() == 3, "Expected a native allocation for a different access type");
+
+        BufferPoolStatistics statistics = provider.getStatistics(Access.READ_WRITE);
+        pass &= check(statistics.hits() == 1 && statistics.misses() == 2, "Unexpected statistics: " + statistics);
+        pass &= check(statistics.hitRate() == 1.0 / 3, "Unexpected hit rate: " + statistics);
+        pass &= check(statistics.freeBuffers() == 1 && statistics.bytesCached() == 1280, "Unexpected cached bytes: " + statistics);
+        pass &= check(statistics.usedBuffers() == 1 && statistics.bytesInUse() == 1024 && statistics.bytesRequested() == 900, "Unexpected used bytes: " + statistics);
+        pass &= check(Math.abs(statistics.fragmentation() - (1 - 900.0 / 1024)) < 1e-9, "Unexpected fragmentation: " + statistics);
+        return pass;
+    }
+
+    /**
+     * When the device runs out of memory, the free buffers are released in the
+     * order in which they were marked as released, across all access types.
+     */
+    private static boolean testLeastRecentlyReleasedEviction() {
+        MockBufferProvider provider = new MockBufferProvider(DEVICE_MEMORY);
+        long a = provider.getOrAllocateBufferWithSize(1024, Access.READ_ONLY);
+        long b = provider.getOrAllocateBufferWithSize(1024, Access.READ_WRITE);
+        long c = provider.getOrAllocateBufferWithSize(1024, Access.WRITE_ONLY);
+        provider.markBufferReleased(b, Access.READ_WRITE);
+        provider.markBufferReleased(a, Access.READ_ONLY);
+        provider.markBufferReleased(c, Access.WRITE_ONLY);
+
+        // 1024 bytes available: b and then a are released to fit 3072 bytes
+        provider.getOrAllocateBufferWithSize(3000, Access.READ_WRITE);
+        boolean pass = check(provider.releases.equals(List.of(b, a)), "Unexpected release order: " + provider.releases);
+        pass &= check(provider.allocations.getLast() == 3072, "Unexpected capacity: " + provider.allocations.getLast());
+        pass &= check(provider.getCurrentMemoryAvailable() == 0, "Unexpected memory available: " + provider.getCurrentMemoryAvailable());
+        pass &= check(provider.getStatistics(Access.READ_WRITE).evictions() == 1, "Unexpected statistics: " + provider.getStatistics(Access.READ_WRITE));
+        pass &= check(provider.getStatistics(Access.WRITE_ONLY).freeBuffers() == 1, "Unexpected statistics: " + provider.getStatistics(Access.WRITE_ONLY));
+
+        long released = provider.deallocate(Access.WRITE_ONLY);
+        pass &= check(released == 1024 && provider.releases.getLast() == c, "Unexpected deallocation: " + released);
+        return pass;
+    }
+
+    /**
+     * Without memory for a new buffer, a free buffer of a larger size class is
+     * reused before releasing buffers. If the request does not fit after
+     * releasing all the free buffers, it throws an out-of-memory exception.
+     */
+    private static boolean testLargerSizeClassUnderPressure() {
+        MockBufferProvider provider = new MockBufferProvider(DEVICE_MEMORY);
+        long a = provider.getOrAllocateBufferWithSize(2048, Access.READ_WRITE);
+        provider.getOrAllocateBufferWithSize(2048, Access.READ_WRITE);
+        provider.markBufferReleased(a, Access.READ_WRITE);
+
+        long b = provider.getOrAllocateBufferWithSize(600, Access.READ_WRITE);
+        boolean pass = check(b == a && provider.releases.isEmpty(), "Expected reuse of a larger buffer");
+
+        boolean outOfMemory = false;
+        try {
+            provider.getOrAllocateBufferWithSize(600, Access.READ_WRITE);
+        } catch (TornadoOutOfMemoryException e) {
+            outOfMemory = true;
+        }
+        pass &= check(outOfMemory, "Expected out of memory");
+        return pass;
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.drivers.common.tests.TestBufferProvider");
+
+        boolean sizeClassReuse = testSizeClassReuse();
+        boolean eviction = testLeastRecentlyReleasedEviction();
+        boolean largerSizeClass = testLargerSizeClassUnderPressure();
+
+        if (sizeClassReuse && eviction && largerSizeClass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.tests;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.drivers.common.code.PersistentKernelCache;
+import uk.ac.manchester.tornado.drivers.common.code.PersistentKernelCache.CachedKernel;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleContext;
+
+/**
+ * Test for the {@link PersistentKernelCache}. It checks that the key of a
+ * kernel changes with the inputs of the compilation (task method, argument
+ * sizes and scalar values), that kernels, their parallel domains and their
+ * local memory tile sizes are reloaded from disk, and that the least recently used kernels are removed when
+ * the cache exceeds its maximum size.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.drivers.common.tests.TestPersistentKernelCache
+ * </code>
+ */
+public class TestPersistentKernelCache {
+
+    private static final int KERNEL_SIZE = 400;
+
+    public static void scale(FloatArray input, FloatArray output, float alpha) {
+        for (int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * alpha);
+        }
+    }
+
+    public static void scaleAndAdd(FloatArray input, FloatArray output, float alpha) {
+        for (int i = 0; i < input.getSize(); i++) {
+            output.set(i, addOne(input.get(i) * alpha));
+        }
+    }
+
+    private static float addOne(float value) {
+        return value + 1;
+    }
+
+    private static boolean check(boolean condition, String message) {
+        if (!condition) {
+            System.out.print("\n\t" + message);
+        }
+        return condition;
+    }
+
+    private static String computeKey(String methodName, int size, float alpha) throws NoSuchMethodException {
+        Method method = TestPersistentKernelCache.class.getMethod(methodName, FloatArray.class, FloatArray.class, float.class);
+        ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method);
+        CompilableTask task = new CompilableTask(new ScheduleContext("s0"), "t0", method, new FloatArray(size), new FloatArray(size), alpha);
+        return PersistentKernelCache.computeKey(task, resolvedMethod, TornadoVMBackendType.OPENCL, "MockDevice");
+    }
+
+    private static boolean testKeys() throws NoSuchMethodException {
+        String key = computeKey("scale", 1024, 2.0f);
+        boolean pass = check(key.equals(computeKey("scale", 1024, 2.0f)), "Expected the same key for the same inputs");
+        pass &= check(!key.equals(computeKey("scale", 2048, 2.0f)), "Expected a new key for a new array size");
+        pass &= check(!key.equals(computeKey("scale", 1024, 3.0f)), "Expected a new key for a new scalar value");
+        pass &= check(!key.equals(computeKey("scaleAndAdd", 1024, 2.0f)), "Expected a new key for a new method");
+        return pass;
+    }
+
+    private static boolean testStoreAndLoad() {
+        DomainTree domain = new DomainTree(2);
+        domain.set(0, new IntDomain(0, 1, 1024));
+        domain.set(1, new IntDomain(4, 2, 512));
+        byte[] code = "__kernel void scale() {}".getBytes(StandardCharsets.UTF_8);
+        PersistentKernelCache.store("store", "scale", code, domain, 16);
+
+        CachedKernel cachedKernel = PersistentKernelCache.load("store");
+        boolean pass = check(cachedKernel != null, "Expected a cached kernel");
+        if (pass) {
+            pass &= check(cachedKernel.entryPoint().equals("scale") && Arrays.equals(cachedKernel.code(), code), "Unexpected kernel: " + cachedKernel.entryPoint());
+            pass &= check(cachedKernel.domain().getDepth() == 2 && cachedKernel.domain().get(1).toString().equals(domain.get(1).toString()), "Unexpected domain: " + cachedKernel.domain());
+            pass &= check(cachedKernel.localMemoryTileSize() == 16, "Unexpected local memory tile size: " + cachedKernel.localMemoryTileSize());
+        }
+        pass &= check(PersistentKernelCache.load("missing") == null, "Unexpected kernel for a missing key");
+        return pass;
+    }
+
+    private static boolean testInvalidFile() throws IOException {
+        Path path = PersistentKernelCache.getCacheDirectory().resolve("invalid.kernel");
+        Files.write(path, new byte[] { 1, 2, 3 });
+        boolean pass = check(PersistentKernelCache.load("invalid") == null, "Unexpected kernel for an invalid file");
+        pass &= check(!Files.exists(path), "Expected removal of the invalid file");
+        return pass;
+    }
+
+    private static boolean testEviction() throws IOException {
+        PersistentKernelCache.invalidate();
+        byte[] code = new byte[KERNEL_SIZE];
+        long time = System.currentTimeMillis() - 10_000;
+        for (String key : new String[] { "k0", "k1" }) {
+            PersistentKernelCache.store(key, key, code, null, 0);
+            Files.setLastModifiedTime(PersistentKernelCache.getCacheDirectory().resolve(key + ".kernel"), FileTime.fromMillis(time += 1000));
+        }
+        // Loading k0 makes k1 the least recently used kernel
+        PersistentKernelCache.load("k0");
+        PersistentKernelCache.store("k2", "k2", code, null, 0);
+
+        boolean pass = check(PersistentKernelCache.load("k1") == null, "Expected eviction of k1");
+        pass &= check(PersistentKernelCache.load("k0") != null && PersistentKernelCache.load("k2") != null, "Expected k0 and k2 in the cache");
+
+        PersistentKernelCache.invalidate();
+        pass &= check(PersistentKernelCache.load("k0") == null, "Expected an empty cache");
+        return pass;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.print("Running Native: uk.ac.manchester.tornado.drivers.common.tests.TestPersistentKernelCache");
+
+        Path directory = Files.createTempDirectory("tornado-kernel-cache");
+        // Three kernels do not fit in the cache
+        System.setProperty("tornado.kernel.cache.dir", directory.toString());
+        System.setProperty("tornado.kernel.cache.size", Integer.toString(2 * KERNEL_SIZE + 200));
+
+        boolean keys = testKeys();
+        boolean storeAndLoad = testStoreAndLoad();
+        boolean invalidFile = testInvalidFile();
+        boolean eviction = testEviction();
+        deleteDirectory(directory);
+
+        if (keys && storeAndLoad && invalidFile && eviction) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
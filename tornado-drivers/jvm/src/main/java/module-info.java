@@ -0,0 +1,21 @@
+import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
+
+module tornado.drivers.jvm {
+    requires transitive jdk.internal.vm.ci;
+    requires transitive jdk.internal.vm.compiler;
+    requires transitive org.graalvm.collections;
+    requires transitive org.graalvm.word;
+    requires transitive tornado.api;
+    requires transitive tornado.runtime;
+    requires tornado.drivers.common;
+    requires org.objectweb.asm;
+
+    exports uk.ac.manchester.tornado.drivers.jvm;
+    exports uk.ac.manchester.tornado.drivers.jvm.graal;
+    exports uk.ac.manchester.tornado.drivers.jvm.graal.compiler.plugins;
+    exports uk.ac.manchester.tornado.drivers.jvm.mm;
+    exports uk.ac.manchester.tornado.drivers.jvm.runtime;
+
+    provides TornadoBackendProvider with
+            uk.ac.manchester.tornado.drivers.jvm.JVMTornadoDriverProvider;
+}
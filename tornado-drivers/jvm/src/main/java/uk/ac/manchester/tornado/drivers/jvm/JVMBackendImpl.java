@@ -0,0 +1,147 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.List;
+
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.util.Providers;
+
+import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoDeviceNotFound;
+import uk.ac.manchester.tornado.drivers.jvm.graal.JVMHotSpotBackendFactory;
+import uk.ac.manchester.tornado.drivers.jvm.graal.JVMProviders;
+import uk.ac.manchester.tornado.drivers.jvm.runtime.JVMTornadoDevice;
+import uk.ac.manchester.tornado.runtime.TornadoAcceleratorBackend;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.graal.backend.XPUBackend;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+
+/**
+ * Pure-Java backend. It exposes the host CPU as a single TornadoVM device
+ * that runs the Java bytecode of each task on a pool of Java threads. Loops
+ * annotated with {@link uk.ac.manchester.tornado.api.annotations.Parallel}
+ * and kernels expressed with the
+ * {@link uk.ac.manchester.tornado.api.KernelContext} are split across the
+ * threads of the pool.
+ *
+ * <p>
+ * This backend does not generate code through Graal. The Graal
+ * {@link Providers} are only used to build the sketches of each task, in
+ * order to obtain the data-flow information that the TornadoVM bytecode
+ * generator needs.
+ * </p>
+ */
+public final class JVMBackendImpl implements TornadoAcceleratorBackend {
+
+    private final JVMProviders providers;
+    private final JVMDeviceContext deviceContext;
+    private final JVMTornadoDevice device;
+    private final TornadoLogger logger;
+
+    public JVMBackendImpl(final OptionValues options, final HotSpotJVMCIRuntime vmRuntime) {
+        logger = new TornadoLogger(this.getClass());
+        providers = JVMHotSpotBackendFactory.createProviders(options, vmRuntime);
+        deviceContext = new JVMDeviceContext(new JVMDevice(0, TornadoOptions.JVM_BACKEND_THREADS));
+        device = new JVMTornadoDevice(deviceContext);
+        logger.info("JVM: Has 1 device with %d threads", TornadoOptions.JVM_BACKEND_THREADS);
+    }
+
+    /**
+     * The JVM backend does not emit code via Graal. Therefore, there is no
+     * {@link XPUBackend} associated with it.
+     *
+     * @return null
+     */
+    @Override
+    public XPUBackend<?> getDefaultBackend() {
+        return null;
+    }
+
+    @Override
+    public Providers getProviders() {
+        return providers;
+    }
+
+    @Override
+    public TornadoSuitesProvider getSuitesProvider() {
+        return providers.getSuitesProvider();
+    }
+
+    @Override
+    public TornadoDevice getDefaultDevice() {
+        return device;
+    }
+
+    @Override
+    public void setDefaultDevice(int index) {
+        if (index != 0) {
+            throw new TornadoDeviceNotFound("[ERROR]-[JVM-DRIVER] Device required not found: " + index + " - Max: 1");
+        }
+    }
+
+    @Override
+    public int getNumDevices() {
+        return 1;
+    }
+
+    @Override
+    public TornadoXPUDevice getDevice(int index) {
+        if (index == 0) {
+            return device;
+        } else {
+            throw new TornadoDeviceNotFound("[ERROR]-[JVM-DRIVER] Device required not found: " + index + " - Max: 1");
+        }
+    }
+
+    @Override
+    public List<TornadoDevice> getAllDevices() {
+        return List.of(device);
+    }
+
+    @Override
+    public TornadoDeviceType getTypeDefaultDevice() {
+        return TornadoDeviceType.CPU;
+    }
+
+    @Override
+    public String getName() {
+        return "JVM";
+    }
+
+    @Override
+    public TornadoVMBackendType getBackendType() {
+        return TornadoVMBackendType.JAVA;
+    }
+
+    @Override
+    public int getNumPlatforms() {
+        return 1;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import uk.ac.manchester.tornado.drivers.jvm.runtime.JVMInstalledCode;
+
+/**
+ * Code cache of the JVM backend for a single execution plan. Entries are
+ * indexed by the full name of each task (task-graph name + task name).
+ */
+public class JVMCodeCache {
+
+    private final Map<String, JVMInstalledCode> cache;
+
+    public JVMCodeCache() {
+        cache = new ConcurrentHashMap<>();
+    }
+
+    public JVMInstalledCode getCachedCode(String taskName) {
+        return cache.get(taskName);
+    }
+
+    public boolean isCached(String taskName) {
+        JVMInstalledCode installedCode = cache.get(taskName);
+        return installedCode != null && installedCode.isValid();
+    }
+
+    public void install(String taskName, JVMInstalledCode installedCode) {
+        cache.put(taskName, installedCode);
+    }
+
+    public void reset() {
+        cache.values().forEach(JVMInstalledCode::invalidate);
+        cache.clear();
+    }
+}
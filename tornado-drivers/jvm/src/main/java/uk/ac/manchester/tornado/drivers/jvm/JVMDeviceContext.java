@@ -0,0 +1,176 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+
+public class JVMDeviceContext implements TornadoDeviceContext {
+
+    private final JVMDevice device;
+    private final ForkJoinPool workerPool;
+    private final TornadoMemoryProvider memoryManager;
+    private final Map<Long, JVMEventPool> eventPools;
+    private final Set<Long> executionIDs;
+    private boolean wasReset;
+
+    /**
+     * Map table to represent the installed code per execution plan.
+     */
+    private final Map<Long, JVMCodeCache> codeCache;
+
+    public JVMDeviceContext(JVMDevice device) {
+        this.device = device;
+        this.workerPool = new ForkJoinPool(device.getDeviceMaxComputeUnits(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("TornadoVM-JVM-Worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.memoryManager = () -> Runtime.getRuntime().maxMemory();
+        this.eventPools = new ConcurrentHashMap<>();
+        this.codeCache = new ConcurrentHashMap<>();
+        this.executionIDs = Collections.synchronizedSet(new HashSet<>());
+        this.wasReset = false;
+    }
+
+    /**
+     * Pool of Java threads in which the JVM backend runs parallel loops and
+     * kernels.
+     *
+     * @return {@link ForkJoinPool}
+     */
+    public ForkJoinPool getWorkerPool() {
+        return workerPool;
+    }
+
+    public int getNumThreads() {
+        return device.getDeviceMaxComputeUnits();
+    }
+
+    @Override
+    public JVMDevice getDevice() {
+        return device;
+    }
+
+    @Override
+    public TornadoMemoryProvider getMemoryManager() {
+        return memoryManager;
+    }
+
+    @Override
+    public boolean wasReset() {
+        return wasReset;
+    }
+
+    @Override
+    public synchronized void reset(long executionPlanId) {
+        JVMEventPool eventPool = eventPools.remove(executionPlanId);
+        if (eventPool != null) {
+            eventPool.reset();
+        }
+        getCodeCache(executionPlanId).reset();
+        executionIDs.remove(executionPlanId);
+        wasReset = true;
+    }
+
+    @Override
+    public void setResetToFalse() {
+        wasReset = false;
+    }
+
+    @Override
+    public boolean isPlatformFPGA() {
+        return false;
+    }
+
+    @Override
+    public boolean isPlatformXilinxFPGA() {
+        return false;
+    }
+
+    @Override
+    public boolean isFP64Supported() {
+        return true;
+    }
+
+    @Override
+    public boolean isCached(long executionPlanId, String methodName, SchedulableTask task) {
+        return getCodeCache(executionPlanId).isCached(task.getId());
+    }
+
+    @Override
+    public int getDeviceIndex() {
+        return device.getDeviceIndex();
+    }
+
+    @Override
+    public int getDevicePlatform() {
+        return 0;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return device.getDeviceName();
+    }
+
+    @Override
+    public int getDriverIndex() {
+        return TornadoCoreRuntime.getTornadoRuntime().getBackendIndex(JVMBackendImpl.class);
+    }
+
+    @Override
+    public Set<Long> getRegisteredPlanIds() {
+        return executionIDs;
+    }
+
+    public JVMCodeCache getCodeCache(long executionPlanId) {
+        return codeCache.computeIfAbsent(executionPlanId, id -> new JVMCodeCache());
+    }
+
+    private JVMEventPool getEventPool(long executionPlanId) {
+        return eventPools.computeIfAbsent(executionPlanId, id -> {
+            executionIDs.add(id);
+            return new JVMEventPool();
+        });
+    }
+
+    public int registerEvent(long executionPlanId, Event event) {
+        return getEventPool(executionPlanId).registerEvent(event);
+    }
+
+    public Event resolveEvent(long executionPlanId, int eventId) {
+        return getEventPool(executionPlanId).getEvent(eventId);
+    }
+}
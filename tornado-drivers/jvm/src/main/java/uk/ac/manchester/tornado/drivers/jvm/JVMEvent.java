@@ -0,0 +1,111 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus;
+
+/**
+ * Event recorded by the JVM backend. All actions of the JVM backend are
+ * synchronous, so the event is already complete when it is created. The event
+ * only keeps the timestamps (in nanoseconds) that are used by the TornadoVM
+ * profiler.
+ */
+public class JVMEvent implements Event {
+
+    private final String name;
+    private final long startTime;
+    private final long endTime;
+
+    public JVMEvent(String name, long startTime, long endTime) {
+        this.name = name;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    @Override
+    public void waitForEvents(long executionPlanId) {
+        // The event is already complete
+    }
+
+    @Override
+    public void waitOn() {
+        // The event is already complete
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return endTime - startTime;
+    }
+
+    @Override
+    public long getDriverDispatchTime() {
+        return 0;
+    }
+
+    @Override
+    public double getElapsedTimeInSeconds() {
+        return getElapsedTime() * 1e-9;
+    }
+
+    @Override
+    public TornadoExecutionStatus getStatus() {
+        return TornadoExecutionStatus.COMPLETE;
+    }
+
+    @Override
+    public double getTotalTimeInSeconds() {
+        return getElapsedTimeInSeconds();
+    }
+
+    @Override
+    public long getQueuedTime() {
+        return startTime;
+    }
+
+    @Override
+    public long getSubmitTime() {
+        return startTime;
+    }
+
+    @Override
+    public long getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public long getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[JVM Event] name=%s, elapsed=%d ns", name, getElapsedTime());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Circular buffer of events for a single execution plan. Event identifiers are
+ * the positions within the buffer.
+ */
+class JVMEventPool {
+
+    private static final Event EMPTY_EVENT = new EmptyEvent();
+
+    private final Event[] events;
+    private int eventIndex;
+
+    JVMEventPool() {
+        events = new Event[TornadoOptions.MAX_EVENTS];
+        eventIndex = 0;
+    }
+
+    synchronized int registerEvent(Event event) {
+        final int id = eventIndex;
+        events[id] = event;
+        eventIndex = (eventIndex + 1) % events.length;
+        return id;
+    }
+
+    synchronized Event getEvent(int eventId) {
+        if (eventId < 0 || eventId >= events.length || events[eventId] == null) {
+            return EMPTY_EVENT;
+        }
+        return events[eventId];
+    }
+
+    synchronized void reset() {
+        for (int i = 0; i < events.length; i++) {
+            events[i] = null;
+        }
+        eventIndex = 0;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.graal;
+
+import static jdk.vm.ci.common.InitTimer.timer;
+
+import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
+import org.graalvm.compiler.core.common.spi.MetaAccessExtensionProvider;
+import org.graalvm.compiler.hotspot.meta.HotSpotStampProvider;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.loop.LoopsDataProviderImpl;
+import org.graalvm.compiler.nodes.spi.LoopsDataProvider;
+import org.graalvm.compiler.nodes.spi.LoweringProvider;
+import org.graalvm.compiler.nodes.spi.Replacements;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.printer.GraalDebugHandlersFactory;
+import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
+import org.graalvm.compiler.replacements.classfile.ClassfileBytecodeProvider;
+import org.graalvm.compiler.word.WordTypes;
+
+import jdk.vm.ci.code.CodeCacheProvider;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.common.InitTimer;
+import jdk.vm.ci.hotspot.HotSpotConstantReflectionProvider;
+import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
+import jdk.vm.ci.hotspot.HotSpotMetaAccessProvider;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.runtime.JVMCIBackend;
+import uk.ac.manchester.tornado.drivers.jvm.graal.compiler.plugins.JVMGraphBuilderPlugins;
+import uk.ac.manchester.tornado.drivers.providers.TornadoMetaAccessExtensionProvider;
+import uk.ac.manchester.tornado.drivers.providers.TornadoPlatformConfigurationProvider;
+import uk.ac.manchester.tornado.drivers.providers.TornadoWordTypes;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoConstantFieldProvider;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoForeignCallsProvider;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoReplacements;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSnippetReflectionProvider;
+
+/**
+ * Builds the Graal {@link Providers} of the JVM backend. In contrast to the
+ * OpenCL, PTX and SPIR-V factories, no JIT compiler is instantiated: the
+ * providers are only used by the {@link uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher}.
+ */
+public class JVMHotSpotBackendFactory {
+
+    private static final HotSpotStampProvider stampProvider = new HotSpotStampProvider();
+    private static final TornadoSnippetReflectionProvider snippetReflection = new TornadoSnippetReflectionProvider();
+    private static final TornadoForeignCallsProvider foreignCalls = new TornadoForeignCallsProvider();
+    private static final TornadoConstantFieldProvider constantFieldProvider = new TornadoConstantFieldProvider();
+
+    public static JVMProviders createProviders(OptionValues options, HotSpotJVMCIRuntime jvmciRuntime) {
+        JVMCIBackend jvmci = jvmciRuntime.getHostJVMCIBackend();
+        HotSpotMetaAccessProvider metaAccess = (HotSpotMetaAccessProvider) jvmci.getMetaAccess();
+        HotSpotConstantReflectionProvider constantReflection = (HotSpotConstantReflectionProvider) jvmci.getConstantReflection();
+        CodeCacheProvider codeCache = jvmci.getCodeCache();
+        TargetDescription target = codeCache.getTarget();
+
+        try (InitTimer ignored = timer("create providers")) {
+            TornadoPlatformConfigurationProvider platformConfigurationProvider = new TornadoPlatformConfigurationProvider();
+            MetaAccessExtensionProvider metaAccessExtensionProvider = new TornadoMetaAccessExtensionProvider();
+            JVMLoweringProvider lowerer = new JVMLoweringProvider(target);
+            WordTypes wordTypes = new TornadoWordTypes(metaAccess, JavaKind.Long);
+
+            LoopsDataProvider lpd = new LoopsDataProviderImpl();
+            Providers p = new Providers(metaAccess, codeCache, constantReflection, constantFieldProvider, foreignCalls, lowerer, null, stampProvider, platformConfigurationProvider,
+                    metaAccessExtensionProvider, snippetReflection, wordTypes, lpd);
+
+            ClassfileBytecodeProvider bytecodeProvider = new ClassfileBytecodeProvider(metaAccess, snippetReflection);
+            GraalDebugHandlersFactory graalDebugHandlersFactory = new GraalDebugHandlersFactory(snippetReflection);
+            TornadoReplacements replacements = new TornadoReplacements(graalDebugHandlersFactory, p, snippetReflection, bytecodeProvider, target);
+            GraphBuilderConfiguration.Plugins plugins = createGraphBuilderPlugins(replacements, snippetReflection, lowerer);
+
+            replacements.setGraphBuilderPlugins(plugins);
+
+            JVMSuitesProvider suites = new JVMSuitesProvider(options, plugins);
+
+            return new JVMProviders(metaAccess, codeCache, constantReflection, constantFieldProvider, foreignCalls, lowerer, replacements, stampProvider, platformConfigurationProvider,
+                    metaAccessExtensionProvider, snippetReflection, wordTypes, p.getLoopsDataProvider(), suites);
+        }
+    }
+
+    protected static GraphBuilderConfiguration.Plugins createGraphBuilderPlugins(Replacements replacements, SnippetReflectionProvider snippetReflectionProvider, LoweringProvider loweringProvider) {
+        InvocationPlugins invocationPlugins = new InvocationPlugins();
+        GraphBuilderConfiguration.Plugins plugins = new GraphBuilderConfiguration.Plugins(invocationPlugins);
+
+        StandardGraphBuilderPlugins.registerInvocationPlugins(snippetReflectionProvider, //
+                invocationPlugins, //
+                replacements, //
+                false, //
+                false, //
+                false, //
+                loweringProvider);
+        JVMGraphBuilderPlugins.registerInvocationPlugins(plugins);
+        return plugins;
+    }
+}
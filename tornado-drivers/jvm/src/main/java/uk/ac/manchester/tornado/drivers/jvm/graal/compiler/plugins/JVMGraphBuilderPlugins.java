@@ -0,0 +1,117 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.graal.compiler.plugins;
+
+import static uk.ac.manchester.tornado.drivers.common.code.CodeUtil.getJavaKindFromValueLayoutClass;
+import static uk.ac.manchester.tornado.drivers.common.code.CodeUtil.getValueLayoutClass;
+
+import java.lang.foreign.MemorySegment;
+
+import org.graalvm.compiler.core.common.memory.BarrierType;
+import org.graalvm.compiler.core.common.memory.MemoryOrderMode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.NodePlugin;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Graph-builder plugins of the JVM backend. Only the plugins that are needed
+ * to build the sketch of a task (memory accesses to the segments of the
+ * TornadoVM native types) are registered.
+ */
+public class JVMGraphBuilderPlugins {
+
+    public static void registerInvocationPlugins(final Plugins ps) {
+        registerMemoryAccessPlugins(ps);
+    }
+
+    private static void registerMemoryAccessPlugins(final Plugins ps) {
+        ps.appendNodePlugin(new NodePlugin() {
+            @Override
+            public boolean handleInvoke(GraphBuilderContext b, ResolvedJavaMethod method, ValueNode[] args) {
+                // "MemorySegment.getAtIndex(ValueLayout, long)"
+                if (!MemorySegment.class.getName().equals(method.getDeclaringClass().toJavaName())) {
+                    return false;
+                }
+                if (!"getAtIndex".equals(method.getName())) {
+                    return false;
+                }
+                if (args.length != 3) {
+                    throw new TornadoRuntimeException("Expecting 3 arguments for getAtIndex but got " + args.length);
+                }
+                ValueNode receiver = args[0];
+                ValueNode layout = args[1];
+                ValueNode index = args[2];
+
+                Class<?> valueLayoutClass = getValueLayoutClass(layout);
+                JavaKind kind = getJavaKindFromValueLayoutClass(valueLayoutClass);
+
+                MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                AddressNode addressNode = b.append(new OffsetAddressNode(receiver, mulNode));
+                JavaReadNode readNode = new JavaReadNode(kind, addressNode, LocationIdentity.any(), BarrierType.NONE, MemoryOrderMode.PLAIN, false);
+                b.addPush(kind, readNode);
+                return true;
+            }
+        });
+        ps.appendNodePlugin(new NodePlugin() {
+            @Override
+            public boolean handleInvoke(GraphBuilderContext b, ResolvedJavaMethod method, ValueNode[] args) {
+                // "MemorySegment.setAtIndex(ValueLayout, long, kind)"
+                if (!MemorySegment.class.getName().equals(method.getDeclaringClass().toJavaName())) {
+                    return false;
+                }
+                if (!"setAtIndex".equals(method.getName())) {
+                    return false;
+                }
+                if (args.length != 4) {
+                    throw new TornadoRuntimeException("Expecting 4 arguments for setAtIndex but got " + args.length);
+                }
+                ValueNode receiver = args[0];
+                ValueNode layout = args[1];
+                ValueNode index = args[2];
+                ValueNode value = args[3];
+
+                Class<?> valueLayoutClass = getValueLayoutClass(layout);
+                JavaKind kind = getJavaKindFromValueLayoutClass(valueLayoutClass);
+
+                MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                AddressNode addressNode = b.append(new OffsetAddressNode(receiver, mulNode));
+                JavaWriteNode writeNode = new JavaWriteNode(kind, addressNode, LocationIdentity.any(), value, BarrierType.NONE, false);
+                b.add(writeNode);
+                return true;
+            }
+        });
+    }
+}
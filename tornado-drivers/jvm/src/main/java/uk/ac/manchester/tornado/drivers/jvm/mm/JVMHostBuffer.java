@@ -0,0 +1,159 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.mm;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Device buffer of the JVM backend. The JVM backend shares the heap (and the
+ * off-heap segments of the TornadoVM native types) with the host. Therefore,
+ * this buffer does not own any memory and all data transfers are no-ops. It is
+ * only used to keep track of the size of each object for the memory accounting
+ * of the TornadoVM runtime.
+ */
+public class JVMHostBuffer implements XPUBuffer {
+
+    private final Access access;
+    private long bufferSize;
+    private int sizeOfType;
+    private long subRegionSize;
+
+    public JVMHostBuffer(Access access) {
+        this.access = access;
+    }
+
+    @Override
+    public long toBuffer() {
+        return 0;
+    }
+
+    @Override
+    public void setBuffer(XPUBufferWrapper bufferWrapper) {
+    }
+
+    @Override
+    public long getBufferOffset() {
+        return 0;
+    }
+
+    @Override
+    public void read(long executionPlanId, Object reference) {
+    }
+
+    @Override
+    public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
+        return -1;
+    }
+
+    @Override
+    public void write(long executionPlanId, Object reference) {
+    }
+
+    @Override
+    public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
+        return -1;
+    }
+
+    @Override
+    public List<Integer> enqueueWrite(long executionPlanId, Object reference, long batchSize, long hostOffset, int[] events, boolean useDeps) {
+        return null;
+    }
+
+    @Override
+    public void allocate(Object reference, long batchSize, Access access) {
+        if (reference instanceof TornadoNativeArray nativeArray) {
+            sizeOfType = nativeArray.getElementSize();
+            bufferSize = nativeArray.getNumBytesOfSegment();
+        } else if (reference != null && reference.getClass().isArray() && reference.getClass().getComponentType().isPrimitive()) {
+            sizeOfType = sizeOfPrimitive(reference.getClass().getComponentType());
+            bufferSize = (long) Array.getLength(reference) * sizeOfType;
+        } else {
+            sizeOfType = 0;
+            bufferSize = 0;
+        }
+        if (batchSize > 0) {
+            bufferSize = Math.min(bufferSize, batchSize);
+        }
+    }
+
+    private static int sizeOfPrimitive(Class<?> type) {
+        if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        } else if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        } else if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        } else if (type == byte.class || type == boolean.class) {
+            return Byte.BYTES;
+        }
+        throw new TornadoRuntimeException("[JVM] Type not supported: " + type);
+    }
+
+    @Override
+    public void markAsFreeBuffer() {
+    }
+
+    @Override
+    public long size() {
+        return bufferSize;
+    }
+
+    @Override
+    public void setSizeSubRegion(long batchSize) {
+        this.subRegionSize = batchSize;
+    }
+
+    @Override
+    public long getSizeSubRegionSize() {
+        return subRegionSize;
+    }
+
+    @Override
+    public long deallocate() {
+        long deallocated = bufferSize;
+        bufferSize = 0;
+        return deallocated;
+    }
+
+    @Override
+    public void mapOnDeviceMemoryRegion(long executionPlanId, XPUBuffer srcPointer, long offset) {
+        throw new TornadoRuntimeException("[JVM] Mapping of device memory regions is not supported by the JVM backend");
+    }
+
+    @Override
+    public int getSizeOfType() {
+        return sizeOfType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JVM host buffer: access=%s, size=%d", access, bufferSize);
+    }
+}
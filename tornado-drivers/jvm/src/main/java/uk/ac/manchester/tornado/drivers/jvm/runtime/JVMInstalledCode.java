@@ -0,0 +1,106 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.runtime;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.drivers.jvm.JVMDeviceContext;
+import uk.ac.manchester.tornado.drivers.jvm.JVMEvent;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Installed code of the JVM backend. Launches are synchronous: when a launch
+ * returns, the task has been executed by the worker pool of the device.
+ */
+public class JVMInstalledCode implements TornadoInstalledCode {
+
+    private final CompilableTask task;
+    private final JVMKernel kernel;
+    private final JVMDeviceContext deviceContext;
+    private boolean valid;
+
+    public JVMInstalledCode(CompilableTask task, JVMKernel kernel, JVMDeviceContext deviceContext) {
+        this.task = task;
+        this.kernel = kernel;
+        this.deviceContext = deviceContext;
+        this.valid = true;
+    }
+
+    public JVMKernel getKernel() {
+        return kernel;
+    }
+
+    @Override
+    public int launchWithDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads, int[] waitEvents) {
+        // All previous commands have already completed in the JVM backend
+        return launchWithoutDependencies(executionPlanId, callWrapper, atomicSpace, meta, batchThreads);
+    }
+
+    @Override
+    public int launchWithoutDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads) {
+        if (batchThreads != 0) {
+            // Kernels access the whole host objects, so they cannot run on a batch
+            throw new TornadoBailoutRuntimeException("[JVM] Batch processing is not supported by the JVM backend");
+        }
+        final long start = System.nanoTime();
+        kernel.execute(task.getArguments(), meta, deviceContext.getWorkerPool());
+        final long end = System.nanoTime();
+
+        JVMEvent event = new JVMEvent(meta.getId(), start, end);
+        int eventId = deviceContext.registerEvent(executionPlanId, event);
+        updateProfiler(meta, event);
+        return eventId;
+    }
+
+    private void updateProfiler(TaskDataContext meta, JVMEvent event) {
+        if (TornadoOptions.isProfilerEnabled()) {
+            TornadoProfiler profiler = meta.getProfiler();
+            long timer = profiler.getTimer(ProfilerType.TOTAL_KERNEL_TIME);
+            // Register globalTime
+            profiler.setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + event.getElapsedTime());
+            // Register the time for the task
+            profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), event.getElapsedTime());
+            // Register the dispatch time of the kernel
+            long dispatchValue = profiler.getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
+            dispatchValue += event.getDriverDispatchTime();
+            profiler.setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
+        }
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public void invalidate() {
+        valid = false;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Executable form of a task for the JVM backend. Depending on the shape of the
+ * task, it is executed as:
+ *
+ * <ul>
+ * <li>{@link Kind#PARALLEL_LOOP}: the outermost loop annotated with
+ * {@link uk.ac.manchester.tornado.api.annotations.Parallel} is split in chunks
+ * of iterations that run on the worker pool.</li>
+ * <li>{@link Kind#KERNEL_CONTEXT}: the global index space of a kernel expressed
+ * with the {@link KernelContext} is split across the worker pool.</li>
+ * <li>{@link Kind#SEQUENTIAL}: the original method is invoked once by the
+ * calling thread.</li>
+ * </ul>
+ */
+public final class JVMKernel {
+
+    public enum Kind {
+        SEQUENTIAL, //
+        PARALLEL_LOOP, //
+        KERNEL_CONTEXT
+    }
+
+    /**
+     * Number of chunks per worker thread in which a parallel loop is split, to
+     * balance loops with an irregular amount of work per iteration.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Kind kind;
+    private final Method method;
+    private final MethodHandle handle;
+    private final String reason;
+
+    private JVMKernel(Kind kind, Method method, MethodHandle handle, String reason) {
+        this.kind = kind;
+        this.method = method;
+        this.handle = handle;
+        this.reason = reason;
+    }
+
+    static JVMKernel sequential(Method method, String reason) {
+        return new JVMKernel(Kind.SEQUENTIAL, method, null, reason);
+    }
+
+    static JVMKernel parallelLoop(Method method, MethodHandle handle) {
+        return new JVMKernel(Kind.PARALLEL_LOOP, method, handle, null);
+    }
+
+    static JVMKernel kernelContext(Method method, MethodHandle handle) {
+        return new JVMKernel(Kind.KERNEL_CONTEXT, method, handle, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the reason why the task runs sequentially, or null if the task runs
+     *     in parallel.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    public void execute(Object[] args, TaskDataContext meta, ForkJoinPool pool) {
+        switch (kind) {
+            case SEQUENTIAL -> executeSequential(args);
+            case PARALLEL_LOOP -> executeParallelLoop(args, pool);
+            case KERNEL_CONTEXT -> executeKernelContext(args, meta, pool);
+        }
+    }
+
+    private void executeSequential(Object[] args) {
+        try {
+            if (Modifier.isStatic(method.getModifiers())) {
+                method.invoke(null, args);
+            } else {
+                method.invoke(args[0], Arrays.copyOfRange(args, 1, args.length));
+            }
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new TornadoBailoutRuntimeException("[JVM] Unable to invoke " + method.getName(), e);
+        }
+    }
+
+    private void executeParallelLoop(Object[] args, ForkJoinPool pool) {
+        final int numChunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        pool.invoke(new ChunkAction(chunk -> {
+            Object[] callArgs = Arrays.copyOf(args, args.length + 2);
+            callArgs[args.length] = chunk;
+            callArgs[args.length + 1] = numChunks;
+            invoke(callArgs);
+        }, 0, numChunks));
+    }
+
+    private void executeKernelContext(Object[] args, TaskDataContext meta, ForkJoinPool pool) {
+        if (!meta.isWorkerGridAvailable()) {
+            throw new TornadoBailoutRuntimeException("[JVM] Kernels that use the KernelContext require a GridScheduler");
+        }
+        WorkerGrid grid = meta.getWorkerGrid(meta.getId());
+        final long[] global = dimensions(grid.getGlobalWork());
+        final long[] local = dimensions(grid.getLocalWork());
+        final long totalThreads = global[0] * global[1] * global[2];
+        final int numChunks = (int) Math.min(totalThreads, (long) pool.getParallelism() * CHUNKS_PER_THREAD);
+        if (numChunks == 0) {
+            return;
+        }
+        pool.invoke(new ChunkAction(chunk -> {
+            // Each chunk owns a copy of the identifiers read by the kernel
+            int[] ids = new int[JVMKernelRewriter.KERNEL_CONTEXT_FIELDS.size()];
+            for (int dim = 0; dim < 3; dim++) {
+                ids[9 + dim] = (int) global[dim];
+                ids[12 + dim] = (int) local[dim];
+            }
+            Object[] callArgs = Arrays.copyOf(args, args.length + 1);
+            callArgs[args.length] = ids;
+
+            long lo = totalThreads * chunk / numChunks;
+            long hi = totalThreads * (chunk + 1) / numChunks;
+            for (long threadId = lo; threadId < hi; threadId++) {
+                long x = threadId % global[0];
+                long y = (threadId / global[0]) % global[1];
+                long z = threadId / (global[0] * global[1]);
+                setIds(ids, x, y, z, local);
+                invoke(callArgs);
+            }
+        }, 0, numChunks));
+    }
+
+    private static void setIds(int[] ids, long x, long y, long z, long[] local) {
+        ids[0] = (int) x;
+        ids[1] = (int) y;
+        ids[2] = (int) z;
+        ids[3] = (int) (x / local[0]);
+        ids[4] = (int) (y / local[1]);
+        ids[5] = (int) (z / local[2]);
+        ids[6] = (int) (x % local[0]);
+        ids[7] = (int) (y % local[1]);
+        ids[8] = (int) (z % local[2]);
+    }
+
+    private static long[] dimensions(long[] work) {
+        long[] dims = new long[] { 1, 1, 1 };
+        if (work != null) {
+            for (int i = 0; i < Math.min(work.length, 3); i++) {
+                dims[i] = Math.max(1, work[i]);
+            }
+        }
+        return dims;
+    }
+
+    private void invoke(Object[] callArgs) {
+        try {
+            handle.invokeExact(callArgs);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        } else if (t instanceof Error error) {
+            throw error;
+        }
+        return new TornadoRuntimeException((Exception) t);
+    }
+
+    /**
+     * Splits a range of chunks recursively until each action runs a single chunk.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+        private final IntConsumer body;
+        private final int from;
+        private final int to;
+
+        ChunkAction(IntConsumer body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkAction(body, from, middle), new ChunkAction(body, middle, to));
+            }
+        }
+    }
+}
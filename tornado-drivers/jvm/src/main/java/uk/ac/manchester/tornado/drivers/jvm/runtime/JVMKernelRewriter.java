@@ -0,0 +1,882 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.runtime;
+
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARRAYLENGTH;
+import static org.objectweb.asm.Opcodes.ASM9;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.I2L;
+import static org.objectweb.asm.Opcodes.IADD;
+import static org.objectweb.asm.Opcodes.IALOAD;
+import static org.objectweb.asm.Opcodes.IAND;
+import static org.objectweb.asm.Opcodes.IASTORE;
+import static org.objectweb.asm.Opcodes.ICONST_1;
+import static org.objectweb.asm.Opcodes.ICONST_5;
+import static org.objectweb.asm.Opcodes.ICONST_M1;
+import static org.objectweb.asm.Opcodes.IDIV;
+import static org.objectweb.asm.Opcodes.IF_ICMPGE;
+import static org.objectweb.asm.Opcodes.IF_ICMPGT;
+import static org.objectweb.asm.Opcodes.IINC;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.IMUL;
+import static org.objectweb.asm.Opcodes.INVOKEDYNAMIC;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.IOR;
+import static org.objectweb.asm.Opcodes.IREM;
+import static org.objectweb.asm.Opcodes.ISHL;
+import static org.objectweb.asm.Opcodes.ISHR;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.ISUB;
+import static org.objectweb.asm.Opcodes.IUSHR;
+import static org.objectweb.asm.Opcodes.L2I;
+import static org.objectweb.asm.Opcodes.LADD;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.LDC;
+import static org.objectweb.asm.Opcodes.LDIV;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LMUL;
+import static org.objectweb.asm.Opcodes.LOOKUPSWITCH;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.LSUB;
+import static org.objectweb.asm.Opcodes.MULTIANEWARRAY;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
+import static org.objectweb.asm.Opcodes.SASTORE;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.TABLESWITCH;
+import static org.objectweb.asm.Opcodes.V17;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.TypePath;
+
+import uk.ac.manchester.tornado.api.ExecutionContext;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+
+/**
+ * Rewrites the Java bytecode of a task into a method that can be executed by
+ * multiple Java threads. The rewritten method is a copy of the task, defined
+ * in a new class within the same package of the task, with the following
+ * changes:
+ *
+ * <ul>
+ * <li>Parallel loops: two extra parameters {@code (chunk, numChunks)} are
+ * appended to the signature. The initial value and the upper bound of the
+ * outermost loop annotated with {@link Parallel} are replaced with the bounds
+ * of the chunk of iterations that corresponds to the {@code chunk}
+ * parameter.</li>
+ * <li>Kernels that use the {@link KernelContext}: an extra {@code int[]}
+ * parameter is appended to the signature, and each read of the fields of the
+ * {@link KernelContext} (e.g., {@code context.globalIdx}) is replaced with a
+ * read of that array. The layout of the array is given by
+ * {@link #KERNEL_CONTEXT_FIELDS}.</li>
+ * </ul>
+ *
+ * <p>
+ * Tasks that do not match any of these patterns run sequentially.
+ * </p>
+ */
+public final class JVMKernelRewriter {
+
+    /**
+     * Order of the {@link KernelContext} fields in the identifiers array passed
+     * to the rewritten kernels.
+     */
+    public static final List<String> KERNEL_CONTEXT_FIELDS = List.of( //
+            "globalIdx", "globalIdy", "globalIdz", //
+            "groupIdx", "groupIdy", "groupIdz", //
+            "localIdx", "localIdy", "localIdz", //
+            "globalGroupSizeX", "globalGroupSizeY", "globalGroupSizeZ", //
+            "localGroupSizeX", "localGroupSizeY", "localGroupSizeZ");
+
+    private static final String PARALLEL_DESCRIPTOR = Type.getDescriptor(Parallel.class);
+    private static final String REDUCE_DESCRIPTOR = Type.getDescriptor(Reduce.class);
+    private static final String KERNEL_CONTEXT = Type.getInternalName(KernelContext.class);
+    private static final String EXECUTION_CONTEXT = Type.getInternalName(ExecutionContext.class);
+    private static final String KERNEL_CONTEXT_DESCRIPTOR = Type.getDescriptor(KernelContext.class);
+    private static final String MATH = "java/lang/Math";
+    private static final String CLASS_SUFFIX = "$$TornadoJVM$";
+
+    private static final AtomicInteger classCounter = new AtomicInteger(0);
+    private static final Map<Method, JVMKernel> kernels = new ConcurrentHashMap<>();
+    private static final TornadoLogger logger = new TornadoLogger(JVMKernelRewriter.class);
+
+    private JVMKernelRewriter() {
+    }
+
+    /**
+     * Obtains the {@link JVMKernel} of a task. The bytecode of each method is
+     * rewritten only once and the result is shared across execution plans.
+     *
+     * @param method
+     *     Java method of the task.
+     * @return {@link JVMKernel}
+     * @throws TornadoBailoutRuntimeException
+     *     if the task uses the {@link KernelContext} in a way that can not be
+     *     executed by the JVM backend.
+     */
+    public static JVMKernel getKernel(Method method) {
+        return kernels.computeIfAbsent(method, JVMKernelRewriter::rewrite);
+    }
+
+    private static JVMKernel rewrite(Method method) {
+        final Class<?> owner = method.getDeclaringClass();
+        final byte[] classFile = readClassFile(owner);
+        if (classFile == null) {
+            return JVMKernel.sequential(method, "class file not found");
+        }
+
+        final String descriptor = Type.getMethodDescriptor(method);
+        final MethodScan scan = new MethodScan();
+        new ClassReader(classFile).accept(new ClassVisitor(ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                return (name.equals(method.getName()) && desc.equals(descriptor)) ? scan : null;
+            }
+        }, ClassReader.SKIP_FRAMES);
+
+        boolean usesKernelContext = scan.readsKernelContext || scan.kernelContextUnsupported != null || descriptor.contains(KERNEL_CONTEXT_DESCRIPTOR);
+        if (usesKernelContext) {
+            if (scan.kernelContextUnsupported != null) {
+                throw new TornadoBailoutRuntimeException("[JVM] Kernel " + method.getName() + " is not supported: " + scan.kernelContextUnsupported);
+            }
+            if (scan.hasInvokeDynamic || referencesPrivateMembers(owner, scan.references)) {
+                throw new TornadoBailoutRuntimeException("[JVM] Kernel " + method.getName() + " uses lambdas or private members");
+            }
+            MethodHandle handle = define(owner, method, classFile, scan, null);
+            if (handle == null) {
+                throw new TornadoBailoutRuntimeException("[JVM] Package " + owner.getPackageName() + " is not open to the JVM backend");
+            }
+            return JVMKernel.kernelContext(method, handle);
+        }
+
+        ParallelLoop loop = scan.findParallelLoop();
+        if (loop == null) {
+            return sequential(method, scan.reason);
+        }
+        if (scan.hasInvokeDynamic || referencesPrivateMembers(owner, scan.references)) {
+            return sequential(method, "lambdas or private members are used");
+        }
+        MethodHandle handle = define(owner, method, classFile, scan, loop);
+        if (handle == null) {
+            return sequential(method, "package " + owner.getPackageName() + " is not open to the JVM backend");
+        }
+        return JVMKernel.parallelLoop(method, handle);
+    }
+
+    private static JVMKernel sequential(Method method, String reason) {
+        logger.debug("[JVM] Task %s runs sequentially: %s", method.getName(), reason);
+        return JVMKernel.sequential(method, reason);
+    }
+
+    private static byte[] readClassFile(Class<?> owner) {
+        try (InputStream stream = owner.getResourceAsStream("/" + Type.getInternalName(owner) + ".class")) {
+            return (stream == null) ? null : stream.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The rewritten method lives in a different class. Therefore, it cannot
+     * access the private members of the nest of the task.
+     */
+    private static boolean referencesPrivateMembers(Class<?> owner, List<MemberReference> references) {
+        for (MemberReference reference : references) {
+            try {
+                Class<?> klass = Class.forName(Type.getObjectType(reference.owner()).getClassName(), false, owner.getClassLoader());
+                if (klass.getNestHost() != owner.getNestHost()) {
+                    continue;
+                }
+                if (isPrivateMember(klass, reference.name(), reference.descriptor())) {
+                    return true;
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPrivateMember(Class<?> klass, String name, String descriptor) {
+        if (!descriptor.startsWith("(")) {
+            for (Field field : klass.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return Modifier.isPrivate(field.getModifiers());
+                }
+            }
+        } else if (name.equals("<init>")) {
+            for (Constructor<?> constructor : klass.getDeclaredConstructors()) {
+                if (Type.getConstructorDescriptor(constructor).equals(descriptor)) {
+                    return Modifier.isPrivate(constructor.getModifiers());
+                }
+            }
+        } else {
+            for (Method method : klass.getDeclaredMethods()) {
+                if (method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor)) {
+                    return Modifier.isPrivate(method.getModifiers());
+                }
+            }
+        }
+        return false;
+    }
+
+    private static MethodHandle define(Class<?> owner, Method method, byte[] classFile, MethodScan scan, ParallelLoop loop) {
+        final Type[] parameters = Type.getArgumentTypes(method);
+        final List<Type> newParameters = new ArrayList<>();
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            newParameters.add(Type.getType(owner));
+        }
+        newParameters.addAll(List.of(parameters));
+        if (loop != null) {
+            newParameters.add(Type.INT_TYPE);
+            newParameters.add(Type.INT_TYPE);
+        } else {
+            newParameters.add(Type.getType(int[].class));
+        }
+        final String newDescriptor = Type.getMethodDescriptor(Type.getReturnType(method), newParameters.toArray(new Type[0]));
+        final String className = Type.getInternalName(owner) + CLASS_SUFFIX + classCounter.getAndIncrement();
+
+        byte[] code = generate(owner, className, method, newDescriptor, classFile, scan, loop, isStatic);
+        try {
+            JVMKernelRewriter.class.getModule().addReads(owner.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            Class<?> kernelClass = lookup.defineClass(code);
+            MethodHandle handle = lookup.findStatic(kernelClass, method.getName(), MethodType.fromMethodDescriptorString(newDescriptor, owner.getClassLoader()));
+            int numArgs = newParameters.size();
+            return handle.asType(MethodType.genericMethodType(numArgs).changeReturnType(void.class)).asSpreader(Object[].class, numArgs);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            logger.debug("[JVM] Unable to define the kernel for %s: %s", method.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] generate(Class<?> owner, String className, Method method, String newDescriptor, byte[] classFile, MethodScan scan, ParallelLoop loop, boolean isStatic) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return owner.getClassLoader();
+            }
+        };
+        writer.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, "java/lang/Object", null);
+        MethodVisitor target = writer.visitMethod(ACC_PUBLIC | ACC_STATIC, method.getName(), newDescriptor, null, null);
+
+        int parameterSlots = isStatic ? 0 : 1;
+        for (Type parameter : Type.getArgumentTypes(method)) {
+            parameterSlots += parameter.getSize();
+        }
+        final MethodRewriter rewriter = new MethodRewriter(target, parameterSlots, scan.maxLocals, loop);
+        final String descriptor = Type.getMethodDescriptor(method);
+        new ClassReader(classFile).accept(new ClassVisitor(ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                return (name.equals(method.getName()) && desc.equals(descriptor)) ? rewriter : null;
+            }
+        }, ClassReader.SKIP_FRAMES);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Instruction recorded during the analysis of a method. Only the operands
+     * required to replay the bound of a parallel loop are kept.
+     */
+    private record Instruction(int opcode, int var, int operand, String owner, String name, String descriptor, boolean isInterface, Object constant) {
+
+        static Instruction of(int opcode) {
+            return new Instruction(opcode, -1, 0, null, null, null, false, null);
+        }
+
+        void replay(MethodVisitor visitor, IntUnaryOperator remap) {
+            if (opcode >= ILOAD && opcode <= ALOAD) {
+                visitor.visitVarInsn(opcode, remap.applyAsInt(var));
+            } else if (opcode == GETFIELD || opcode == GETSTATIC) {
+                visitor.visitFieldInsn(opcode, owner, name, descriptor);
+            } else if (name != null) {
+                visitor.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            } else if (opcode == BIPUSH || opcode == SIPUSH) {
+                visitor.visitIntInsn(opcode, operand);
+            } else if (constant != null) {
+                visitor.visitLdcInsn(constant);
+            } else {
+                visitor.visitInsn(opcode);
+            }
+        }
+
+        boolean isLoopBound() {
+            if (opcode >= ILOAD && opcode <= ALOAD) {
+                return true;
+            }
+            if (opcode == GETFIELD || opcode == GETSTATIC || (opcode >= INVOKEVIRTUAL && opcode <= INVOKEINTERFACE)) {
+                return true;
+            }
+            if (opcode == BIPUSH || opcode == SIPUSH || constant instanceof Integer) {
+                return true;
+            }
+            return opcode == ARRAYLENGTH || (opcode >= ICONST_M1 && opcode <= ICONST_5) || opcode == IADD || opcode == ISUB || opcode == IMUL || opcode == IDIV || opcode == IREM
+                    || opcode == ISHL || opcode == ISHR || opcode == IUSHR || opcode == IAND || opcode == IOR || opcode == L2I;
+        }
+
+        boolean hasSideEffects() {
+            if (opcode >= IASTORE && opcode <= SASTORE) {
+                return true;
+            }
+            if (opcode == PUTFIELD || opcode == PUTSTATIC) {
+                return true;
+            }
+            boolean isCall = opcode >= INVOKEVIRTUAL && opcode <= INVOKEINTERFACE;
+            return isCall && (name.startsWith("set") || name.equals("init") || name.equals("clear"));
+        }
+    }
+
+    private record LocalVariableRange(Label start, Label end, int var) {
+    }
+
+    private record MemberReference(String owner, String name, String descriptor) {
+    }
+
+    /**
+     * Bounds of a parallel loop, given as indexes of the instructions of the
+     * method.
+     */
+    private record ParallelLoop(int var, int initStore, int conditionJump, List<Instruction> bound, boolean inclusive, int stride) {
+    }
+
+    /**
+     * First pass: it records the instructions of the method, the local variables
+     * annotated with {@link Parallel} and the uses of the {@link KernelContext}.
+     */
+    private static final class MethodScan extends MethodVisitor {
+
+        private final List<Instruction> instructions = new ArrayList<>();
+        private final Map<Label, Integer> labels = new HashMap<>();
+        private final List<LocalVariableRange> parallelVariables = new ArrayList<>();
+        private final List<MemberReference> references = new ArrayList<>();
+        private boolean hasReduce;
+        private boolean hasInvokeDynamic;
+        private boolean readsKernelContext;
+        private String kernelContextUnsupported;
+        private int maxLocals;
+        private String reason;
+
+        MethodScan() {
+            super(ASM9);
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+            hasReduce |= REDUCE_DESCRIPTOR.equals(descriptor);
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            if (PARALLEL_DESCRIPTOR.equals(descriptor)) {
+                for (int i = 0; i < start.length; i++) {
+                    parallelVariables.add(new LocalVariableRange(start[i], end[i], index[i]));
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            labels.put(label, instructions.size());
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            instructions.add(Instruction.of(opcode));
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            instructions.add(new Instruction(opcode, -1, operand, null, null, null, false, null));
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            instructions.add(new Instruction(opcode, var, 0, null, null, null, false, null));
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            instructions.add(Instruction.of(opcode));
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (owner.equals(KERNEL_CONTEXT)) {
+                if (opcode == GETFIELD && KERNEL_CONTEXT_FIELDS.contains(name)) {
+                    readsKernelContext = true;
+                } else {
+                    kernelContextUnsupported = "access to KernelContext::" + name;
+                }
+            } else {
+                references.add(new MemberReference(owner, name, descriptor));
+            }
+            instructions.add(new Instruction(opcode, -1, 0, owner, name, descriptor, false, null));
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            if (owner.equals(KERNEL_CONTEXT) || owner.equals(EXECUTION_CONTEXT)) {
+                // Barriers, local memory and atomics have no equivalent in the JVM backend
+                kernelContextUnsupported = "call to KernelContext::" + name;
+            } else if (descriptor.contains(KERNEL_CONTEXT_DESCRIPTOR)) {
+                kernelContextUnsupported = "the KernelContext is passed to " + name;
+            }
+            if (!owner.startsWith("[")) {
+                references.add(new MemberReference(owner, name, descriptor));
+            }
+            instructions.add(new Instruction(opcode, -1, 0, owner, name, descriptor, isInterface, null));
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            hasInvokeDynamic = true;
+            instructions.add(Instruction.of(INVOKEDYNAMIC));
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            instructions.add(Instruction.of(opcode));
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            instructions.add(new Instruction(LDC, -1, 0, null, null, null, false, value));
+        }
+
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            instructions.add(new Instruction(IINC, var, increment, null, null, null, false, null));
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            instructions.add(Instruction.of(TABLESWITCH));
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            instructions.add(Instruction.of(LOOKUPSWITCH));
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            instructions.add(Instruction.of(MULTIANEWARRAY));
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            this.maxLocals = maxLocals;
+        }
+
+        /**
+         * Finds the outermost parallel loop of the method. The loop must follow
+         * the pattern {@code for (@Parallel int i = init; i < bound; i += stride)}
+         * (or {@code i <= bound}), with a constant positive stride.
+         *
+         * @return the {@link ParallelLoop}, or null if the method can not be split.
+         */
+        ParallelLoop findParallelLoop() {
+            if (parallelVariables.isEmpty()) {
+                reason = "no parallel loops";
+                return null;
+            }
+            if (hasReduce) {
+                reason = "reductions are not split";
+                return null;
+            }
+
+            LocalVariableRange outermost = parallelVariables.getFirst();
+            for (LocalVariableRange variable : parallelVariables) {
+                if (labels.get(variable.start()) < labels.get(outermost.start())) {
+                    outermost = variable;
+                }
+            }
+            final int start = labels.get(outermost.start());
+            final int end = labels.get(outermost.end());
+            final int var = outermost.var();
+
+            for (LocalVariableRange variable : parallelVariables) {
+                int other = labels.get(variable.start());
+                if (other < start || other >= end) {
+                    reason = "multiple parallel loops in sequence";
+                    return null;
+                }
+            }
+
+            // Initialization: the scope of the induction variable starts after its store
+            final int initStore = start - 1;
+            if (initStore < 0 || start + 1 >= end || instructions.get(initStore).opcode() != ISTORE || instructions.get(initStore).var() != var) {
+                reason = "unsupported loop initialization";
+                return null;
+            }
+
+            // Condition: ILOAD var, <bound>, IF_ICMPGE/IF_ICMPGT
+            if (instructions.get(start).opcode() != ILOAD || instructions.get(start).var() != var) {
+                reason = "unsupported loop condition";
+                return null;
+            }
+            int conditionJump = start + 1;
+            while (conditionJump < end && instructions.get(conditionJump).isLoopBound()) {
+                conditionJump++;
+            }
+            if (conditionJump == start + 1 || conditionJump >= end) {
+                reason = "unsupported loop condition";
+                return null;
+            }
+            final int opcode = instructions.get(conditionJump).opcode();
+            if (opcode != IF_ICMPGE && opcode != IF_ICMPGT) {
+                reason = "unsupported loop condition";
+                return null;
+            }
+
+            // Stride: a single positive IINC of the induction variable
+            int stride = 0;
+            for (int i = conditionJump + 1; i < end; i++) {
+                Instruction instruction = instructions.get(i);
+                if (instruction.var() == var && (instruction.opcode() == ISTORE || instruction.opcode() == IINC)) {
+                    if (instruction.opcode() == ISTORE || stride != 0 || instruction.operand() <= 0) {
+                        reason = "unsupported loop stride";
+                        return null;
+                    }
+                    stride = instruction.operand();
+                }
+            }
+            if (stride == 0) {
+                reason = "unsupported loop stride";
+                return null;
+            }
+
+            // The code outside the loop runs for every chunk
+            for (int i = 0; i < instructions.size(); i++) {
+                if ((i < initStore || i >= end) && instructions.get(i).hasSideEffects()) {
+                    reason = "side effects outside the parallel loop";
+                    return null;
+                }
+            }
+            return new ParallelLoop(var, initStore, conditionJump, List.copyOf(instructions.subList(start + 1, conditionJump)), opcode == IF_ICMPGT, stride);
+        }
+    }
+
+    /**
+     * Second pass: it copies the method into the new class, applying the changes
+     * described in {@link JVMKernelRewriter}.
+     */
+    private static final class MethodRewriter extends MethodVisitor {
+
+        private final ParallelLoop loop;
+        private final int parameterSlots;
+        private final int extraSlots;
+        private final int baseSlot;
+        private final int limitSlot;
+        private final int upperSlot;
+        private final int totalSlot;
+        private int index;
+
+        MethodRewriter(MethodVisitor target, int parameterSlots, int maxLocals, ParallelLoop loop) {
+            super(ASM9, target);
+            this.loop = loop;
+            this.parameterSlots = parameterSlots;
+            this.extraSlots = (loop != null) ? 2 : 1;
+            this.baseSlot = maxLocals + extraSlots;
+            this.limitSlot = baseSlot + 1;
+            this.upperSlot = baseSlot + 2;
+            this.totalSlot = baseSlot + 3;
+        }
+
+        private int remap(int var) {
+            return (var >= parameterSlots) ? var + extraSlots : var;
+        }
+
+        @Override
+        public void visitParameter(String name, int access) {
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitAttribute(Attribute attribute) {
+        }
+
+        @Override
+        public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            // Recomputed by the class writer
+            super.visitMaxs(0, 0);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            super.visitInsn(opcode);
+            index++;
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            super.visitIntInsn(opcode, operand);
+            index++;
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            if (loop != null && index == loop.initStore()) {
+                emitChunkBounds();
+            } else {
+                super.visitVarInsn(opcode, remap(var));
+            }
+            index++;
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            super.visitTypeInsn(opcode, type);
+            index++;
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (loop == null && owner.equals(KERNEL_CONTEXT)) {
+                // context.<field> -> Integer.valueOf(ids[<field>])
+                super.visitInsn(POP);
+                super.visitVarInsn(ALOAD, parameterSlots);
+                super.visitIntInsn(BIPUSH, KERNEL_CONTEXT_FIELDS.indexOf(name));
+                super.visitInsn(IALOAD);
+                super.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+            } else {
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+            }
+            index++;
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            index++;
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+            index++;
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            if (loop != null && index == loop.conditionJump()) {
+                // i < bound -> i < min(bound, upper)
+                super.visitVarInsn(ILOAD, upperSlot);
+                if (loop.inclusive()) {
+                    super.visitInsn(ICONST_1);
+                    super.visitInsn(ISUB);
+                }
+                super.visitMethodInsn(INVOKESTATIC, MATH, "min", "(II)I", false);
+            }
+            super.visitJumpInsn(opcode, label);
+            index++;
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            super.visitLdcInsn(value);
+            index++;
+        }
+
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            super.visitIincInsn(remap(var), increment);
+            index++;
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+            index++;
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+            index++;
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+            index++;
+        }
+
+        /**
+         * Replaces the store of the initial value of the induction variable with:
+         *
+         * <pre>
+         * base = init;
+         * limit = bound (+ 1 for inclusive loops);
+         * total = max(0, ceilDiv(limit - base, stride));
+         * upper = min(limit, base + total * (chunk + 1) / numChunks * stride);
+         * i = base + total * chunk / numChunks * stride;
+         * </pre>
+         */
+        private void emitChunkBounds() {
+            final int chunkSlot = parameterSlots;
+            final int numChunksSlot = parameterSlots + 1;
+            final long stride = loop.stride();
+
+            super.visitVarInsn(ISTORE, baseSlot);
+            loop.bound().forEach(instruction -> instruction.replay(mv, this::remap));
+            if (loop.inclusive()) {
+                super.visitInsn(ICONST_1);
+                super.visitInsn(IADD);
+            }
+            super.visitVarInsn(ISTORE, limitSlot);
+
+            super.visitVarInsn(ILOAD, limitSlot);
+            super.visitInsn(I2L);
+            super.visitVarInsn(ILOAD, baseSlot);
+            super.visitInsn(I2L);
+            super.visitInsn(LSUB);
+            super.visitLdcInsn(stride);
+            super.visitMethodInsn(INVOKESTATIC, MATH, "ceilDiv", "(JJ)J", false);
+            super.visitInsn(LCONST_0);
+            super.visitMethodInsn(INVOKESTATIC, MATH, "max", "(JJ)J", false);
+            super.visitVarInsn(LSTORE, totalSlot);
+
+            super.visitVarInsn(ILOAD, limitSlot);
+            super.visitInsn(I2L);
+            emitChunkStart(chunkSlot, numChunksSlot, stride, true);
+            super.visitMethodInsn(INVOKESTATIC, MATH, "min", "(JJ)J", false);
+            super.visitInsn(L2I);
+            super.visitVarInsn(ISTORE, upperSlot);
+
+            emitChunkStart(chunkSlot, numChunksSlot, stride, false);
+            super.visitInsn(L2I);
+            super.visitVarInsn(ISTORE, remap(loop.var()));
+        }
+
+        /**
+         * Pushes {@code base + total * (chunk [+ 1]) / numChunks * stride} as a long.
+         */
+        private void emitChunkStart(int chunkSlot, int numChunksSlot, long stride, boolean nextChunk) {
+            super.visitVarInsn(ILOAD, baseSlot);
+            super.visitInsn(I2L);
+            super.visitVarInsn(LLOAD, totalSlot);
+            super.visitVarInsn(ILOAD, chunkSlot);
+            if (nextChunk) {
+                super.visitInsn(ICONST_1);
+                super.visitInsn(IADD);
+            }
+            super.visitInsn(I2L);
+            super.visitInsn(LMUL);
+            super.visitVarInsn(ILOAD, numChunksSlot);
+            super.visitInsn(I2L);
+            super.visitInsn(LDIV);
+            super.visitLdcInsn(stride);
+            super.visitInsn(LMUL);
+            super.visitInsn(LADD);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm.runtime;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.drivers.jvm.JVMBackendImpl;
+import uk.ac.manchester.tornado.drivers.jvm.JVMDevice;
+import uk.ac.manchester.tornado.drivers.jvm.JVMDeviceContext;
+import uk.ac.manchester.tornado.drivers.jvm.mm.JVMHostBuffer;
+import uk.ac.manchester.tornado.drivers.jvm.mm.JVMKernelStackFrame;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * TornadoVM device of the JVM backend. Since the device shares the memory with
+ * the host, data transfers are no-ops and tasks access the host objects
+ * directly.
+ */
+public class JVMTornadoDevice implements TornadoXPUDevice {
+
+    private final JVMDeviceContext deviceContext;
+    private final JVMDevice device;
+    private final TornadoLogger logger;
+
+    public JVMTornadoDevice(JVMDeviceContext deviceContext) {
+        this.deviceContext = deviceContext;
+        this.device = deviceContext.getDevice();
+        this.logger = new TornadoLogger(this.getClass());
+    }
+
+    @Override
+    public TornadoSchedulingStrategy getPreferredSchedule() {
+        return TornadoSchedulingStrategy.PER_CPU_BLOCK;
+    }
+
+    @Override
+    public KernelStackFrame createKernelStackFrame(long executionPlanId, int numArgs, Access access) {
+        return new JVMKernelStackFrame(numArgs);
+    }
+
+    @Override
+    public XPUBuffer createOrReuseAtomicsBuffer(int[] arr, Access access) {
+        return null;
+    }
+
+    @Override
+    public TornadoInstalledCode installCode(long executionPlanId, SchedulableTask task) {
+        if (!(task instanceof CompilableTask executable)) {
+            throw new TornadoBailoutRuntimeException("[JVM] Prebuilt tasks are not supported by the JVM backend: " + task.getId());
+        }
+        final TornadoInstalledCode cachedCode = getCodeFromCache(executionPlanId, task);
+        if (cachedCode != null && cachedCode.isValid()) {
+            return cachedCode;
+        }
+
+        final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(executable.getMethod());
+        final Sketch sketch = TornadoSketcher.lookup(resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
+
+        // copy meta data into task
+        final TaskDataContext taskMeta = executable.meta();
+        final Access[] sketchAccess = sketch.getArgumentsAccess();
+        final Access[] taskAccess = taskMeta.getArgumentsAccess();
+        System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
+
+        TornadoProfiler profiler = task.getProfiler();
+        profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        JVMKernel kernel = JVMKernelRewriter.getKernel(executable.getMethod());
+        profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+
+        if (kernel.getKind() == JVMKernel.Kind.SEQUENTIAL) {
+            logger.info("[JVM] Task %s runs sequentially: %s", task.getId(), kernel.getReason());
+        }
+
+        JVMInstalledCode installedCode = new JVMInstalledCode(executable, kernel, deviceContext);
+        deviceContext.getCodeCache(executionPlanId).install(task.getId(), installedCode);
+        return installedCode;
+    }
+
+    @Override
+    public boolean isFullJITMode(long executionPlanId, SchedulableTask task) {
+        return true;
+    }
+
+    @Override
+    public TornadoInstalledCode getCodeFromCache(long executionPlanId, SchedulableTask task) {
+        return deviceContext.getCodeCache(executionPlanId).getCachedCode(task.getId());
+    }
+
+    @Override
+    public int[] checkAtomicsForTask(SchedulableTask task) {
+        return null;
+    }
+
+    @Override
+    public int[] checkAtomicsForTask(SchedulableTask task, int[] array, int paramIndex, Object value) {
+        return null;
+    }
+
+    @Override
+    public int[] updateAtomicRegionAndObjectState(SchedulableTask task, int[] array, int paramIndex, Object value, XPUDeviceBufferState objectState) {
+        return null;
+    }
+
+    @Override
+    public int getAtomicsGlobalIndexForTask(SchedulableTask task, int paramIndex) {
+        return -1;
+    }
+
+    @Override
+    public boolean checkAtomicsParametersForTask(SchedulableTask task) {
+        return false;
+    }
+
+    @Override
+    public void enableThreadSharing() {
+        // Nothing to do: the worker pool is shared by all threads of the host
+    }
+
+    @Override
+    public void setAtomicRegion(XPUBuffer bufferAtomics) {
+    }
+
+    @Override
+    public long allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states, Access[] accesses) {
+        long allocatedSpace = 0;
+        for (int i = 0; i < objects.length; i++) {
+            allocatedSpace += allocate(objects[i], batchSize, states[i], accesses[i]);
+        }
+        return allocatedSpace;
+    }
+
+    @Override
+    public long allocate(Object object, long batchSize, DeviceBufferState state, Access access) {
+        if (!state.hasObjectBuffer() || !state.isLockedBuffer()) {
+            XPUBuffer buffer = new JVMHostBuffer(access);
+            buffer.allocate(object, batchSize, access);
+            state.setXPUBuffer(buffer);
+        } else if (batchSize != 0) {
+            state.getXPUBuffer().setSizeSubRegion(batchSize);
+        }
+        return state.getXPUBuffer().size();
+    }
+
+    @Override
+    public long deallocate(DeviceBufferState state) {
+        if (state.isLockedBuffer()) {
+            return 0;
+        }
+        long deallocatedSpace = state.getXPUBuffer().deallocate();
+        state.setContents(false);
+        state.setXPUBuffer(null);
+        return deallocatedSpace;
+    }
+
+    @Override
+    public List<Integer> ensurePresent(long executionPlanId, Object object, DeviceBufferState objectState, int[] events, long batchSize, long hostOffset) {
+        objectState.setContents(true);
+        return null;
+    }
+
+    @Override
+    public List<Integer> streamIn(long executionPlanId, Object object, long batchSize, long hostOffset, DeviceBufferState objectState, int[] events) {
+        objectState.setContents(true);
+        return null;
+    }
+
+    @Override
+    public int streamOut(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+        TornadoInternalError.guarantee(objectState.hasObjectBuffer(), "invalid variable");
+        return -1;
+    }
+
+    @Override
+    public int streamOutBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+        TornadoInternalError.guarantee(objectState.hasObjectBuffer(), "invalid variable");
+        return -1;
+    }
+
+    @Override
+    public Event resolveEvent(long executionPlanId, int event) {
+        return deviceContext.resolveEvent(executionPlanId, event);
+    }
+
+    @Override
+    public void ensureLoaded(long executionPlanId) {
+    }
+
+    @Override
+    public void flushEvents(long executionPlanId) {
+    }
+
+    @Override
+    public int enqueueBarrier(long executionPlanId) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueBarrier(long executionPlanId, int[] events) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueMarker(long executionPlanId) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueMarker(long executionPlanId, int[] events) {
+        return -1;
+    }
+
+    @Override
+    public void sync(long executionPlanId) {
+    }
+
+    @Override
+    public void flush(long executionPlanId) {
+    }
+
+    @Override
+    public void clean() {
+        // Reset only the execution plans attached to the JVM backend.
+        Set<Long> ids = new HashSet<>(deviceContext.getRegisteredPlanIds());
+        ids.forEach(deviceContext::reset);
+        ids.clear();
+        TornadoOptions.TORNADO_PROFILER_LOG = false;
+        TornadoOptions.TORNADO_PROFILER = false;
+    }
+
+    @Override
+    public void dumpEvents(long executionPlanId) {
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "jvm-" + device.getDeviceIndex();
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("%s %s", device.getDeviceName(), getDeviceType());
+    }
+
+    @Override
+    public String getPlatformName() {
+        return "JVM";
+    }
+
+    @Override
+    public JVMDeviceContext getDeviceContext() {
+        return deviceContext;
+    }
+
+    @Override
+    public TornadoTargetDevice getPhysicalDevice() {
+        return device;
+    }
+
+    @Override
+    public TornadoMemoryProvider getMemoryProvider() {
+        return deviceContext.getMemoryManager();
+    }
+
+    @Override
+    public TornadoDeviceType getDeviceType() {
+        return TornadoDeviceType.CPU;
+    }
+
+    @Override
+    public long getMaxAllocMemory() {
+        return device.getDeviceMaxAllocationSize();
+    }
+
+    @Override
+    public long getMaxGlobalMemory() {
+        return device.getDeviceGlobalMemorySize();
+    }
+
+    @Override
+    public long getDeviceLocalMemorySize() {
+        return device.getDeviceLocalMemorySize();
+    }
+
+    @Override
+    public long[] getDeviceMaxWorkgroupDimensions() {
+        return device.getDeviceMaxWorkItemSizes();
+    }
+
+    @Override
+    public String getDeviceOpenCLCVersion() {
+        return "N/A";
+    }
+
+    @Override
+    public Object getDeviceInfo() {
+        return device.getDeviceInfo();
+    }
+
+    @Override
+    public int getBackendIndex() {
+        return TornadoCoreRuntime.getTornadoRuntime().getBackendIndex(JVMBackendImpl.class);
+    }
+
+    @Override
+    public int getAvailableProcessors() {
+        return device.getDeviceMaxComputeUnits();
+    }
+
+    @Override
+    public Object getAtomic() {
+        return null;
+    }
+
+    @Override
+    @Deprecated
+    public void setAtomicsMapping(ConcurrentHashMap<Object, Integer> mappingAtomics) {
+    }
+
+    @Override
+    public TornadoVMBackendType getTornadoVMBackend() {
+        return TornadoVMBackendType.JAVA;
+    }
+
+    @Override
+    public boolean isSPIRVSupported() {
+        return false;
+    }
+
+    @Override
+    public void mapDeviceRegion(long executionPlanId, Object destArray, Object srcArray, DeviceBufferState deviceStateSrc, DeviceBufferState deviceStateDest, long offset) {
+        throw new TornadoBailoutRuntimeException("[JVM] Mapping of device memory regions is not supported by the JVM backend");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof JVMTornadoDevice other) {
+            return other.device.getDeviceIndex() == device.getDeviceIndex();
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 89 * hash + device.getDeviceIndex();
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return getPlatformName() + " -- " + device.getDeviceName();
+    }
+}
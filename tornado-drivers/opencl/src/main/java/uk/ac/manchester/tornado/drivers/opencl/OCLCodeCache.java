@@ -622,6 +622,9 @@ public class OCLCodeCache {
         final OCLInstalledCode code = new OCLInstalledCode(entryPoint, source, (OCLDeviceContext) deviceContext, program, kernel, isSPIRVBinary);
         if (status == CL_BUILD_SUCCESS) {
             logger.debug("\tOpenCL Kernel id = 0x%x", kernel.getOclKernelID());
+            if (TornadoOptions.WORKGROUP_AUTOTUNE && !isSPIRVBinary) {
+                code.enableWorkGroupTuning();
+            }
             installCodeInCodeCache(program, id, entryPoint, code);
         } else {
             logger.warn("\tunable to compile %s", entryPoint);
@@ -103,6 +103,14 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         return kernel;
     }
 
+    /**
+     * It enables the auto-tuning of the local work size of the kernel, if the
+     * kernel does not depend on it. The generated code must be OpenCL C.
+     */
+    public void enableWorkGroupTuning() {
+        scheduler.enableWorkGroupTuning(getName(), code);
+    }
+
     @Override
     public Object executeVarargs(final Object... args) throws InvalidInstalledCodeException {
         return null;
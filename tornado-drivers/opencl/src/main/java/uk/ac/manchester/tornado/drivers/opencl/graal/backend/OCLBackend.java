@@ -292,7 +292,12 @@ public class OCLBackend extends XPUBackend<OCLProviders> implements FrameMap.Ref
     private void emitPrologue(OCLCompilationResultBuilder crb, OCLAssembler asm, ResolvedJavaMethod method, LIR lir) {
 
         String methodName = crb.compilationResult.getName();
-        final CallingConvention incomingArguments = CodeUtil.getCallingConvention(codeCache, HotSpotCallingConventionType.JavaCallee, method);
+        // Fused kernels take their parameters from the compilation result instead of the method
+        final Local[] kernelParameters = crb.getResult().getKernelParameters();
+        final Local[] locals = (kernelParameters != null) ? kernelParameters : method.getLocalVariableTable().getLocalsAt(0);
+        final CallingConvention incomingArguments = (kernelParameters != null)
+                ? CodeUtil.getCallingConvention(codeCache, HotSpotCallingConventionType.JavaCallee, kernelParameters)
+                : CodeUtil.getCallingConvention(codeCache, HotSpotCallingConventionType.JavaCallee, method);
 
         if (crb.isKernel()) {
             /*
@@ -312,7 +317,7 @@ public class OCLBackend extends XPUBackend<OCLProviders> implements FrameMap.Ref
             }
 
             asm.emit("%s void %s(%s", OCLAssemblerConstants.KERNEL_MODIFIER, methodName, architecture.getABI());
-            emitMethodParameters(asm, method, incomingArguments, true);
+            emitMethodParameters(asm, method, locals, incomingArguments, true);
             asm.emitLine(")");
 
             asm.beginScope();
@@ -341,7 +346,7 @@ public class OCLBackend extends XPUBackend<OCLProviders> implements FrameMap.Ref
             }
             asm.emit("%s %s(%s", returnStr, methodName, architecture.getABI());
 
-            emitMethodParameters(asm, method, incomingArguments, false);
+            emitMethodParameters(asm, method, locals, incomingArguments, false);
             asm.emit(")");
             asm.eol();
             asm.beginScope();
@@ -358,9 +363,7 @@ public class OCLBackend extends XPUBackend<OCLProviders> implements FrameMap.Ref
         return parameterName;
     }
 
-    private void emitMethodParameters(OCLAssembler asm, ResolvedJavaMethod method, CallingConvention incomingArguments, boolean isKernel) {
-        final Local[] locals = method.getLocalVariableTable().getLocalsAt(0);
-
+    private void emitMethodParameters(OCLAssembler asm, ResolvedJavaMethod method, Local[] locals, CallingConvention incomingArguments, boolean isKernel) {
         for (int i = 0; i < incomingArguments.getArgumentCount(); i++) {
             var javaType = locals[i].getType();
             var javaKind = CodeUtil.convertJavaKind(javaType);
@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.graalvm.compiler.code.CompilationResult;
 
+import jdk.vm.ci.meta.Local;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.drivers.opencl.graal.backend.OCLBackend;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
@@ -37,6 +38,7 @@ public class OCLCompilationResult extends CompilationResult {
     private TaskDataContext meta;
     private OCLBackend backend;
     private String id;
+    private Local[] kernelParameters;
 
     public OCLCompilationResult(String id, String name, TaskDataContext meta, OCLBackend backend) {
         super(name);
@@ -79,4 +81,17 @@ public class OCLCompilationResult extends CompilationResult {
     public String getId() {
         return id;
     }
+
+    /**
+     * @return The parameters of a kernel that is not compiled from a single Java
+     *     method (e.g., a group of fused tasks), or null to use the local
+     *     variable table of the compiled method.
+     */
+    public Local[] getKernelParameters() {
+        return kernelParameters;
+    }
+
+    public void setKernelParameters(Local[] kernelParameters) {
+        this.kernelParameters = kernelParameters;
+    }
 }
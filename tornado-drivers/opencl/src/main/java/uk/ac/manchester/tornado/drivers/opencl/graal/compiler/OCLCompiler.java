@@ -96,6 +96,7 @@ import uk.ac.manchester.tornado.runtime.graal.phases.TornadoMidTierContext;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.FusedTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 /**
@@ -251,6 +252,9 @@ public class OCLCompiler {
             LIRGenerationResult lirGenRes = backend.newLIRGenerationResult(graph.compilationId(), lir, frameMapBuilder, registerAllocationConfig);
             LIRGeneratorTool lirGen = backend.newLIRGenerator(lirGenRes);
             NodeLIRBuilderTool nodeLirGen = backend.newNodeLIRBuilder(graph, lirGen);
+            if (compilationResult instanceof OCLCompilationResult oclCompilationResult && oclCompilationResult.getKernelParameters() != null) {
+                ((OCLNodeLIRBuilder) nodeLirGen).setKernelParameters(oclCompilationResult.getKernelParameters());
+            }
 
             // LIR generation
             LIRGenerationContext context = new LIRGenerationContext(lirGen, nodeLirGen, graph, schedule, isKernel);
@@ -367,7 +371,9 @@ public class OCLCompiler {
         final long batchThreads = (taskMeta.getNumThreads() > 0) ? taskMeta.getNumThreads() : task.getBatchThreads();
         final int batchNumber = task.getBatchNumber();
         final long batchSize = task.getBatchSize();
-        BatchCompilationConfig batchCompilationConfig = new BatchCompilationConfig(batchThreads, batchNumber, batchSize);
+        // Batch kernels read the number of threads and the offset of each chunk at run time
+        final boolean dynamicChunk = taskMeta.getNumThreads() <= 0 && task.getBatchThreads() != 0;
+        BatchCompilationConfig batchCompilationConfig = new BatchCompilationConfig(batchThreads, batchNumber, batchSize, dynamicChunk);
         taskMeta.setCompiledGraph(resolvedMethod);
 
         OptimisticOptimizations optimisticOpts = OptimisticOptimizations.ALL;
@@ -458,6 +464,36 @@ public class OCLCompiler {
         return kernelCompResult;
     }
 
+    /**
+     * It compiles the composed sketch of a group of fused tasks into a single
+     * kernel. The parameters of the kernel are given by the fused task, since the
+     * sketch is not compiled from a single Java method.
+     */
+    public synchronized static OCLCompilationResult compileFusedSketchForDevice(FusedTask task, OCLProviders providers, OCLBackend backend, TornadoProfiler profiler) {
+        final StructuredGraph kernelGraph = (StructuredGraph) task.getSketch().getGraph().copy(getDebugContext());
+        ResolvedJavaMethod resolvedMethod = kernelGraph.method();
+
+        new TornadoLogger().info("Compiling fused sketch %s on %s", task.getTaskName(), backend.getDeviceContext().getDevice().getDeviceName());
+
+        final TaskDataContext taskMeta = task.meta();
+        taskMeta.setCompiledGraph(resolvedMethod);
+
+        OptimisticOptimizations optimisticOpts = OptimisticOptimizations.ALL;
+        ProfilingInfo profilingInfo = resolvedMethod.getProfilingInfo();
+
+        String kernelName = OCLDeviceContext.checkKernelName(task.getTaskName());
+        OCLCompilationResult kernelCompResult = new OCLCompilationResult(task.getId(), kernelName, taskMeta, backend);
+        kernelCompResult.setKernelParameters(task.getKernelParameters());
+        CompilationResultBuilderFactory factory = CompilationResultBuilderFactory.Default;
+
+        final OCLSuitesProvider suitesProvider = providers.getSuitesProvider();
+        Request<OCLCompilationResult> kernelCompilationRequest = new Request<>(kernelGraph, resolvedMethod, task.getArguments(), taskMeta, providers, backend, suitesProvider.getGraphBuilderSuite(),
+                optimisticOpts, profilingInfo, suitesProvider.getSuites(), suitesProvider.getLIRSuites(), kernelCompResult, factory, true, false, new BatchCompilationConfig(0, 0, 0), profiler);
+
+        kernelCompilationRequest.execute();
+        return kernelCompResult;
+    }
+
     // FIXME <REFACTOR> Remove the inheritance (See SPIRV and PTX)
     public static class Request<T extends OCLCompilationResult> {
 
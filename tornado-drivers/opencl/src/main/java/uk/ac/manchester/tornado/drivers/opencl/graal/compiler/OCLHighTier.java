@@ -52,6 +52,7 @@ import uk.ac.manchester.tornado.drivers.common.compiler.phases.memalloc.TornadoN
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.memalloc.TornadoPrivateArrayPiRemoval;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoBatchGlobalIndexOffset;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoHalfFloatReplacement;
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoLocalMemoryTiling;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoOpenCLIntrinsicsReplacements;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoParallelScheduler;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoTaskSpecialisation;
@@ -127,6 +128,11 @@ public class OCLHighTier extends TornadoHighTier {
 
         appendPhase(new TornadoLocalMemoryAllocation());
 
+        // The tiles are allocated after TornadoLocalMemoryAllocation, which resizes every local array
+        if (TornadoOptions.LOCAL_MEMORY_TILING) {
+            appendPhase(new TornadoLocalMemoryTiling());
+        }
+
         appendPhase(new ExceptionSuppression());
     }
 
@@ -33,6 +33,7 @@ import java.util.List;
 
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.cfg.BlockMap;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.core.common.type.ObjectStamp;
 import org.graalvm.compiler.core.common.type.Stamp;
 import org.graalvm.compiler.core.gen.NodeLIRBuilder;
@@ -99,6 +100,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryI
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryOp;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLNullaryOp;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryOp;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLArithmeticTool;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLBinary;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLControlFlow;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLDirectCall;
@@ -122,11 +124,20 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorValueNod
 public class OCLNodeLIRBuilder extends NodeLIRBuilder {
 
     private boolean elseClause;
+    private Local[] kernelParameters;
 
     public OCLNodeLIRBuilder(final StructuredGraph graph, final LIRGeneratorTool gen, NodeMatchRules nodeMatchRules) {
         super(graph, gen, nodeMatchRules);
     }
 
+    /**
+     * It sets the parameters of a kernel that is not compiled from a single Java
+     * method (see {@link OCLCompilationResult#getKernelParameters()}).
+     */
+    public void setKernelParameters(Local[] kernelParameters) {
+        this.kernelParameters = kernelParameters;
+    }
+
     public static boolean isIllegal(Value value) {
         assert value != null;
         return Value.ILLEGAL.equals(value);
@@ -320,9 +331,7 @@ public class OCLNodeLIRBuilder extends NodeLIRBuilder {
             result = getGen().getArithmetic().genBinaryExpr(OCLBinaryIntrinsicCmp.FLOAT_IS_GREATEREQUAL, intLirKind, x, y);
         } else if (node instanceof IntegerBelowNode) {
             final IntegerBelowNode condition = (IntegerBelowNode) node;
-            final Value x = operand(condition.getX());
-            final Value y = operand(condition.getY());
-            result = getGen().getArithmetic().genBinaryExpr(OCLBinaryOp.RELATIONAL_GTE, boolLirKind, x, y);
+            result = emitUnsignedLessThan(condition, OCLBinaryOp.RELATIONAL_EQ);
         } else if (node instanceof IntegerEqualsNode) {
             final IntegerEqualsNode condition = (IntegerEqualsNode) node;
             final Value x = operand(condition.getX());
@@ -385,9 +394,7 @@ public class OCLNodeLIRBuilder extends NodeLIRBuilder {
             result = getGen().getArithmetic().genBinaryExpr(OCLBinaryIntrinsicCmp.FLOAT_IS_LESS, intLirKind, x, y);
         } else if (node instanceof IntegerBelowNode) {
             final IntegerBelowNode condition = (IntegerBelowNode) node;
-            final Value x = operand(condition.getX());
-            final Value y = operand(condition.getY());
-            result = getGen().getArithmetic().genBinaryExpr(OCLBinaryOp.RELATIONAL_LT, boolLirKind, x, y);
+            result = emitUnsignedLessThan(condition, OCLBinaryOp.RELATIONAL_NE);
         } else if (node instanceof IntegerEqualsNode) {
             final IntegerEqualsNode condition = (IntegerEqualsNode) node;
             final Value x = operand(condition.getX());
@@ -419,6 +426,24 @@ public class OCLNodeLIRBuilder extends NodeLIRBuilder {
         return (OCLLIROp) result;
     }
 
+    /**
+     * OpenCL C compares the signed integer types as signed values. The unsigned
+     * comparison is the signed one, inverted if the signs of the operands differ:
+     * {@code ((x < y) != (x < 0)) != (y < 0)}. The last operator is
+     * {@link OCLBinaryOp#RELATIONAL_EQ} for the negated comparison.
+     */
+    private Value emitUnsignedLessThan(IntegerBelowNode condition, OCLBinaryOp lastOp) {
+        final Value x = operand(condition.getX());
+        final Value y = operand(condition.getY());
+        final IntegerStamp stamp = (IntegerStamp) condition.getX().stamp(NodeView.DEFAULT);
+        final ConstantValue zero = new ConstantValue(LIRKind.value(x.getPlatformKind()), JavaConstant.forIntegerKind(stamp.getStackKind(), 0));
+        final OCLArithmeticTool arithmetic = getGen().getArithmetic();
+        final LIRKind boolLirKind = LIRKind.value(OCLKind.BOOL);
+        final Value lessThan = arithmetic.genBinaryExpr(OCLBinaryOp.RELATIONAL_LT, boolLirKind, x, y);
+        final Value signDiffers = arithmetic.genBinaryExpr(OCLBinaryOp.RELATIONAL_NE, boolLirKind, lessThan, arithmetic.genBinaryExpr(OCLBinaryOp.RELATIONAL_LT, boolLirKind, x, zero));
+        return arithmetic.genBinaryExpr(lastOp, boolLirKind, signDiffers, arithmetic.genBinaryExpr(OCLBinaryOp.RELATIONAL_LT, boolLirKind, y, zero));
+    }
+
     private Value operandOrConjunction(ValueNode value) {
         if (operand(value) != null) {
             return operand(value);
@@ -609,7 +634,7 @@ public class OCLNodeLIRBuilder extends NodeLIRBuilder {
     }
 
     protected void emitPrologue(final StructuredGraph graph, boolean isKernel) {
-        final Local[] locals = graph.method().getLocalVariableTable().getLocalsAt(0);
+        final Local[] locals = (kernelParameters != null) ? kernelParameters : graph.method().getLocalVariableTable().getLocalsAt(0);
         if (isKernel) {
             for (final ParameterNode param : graph.getNodes(ParameterNode.TYPE)) {
                 setResult(param, getGen().getOCLGenTool().emitParameterLoad(locals[param.index()], param));
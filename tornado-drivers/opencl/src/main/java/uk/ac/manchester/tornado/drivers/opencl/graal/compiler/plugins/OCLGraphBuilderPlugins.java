@@ -87,6 +87,7 @@ import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary;
@@ -131,9 +132,22 @@ public class OCLGraphBuilderPlugins {
 
         OCLHalfFloatPlugins.registerPlugins(ps, plugins);
         registerMemoryAccessPlugins(ps);
+        registerDirtyTrackingPlugins(plugins);
 
     }
 
+    private static void registerDirtyTrackingPlugins(InvocationPlugins plugins) {
+        // The writes of the kernels are not tracked. The runtime updates the write
+        // version of the arrays when they are copied back to the host.
+        Registration r = new Registration(plugins, TornadoNativeArray.class);
+        r.register(new InvocationPlugin("markDirty", Receiver.class) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+                return true;
+            }
+        });
+    }
+
     private static void registerTornadoVMAtomicsPlugins(Registration r) {
         r.register(new InvocationPlugin("atomic_add", int[].class, Integer.TYPE, Integer.TYPE) {
             @Override
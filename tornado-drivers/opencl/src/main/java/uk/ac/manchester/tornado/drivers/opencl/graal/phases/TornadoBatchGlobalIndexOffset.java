@@ -38,7 +38,9 @@ import org.graalvm.compiler.nodes.extended.JavaWriteNode;
 import org.graalvm.compiler.nodes.java.LoadIndexedNode;
 import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
 import org.graalvm.compiler.phases.BasePhase;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLKernelContextAccessNode;
 import uk.ac.manchester.tornado.runtime.common.BatchCompilationConfig;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
 
 import java.util.ArrayList;
@@ -50,6 +52,11 @@ import java.util.Optional;
  * <p> E.g.
  *     {@code output.set(i, i)} will be transformed to {@code output.set(i, i + batchNumber * batchSize)}
  * </p>
+ * <p>
+ * In batch processing, the offset is read from the kernel context, and the TornadoVM
+ * interpreter sets it for every chunk. A constant offset is used otherwise (e.g., for
+ * the data-parallel split of a task across devices).
+ * </p>
  */
 public class TornadoBatchGlobalIndexOffset extends BasePhase<TornadoHighTierContext> {
 
@@ -79,9 +86,16 @@ public class TornadoBatchGlobalIndexOffset extends BasePhase<TornadoHighTierCont
                 }
             }
             for (ValueNode phiIndexUsage : indexUsages) {
-                Constant batchNumberConstant = new RawConstant(batchNumber * batchSize);
-                ConstantNode batchNumberNode = new ConstantNode(batchNumberConstant, StampFactory.forKind(JavaKind.Int));
-                graph.addWithoutUnique(batchNumberNode);
+                ValueNode batchNumberNode;
+                if (batchCompilationConfig.isDynamicChunk()) {
+                    // The offset of the chunk is read at run time, so the same kernel runs all chunks
+                    ConstantNode slot = graph.addOrUnique(ConstantNode.forInt(KernelStackFrame.BATCH_INDEX_OFFSET_SLOT));
+                    batchNumberNode = graph.addOrUnique(new OCLKernelContextAccessNode(slot));
+                } else {
+                    Constant batchNumberConstant = new RawConstant(batchNumber * batchSize);
+                    batchNumberNode = new ConstantNode(batchNumberConstant, StampFactory.forKind(JavaKind.Int));
+                    graph.addWithoutUnique(batchNumberNode);
+                }
 
                 AddNode addOffsets = new AddNode(batchNumberNode, phiNode);
                 graph.addWithoutUnique(addOffsets);
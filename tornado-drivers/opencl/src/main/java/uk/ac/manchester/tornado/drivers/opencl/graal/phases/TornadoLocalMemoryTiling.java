@@ -0,0 +1,999 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import static uk.ac.manchester.tornado.drivers.providers.TornadoMemoryOrder.GPU_MEMORY_MODE;
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.graalvm.compiler.core.common.memory.BarrierType;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.PrimitiveStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.AbstractMergeNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ControlSplitNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.ProfileData.BranchProbabilityData;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.BinaryArithmeticNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerEqualsNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.loop.CountedLoopInfo;
+import org.graalvm.compiler.nodes.loop.InductionVariable;
+import org.graalvm.compiler.nodes.loop.LoopEx;
+import org.graalvm.compiler.nodes.memory.FixedAccessNode;
+import org.graalvm.compiler.nodes.memory.MemoryKill;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.nodes.memory.WriteNode;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.phases.BasePhase;
+
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadIdNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalArrayNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadIdNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLBarrierNode;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.domain.Domain;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * It stages the data reused across the threads of a work-group in local memory.
+ * The phase looks for the inner sequential loop of a 2D parallel loop nest, as
+ * the {@code k} loop of a matrix multiplication. Every read of that loop whose
+ * index depends on the loop index and on one parallel index only is loaded by
+ * the same row (or column) of threads of the work-group. The phase rewrites
+ * these reads to load tiles of {@code TS} elements cooperatively into local
+ * memory:
+ *
+ * <pre>
+ * {@code
+ * for (int k = 0; k < K; k++) {
+ *     if ((k & (TS - 1)) == 0) {
+ *         barrier(CLK_LOCAL_MEM_FENCE);
+ *         tileA[ly * (TS + 1) + lx] = a[i * K + k + lx];
+ *         barrier(CLK_LOCAL_MEM_FENCE);
+ *     }
+ *     sum += tileA[ly * (TS + 1) + (k & (TS - 1))] * ...;
+ * }
+ * }
+ * </pre>
+ *
+ * Otherwise, the reads of the same array whose indexes only differ in small
+ * constant offsets of the parallel indexes, as the neighbours of a stencil, are
+ * loaded into a tile of {@code (TS + halo) x (TS + halo)} elements at the start
+ * of the inner parallel loop (2D stencils), or of every iteration of a
+ * sequential loop nested in it (3D stencils), and read from local memory.
+ *
+ * The tile size is the largest power of two, up to 16, that fits in the
+ * work-group of the device and divides the iterations of both parallel loops
+ * and the trip count of the loop. The tile size is recorded in the meta-data of
+ * the task, and the scheduler launches the kernel with work-groups of
+ * {@code TS x TS} threads and one thread per iteration, since the rewritten
+ * kernel depends on it.
+ */
+public class TornadoLocalMemoryTiling extends BasePhase<TornadoHighTierContext> {
+
+    private static final int MAX_TILE_SIZE = 16;
+    private static final int MIN_TILE_SIZE = 4;
+
+    // Maximum number of nodes visited in the index expression of a read
+    private static final int MAX_INDEX_NODES = 64;
+
+    // Maximum distance, in each parallel dimension, between the neighbours of a stencil
+    private static final int MAX_HALO = 2;
+
+    @Override
+    public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+        return ALWAYS_APPLICABLE;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+        if (!context.hasMeta()) {
+            return;
+        }
+        // The tile size of a previous compilation of the task does not apply to this one
+        context.getMeta().setLocalMemoryTileSize(0);
+
+        // Kernels that already use local memory are left as they are
+        if (!graph.hasLoops() || graph.getNodes().filter(LocalArrayNode.class).isNotEmpty()) {
+            return;
+        }
+
+        final int tileSize = selectTileSize(context);
+        if (tileSize == 0) {
+            return;
+        }
+
+        long localMemory = context.getDeviceMapping().getPhysicalDevice().getDeviceLocalMemorySize();
+        TornadoLoopsData loopsData = new TornadoLoopsData(graph);
+        loopsData.detectCountedLoops();
+
+        // All loops are analysed before the graph changes
+        Map<LoopEx, List<Tile>> tiledLoops = new LinkedHashMap<>();
+        Map<LoopEx, List<HaloTile>> haloLoops = new LinkedHashMap<>();
+        for (LoopEx loop : loopsData.innerFirst()) {
+            List<Tile> tiles = findTiles(loop, tileSize, localMemory);
+            if (!tiles.isEmpty()) {
+                localMemory -= getTileBytes(tiles, tileSize);
+                tiledLoops.put(loop, tiles);
+                continue;
+            }
+            List<HaloTile> haloTiles = findHaloTiles(loop, context, tileSize, localMemory);
+            if (!haloTiles.isEmpty()) {
+                localMemory -= haloTiles.stream().mapToLong(tile -> tile.getBytes(tileSize)).sum();
+                haloLoops.put(loop, haloTiles);
+            }
+        }
+
+        tiledLoops.forEach((loop, tiles) -> {
+            tileLoop(graph, loop, tiles, tileSize);
+            getDebugContext().dump(DebugContext.BASIC_LEVEL, graph, "after local memory tiling of " + loop.loopBegin());
+        });
+        haloLoops.forEach((loop, tiles) -> {
+            tileNeighbours(graph, loop, tiles, tileSize);
+            getDebugContext().dump(DebugContext.BASIC_LEVEL, graph, "after local memory tiling of the neighbours in " + loop.loopBegin());
+        });
+
+        if (!tiledLoops.isEmpty() || !haloLoops.isEmpty()) {
+            context.getMeta().setLocalMemoryTileSize(tileSize);
+        }
+    }
+
+    /**
+     * It returns the tile size for the task, or 0 if the task cannot be tiled. A
+     * square local work size defined by the user is kept as the tile size.
+     */
+    private static int selectTileSize(TornadoHighTierContext context) {
+        TaskDataContext meta = context.getMeta();
+        DomainTree domain = meta.getDomain();
+        if (domain == null || domain.getDepth() != 2) {
+            return 0;
+        }
+        if (meta.isWorkerGridAvailable() || meta.isGridSchedulerEnabled() || meta.isGlobalWorkDefined() || meta.shouldUseOpenCLDriverScheduling() || context.getBatchCompilationConfig().getBatchSize() != 0) {
+            return 0;
+        }
+
+        TornadoXPUDevice device = context.getDeviceMapping();
+        if (device.getDeviceType() != TornadoDeviceType.GPU || device.getPreferredSchedule() != TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION) {
+            return 0;
+        }
+
+        if (meta.isLocalWorkDefined()) {
+            long[] localWork = meta.getLocalWork();
+            boolean square = localWork.length == 2 && localWork[0] == localWork[1];
+            return (square && isValidTileSize((int) localWork[0], device, domain)) ? (int) localWork[0] : 0;
+        }
+
+        for (int tileSize = MAX_TILE_SIZE; tileSize >= MIN_TILE_SIZE; tileSize /= 2) {
+            if (isValidTileSize(tileSize, device, domain)) {
+                return tileSize;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isValidTileSize(int tileSize, TornadoXPUDevice device, DomainTree domain) {
+        if (tileSize < MIN_TILE_SIZE || Integer.bitCount(tileSize) != 1) {
+            return false;
+        }
+        long[] maxWorkItemSizes = device.getPhysicalDevice().getDeviceMaxWorkItemSizes();
+        long[] maxWorkGroupSizes = device.getPhysicalDevice().getDeviceMaxWorkGroupSize();
+        if (maxWorkItemSizes == null || maxWorkItemSizes.length < 2 || maxWorkGroupSizes == null) {
+            // The limits of virtual devices are unknown
+            return false;
+        }
+        long maxWorkGroupSize = Arrays.stream(maxWorkGroupSizes).sum();
+        int columns = getIterations(domain.get(0));
+        int rows = getIterations(domain.get(1));
+        return (long) tileSize * tileSize <= maxWorkGroupSize //
+                && tileSize <= maxWorkItemSizes[0] && tileSize <= maxWorkItemSizes[1] //
+                && columns > 0 && columns % tileSize == 0 && rows > 0 && rows % tileSize == 0;
+    }
+
+    /**
+     * It returns the number of iterations of a parallel loop with a unit step,
+     * which is the number of threads of the dimension in tiled kernels, or 0 if it
+     * is unknown.
+     */
+    private static int getIterations(Domain domain) {
+        return (domain instanceof IntDomain intDomain && intDomain.getStep() == 1 && intDomain.getOffset() >= 0) ? intDomain.cardinality() - intDomain.getOffset() : 0;
+    }
+
+    private static long getTileBytes(List<Tile> tiles, int tileSize) {
+        Set<OffsetAddressNode> addresses = new HashSet<>();
+        long bytes = 0;
+        for (Tile tile : tiles) {
+            if (addresses.add(tile.address())) {
+                bytes += (long) tileSize * (tileSize + 1) * tile.kind().getByteCount();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * It returns the reads of the loop to stage in local memory, or an empty list
+     * if the loop cannot be tiled.
+     */
+    private static List<Tile> findTiles(LoopEx loop, int tileSize, long localMemory) {
+        List<Tile> tiles = new ArrayList<>();
+        if (!loop.isCounted() || loop.loopBegin().loopExits().count() != 1) {
+            return tiles;
+        }
+
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable iv = counted.getBodyIV();
+        if (!(iv.valueNode() instanceof ValuePhiNode index) || index.merge() != loop.loopBegin() || !(index.stamp(NodeView.DEFAULT) instanceof IntegerStamp indexStamp) || indexStamp.getBits() != 32) {
+            return tiles;
+        }
+        if (!iv.isConstantInit() || iv.constantInit() != 0 || !iv.isConstantStride() || iv.constantStride() != 1) {
+            return tiles;
+        }
+        if (!counted.isConstantExactTripCount() || counted.constantExactTripCount().asLong() % tileSize != 0) {
+            return tiles;
+        }
+
+        // The test of the loop must be the first node of each iteration, so all
+        // threads of the work-group reach the barriers of the tiles together
+        IfNode limitTest = counted.getLimitTest();
+        if (limitTest.predecessor() != loop.loopBegin() || counted.getBody().predecessor() != limitTest) {
+            return tiles;
+        }
+
+        Map<PhiNode, Integer> parallelIndexes = (loop.parent() != null) ? getParallelIndexes(loop.parent()) : null;
+        if (parallelIndexes == null || !isUniformEntry(loop) || !isUniformEntry(loop.parent())) {
+            return tiles;
+        }
+
+        for (Node node : loop.inside().nodes()) {
+            if (node instanceof LoopBeginNode && node != loop.loopBegin()) {
+                return tiles;
+            }
+            boolean isRead = node instanceof ReadNode || node instanceof JavaReadNode;
+            if (node instanceof MemoryKill && !isRead && !(node instanceof AbstractBeginNode) && !(node instanceof AbstractMergeNode)) {
+                return tiles;
+            }
+        }
+
+        // Reads of the same address share their tile
+        Set<OffsetAddressNode> addresses = new HashSet<>();
+        long bytes = 0;
+        for (Node node : loop.inside().nodes()) {
+            if ((node instanceof ReadNode || node instanceof JavaReadNode) && node instanceof FixedAccessNode read && isInFirstBlock(read, counted.getBody())) {
+                Tile tile = analyseRead(read, loop, index, parallelIndexes);
+                if (tile != null) {
+                    if (!addresses.contains(tile.address())) {
+                        bytes += (long) tileSize * (tileSize + 1) * tile.kind().getByteCount();
+                        if (bytes > localMemory) {
+                            break;
+                        }
+                        addresses.add(tile.address());
+                    }
+                    tiles.add(tile);
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * It returns the groups of neighbouring reads of the loop to stage in local
+     * memory, or an empty list if the loop cannot be tiled. The loop is either the
+     * inner parallel loop of a 2D kernel (a 2D stencil), or a sequential loop
+     * nested in the two parallel loops (a 3D stencil, whose tiles are loaded again
+     * in every iteration).
+     */
+    private static List<HaloTile> findHaloTiles(LoopEx loop, TornadoHighTierContext context, int tileSize, long localMemory) {
+        List<HaloTile> tiles = new ArrayList<>();
+        AbstractBeginNode body = getBody(loop);
+        if (!context.getMethod().isStatic() || body == null) {
+            return tiles;
+        }
+
+        LoopEx innerParallelLoop = loop;
+        ValuePhiNode loopIndex = null;
+        Map<PhiNode, Integer> parallelIndexes = getParallelIndexes(loop);
+        if (parallelIndexes == null) {
+            // All threads of the work-group must run the same iterations of a sequential loop
+            parallelIndexes = (loop.parent() != null) ? getParallelIndexes(loop.parent()) : null;
+            if (parallelIndexes == null || !loop.isCounted() || !loop.counted().isConstantExactTripCount() || !(loop.counted().getBodyIV().valueNode() instanceof ValuePhiNode index) || index.merge() != loop.loopBegin()
+                    || !isUniformEntry(loop)) {
+                return tiles;
+            }
+            innerParallelLoop = loop.parent();
+            loopIndex = index;
+        }
+        if (innerParallelLoop.parent() == null || !isUniformEntry(innerParallelLoop)) {
+            return tiles;
+        }
+
+        // The tiles are loaded before the loop writes to memory, so the loop cannot write to the arrays of the tiles
+        Set<Object> writtenArrays = new HashSet<>();
+        for (Node node : loop.inside().nodes()) {
+            if (node instanceof WriteNode || node instanceof JavaWriteNode) {
+                writtenArrays.add(getArgument(((FixedAccessNode) node).getAddress(), context));
+            } else if (node instanceof MemoryKill && !(node instanceof ReadNode) && !(node instanceof JavaReadNode) && !(node instanceof AbstractBeginNode) && !(node instanceof AbstractMergeNode)) {
+                return tiles;
+            }
+        }
+
+        LoopEx outerParallelLoop = innerParallelLoop.parent();
+        for (Node node : loop.inside().nodes()) {
+            if ((node instanceof ReadNode || node instanceof JavaReadNode) && node instanceof FixedAccessNode read && isInFirstBlock(read, body)) {
+                addNeighbour(tiles, read, outerParallelLoop, loopIndex, parallelIndexes, context);
+            }
+        }
+
+        // A single neighbour is not reused by the other threads of the work-group
+        tiles.removeIf(tile -> tile.reads.size() < 2 || writtenArrays.contains(tile.array) || writtenArrays.contains(null));
+        long bytes = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            bytes += tiles.get(i).getBytes(tileSize);
+            if (bytes > localMemory) {
+                tiles.subList(i, tiles.size()).clear();
+                break;
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * It adds the read to the group of the reads of the same array whose index
+     * only differs in constant offsets of the parallel indexes, or starts a new
+     * group.
+     */
+    private static void addNeighbour(List<HaloTile> tiles, FixedAccessNode read, LoopEx outerParallelLoop, ValuePhiNode loopIndex, Map<PhiNode, Integer> parallelIndexes,
+            TornadoHighTierContext context) {
+        if (!(read.getAddress() instanceof OffsetAddressNode address) || address.getOffset() == null || !(read.stamp(NodeView.DEFAULT) instanceof PrimitiveStamp stamp)) {
+            return;
+        }
+        JavaKind kind = stamp.getStackKind();
+        if ((kind != JavaKind.Int && kind != JavaKind.Long && kind != JavaKind.Float && kind != JavaKind.Double) || !(getArgument(address, context) instanceof TornadoNativeArray array)) {
+            return;
+        }
+
+        LinearIndex index = getLinearIndex(address.getOffset(), new int[] { 0 });
+        if (index == null) {
+            return;
+        }
+        ValuePhiNode[] indexes = new ValuePhiNode[2];
+        for (Map.Entry<ValueNode, Long> term : index.coefficients().entrySet()) {
+            Integer dimension = parallelIndexes.get(term.getKey());
+            if (dimension != null) {
+                if (indexes[dimension] != null) {
+                    return;
+                }
+                indexes[dimension] = (ValuePhiNode) term.getKey();
+            } else if (term.getKey() != loopIndex && !isInvariant(term.getKey(), outerParallelLoop, new int[] { 0 })) {
+                return;
+            }
+        }
+        if (indexes[0] == null || indexes[1] == null) {
+            return;
+        }
+
+        for (HaloTile tile : tiles) {
+            if (tile.array == array && tile.kind == kind && tile.address.getBase() == address.getBase() && tile.index.coefficients().equals(index.coefficients())) {
+                int[] offsets = getOffsets(index.constant() - tile.index.constant(), tile);
+                if (offsets != null) {
+                    tile.add(read, offsets);
+                    return;
+                }
+            }
+        }
+        HaloTile tile = new HaloTile(read, address, kind, array, index, indexes);
+        tile.add(read, new int[2]);
+        tiles.add(tile);
+    }
+
+    /**
+     * It returns the offsets of the parallel indexes of a neighbour whose index is
+     * {@code difference} bytes away from the first read of the tile, or null if
+     * there is not a single solution.
+     */
+    private static int[] getOffsets(long difference, HaloTile tile) {
+        long stride0 = tile.index.coefficients().get(tile.indexes[0]);
+        long stride1 = tile.index.coefficients().get(tile.indexes[1]);
+        int[] offsets = null;
+        for (int offset1 = -MAX_HALO; offset1 <= MAX_HALO; offset1++) {
+            for (int offset0 = -MAX_HALO; offset0 <= MAX_HALO; offset0++) {
+                if (offset0 * stride0 + offset1 * stride1 == difference) {
+                    if (offsets != null) {
+                        return null;
+                    }
+                    offsets = new int[] { offset0, offset1 };
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * It returns the native array passed as the base of the address, or null if
+     * the base is not a parameter of the task.
+     */
+    private static Object getArgument(AddressNode address, TornadoHighTierContext context) {
+        if (!(address instanceof OffsetAddressNode offsetAddress)) {
+            return null;
+        }
+        ValueNode base = offsetAddress.getBase();
+        while (base instanceof PiNode pi) {
+            base = pi.getOriginalNode();
+        }
+        return (base instanceof ParameterNode parameter && parameter.index() < context.getNumArgs()) ? context.getArg(parameter.index()) : null;
+    }
+
+    /**
+     * It returns the index as a sum of terms with constant coefficients, or null
+     * if the expression is too large. The terms are the values that are not
+     * additions, subtractions, or multiplications and shifts by constants.
+     */
+    private static LinearIndex getLinearIndex(ValueNode node, int[] visited) {
+        if (++visited[0] > MAX_INDEX_NODES) {
+            return null;
+        }
+        if (node instanceof ConstantNode constant && constant.asJavaConstant() != null && constant.asJavaConstant().getJavaKind().isNumericInteger()) {
+            return new LinearIndex(Map.of(), constant.asJavaConstant().asLong());
+        } else if (node instanceof AddNode || node instanceof SubNode) {
+            BinaryArithmeticNode<?> binary = (BinaryArithmeticNode<?>) node;
+            LinearIndex x = getLinearIndex(binary.getX(), visited);
+            LinearIndex y = getLinearIndex(binary.getY(), visited);
+            return (x == null || y == null) ? null : x.add(y, (node instanceof AddNode) ? 1 : -1);
+        } else if (node instanceof NegateNode negate) {
+            LinearIndex value = getLinearIndex(negate.getValue(), visited);
+            return (value == null) ? null : value.multiply(-1);
+        } else if (node instanceof MulNode mul && (mul.getX().isJavaConstant() || mul.getY().isJavaConstant())) {
+            ValueNode constant = mul.getX().isJavaConstant() ? mul.getX() : mul.getY();
+            LinearIndex value = getLinearIndex(constant == mul.getX() ? mul.getY() : mul.getX(), visited);
+            return (value == null) ? null : value.multiply(constant.asJavaConstant().asLong());
+        } else if (node instanceof LeftShiftNode shift && shift.getY().isJavaConstant() && shift.getY().asJavaConstant().asInt() < Integer.SIZE) {
+            LinearIndex value = getLinearIndex(shift.getX(), visited);
+            return (value == null) ? null : value.multiply(1L << shift.getY().asJavaConstant().asInt());
+        } else if (node instanceof SignExtendNode || node instanceof ZeroExtendNode) {
+            return getLinearIndex(((IntegerConvertNode<?>) node).getValue(), visited);
+        }
+        return new LinearIndex(Map.of(node, 1L), 0);
+    }
+
+    /**
+     * It checks that the value is the same for all threads and all iterations of
+     * the parallel loops.
+     */
+    private static boolean isInvariant(ValueNode node, LoopEx outerParallelLoop, int[] visited) {
+        if (++visited[0] > MAX_INDEX_NODES || node instanceof PhiNode || node instanceof GlobalThreadIdNode || node instanceof LocalThreadIdNode) {
+            return false;
+        } else if (node instanceof FixedNode) {
+            return !outerParallelLoop.whole().contains(node);
+        }
+        for (Node input : node.inputs()) {
+            if (!(input instanceof ValueNode value) || !isInvariant(value, outerParallelLoop, visited)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It maps the indexes of the inner parallel loop of a 2D kernel and of the
+     * loop around it to their dimension. It returns null if the loops are not the
+     * two parallel loops of a 2D kernel.
+     */
+    private static Map<PhiNode, Integer> getParallelIndexes(LoopEx innerParallelLoop) {
+        Map<PhiNode, Integer> parallelIndexes = new HashMap<>();
+        Set<Integer> dimensions = new HashSet<>();
+        LoopEx parent = innerParallelLoop;
+        for (int level = 0; level < 2; level++) {
+            if (parent == null) {
+                return null;
+            }
+            for (ValuePhiNode phi : parent.loopBegin().valuePhis()) {
+                int dimension = getThreadDimension(phi.valueAt(parent.loopBegin().forwardEnd()));
+                if (dimension >= 0) {
+                    parallelIndexes.put(phi, dimension);
+                    dimensions.add(dimension);
+                }
+            }
+            parent = parent.parent();
+        }
+        return (dimensions.contains(0) && dimensions.contains(1)) ? parallelIndexes : null;
+    }
+
+    /**
+     * It returns the dimension of the global thread-id the value is computed from,
+     * or -1 if the value does not depend on exactly one thread-id.
+     */
+    private static int getThreadDimension(ValueNode value) {
+        Set<Integer> dimensions = new HashSet<>();
+        List<ValueNode> pending = new ArrayList<>();
+        pending.add(value);
+        for (int visited = 0; !pending.isEmpty() && visited < MAX_INDEX_NODES; visited++) {
+            ValueNode node = pending.remove(pending.size() - 1);
+            if (node instanceof GlobalThreadIdNode threadId) {
+                dimensions.add(threadId.getIndex().asJavaConstant().asInt());
+            } else if (!(node instanceof FixedNode) && !(node instanceof PhiNode)) {
+                for (Node input : node.inputs()) {
+                    if (input instanceof ValueNode valueInput) {
+                        pending.add(valueInput);
+                    }
+                }
+            }
+        }
+        return (pending.isEmpty() && dimensions.size() == 1) ? dimensions.iterator().next() : -1;
+    }
+
+    /**
+     * It checks that every thread that runs the body of the enclosing loop runs
+     * the loop. The only control splits allowed between the two loops are the
+     * tests of the enclosing loop.
+     */
+    private static boolean isUniformEntry(LoopEx loop) {
+        LoopBeginNode enclosingLoop = loop.parent().loopBegin();
+        Node node = loop.loopBegin().forwardEnd();
+        while (node != enclosingLoop) {
+            node = node.predecessor();
+            if (node == null) {
+                return false;
+            }
+            if (node instanceof ControlSplitNode) {
+                if (!(node instanceof IfNode ifNode) || !(isExitOf(ifNode.trueSuccessor(), enclosingLoop) || isExitOf(ifNode.falseSuccessor(), enclosingLoop))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It returns the first block of the body of a loop whose only exit is the test
+     * at the start of the loop, or null if the loop has another shape.
+     */
+    private static AbstractBeginNode getBody(LoopEx loop) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (loopBegin.loopExits().count() != 1 || !(loopBegin.next() instanceof IfNode test)) {
+            return null;
+        } else if (isExitOf(test.trueSuccessor(), loopBegin)) {
+            return test.falseSuccessor();
+        } else if (isExitOf(test.falseSuccessor(), loopBegin)) {
+            return test.trueSuccessor();
+        }
+        return null;
+    }
+
+    private static boolean isExitOf(AbstractBeginNode begin, LoopBeginNode loopBegin) {
+        return begin instanceof LoopExitNode exit && exit.loopBegin() == loopBegin;
+    }
+
+    /**
+     * It checks that the read runs in every iteration of the loop, so the tile
+     * only loads elements that the original loop also reads.
+     */
+    private static boolean isInFirstBlock(FixedNode read, AbstractBeginNode body) {
+        Node node = read;
+        while (node != body) {
+            node = node.predecessor();
+            if (node == null || node instanceof ControlSplitNode) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Tile analyseRead(FixedAccessNode read, LoopEx loop, ValuePhiNode index, Map<PhiNode, Integer> parallelIndexes) {
+        if (!(read.getAddress() instanceof OffsetAddressNode address) || address.getOffset() == null) {
+            return null;
+        }
+        Stamp stamp = read.stamp(NodeView.DEFAULT);
+        if (!(stamp instanceof PrimitiveStamp)) {
+            return null;
+        }
+        JavaKind kind = stamp.getStackKind();
+        if (kind != JavaKind.Int && kind != JavaKind.Long && kind != JavaKind.Float && kind != JavaKind.Double) {
+            return null;
+        }
+
+        IndexUses baseUses = new IndexUses();
+        if (!visitIndex(address.getBase(), loop, index, parallelIndexes, baseUses) || baseUses.usesLoopIndex || !baseUses.dimensions.isEmpty()) {
+            return null;
+        }
+        IndexUses offsetUses = new IndexUses();
+        if (!visitIndex(address.getOffset(), loop, index, parallelIndexes, offsetUses) || !offsetUses.usesLoopIndex || offsetUses.dimensions.size() != 1) {
+            return null;
+        }
+        return new Tile(read, address, offsetUses.dimensions.iterator().next(), kind);
+    }
+
+    /**
+     * It visits the expression of an address. The expression can only depend on
+     * the loop index, on the indexes of the parallel loops and on values defined
+     * before the loop.
+     */
+    private static boolean visitIndex(ValueNode node, LoopEx loop, ValuePhiNode index, Map<PhiNode, Integer> parallelIndexes, IndexUses uses) {
+        if (++uses.visited > MAX_INDEX_NODES) {
+            return false;
+        }
+        if (node == index) {
+            uses.usesLoopIndex = true;
+            return true;
+        } else if (node instanceof PhiNode phi) {
+            Integer dimension = parallelIndexes.get(phi);
+            if (dimension == null) {
+                return false;
+            }
+            uses.dimensions.add(dimension);
+            return true;
+        } else if (node instanceof GlobalThreadIdNode threadId) {
+            uses.dimensions.add(threadId.getIndex().asJavaConstant().asInt());
+            return true;
+        } else if (node instanceof FixedNode) {
+            return !loop.whole().contains(node);
+        }
+        for (Node input : node.inputs()) {
+            if (!(input instanceof ValueNode value) || !visitIndex(value, loop, index, parallelIndexes, uses)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It returns a copy of the expression in which the given indexes are replaced
+     * with their values.
+     */
+    private static ValueNode replaceValues(StructuredGraph graph, ValueNode node, Map<? extends ValueNode, ValueNode> replacements, Map<ValueNode, ValueNode> copies) {
+        ValueNode replacement = replacements.get(node);
+        if (replacement != null) {
+            return replacement;
+        }
+        if (node instanceof PhiNode || node instanceof FixedNode) {
+            return node;
+        }
+        ValueNode copy = copies.get(node);
+        if (copy != null) {
+            return copy;
+        }
+        copy = node;
+        for (Node input : node.inputs().snapshot()) {
+            ValueNode newInput = replaceValues(graph, (ValueNode) input, replacements, copies);
+            if (newInput != input) {
+                if (copy == node) {
+                    copy = (ValueNode) node.copyWithInputs(true);
+                }
+                copy.replaceAllInputs(input, newInput);
+            }
+        }
+        copies.put(node, copy);
+        return copy;
+    }
+
+    private static AddressNode createLocalAddress(StructuredGraph graph, LocalArrayNode tile, ValueNode row, int width, ValueNode column) {
+        ValueNode rowOffset = graph.addOrUniqueWithInputs(new MulNode(row, ConstantNode.forInt(width, graph)));
+        ValueNode offset = graph.addOrUniqueWithInputs(new AddNode(rowOffset, column));
+        return graph.unique(new OffsetAddressNode(tile, offset));
+    }
+
+    private static void tileLoop(StructuredGraph graph, LoopEx loop, List<Tile> tiles, int tileSize) {
+        CountedLoopInfo counted = loop.counted();
+        ValuePhiNode index = (ValuePhiNode) counted.getBodyIV().valueNode();
+        AbstractBeginNode body = counted.getBody();
+
+        ValueNode indexInTile = graph.addOrUniqueWithInputs(new AndNode(index, ConstantNode.forInt(tileSize - 1, graph)));
+        LogicNode isTileStart = graph.addOrUniqueWithInputs(new IntegerEqualsNode(indexInTile, ConstantNode.forInt(0, graph)));
+
+        // if ((k & (TS - 1)) == 0) { barrier; load tiles; barrier; }
+        FixedNode bodyNext = body.next();
+        body.setNext(null);
+        BeginNode loadBegin = graph.add(new BeginNode());
+        BeginNode skipBegin = graph.add(new BeginNode());
+        IfNode ifNode = graph.add(new IfNode(isTileStart, loadBegin, skipBegin, BranchProbabilityData.unknown()));
+        body.setNext(ifNode);
+
+        // The rest of the body is linked before the reads are replaced, since the
+        // first node of the body can be one of them
+        EndNode loadEnd = graph.add(new EndNode());
+        EndNode skipEnd = graph.add(new EndNode());
+        skipBegin.setNext(skipEnd);
+        MergeNode merge = graph.add(new MergeNode());
+        merge.addForwardEnd(loadEnd);
+        merge.addForwardEnd(skipEnd);
+        merge.setStateAfter(loop.loopBegin().stateAfter());
+        merge.setNext(bodyNext);
+
+        FixedWithNextNode last = graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL));
+        loadBegin.setNext(last);
+
+        Map<OffsetAddressNode, LocalArrayNode> localArrays = new HashMap<>();
+        List<ReadNode> tileReads = new ArrayList<>();
+        for (Tile tile : tiles) {
+            ValueNode row = graph.addOrUnique(new LocalThreadIdNode(ConstantNode.forInt(tile.dimension(), graph)));
+            ValueNode column = graph.addOrUnique(new LocalThreadIdNode(ConstantNode.forInt(1 - tile.dimension(), graph)));
+
+            LocalArrayNode localArray = localArrays.get(tile.address());
+            if (localArray == null) {
+                localArray = graph.addWithoutUnique(new LocalArrayNode(OCLArchitecture.localSpace, tile.kind(), ConstantNode.forInt(tileSize * (tileSize + 1), graph)));
+                localArrays.put(tile.address(), localArray);
+
+                // Each thread loads the element of its row at the column given by its local id
+                ValueNode loadIndex = graph.addOrUniqueWithInputs(new AddNode(index, column));
+                ValueNode loadOffset = replaceValues(graph, tile.address().getOffset(), Map.of(index, loadIndex), new HashMap<>());
+                AddressNode loadAddress = graph.unique(new OffsetAddressNode(tile.address().getBase(), loadOffset));
+                FixedAccessNode load = (FixedAccessNode) tile.read().copyWithInputs(true);
+                load.replaceFirstInput(tile.address(), loadAddress);
+                last.setNext(load);
+
+                WriteNode store = graph.add(new WriteNode(createLocalAddress(graph, localArray, row, tileSize + 1, column), NamedLocationIdentity.getArrayLocation(tile.kind()), load,
+                        BarrierType.NONE, GPU_MEMORY_MODE));
+                // Running the loop again from the start of the iteration is correct
+                store.setStateAfter(loop.loopBegin().stateAfter());
+                load.setNext(store);
+                last = store;
+            }
+
+            tileReads.add(graph.add(new ReadNode(createLocalAddress(graph, localArray, row, tileSize + 1, indexInTile), NamedLocationIdentity.getArrayLocation(tile.kind()), tile.read()
+                    .stamp(NodeView.DEFAULT), BarrierType.NONE, GPU_MEMORY_MODE)));
+        }
+
+        OCLBarrierNode barrier = graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL));
+        last.setNext(barrier);
+        barrier.setNext(loadEnd);
+
+        for (int i = 0; i < tiles.size(); i++) {
+            graph.replaceFixedWithFixed(tiles.get(i).read(), tileReads.get(i));
+        }
+    }
+
+    /**
+     * It loads the neighbours read by the threads of the work-group into local
+     * memory at the start of every iteration of the loop, and replaces the reads
+     * with reads of the tiles:
+     *
+     * <pre>
+     * {@code
+     * barrier(CLK_LOCAL_MEM_FENCE);
+     * for (by = 0; by < TS + span1; by += TS)
+     *     for (bx = 0; bx < TS + span0; bx += TS)
+     *         if (ly + by < TS + span1 && lx + bx < TS + span0 && inside(a, index(...)))
+     *             tile[(ly + by) * (TS + span0) + lx + bx] = a[index(i + by + min1, j + bx + min0)];
+     * barrier(CLK_LOCAL_MEM_FENCE);
+     * ... tile[(ly + offset1 - min1) * (TS + span0) + lx + offset0 - min0] ...
+     * }
+     * </pre>
+     *
+     * The loads are unrolled, and the elements of the tile that are outside the
+     * array are not loaded, since they are not read by any thread.
+     */
+    private static void tileNeighbours(StructuredGraph graph, LoopEx loop, List<HaloTile> tiles, int tileSize) {
+        AbstractBeginNode body = getBody(loop);
+        FrameState state = loop.loopBegin().stateAfter();
+        ValueNode[] localIds = new ValueNode[2];
+        for (int dimension = 0; dimension < 2; dimension++) {
+            localIds[dimension] = graph.addOrUnique(new LocalThreadIdNode(ConstantNode.forInt(dimension, graph)));
+        }
+
+        FixedNode bodyNext = body.next();
+        body.setNext(null);
+        FixedWithNextNode last = graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL));
+        body.setNext(last);
+
+        Map<FixedAccessNode, ReadNode> tileReads = new LinkedHashMap<>();
+        for (HaloTile tile : tiles) {
+            int width = tileSize + tile.getSpan(0);
+            int height = tileSize + tile.getSpan(1);
+            LocalArrayNode localArray = graph.addWithoutUnique(new LocalArrayNode(OCLArchitecture.localSpace, tile.kind, ConstantNode.forInt(width * height, graph)));
+            long arrayBytes = tile.array.getNumBytesOfSegmentWithHeader();
+
+            for (int blockY = 0; blockY < height; blockY += tileSize) {
+                for (int blockX = 0; blockX < width; blockX += tileSize) {
+                    List<LogicNode> conditions = new ArrayList<>();
+                    if (blockY + tileSize > height) {
+                        conditions.add(graph.addOrUniqueWithInputs(new IntegerLessThanNode(localIds[1], ConstantNode.forInt(height - blockY, graph))));
+                    }
+                    if (blockX + tileSize > width) {
+                        conditions.add(graph.addOrUniqueWithInputs(new IntegerLessThanNode(localIds[0], ConstantNode.forInt(width - blockX, graph))));
+                    }
+
+                    // The thread loads the neighbour of the thread at (lx + bx + min0, ly + by + min1)
+                    Map<ValuePhiNode, ValueNode> neighbour = Map.of( //
+                            tile.indexes[0], graph.addOrUniqueWithInputs(new AddNode(tile.indexes[0], ConstantNode.forInt(blockX + tile.min[0], graph))), //
+                            tile.indexes[1], graph.addOrUniqueWithInputs(new AddNode(tile.indexes[1], ConstantNode.forInt(blockY + tile.min[1], graph))));
+                    ValueNode loadOffset = replaceValues(graph, tile.address.getOffset(), neighbour, new HashMap<>());
+                    Stamp offsetStamp = loadOffset.stamp(NodeView.DEFAULT);
+                    long firstByte = TornadoNativeArray.ARRAY_HEADER;
+                    long lastByte = arrayBytes - tile.kind.getByteCount();
+                    conditions.add(graph.addOrUniqueWithInputs(new IntegerLessThanNode(ConstantNode.forIntegerStamp(offsetStamp, firstByte - 1, graph), loadOffset)));
+                    conditions.add(graph.addOrUniqueWithInputs(new IntegerLessThanNode(loadOffset, ConstantNode.forIntegerStamp(offsetStamp, lastByte + 1, graph))));
+
+                    FixedAccessNode load = (FixedAccessNode) tile.reference.copyWithInputs(true);
+                    load.replaceFirstInput(tile.address, graph.unique(new OffsetAddressNode(tile.address.getBase(), loadOffset)));
+                    ValueNode row = graph.addOrUniqueWithInputs(new AddNode(localIds[1], ConstantNode.forInt(blockY, graph)));
+                    ValueNode column = graph.addOrUniqueWithInputs(new AddNode(localIds[0], ConstantNode.forInt(blockX, graph)));
+                    WriteNode store = graph.add(new WriteNode(createLocalAddress(graph, localArray, row, width, column), NamedLocationIdentity.getArrayLocation(tile.kind), load, BarrierType.NONE,
+                            GPU_MEMORY_MODE));
+                    store.setStateAfter(state);
+                    last = appendGuarded(graph, last, conditions, (FixedWithNextNode) load, store, state);
+                }
+            }
+
+            for (int i = 0; i < tile.reads.size(); i++) {
+                int[] offsets = tile.offsets.get(i);
+                ValueNode row = graph.addOrUniqueWithInputs(new AddNode(localIds[1], ConstantNode.forInt(offsets[1] - tile.min[1], graph)));
+                ValueNode column = graph.addOrUniqueWithInputs(new AddNode(localIds[0], ConstantNode.forInt(offsets[0] - tile.min[0], graph)));
+                FixedAccessNode read = tile.reads.get(i);
+                tileReads.put(read, graph.add(new ReadNode(createLocalAddress(graph, localArray, row, width, column), NamedLocationIdentity.getArrayLocation(tile.kind), read.stamp(
+                        NodeView.DEFAULT), BarrierType.NONE, GPU_MEMORY_MODE)));
+            }
+        }
+
+        OCLBarrierNode barrier = graph.add(new OCLBarrierNode(OCLBarrierNode.OCLMemFenceFlags.LOCAL));
+        last.setNext(barrier);
+        barrier.setNext(bodyNext);
+
+        tileReads.forEach(graph::replaceFixedWithFixed);
+    }
+
+    /**
+     * It appends {@code if (conditions) { load; store; }} and returns the merge
+     * after it.
+     */
+    private static FixedWithNextNode appendGuarded(StructuredGraph graph, FixedWithNextNode last, List<LogicNode> conditions, FixedWithNextNode load, WriteNode store, FrameState state) {
+        MergeNode merge = graph.add(new MergeNode());
+        FixedWithNextNode current = last;
+        for (LogicNode condition : conditions) {
+            BeginNode trueBegin = graph.add(new BeginNode());
+            BeginNode falseBegin = graph.add(new BeginNode());
+            current.setNext(graph.add(new IfNode(condition, trueBegin, falseBegin, BranchProbabilityData.unknown())));
+            EndNode skipEnd = graph.add(new EndNode());
+            falseBegin.setNext(skipEnd);
+            merge.addForwardEnd(skipEnd);
+            current = trueBegin;
+        }
+        current.setNext(load);
+        load.setNext(store);
+        EndNode end = graph.add(new EndNode());
+        store.setNext(end);
+        merge.addForwardEnd(end);
+        merge.setStateAfter(state);
+        return merge;
+    }
+
+    private record Tile(FixedAccessNode read, OffsetAddressNode address, int dimension, JavaKind kind) {
+    }
+
+    /**
+     * Index of a read as {@code sum(coefficient * term) + constant}.
+     */
+    private record LinearIndex(Map<ValueNode, Long> coefficients, long constant) {
+
+        LinearIndex add(LinearIndex other, long sign) {
+            Map<ValueNode, Long> sum = new HashMap<>(coefficients);
+            other.coefficients.forEach((term, coefficient) -> sum.merge(term, sign * coefficient, Long::sum));
+            sum.values().removeIf(coefficient -> coefficient == 0);
+            return new LinearIndex(sum, constant + sign * other.constant);
+        }
+
+        LinearIndex multiply(long factor) {
+            Map<ValueNode, Long> product = new HashMap<>();
+            coefficients.forEach((term, coefficient) -> product.put(term, coefficient * factor));
+            product.values().removeIf(coefficient -> coefficient == 0);
+            return new LinearIndex(product, constant * factor);
+        }
+    }
+
+    /**
+     * Reads of an array at constant offsets of the parallel indexes from the first
+     * read, as the neighbours of a stencil.
+     */
+    private static final class HaloTile {
+        private final FixedAccessNode reference;
+        private final OffsetAddressNode address;
+        private final JavaKind kind;
+        private final TornadoNativeArray array;
+        private final LinearIndex index;
+        // Index of each parallel dimension
+        private final ValuePhiNode[] indexes;
+        private final List<FixedAccessNode> reads = new ArrayList<>();
+        private final List<int[]> offsets = new ArrayList<>();
+        private final int[] min = new int[2];
+        private final int[] max = new int[2];
+
+        private HaloTile(FixedAccessNode reference, OffsetAddressNode address, JavaKind kind, TornadoNativeArray array, LinearIndex index, ValuePhiNode[] indexes) {
+            this.reference = reference;
+            this.address = address;
+            this.kind = kind;
+            this.array = array;
+            this.index = index;
+            this.indexes = indexes;
+        }
+
+        private void add(FixedAccessNode read, int[] readOffsets) {
+            reads.add(read);
+            offsets.add(readOffsets);
+            for (int dimension = 0; dimension < 2; dimension++) {
+                min[dimension] = Math.min(min[dimension], readOffsets[dimension]);
+                max[dimension] = Math.max(max[dimension], readOffsets[dimension]);
+            }
+        }
+
+        private int getSpan(int dimension) {
+            return max[dimension] - min[dimension];
+        }
+
+        private long getBytes(int tileSize) {
+            return (long) (tileSize + getSpan(0)) * (tileSize + getSpan(1)) * kind.getByteCount();
+        }
+    }
+
+    private static final class IndexUses {
+        private final Set<Integer> dimensions = new HashSet<>();
+        private boolean usesLoopIndex;
+        private int visited;
+    }
+}
@@ -33,7 +33,8 @@ import java.util.List;
 public class OCLKernelStackFrame extends OCLByteBuffer implements KernelStackFrame {
 
     public static final int RETURN_VALUE_INDEX = 0;
-    public static final int RESERVED_SLOTS = 3;
+    // Three slots for the grid dimensions and two for the batch chunk
+    public static final int RESERVED_SLOTS = 5;
 
     private final ArrayList<CallArgument> callArguments;
 
@@ -106,6 +106,14 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header bytes of a view belong to the array it comes from. Only the
+     * elements of a view are copied back to the host.
+     */
+    private boolean isFullCopyOfView(Object reference) {
+        return getSizeSubRegionSize() <= 0 && reference instanceof TornadoNativeArray nativeArray && nativeArray.isView();
+    }
+
     @Override
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
         MemorySegment segment;
@@ -116,6 +124,9 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
             // Partial Copy Out due to an under demand copy by the user
             // in this case the host offset is equal to the device offset
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+        } else if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, numBytes - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset
+                    + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
@@ -147,7 +158,10 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         segment = getSegmentWithHeader(reference);
 
         final int returnEvent;
-        if (batchSize <= 0) {
+        if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(),
+                    hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
+        } else if (batchSize <= 0) {
             returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
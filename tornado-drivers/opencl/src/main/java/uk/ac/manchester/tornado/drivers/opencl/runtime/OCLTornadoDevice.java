@@ -63,6 +63,7 @@ import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.code.PersistentKernelCache;
 import uk.ac.manchester.tornado.drivers.opencl.OCLBackendImpl;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
@@ -100,6 +101,7 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.FusedTask;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
@@ -263,13 +265,32 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
         try {
-            OCLProviders providers = (OCLProviders) getBackend().getProviders();
             TornadoProfiler profiler = task.getProfiler();
+            String persistentCacheKey = null;
+            if (PersistentKernelCache.isEnabled() && !OCLBackend.isDeviceAnFPGAAccelerator(deviceContext)) {
+                persistentCacheKey = PersistentKernelCache.computeKey(executable, resolvedMethod, TornadoVMBackendType.OPENCL, getDeviceName());
+                PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(persistentCacheKey);
+                if (cachedKernel != null) {
+                    // Skip the Graal compilation
+                    cachedKernel.restoreMetaData(taskMeta);
+                    profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                    OCLInstalledCode installedCode = deviceContext.installCode(executionPlanId, taskMeta, task.getId(), cachedKernel.entryPoint(), cachedKernel.code());
+                    profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                    profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                    return installedCode;
+                }
+            }
+
+            OCLProviders providers = (OCLProviders) getBackend().getProviders();
             profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
             final OCLCompilationResult result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
 
             // Update atomics buffer for inner methods that are not inlined
             ResolvedJavaMethod[] methods = result.getMethods();
+            boolean usesGlobalAtomics = false;
+            for (ResolvedJavaMethod m : methods) {
+                usesGlobalAtomics |= TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(m);
+            }
             if (methods.length > 1) {
                 HashMap<Integer, Integer> mapping;
                 for (ResolvedJavaMethod m : methods) {
@@ -299,6 +320,10 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
 
+            // The parameters of global atomics are registered by the compiler, so these kernels are not cached
+            if (persistentCacheKey != null && !usesGlobalAtomics) {
+                PersistentKernelCache.store(persistentCacheKey, result.getName(), result.getTargetCode(), taskMeta.getDomain(), taskMeta.getLocalMemoryTileSize());
+            }
             return installedCode;
         } catch (Exception e) {
             logger.fatal("Unable to compile %s for device %s\n", task.getId(), getDeviceName());
@@ -338,11 +363,43 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         return null;
     }
 
+    private TornadoInstalledCode compileFusedTask(long executionPlanId, FusedTask task) {
+        final OCLDeviceContextInterface deviceContext = getDeviceContext();
+        if (!task.shouldCompile() && deviceContext.isCached(executionPlanId, task.getId(), task.getTaskName())) {
+            return deviceContext.getInstalledCode(executionPlanId, task.getId(), task.getTaskName());
+        }
+
+        final TaskDataContext taskMeta = task.meta();
+        try {
+            TornadoProfiler profiler = task.getProfiler();
+            OCLProviders providers = (OCLProviders) getBackend().getProviders();
+            profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            final OCLCompilationResult result = OCLCompiler.compileFusedSketchForDevice(task, providers, getBackend(), profiler);
+            profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
+
+            profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            OCLInstalledCode installedCode = deviceContext.installCode(executionPlanId, result);
+            profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            return installedCode;
+        } catch (Exception e) {
+            logger.fatal("Unable to compile %s for device %s\n", task.getId(), getDeviceName());
+            if (TornadoOptions.RECOVER_BAILOUT) {
+                throw new TornadoBailoutRuntimeException("[Error during the Task Compilation]: " + e.getMessage());
+            } else {
+                throw e;
+            }
+        }
+    }
+
     private TornadoInstalledCode compileJavaToAccelerator(long executionPlanId, SchedulableTask task) {
         if (task instanceof CompilableTask) {
             return compileTask(executionPlanId, task);
         } else if (task instanceof PrebuiltTask) {
             return compilePreBuiltTask(executionPlanId, task);
+        } else if (task instanceof FusedTask fusedTask) {
+            return compileFusedTask(executionPlanId, fusedTask);
         }
         TornadoInternalError.shouldNotReachHere("task of unknown type: " + task.getClass().getSimpleName());
         return null;
@@ -376,6 +433,12 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isTaskFusionSupported() {
+        // FPGA kernels are compiled ahead of time
+        return !getDeviceContext().isPlatformFPGA();
+    }
+
     @Override
     public boolean isFullJITMode(long executionPlanId, SchedulableTask task) {
         final OCLDeviceContextInterface deviceContext = getDeviceContext();
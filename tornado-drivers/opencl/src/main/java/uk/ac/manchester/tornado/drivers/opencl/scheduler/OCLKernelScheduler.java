@@ -32,15 +32,29 @@ import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLGridInfo;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.WorkGroupTuner;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public abstract class OCLKernelScheduler {
 
+    /**
+     * OpenCL C keywords of the kernels whose result depends on the local work
+     * size. These kernels are not auto-tuned.
+     */
+    private static final String[] GROUP_DEPENDENT_KEYWORDS = { "__local", "barrier(", "atomic", "get_local_id", "get_local_size", "get_group_id", "get_num_groups" };
+
     protected final OCLDeviceContext deviceContext;
 
     protected double min;
     protected double max;
 
+    /**
+     * Signature of the kernel in the auto-tuner, or null if the local work size of
+     * the kernel is not tuned.
+     */
+    private String tuningSignature;
+
     public final String WARNING_FPGA_THREAD_LOCAL = "[TornadoVM OCL] Warning: TornadoVM changed the user-defined local size to: " + ((getDefaultLocalWorkGroup() != null)
             ? Arrays.toString(getDefaultLocalWorkGroup())
             : "null") + ".";
@@ -65,6 +79,42 @@ public abstract class OCLKernelScheduler {
         return submit(executionPlanId, kernel, meta, null, batchThreads);
     }
 
+    /**
+     * It enables the auto-tuning of the local work size of the kernel launched by
+     * this scheduler. The kernel is not tuned on FPGAs, nor if its code depends on
+     * the local work size.
+     *
+     * @param name
+     *     Name of the kernel.
+     * @param code
+     *     OpenCL C code of the kernel.
+     */
+    public void enableWorkGroupTuning(String name, byte[] code) {
+        if (!deviceContext.isPlatformFPGA() && WorkGroupTuner.isTunable(code, GROUP_DEPENDENT_KEYWORDS)) {
+            tuningSignature = WorkGroupTuner.getKernelSignature(name, code);
+        }
+    }
+
+    private boolean isTuned(final TaskDataContext meta) {
+        return tuningSignature != null && meta.getLocalWork() != null && !meta.shouldUseOpenCLDriverScheduling();
+    }
+
+    private void selectTunedLocalWork(final TaskDataContext meta) {
+        final long maxWorkGroupSize = Arrays.stream(deviceContext.getDevice().getDeviceMaxWorkGroupSize()).sum();
+        long[] localWork = WorkGroupTuner.getInstance().getLocalWork(tuningSignature, deviceContext.getDeviceName(), meta.getGlobalWork(), meta.getLocalWork(),
+                deviceContext.getDevice().getDeviceMaxWorkItemSizes(), maxWorkGroupSize, meta.getDims());
+        System.arraycopy(localWork, 0, meta.getLocalWork(), 0, localWork.length);
+    }
+
+    private void recordTunedLocalWork(long executionPlanId, final int taskEvent, final TaskDataContext meta) {
+        WorkGroupTuner tuner = WorkGroupTuner.getInstance();
+        if (tuner.isExploring(tuningSignature, deviceContext.getDeviceName(), meta.getGlobalWork(), meta.getDims())) {
+            Event kernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
+            kernelEvent.waitForEvents(executionPlanId);
+            tuner.record(tuningSignature, deviceContext.getDeviceName(), meta.getGlobalWork(), meta.getLocalWork(), meta.getDims(), kernelEvent.getElapsedTime());
+        }
+    }
+
     private void updateProfiler(long executionPlanId, final int taskEvent, final TaskDataContext meta) {
         if (TornadoOptions.isProfilerEnabled()) {
             // Metrics captured before blocking
@@ -133,14 +183,42 @@ public abstract class OCLKernelScheduler {
         }
     }
 
+    /**
+     * Kernels tiled in local memory load each tile with one thread per element,
+     * so they run with work-groups of {@code tileSize x tileSize} threads. Every
+     * thread must reach the barriers of the kernel, so the kernel runs one thread
+     * per iteration of the parallel loops, without the threads that a loop with an
+     * offset or a rounded global work size would skip. The local work size is not
+     * marked as defined by the user, so it is selected again if the task is
+     * recompiled without tiles.
+     */
+    private static void setTiledWork(final TaskDataContext meta) {
+        for (int i = 0; i < 2; i++) {
+            if (meta.getDomain().get(i) instanceof IntDomain domain) {
+                meta.getGlobalWork()[i] = domain.cardinality() - domain.getOffset();
+            }
+        }
+        long[] localWork = (meta.getLocalWork() != null) ? meta.getLocalWork() : meta.initLocalWork();
+        Arrays.fill(localWork, 1);
+        localWork[0] = meta.getLocalMemoryTileSize();
+        localWork[1] = meta.getLocalMemoryTileSize();
+    }
+
     public int submit(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, final int[] waitEvents, long batchThreads) {
+        boolean tuned = false;
         if (!meta.isWorkerGridAvailable()) {
             if (!meta.isGlobalWorkDefined()) {
                 calculateGlobalWork(meta, batchThreads);
             }
-            if (!meta.isLocalWorkDefined()) {
+            if (meta.getLocalMemoryTileSize() != 0) {
+                setTiledWork(meta);
+            } else if (!meta.isLocalWorkDefined()) {
                 calculateLocalWork(meta);
                 checkAndAdaptLocalWork(meta);
+                tuned = isTuned(meta);
+                if (tuned) {
+                    selectTunedLocalWork(meta);
+                }
             }
         } else {
             checkLocalWorkGroupFitsOnDevice(meta);
@@ -150,6 +228,9 @@ public abstract class OCLKernelScheduler {
             meta.printThreadDims();
         }
         final int taskEvent = launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
+        if (tuned) {
+            recordTunedLocalWork(executionPlanId, taskEvent, meta);
+        }
         updateProfiler(executionPlanId, taskEvent, meta);
         return taskEvent;
     }
@@ -68,6 +68,7 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.FusedTask;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
@@ -233,16 +234,46 @@ public class VirtualOCLTornadoDevice implements TornadoXPUDevice {
         return null;
     }
 
+    private TornadoInstalledCode compileFusedTask(FusedTask task) {
+        final TaskDataContext taskMeta = task.meta();
+        try {
+            OCLProviders providers = (OCLProviders) getBackend().getProviders();
+            TornadoProfiler profiler = task.getProfiler();
+            profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            final OCLCompilationResult result = OCLCompiler.compileFusedSketchForDevice(task, providers, getBackend(), profiler);
+            profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
+
+            if (taskMeta.isPrintKernelEnabled()) {
+                RuntimeUtilities.dumpKernel(result.getTargetCode());
+            }
+
+            return null;
+        } catch (Exception e) {
+            TornadoLogger tornadoLogger = new TornadoLogger();
+            tornadoLogger.fatal("unable to compile %s for device %s", task.getId(), getDeviceName());
+            tornadoLogger.fatal("exception: %s", e.toString());
+            throw new TornadoBailoutRuntimeException("[Error During the Task Compilation] ", e);
+        }
+    }
+
     private TornadoInstalledCode compileJavaToAccelerator(SchedulableTask task) {
         if (task instanceof CompilableTask) {
             return compileTask(task);
         } else if (task instanceof PrebuiltTask) {
             return compilePreBuiltTask(task);
+        } else if (task instanceof FusedTask fusedTask) {
+            return compileFusedTask(fusedTask);
         }
         TornadoInternalError.shouldNotReachHere("task of unknown type: " + task.getClass().getSimpleName());
         return null;
     }
 
+    @Override
+    public boolean isTaskFusionSupported() {
+        return true;
+    }
+
     @Override
     public boolean isFullJITMode(long executionPlanId, SchedulableTask task) {
         return true;
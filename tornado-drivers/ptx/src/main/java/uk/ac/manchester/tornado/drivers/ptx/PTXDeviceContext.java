@@ -267,6 +267,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     public int enqueueKernelLaunch(long executionPlanId, PTXModule module, KernelStackFrame kernelArgs, TaskDataContext taskMeta, long batchThreads) {
         int[] blockDimension = { 1, 1, 1 };
         int[] gridDimension = { 1, 1, 1 };
+        boolean tuned = false;
         if (taskMeta.isWorkerGridAvailable()) {
             WorkerGrid grid = taskMeta.getWorkerGrid(taskMeta.getId());
             int[] global = Arrays.stream(grid.getGlobalWork()).mapToInt(l -> (int) l).toArray();
@@ -288,11 +289,15 @@ public class PTXDeviceContext implements TornadoDeviceContext {
             scheduler.calculateGlobalWork(taskMeta, batchThreads);
             blockDimension = scheduler.calculateBlockDimension(module, taskMeta);
             gridDimension = scheduler.calculateGridDimension(module, taskMeta, blockDimension);
+            tuned = scheduler.isTuned(module, taskMeta);
         }
 
         PTXStream stream = getStream(executionPlanId);
         int kernelLaunchEvent = stream.enqueueKernelLaunch(executionPlanId, module, taskMeta, writePTXKernelContextOnDevice(executionPlanId, (PTXKernelStackFrame) kernelArgs, taskMeta), gridDimension,
                 blockDimension);
+        if (tuned) {
+            scheduler.recordBlockDimension(executionPlanId, module, taskMeta, blockDimension, resolveEvent(executionPlanId, kernelLaunchEvent));
+        }
         updateProfiler(executionPlanId, kernelLaunchEvent, taskMeta);
         return kernelLaunchEvent;
     }
@@ -28,16 +28,33 @@ import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEBUG;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.FULL_DEBUG;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tasks.WorkGroupTuner;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
 public class PTXScheduler {
 
+    /**
+     * PTX keywords of the kernels whose result depends on the block dimension.
+     * These kernels are not auto-tuned.
+     */
+    private static final String[] BLOCK_DEPENDENT_KEYWORDS = { ".shared", "bar.sync", "barrier.sync", "atom.", "red.global", "red.shared" };
+
     private final PTXDevice device;
     private final TornadoLogger logger;
 
+    /**
+     * Signatures of the modules in the auto-tuner. Modules that are not tuned have
+     * an empty signature.
+     */
+    private final Map<PTXModule, String> tuningSignatures = new WeakHashMap<>();
+
     public PTXScheduler(final PTXDevice device) {
         this.device = device;
         this.logger = new TornadoLogger(this.getClass());
@@ -64,7 +81,62 @@ public class PTXScheduler {
         if (taskMeta.getDims() > 1) {
             maxThreadsPerBlock = module.getPotentialBlockSizeMaxOccupancy();
         }
-        return calculateBlockDimension(taskMeta.getGlobalWork(), maxThreadsPerBlock, taskMeta.getDims(), module.javaName);
+        int[] blockDimension = calculateBlockDimension(taskMeta.getGlobalWork(), maxThreadsPerBlock, taskMeta.getDims(), module.javaName);
+        if (isTuned(module, taskMeta)) {
+            long[] defaultBlocks = Arrays.stream(blockDimension).mapToLong(b -> b).toArray();
+            long[] tunedBlocks = WorkGroupTuner.getInstance().getLocalWork(getTuningSignature(module), device.getDeviceName(), taskMeta.getGlobalWork(), defaultBlocks,
+                    device.getDeviceMaxWorkItemSizes(), maxThreadsPerBlock, taskMeta.getDims());
+            for (int i = 0; i < tunedBlocks.length; i++) {
+                blockDimension[i] = (int) tunedBlocks[i];
+            }
+        }
+        return blockDimension;
+    }
+
+    private synchronized String getTuningSignature(PTXModule module) {
+        return tuningSignatures.computeIfAbsent(module, m -> WorkGroupTuner.isTunable(m.getSource(), BLOCK_DEPENDENT_KEYWORDS)
+                ? WorkGroupTuner.getKernelSignature(m.kernelFunctionName, m.getSource())
+                : "");
+    }
+
+    /**
+     * It checks whether the block dimension of a kernel is selected by the
+     * auto-tuner ({@code -Dtornado.autotune=True}).
+     *
+     * @param module
+     *     Module of the kernel.
+     * @param taskMeta
+     *     Metadata of the task.
+     * @return True if the block dimension is tuned.
+     */
+    public boolean isTuned(PTXModule module, TaskDataContext taskMeta) {
+        return TornadoOptions.WORKGROUP_AUTOTUNE && !taskMeta.isLocalWorkDefined() && !getTuningSignature(module).isEmpty();
+    }
+
+    /**
+     * It reports the time of a kernel launch to the auto-tuner, while the
+     * auto-tuner explores the block dimensions of the kernel. It waits for the
+     * kernel to finish.
+     *
+     * @param executionPlanId
+     *     Identifier of the execution plan.
+     * @param module
+     *     Module of the kernel.
+     * @param taskMeta
+     *     Metadata of the task.
+     * @param blockDimension
+     *     Block dimension of the launch.
+     * @param kernelEvent
+     *     Event of the launch.
+     */
+    public void recordBlockDimension(long executionPlanId, PTXModule module, TaskDataContext taskMeta, int[] blockDimension, Event kernelEvent) {
+        WorkGroupTuner tuner = WorkGroupTuner.getInstance();
+        String signature = getTuningSignature(module);
+        if (tuner.isExploring(signature, device.getDeviceName(), taskMeta.getGlobalWork(), taskMeta.getDims())) {
+            kernelEvent.waitForEvents(executionPlanId);
+            long[] blocks = Arrays.stream(blockDimension).mapToLong(b -> b).toArray();
+            tuner.record(signature, device.getDeviceName(), taskMeta.getGlobalWork(), blocks, taskMeta.getDims(), kernelEvent.getElapsedTime());
+        }
     }
 
     public int[] calculateBlockDimension(long[] globalWork, long maxThreadBlocks, int dimension, String javaName) {
@@ -83,6 +83,7 @@ import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXArchitecture;
 import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXKind;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.AtomAddNodeTemplate;
@@ -111,6 +112,19 @@ public class PTXGraphBuilderPlugins {
         PTXHalfFloatPlugin.registerPlugins(ps, plugins);
         registerMemoryAccessPlugins(ps);
         registerKernelContextPlugins(plugins);
+        registerDirtyTrackingPlugins(plugins);
+    }
+
+    private static void registerDirtyTrackingPlugins(InvocationPlugins plugins) {
+        // The writes of the kernels are not tracked. The runtime updates the write
+        // version of the arrays when they are copied back to the host.
+        Registration r = new Registration(plugins, TornadoNativeArray.class);
+        r.register(new InvocationPlugin("markDirty", InvocationPlugin.Receiver.class) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+                return true;
+            }
+        });
     }
 
     private static void registerFP16ConversionPlugins(InvocationPlugins plugins) {
@@ -108,6 +108,14 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header bytes of a view belong to the array it comes from. Only the
+     * elements of a view are copied back to the host.
+     */
+    private boolean isFullCopyOfView(Object reference) {
+        return getSizeSubRegionSize() <= 0 && reference instanceof TornadoNativeArray nativeArray && nativeArray.isView();
+    }
+
     @Override
 
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
@@ -119,6 +127,9 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
             // Partial Copy Out due to a copy under demand copy by the user
             // in this case the host offset is equal to the device offset
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+        } else if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset
+                    + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
         } else {
@@ -146,7 +157,10 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
 
         final int returnEvent;
-        if (batchSize <= 0) {
+        if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset
+                    + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
+        } else if (batchSize <= 0) {
             returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else {
             returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset,
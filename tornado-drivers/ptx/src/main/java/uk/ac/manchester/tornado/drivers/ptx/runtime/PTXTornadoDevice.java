@@ -58,6 +58,7 @@ import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.code.PersistentKernelCache;
 import uk.ac.manchester.tornado.drivers.ptx.PTX;
 import uk.ac.manchester.tornado.drivers.ptx.PTXBackendImpl;
 import uk.ac.manchester.tornado.drivers.ptx.PTXDevice;
@@ -177,7 +178,22 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
 
         try {
             PTXCompilationResult result;
+            String persistentCacheKey = null;
             if (!deviceContext.isCached(executionPlanId, resolvedMethod.getName(), executable)) {
+                if (PersistentKernelCache.isEnabled()) {
+                    persistentCacheKey = PersistentKernelCache.computeKey(executable, resolvedMethod, TornadoVMBackendType.PTX, getDeviceName());
+                    PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(persistentCacheKey);
+                    if (cachedKernel != null) {
+                        // Skip the Graal compilation
+                        cachedKernel.restoreMetaData(taskMeta);
+                        profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                        TornadoInstalledCode installedCode = deviceContext.installCode(executionPlanId, cachedKernel.entryPoint(), cachedKernel.code(), resolvedMethod.getName(), taskMeta
+                                .isPrintKernelEnabled());
+                        profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                        profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                        return installedCode;
+                    }
+                }
                 PTXProviders providers = (PTXProviders) getBackend().getProviders();
                 profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
                 result = PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
@@ -191,6 +207,9 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installCode(executionPlanId, result, resolvedMethod.getName());
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (persistentCacheKey != null) {
+                PersistentKernelCache.store(persistentCacheKey, result.getName(), result.getTargetCode(), taskMeta.getDomain(), taskMeta.getLocalMemoryTileSize());
+            }
             return installedCode;
         } catch (Exception e) {
             if (TornadoOptions.DEBUG) {
@@ -841,7 +841,7 @@ public class SPIRVBackend extends XPUBackend<SPIRVProviders> implements FrameMap
             stack.add(new TypeConstant(typeId, literalNumber, value.toValueString(), kind));
         }
 
-        // Add constant 3 --> Frame Access
+        // Add constant RESERVED_SLOTS --> Frame Access
         int reservedSlots = SPIRVKernelStackFrame.RESERVED_SLOTS;
         asm.lookUpConstant(Integer.toString(reservedSlots), SPIRVKind.OP_TYPE_INT_32);
 
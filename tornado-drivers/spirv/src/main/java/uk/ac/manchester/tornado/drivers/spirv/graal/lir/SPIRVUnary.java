@@ -291,7 +291,8 @@ public class SPIRVUnary {
                     new SPIRVOptionalOperand<>(SPIRVMemoryAccess.Aligned(new SPIRVLiteralInteger(alignment))) //
             ));
 
-            String constantValue = String.valueOf(0);
+            // The slot of the kernel context is a constant (e.g., a grid dimension or the batch chunk)
+            String constantValue = (parameterIndex instanceof ConstantValue constant) ? constant.getConstant().toValueString() : String.valueOf(0);
             SPIRVId index = asm.lookUpConstant(constantValue, SPIRVKind.OP_TYPE_INT_32);
 
             SPIRVId accessPTR = asm.module.getNextId();
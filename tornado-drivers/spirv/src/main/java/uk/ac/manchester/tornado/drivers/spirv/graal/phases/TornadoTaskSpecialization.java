@@ -47,6 +47,7 @@ import org.graalvm.compiler.nodes.ParameterNode;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
 import org.graalvm.compiler.nodes.calc.IsNullNode;
 import org.graalvm.compiler.nodes.extended.UnboxNode;
@@ -64,6 +65,7 @@ import uk.ac.manchester.tornado.api.types.HalfFloat;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.analysis.TornadoValueTypeReplacement;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.TornadoLoopUnroller;
 import uk.ac.manchester.tornado.drivers.spirv.graal.nodes.SPIRVKernelContextAccessNode;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
@@ -78,6 +80,7 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
     private final DeadCodeEliminationPhase deadCodeElimination;
     private final TornadoLoopUnroller loopUnroll;
     private long batchThreads;
+    private boolean dynamicBatchChunk;
     private boolean gridScheduling;
     private int index;
     private boolean printOnce = true;
@@ -192,6 +195,15 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
         }
     }
 
+    /**
+     * In batch processing, the number of threads of the chunk is read from the
+     * kernel context, so the same kernel runs all chunks, including the last one.
+     */
+    private ValueNode createBatchThreadsNode(StructuredGraph graph) {
+        ConstantNode slot = graph.addOrUnique(ConstantNode.forInt(KernelStackFrame.BATCH_THREADS_SLOT));
+        return graph.addOrUnique(new SPIRVKernelContextAccessNode(slot));
+    }
+
     private void evaluate(final StructuredGraph graph, final Node node, final Object value) {
         if (node instanceof ArrayLengthNode arrayLength) {
             int length = Array.getLength(value);
@@ -210,6 +222,8 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
                 SPIRVKernelContextAccessNode kernelContextAccessNode = graph.addOrUnique(new SPIRVKernelContextAccessNode(constantValue));
                 node.replaceAtUsages(kernelContextAccessNode);
                 index++;
+            } else if (dynamicBatchChunk) {
+                node.replaceAtUsages(createBatchThreadsNode(graph));
             } else {
                 final ConstantNode constant = (batchThreads <= 0) ? ConstantNode.forInt(length) : ConstantNode.forInt((int) batchThreads);
                 node.replaceAtUsages(graph.addOrUnique(constant));
@@ -219,18 +233,22 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
         } else if (node instanceof LoadFieldNode loadField) {
             final ResolvedJavaField field = loadField.field();
             if (field.getType().getJavaKind().isPrimitive()) {
-                ConstantNode constant;
-                if (node.toString().contains("numberOfElements")) {
-                    if (batchThreads <= 0) {
-                        constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
+                if (dynamicBatchChunk && node.toString().contains("numberOfElements")) {
+                    node.replaceAtUsages(createBatchThreadsNode(graph));
+                } else {
+                    ConstantNode constant;
+                    if (node.toString().contains("numberOfElements")) {
+                        if (batchThreads <= 0) {
+                            constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
+                        } else {
+                            constant = ConstantNode.forInt((int) batchThreads);
+                        }
                     } else {
-                        constant = ConstantNode.forInt((int) batchThreads);
+                        constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
                     }
-                } else {
-                    constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
+                    constant = graph.addOrUnique(constant);
+                    node.replaceAtUsages(constant);
                 }
-                constant = graph.addOrUnique(constant);
-                node.replaceAtUsages(constant);
                 loadField.clearInputs();
                 graph.removeFixed(loadField);
             } else if (field.isFinal()) {
@@ -348,6 +366,7 @@ public class TornadoTaskSpecialization extends BasePhase<TornadoHighTierContext>
         int lastNodeCount = graph.getNodeCount();
         boolean hasWork = true;
         this.batchThreads = context.getBatchCompilationConfig().getBatchThreads();
+        this.dynamicBatchChunk = context.getBatchCompilationConfig().isDynamicChunk();
         this.gridScheduling = context.isGridSchedulerEnabled();
 
         while (hasWork) {
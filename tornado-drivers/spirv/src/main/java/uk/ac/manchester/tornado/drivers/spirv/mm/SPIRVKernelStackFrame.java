@@ -32,7 +32,8 @@ import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 
 public class SPIRVKernelStackFrame extends SPIRVByteBuffer implements KernelStackFrame {
 
-    public static final int RESERVED_SLOTS = 3;
+    // Three slots for the grid dimensions and two for the batch chunk
+    public static final int RESERVED_SLOTS = 5;
 
     private final ArrayList<CallArgument> callArguments;
 
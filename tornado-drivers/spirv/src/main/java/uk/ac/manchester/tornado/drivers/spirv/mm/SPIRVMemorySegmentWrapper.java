@@ -105,6 +105,14 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header bytes of a view belong to the array it comes from. Only the
+     * elements of a view are copied back to the host.
+     */
+    private boolean isFullCopyOfView(Object reference) {
+        return getSizeSubRegionSize() <= 0 && reference instanceof TornadoNativeArray nativeArray && nativeArray.isView();
+    }
+
     @Override
     public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] waitEvents, boolean useDeps) {
         MemorySegment segment = getSegmentWithHeader(reference);
@@ -115,6 +123,9 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
             // Partial Copy Out due to a copy under demand copy by the user
             // in this case the host offset is equal to the device offset
             returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, waitEvents);
+        } else if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, numBytes - TornadoNativeArray.ARRAY_HEADER, segment.address(),
+                    hostOffset + TornadoNativeArray.ARRAY_HEADER, waitEvents);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
             returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
@@ -141,7 +152,10 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
-        if (batchSize <= 0) {
+        if (batchSize <= 0 && isFullCopyOfView(reference)) {
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, numBytes - TornadoNativeArray.ARRAY_HEADER, segment
+                    .address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, waitEvents);
+        } else if (batchSize <= 0) {
             returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
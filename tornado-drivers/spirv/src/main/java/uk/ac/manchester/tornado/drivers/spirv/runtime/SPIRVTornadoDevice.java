@@ -51,6 +51,7 @@ import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.code.PersistentKernelCache;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLAtomicsBuffer;
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVBackend;
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVBackendImpl;
@@ -169,6 +170,21 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
         try {
+            String persistentCacheKey = null;
+            if (PersistentKernelCache.isEnabled()) {
+                persistentCacheKey = PersistentKernelCache.computeKey(task, resolvedMethod, TornadoVMBackendType.SPIRV, getDeviceName());
+                PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(persistentCacheKey);
+                if (cachedKernel != null) {
+                    // Skip the Graal compilation
+                    cachedKernel.restoreMetaData(taskMeta);
+                    profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                    TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, taskMeta, task.getId(), cachedKernel.entryPoint(), cachedKernel.code());
+                    profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                    profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                    return installedCode;
+                }
+            }
+
             SPIRVCompilationResult result;
             // Compile the code and insert the SPIR-V binary into the code cache
             SPIRVProviders providers = (SPIRVProviders) getBackend().getProviders();
@@ -181,6 +197,9 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, result);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (persistentCacheKey != null) {
+                PersistentKernelCache.store(persistentCacheKey, result.getName(), result.getSPIRVBinary(), taskMeta.getDomain(), taskMeta.getLocalMemoryTileSize());
+            }
             return installedCode;
         } catch (Exception e) {
             TornadoLogger logger = new TornadoLogger(this.getClass());
@@ -2,6 +2,7 @@ import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
 
 open module tornado.runtime {
     requires java.logging;
+    requires jdk.management;
     requires jdk.unsupported;
     requires org.graalvm.collections;
 
@@ -31,6 +32,7 @@ open module tornado.runtime {
     exports uk.ac.manchester.tornado.runtime.sketcher;
     exports uk.ac.manchester.tornado.runtime.tasks;
     exports uk.ac.manchester.tornado.runtime.tasks.meta;
+    exports uk.ac.manchester.tornado.runtime.tests;
     exports uk.ac.manchester.tornado.runtime.utils;
     exports uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
     exports uk.ac.manchester.tornado.runtime.graal.nodes.interfaces;
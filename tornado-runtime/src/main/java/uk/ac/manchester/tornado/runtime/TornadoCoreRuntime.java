@@ -60,6 +60,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.UpsMeterReader;
 import uk.ac.manchester.tornado.runtime.common.enums.TornadoBackends;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSnippetReflectionProvider;
+import uk.ac.manchester.tornado.runtime.tasks.WarmUpManifest;
 
 public final class TornadoCoreRuntime implements TornadoRuntime {
 
@@ -75,6 +76,32 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
         }
     };
     private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_SKETCHER_THREADS, executorThreadFactory);
+    private static final ThreadFactory compilerThreadFactory = new ThreadFactory() {
+        private int threadId = 0;
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, String.format("TornadoCompilerThread - %d", threadId));
+            thread.setDaemon(true);
+            threadId++;
+            return thread;
+        }
+    };
+    // Compilations wait for the sketches built by the executor, so they run in a different pool
+    private static final ExecutorService COMPILER_EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_COMPILER_THREADS, compilerThreadFactory);
+    private static final ThreadFactory taskGraphCompilerThreadFactory = new ThreadFactory() {
+        private int threadId = 0;
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, String.format("TornadoTaskGraphCompilerThread - %d", threadId));
+            thread.setDaemon(true);
+            threadId++;
+            return thread;
+        }
+    };
+    // Background compilations of whole task-graphs wait for the sketches and for the compilations of their tasks, so they run in their own pool
+    private static final ExecutorService TASK_GRAPH_COMPILER_EXECUTOR = Executors.newCachedThreadPool(taskGraphCompilerThreadFactory);
     private static final TornadoCoreRuntime runtime = new TornadoCoreRuntime();
     private static final JVMMapping JVM = new JVMMapping();
     private static final int DEFAULT_DRIVER = 0;
@@ -84,6 +111,11 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
     private static DebugContext debugContext = null;
     private static OptionValues options;
 
+    static {
+        // Start building the sketches of the task-graphs compiled in a previous run
+        WarmUpManifest.replay();
+    }
+
     private final JVMCIBackend vmBackend;
     private final HotSpotJVMCIRuntime vmRuntime;
     private final TornadoVMConfigAccess vmConfig;
@@ -121,6 +153,14 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
         return EXECUTOR;
     }
 
+    public static ExecutorService getTornadoCompilerExecutor() {
+        return COMPILER_EXECUTOR;
+    }
+
+    public static ExecutorService getTornadoTaskGraphCompilerExecutor() {
+        return TASK_GRAPH_COMPILER_EXECUTOR;
+    }
+
     public static JVMCIBackend getVMBackend() {
         return runtime.vmBackend;
     }
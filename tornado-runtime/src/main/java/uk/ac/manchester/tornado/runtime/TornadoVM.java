@@ -29,7 +29,6 @@ import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
@@ -62,6 +61,8 @@ public class TornadoVM {
 
     private final TornadoVMInterpreter[] tornadoVMInterpreters;
 
+    private final TornadoVMDispatcher dispatcher;
+
     /**
      * It constructs a new TornadoVM instance.
      *
@@ -72,10 +73,14 @@ public class TornadoVM {
      *     the {@link TornadoGraph} representing the TaskGraph
      * @param timeProfiler
      *     the {@link TornadoProfiler} for profiling execution time
+     * @param dispatcher
+     *     the {@link TornadoVMDispatcher} that provides the Java threads to run
+     *     the interpreters concurrently
      */
-    public TornadoVM(TornadoExecutionContext executionContext, TornadoGraph tornadoGraph, TornadoProfiler timeProfiler) {
+    public TornadoVM(TornadoExecutionContext executionContext, TornadoGraph tornadoGraph, TornadoProfiler timeProfiler, TornadoVMDispatcher dispatcher) {
         this.executionContext = executionContext;
         this.timeProfiler = timeProfiler;
+        this.dispatcher = dispatcher;
         this.tornadoVMBytecodes = TornadoVMGraphCompiler.compile(tornadoGraph, executionContext);
         this.tornadoVMInterpreters = new TornadoVMInterpreter[executionContext.getValidContextSize()];
         bindBytecodesToInterpreters();
@@ -103,10 +108,13 @@ public class TornadoVM {
      *
      * @return An {@link Event} indicating the completion of execution.
      */
-    public Event execute(boolean isParallel, TornadoProfiler profiler) {
+    public Event execute(boolean isParallel, TornadoProfiler profiler, boolean traceExecution) {
         // Set the profiler for all interpreters
         this.timeProfiler = profiler;
-        Arrays.stream(tornadoVMInterpreters).forEach(tornadoVMInterpreter -> tornadoVMInterpreter.setTimeProfiler(timeProfiler));
+        Arrays.stream(tornadoVMInterpreters).forEach(tornadoVMInterpreter -> {
+            tornadoVMInterpreter.setTimeProfiler(timeProfiler);
+            tornadoVMInterpreter.setTraceExecution(traceExecution);
+        });
 
         if (shouldInterpreterRunInParallel(isParallel)) {
             return executeInterpreterThreadManager(isParallel);
@@ -135,9 +143,9 @@ public class TornadoVM {
      * @return An {@link Event} indicating the completion of execution.
      */
     private Event executeInterpreterThreadManager(boolean isParallel) {
-        // Create a thread pool with a fixed number of threads
+        // Obtain the thread pool of the execution plan. Threads are reused across executions
         int numberOfJavaThreads = calculateNumberOfJavaThreads(isParallel);
-        ExecutorService executor = Executors.newFixedThreadPool(numberOfJavaThreads);
+        ExecutorService executor = dispatcher.getExecutor(numberOfJavaThreads);
 
         // Create a list to hold the futures of each execution
         List<Future<?>> futures = new ArrayList<>();
@@ -153,6 +161,7 @@ public class TornadoVM {
                 future.get();
             }
         } catch (ExecutionException | InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
             Throwable cause = e.getCause();
             if (cause instanceof TornadoBailoutRuntimeException) {
                 throw new TornadoBailoutRuntimeException(e.getMessage());
@@ -165,9 +174,6 @@ public class TornadoVM {
             } else {
                 throw new RuntimeException(e);
             }
-        } finally {
-            // Shutdown the executor after all tasks have completed
-            executor.shutdown();
         }
 
         return new EmptyEvent();
@@ -0,0 +1,122 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Long-lived pool of Java threads that runs the TornadoVM interpreters when
+ * a task-graph executes concurrently on multiple devices. There is one
+ * dispatcher per task-graph of an execution plan, and it is shared by all
+ * {@link TornadoVM} instances of the task-graph. Threads are created on the
+ * first concurrent execution and are reused by the following executions
+ * until the dispatcher is closed (e.g., via
+ * {@link uk.ac.manchester.tornado.api.TornadoExecutionPlan#close()}).
+ *
+ * <p>
+ * Platform threads are used by default. Virtual threads can be selected with
+ * the option {@code -Dtornado.concurrent.devices.virtual=true}. Platform
+ * threads are created as daemon threads, so an execution plan that is not
+ * closed does not prevent the JVM from exiting.
+ * </p>
+ */
+public class TornadoVMDispatcher implements AutoCloseable {
+
+    private static final AtomicInteger dispatcherCounter = new AtomicInteger(0);
+
+    private final int dispatcherId;
+    private final boolean useVirtualThreads;
+    private ExecutorService executor;
+    private int numThreads;
+
+    public TornadoVMDispatcher() {
+        this(TornadoOptions.VIRTUAL_THREAD_INTERPRETERS);
+    }
+
+    public TornadoVMDispatcher(boolean useVirtualThreads) {
+        this.dispatcherId = dispatcherCounter.getAndIncrement();
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    /**
+     * It returns an executor with, at least, the requested number of threads. The
+     * executor is created the first time this method is invoked, and it is reused
+     * in following invocations. If more threads are requested than the ones
+     * available, the executor is replaced by a larger one.
+     *
+     * @param numberOfJavaThreads
+     *     Number of interpreters to run concurrently.
+     * @return {@link ExecutorService}
+     */
+    public synchronized ExecutorService getExecutor(int numberOfJavaThreads) {
+        if (executor == null || (!useVirtualThreads && numberOfJavaThreads > numThreads)) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            executor = createExecutor(numberOfJavaThreads);
+            numThreads = numberOfJavaThreads;
+        }
+        return executor;
+    }
+
+    private ExecutorService createExecutor(int numberOfJavaThreads) {
+        final String prefix = "TornadoVM-Interpreter-" + dispatcherId + "-";
+        if (useVirtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory());
+        }
+        ThreadFactory factory = Thread.ofPlatform().name(prefix, 0).daemon(true).factory();
+        return Executors.newFixedThreadPool(numberOfJavaThreads, factory);
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    /**
+     * It returns true if the dispatcher currently holds an executor.
+     *
+     * @return boolean
+     */
+    public synchronized boolean isActive() {
+        return executor != null;
+    }
+
+    /**
+     * It shuts down the threads of the dispatcher. Tasks already submitted are
+     * completed. A new executor is created if the dispatcher is used again.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+            numThreads = 0;
+        }
+    }
+}
@@ -32,11 +32,23 @@ public class BatchCompilationConfig {
     private long batchThreads;
     private int batchNumber;
     private long batchSize;
+    private boolean dynamicChunk;
 
     public BatchCompilationConfig(long batchThreads, int batchNumber, long batchSize) {
+        this(batchThreads, batchNumber, batchSize, false);
+    }
+
+    /**
+     * @param dynamicChunk
+     *     If true, the number of threads and the index offset of the chunk are
+     *     read from the kernel context at run time, so the same kernel runs all
+     *     chunks of a batch execution.
+     */
+    public BatchCompilationConfig(long batchThreads, int batchNumber, long batchSize, boolean dynamicChunk) {
         this.batchThreads = batchThreads;
         this.batchNumber = batchNumber;
         this.batchSize = batchSize;
+        this.dynamicChunk = dynamicChunk;
     }
 
     public long getBatchThreads() {
@@ -50,4 +62,8 @@ public class BatchCompilationConfig {
     public long getBatchSize() {
         return batchSize;
     }
+
+    public boolean isDynamicChunk() {
+        return dynamicChunk;
+    }
 }
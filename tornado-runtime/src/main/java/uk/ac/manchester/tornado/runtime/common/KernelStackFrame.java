@@ -28,6 +28,19 @@ import java.util.List;
 
 public interface KernelStackFrame {
 
+    /**
+     * Slot of the kernel context with the number of threads of the current chunk
+     * in batch processing. It is the bound of the parallel loops of batch kernels.
+     */
+    int BATCH_THREADS_SLOT = 3;
+
+    /**
+     * Slot of the kernel context with the index of the first element of the
+     * current chunk in batch processing. It is added to the loop indexes that are
+     * written into the outputs of batch kernels.
+     */
+    int BATCH_INDEX_OFFSET_SLOT = 4;
+
     // Marks an argument of type KernelContext being passed explicitly as a parameter.
     class KernelContextArgument {
     }
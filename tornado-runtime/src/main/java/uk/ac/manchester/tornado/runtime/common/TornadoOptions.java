@@ -94,6 +94,17 @@ public class TornadoOptions {
      * the rest of the backends.
      */
     public static final int SPIRV_BACKEND_PRIORITY = Integer.parseInt(Tornado.getProperty("tornado.spirv.priority", "11"));
+    /**
+     * Priority of the JVM Backend. The higher the number, the more priority over
+     * the rest of the backends. By default, the JVM backend has the lowest priority,
+     * so it is only selected as the default backend when no accelerator is available.
+     */
+    public static final int JVM_BACKEND_PRIORITY = Integer.parseInt(Tornado.getProperty("tornado.jvm.priority", "-1"));
+    /**
+     * Number of Java threads used by the JVM Backend to run parallel loops and
+     * kernels. It defaults to the number of available processors.
+     */
+    public static final int JVM_BACKEND_THREADS = Integer.parseInt(Tornado.getProperty("tornado.jvm.threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
     /**
      * Check if the FPGA emulation mode has been set.
      */
@@ -209,6 +220,88 @@ public class TornadoOptions {
      * Sets the number of threads for the Tornado Sketcher. Default is 4.
      */
     public static final int TORNADO_SKETCHER_THREADS = Integer.parseInt(getProperty("tornado.sketcher.threads", "4"));
+    /**
+     * Compiles all tasks of a task-graph concurrently before they are launched.
+     * Default is False.
+     */
+    public static final boolean PARALLEL_COMPILATION = getBooleanValue("tornado.parallel.compilation", FALSE);
+    /**
+     * Sets the number of threads that compile the tasks when the parallel
+     * compilation is enabled. Default is 4.
+     */
+    public static final int TORNADO_COMPILER_THREADS = Integer.parseInt(getProperty("tornado.compiler.threads", "4"));
+    /**
+     * Sets the maximum number of sketches kept in the cache of the Tornado
+     * Sketcher. The least recently used sketches are evicted when the limit is
+     * exceeded. Default is 1024.
+     */
+    public static final int SKETCHER_CACHE_SIZE = getIntValue("tornado.sketcher.cache.size", "1024");
+    /**
+     * It enables the persistent kernel cache. Kernels generated by the OpenCL,
+     * PTX and SPIR-V backends are stored on disk and reused by later executions
+     * of the JVM without running the Graal compiler. False by default.
+     */
+    public static final boolean PERSISTENT_KERNEL_CACHE = getBooleanValue("tornado.kernel.cache.enable", FALSE);
+    /**
+     * Directory of the persistent kernel cache. Default is
+     * {@code $HOME/.tornadovm/kernel-cache}.
+     */
+    public static final String PERSISTENT_KERNEL_CACHE_DIR = getProperty("tornado.kernel.cache.dir", System.getProperty("user.home") + "/.tornadovm/kernel-cache");
+    /**
+     * Maximum size of the persistent kernel cache. The least recently used
+     * kernels are removed when the limit is exceeded. Default is 256MB.
+     */
+    public static final long PERSISTENT_KERNEL_CACHE_SIZE = RuntimeUtilities.parseSize(getProperty("tornado.kernel.cache.size", "256MB"));
+    /**
+     * Path of the warm-up manifest. When the file exists, the task-graphs
+     * recorded in it are compiled in the background at start-up. Disabled by
+     * default.
+     */
+    public static final String WARMUP_MANIFEST = getProperty("tornado.warmup.manifest", null);
+    /**
+     * It records every task-graph configuration compiled during the run and
+     * writes it to the warm-up manifest when the JVM exits. False by default.
+     */
+    public static final boolean WARMUP_MANIFEST_RECORD = getBooleanValue("tornado.warmup.manifest.record", FALSE);
+    /**
+     * File in which the cost model of the dynamic reconfiguration
+     * ({@code Policy.COST_MODEL}) stores the execution times of the task-graphs
+     * across runs. Default is {@code $HOME/.tornadovm/dr-history}.
+     */
+    public static final String DR_COST_MODEL_HISTORY = getProperty("tornado.dr.history", System.getProperty("user.home") + "/.tornadovm/dr-history");
+    /**
+     * Probability that the cost model of the dynamic reconfiguration runs a
+     * task-graph on a device other than the predicted best one, to keep the
+     * history up to date. Default is 0.05.
+     */
+    public static final float DR_COST_MODEL_EXPLORATION = getFloatValue("tornado.dr.exploration", "0.05");
+    /**
+     * It tunes the local work sizes of the kernels that are not set by the user,
+     * by measuring the first executions of each kernel with different local work
+     * sizes. Default is False.
+     */
+    public static final boolean WORKGROUP_AUTOTUNE = getBooleanValue("tornado.autotune", FALSE);
+    /**
+     * File in which the auto-tuner stores the selected local work sizes across
+     * runs. Default is {@code $HOME/.tornadovm/autotune-db}.
+     */
+    public static final String WORKGROUP_AUTOTUNE_DB = getProperty("tornado.autotune.db", System.getProperty("user.home") + "/.tornadovm/autotune-db");
+    /**
+     * Maximum number of executions of a kernel used by the auto-tuner to explore
+     * local work sizes. Default is 16.
+     */
+    public static final int WORKGROUP_AUTOTUNE_ITERATIONS = getIntValue("tornado.autotune.iterations", "16");
+    /**
+     * It fuses chains of element-wise tasks with the same iteration space into a
+     * single kernel, on the devices that support it. Default is False.
+     */
+    public static final boolean TASK_FUSION = getBooleanValue("tornado.fusion", FALSE);
+    /**
+     * It stages the data reused by the threads of a work-group in local memory, for
+     * the sequential loops of 2D parallel kernels, such as the k-loop of a matrix
+     * multiplication. Only applies to the OpenCL backend. Default is False.
+     */
+    public static final boolean LOCAL_MEMORY_TILING = getBooleanValue("tornado.tiling", FALSE);
     /**
      * It enables automatic discovery and parallelization of loops. Please note that
      * this option is experimental and may cause issues if enabled.
@@ -313,6 +406,13 @@ public class TornadoOptions {
      */
     public static final boolean CONCURRENT_INTERPRETERS = Boolean.parseBoolean(System.getProperty("tornado.concurrent.devices", FALSE));
 
+    /**
+     * Option to use Java virtual threads, instead of platform threads, to run the
+     * TornadoVM interpreters when running concurrently on multiple devices. False
+     * by default.
+     */
+    public static final boolean VIRTUAL_THREAD_INTERPRETERS = Boolean.parseBoolean(System.getProperty("tornado.concurrent.devices.virtual", FALSE));
+
     /**
      * Panama Object Header in TornadoVM.
      */
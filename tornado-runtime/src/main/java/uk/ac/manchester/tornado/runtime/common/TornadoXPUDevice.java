@@ -200,4 +200,15 @@ public interface TornadoXPUDevice extends TornadoDevice {
         }
     }
 
+    /**
+     * It returns whether the device can compile a group of element-wise tasks
+     * into a single kernel (see
+     * {@link uk.ac.manchester.tornado.runtime.graph.TaskFusion}).
+     *
+     * @return boolean
+     */
+    default boolean isTaskFusionSupported() {
+        return false;
+    }
+
 }
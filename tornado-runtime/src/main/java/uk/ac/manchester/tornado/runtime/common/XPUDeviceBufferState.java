@@ -27,6 +27,7 @@ import static uk.ac.manchester.tornado.runtime.common.RuntimeUtilities.humanRead
 
 import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
 public class XPUDeviceBufferState implements DeviceBufferState {
 
@@ -38,9 +39,13 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     private long partialSize;
     private boolean reuseBuffer = false;
 
+    // Write version of the host object when it was last copied to the buffer
+    private long writeVersion = TornadoNativeArray.UNTRACKED_WRITE_VERSION;
+
     @Override
     public void setXPUBuffer(XPUBuffer value) {
         xpuBuffer = value;
+        writeVersion = TornadoNativeArray.UNTRACKED_WRITE_VERSION;
     }
 
     public void setAtomicRegion(XPUBuffer buffer) {
@@ -75,6 +80,51 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     @Override
     public void setContents(boolean content) {
         bufferHasContent = content;
+        if (!content) {
+            writeVersion = TornadoNativeArray.UNTRACKED_WRITE_VERSION;
+        }
+    }
+
+    /**
+     * It returns the write version of the host object when the buffer and the
+     * object were last in sync.
+     *
+     * @return long
+     */
+    public long getWriteVersion() {
+        return writeVersion;
+    }
+
+    public void setWriteVersion(long writeVersion) {
+        this.writeVersion = writeVersion;
+    }
+
+    /**
+     * Records that the host object was updated with the contents of the buffer.
+     * Other buffers of the same object are not in sync anymore.
+     *
+     * @param object
+     *     Host object.
+     * @param wholeBuffer
+     *     Whether the whole buffer was copied to the host object.
+     */
+    public void updatedHostObject(Object object, boolean wholeBuffer) {
+        if (object instanceof TornadoNativeArray nativeArray && nativeArray.getWriteVersion() != TornadoNativeArray.UNTRACKED_WRITE_VERSION) {
+            nativeArray.markDirty();
+            writeVersion = wholeBuffer ? nativeArray.getWriteVersion() : TornadoNativeArray.UNTRACKED_WRITE_VERSION;
+        }
+    }
+
+    /**
+     * It checks whether the buffer holds the same data as the host object, so the
+     * object does not need to be copied again.
+     *
+     * @param hostWriteVersion
+     *     Current write version of the host object.
+     * @return boolean
+     */
+    public boolean isInSync(long hostWriteVersion) {
+        return hostWriteVersion != TornadoNativeArray.UNTRACKED_WRITE_VERSION && bufferHasContent && xpuBuffer != null && writeVersion == hostWriteVersion;
     }
 
     @Override
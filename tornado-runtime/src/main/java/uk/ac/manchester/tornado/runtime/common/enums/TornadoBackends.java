@@ -24,6 +24,7 @@
 
 package uk.ac.manchester.tornado.runtime.common.enums;
 
+import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.JVM_BACKEND_PRIORITY;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.OPENCL_BACKEND_PRIORITY;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.PTX_BACKEND_PRIORITY;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.SPIRV_BACKEND_PRIORITY;
@@ -38,7 +39,8 @@ public enum TornadoBackends {
 
     PTX(PTX_BACKEND_PRIORITY, "implemented"), //
     OpenCL(OPENCL_BACKEND_PRIORITY, "implemented"), //
-    SPIRV(SPIRV_BACKEND_PRIORITY, "implemented"); //
+    SPIRV(SPIRV_BACKEND_PRIORITY, "implemented"), //
+    JVM(JVM_BACKEND_PRIORITY, "implemented"); //
 
     private final int priority;
     private final String status;
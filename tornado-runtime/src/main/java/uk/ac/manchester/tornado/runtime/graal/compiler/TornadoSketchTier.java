@@ -42,6 +42,7 @@ import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoApiReplacem
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoAutoParalleliser;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoBatchFunctionAnalysis;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoDataflowAnalysis;
+import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoElementWiseAnalysis;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoFullInliningPolicy;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoKernelContextReplacement;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoNativeTypeElimination;
@@ -85,6 +86,7 @@ public class TornadoSketchTier extends PhaseSuite<TornadoSketchTierContext> {
         appendPhase(new TornadoDataflowAnalysis());
         appendPhase(new TornadoPanamaPrivateMemory());
         appendPhase(new TornadoBatchFunctionAnalysis());
+        appendPhase(new TornadoElementWiseAnalysis());
     }
 
 }
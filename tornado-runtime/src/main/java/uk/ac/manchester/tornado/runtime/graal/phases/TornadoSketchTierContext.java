@@ -31,6 +31,7 @@ import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoDataflowAnalysis;
+import uk.ac.manchester.tornado.runtime.sketcher.ElementWiseLoop;
 
 
 public class TornadoSketchTierContext extends HighTierContext {
@@ -43,6 +44,7 @@ public class TornadoSketchTierContext extends HighTierContext {
      */
     private final Access[] argumentAccess;
     private boolean batchWriteThreadIndex;
+    private ElementWiseLoop elementWiseLoop;
 
     private TornadoDevice device;
 
@@ -74,4 +76,12 @@ public class TornadoSketchTierContext extends HighTierContext {
     public boolean getBatchWriteThreadIndex() {
         return this.batchWriteThreadIndex;
     }
+
+    public void setElementWiseLoop(ElementWiseLoop elementWiseLoop) {
+        this.elementWiseLoop = elementWiseLoop;
+    }
+
+    public ElementWiseLoop getElementWiseLoop() {
+        return elementWiseLoop;
+    }
 }
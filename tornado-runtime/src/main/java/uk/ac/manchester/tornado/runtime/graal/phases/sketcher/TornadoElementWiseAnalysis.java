@@ -0,0 +1,152 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.InvokeNode;
+import org.graalvm.compiler.nodes.InvokeWithExceptionNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.java.AccessIndexedNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+import uk.ac.manchester.tornado.runtime.sketcher.ElementWiseLoop;
+
+/**
+ * This phase analyses whether a task is an element-wise computation: it has a
+ * single parallel loop, and every array is only accessed at the index of the
+ * loop. This information is used to split the iteration space of a task across
+ * multiple devices (see {@link ElementWiseLoop}).
+ */
+public class TornadoElementWiseAnalysis extends BasePhase<TornadoSketchTierContext> {
+
+    private static final String NATIVE_ARRAY_SIZE_FIELD = "numberOfElements";
+
+    @Override
+    public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+        return ALWAYS_APPLICABLE;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoSketchTierContext context) {
+        if (!context.getMethod().isStatic() || graph.getNodes().filter(InvokeNode.class).isNotEmpty() || graph.getNodes().filter(InvokeWithExceptionNode.class).isNotEmpty() || graph.getNodes().filter(StoreFieldNode.class).isNotEmpty()) {
+            return;
+        }
+
+        List<ParallelRangeNode> ranges = graph.getNodes().filter(ParallelRangeNode.class).snapshot();
+        if (ranges.size() != 1) {
+            return;
+        }
+        ParallelRangeNode range = ranges.getFirst();
+        if (!(range.offset().value() instanceof ConstantNode init) || !(range.stride().value() instanceof ConstantNode stride)) {
+            return;
+        }
+        ValuePhiNode loopIndex = range.offset().usages().filter(ValuePhiNode.class).first();
+        if (loopIndex == null) {
+            return;
+        }
+
+        ElementWiseLoop.BoundKind boundKind;
+        int bound;
+        ValueNode boundNode = GraphUtil.unproxify(range.value());
+        if (boundNode instanceof ConstantNode constant) {
+            boundKind = ElementWiseLoop.BoundKind.CONSTANT;
+            bound = constant.asJavaConstant().asInt();
+        } else if (boundNode instanceof ParameterNode parameter) {
+            boundKind = ElementWiseLoop.BoundKind.SCALAR_PARAMETER;
+            bound = parameter.index();
+        } else if (boundNode instanceof LoadFieldNode loadField && NATIVE_ARRAY_SIZE_FIELD.equals(loadField.field().getName())
+                && GraphUtil.unproxify(loadField.object()) instanceof ParameterNode parameter) {
+            boundKind = ElementWiseLoop.BoundKind.ARRAY_SIZE;
+            bound = parameter.index();
+        } else {
+            return;
+        }
+
+        for (OffsetAddressNode address : graph.getNodes().filter(OffsetAddressNode.class)) {
+            if (!(GraphUtil.unproxify(address.getBase()) instanceof ParameterNode) || !isElementOffset(address.getOffset(), loopIndex)) {
+                return;
+            }
+        }
+        for (AccessIndexedNode access : graph.getNodes().filter(AccessIndexedNode.class)) {
+            if (!(GraphUtil.unproxify(access.array()) instanceof ParameterNode) || access.index() != loopIndex) {
+                return;
+            }
+        }
+
+        context.setElementWiseLoop(new ElementWiseLoop(init.asJavaConstant().asInt(), stride.asJavaConstant().asInt(), boundKind, bound));
+    }
+
+    /**
+     * It checks whether the offset of a memory access in a native array is the
+     * offset of the element at the loop index: {@code (index + header / size) *
+     * size}, in which the element size is expressed as a shift or as a
+     * multiplication.
+     */
+    private static boolean isElementOffset(ValueNode offset, ValuePhiNode loopIndex) {
+        long scale = 1;
+        ValueNode index = offset;
+        if (index instanceof LeftShiftNode shift && shift.getY() instanceof ConstantNode constant) {
+            scale = 1L << constant.asJavaConstant().asInt();
+            index = shift.getX();
+        } else if (index instanceof MulNode mul && mul.getY() instanceof ConstantNode constant) {
+            scale = constant.asJavaConstant().asLong();
+            index = mul.getX();
+        }
+        if (index instanceof IntegerConvertNode<?> convert) {
+            index = convert.getValue();
+        }
+        if (!(index instanceof AddNode add)) {
+            return false;
+        }
+        Node headerElements;
+        if (add.getX() == loopIndex) {
+            headerElements = add.getY();
+        } else if (add.getY() == loopIndex) {
+            headerElements = add.getX();
+        } else {
+            return false;
+        }
+        return headerElements instanceof ConstantNode constant && constant.asJavaConstant().asLong() * scale == TornadoNativeArray.ARRAY_HEADER;
+    }
+
+}
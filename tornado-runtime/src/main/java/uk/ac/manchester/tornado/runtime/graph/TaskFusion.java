@@ -0,0 +1,533 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Local;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.sketcher.ElementWiseLoop;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.SketchComposition;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.FusedTask;
+import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
+import uk.ac.manchester.tornado.runtime.tasks.TornadoGraphBitcodes;
+
+/**
+ * Groups of consecutive tasks of a task-graph that are compiled into a single
+ * kernel (see {@link FusedTask}). A task is fused with the previous one when:
+ *
+ * <ul>
+ * <li>Both tasks are element-wise computations with the same iteration space
+ * (see {@link ElementWiseLoop}), the body of their parallel loops is
+ * straight-line code (see {@link SketchComposition}), and they run on the same
+ * device, which supports task fusion.</li>
+ * <li>The task reads an object written by the previous one
+ * (producer/consumer).</li>
+ * <li>The native arrays passed to the tasks of the group do not overlap, unless
+ * they are the same object (e.g., a view of another array).</li>
+ * </ul>
+ *
+ * <p>
+ * Since every iteration of a fused task only depends on the same iteration of
+ * the previous tasks, iteration {@code i} of the fused kernel runs iteration
+ * {@code i} of every task of the group. An array written by a task of the
+ * group and only read by the next tasks of the group (an intermediate array)
+ * is removed from the kernel: the value written to each element is forwarded
+ * to the reads, so the array is neither allocated nor copied on the device.
+ * </p>
+ */
+public final class TaskFusion {
+
+    private static final AtomicLong fusedLaunches = new AtomicLong();
+    private static final TornadoLogger logger = new TornadoLogger(TaskFusion.class);
+
+    /**
+     * Index of the first task of the group of each task.
+     */
+    private final int[] groupStart;
+
+    /**
+     * Index of the last task of the group of each task.
+     */
+    private final int[] groupEnd;
+
+    /**
+     * Fused task of each group, at the index of its first task.
+     */
+    private final FusedTask[] fusedTasks;
+
+    /**
+     * For each task of each group, the index of the parameter of the fused
+     * kernel that replaces each parameter of the task.
+     */
+    private final int[][] parameterMaps;
+
+    private TaskFusion(int numTasks) {
+        groupStart = new int[numTasks];
+        groupEnd = new int[numTasks];
+        fusedTasks = new FusedTask[numTasks];
+        parameterMaps = new int[numTasks][];
+        for (int i = 0; i < numTasks; i++) {
+            groupStart[i] = i;
+            groupEnd[i] = i;
+        }
+    }
+
+    /**
+     * It finds the groups of tasks of an execution context that can be fused,
+     * and composes the kernel of each group.
+     *
+     * @param executionContext
+     *     {@link TornadoExecutionContext} of the task-graph.
+     * @param gridScheduler
+     *     {@link GridScheduler} of the task-graph, or null.
+     * @return {@link TaskFusion}
+     */
+    public static TaskFusion analyze(TornadoExecutionContext executionContext, GridScheduler gridScheduler) {
+        final List<SchedulableTask> tasks = executionContext.getTasks();
+        TaskFusion taskFusion = new TaskFusion(tasks.size());
+        if (executionContext.getBatchSize() != TornadoExecutionContext.INIT_VALUE) {
+            // Each batch launches the tasks with a different range of iterations
+            return taskFusion;
+        }
+
+        int start = 0;
+        for (int i = 1; i <= tasks.size(); i++) {
+            if (i == tasks.size() || !canFuse(executionContext, gridScheduler, start, i)) {
+                if (i - 1 > start) {
+                    taskFusion.fuse(executionContext, start, i - 1);
+                }
+                start = i;
+            }
+        }
+        return taskFusion;
+    }
+
+    /**
+     * It checks whether a task can be appended to the group of tasks that starts
+     * at the given index and ends at the previous task.
+     */
+    private static boolean canFuse(TornadoExecutionContext executionContext, GridScheduler gridScheduler, int groupStart, int taskIndex) {
+        final int producerIndex = taskIndex - 1;
+        if (!(executionContext.getTask(producerIndex) instanceof CompilableTask producer) || !(executionContext.getTask(taskIndex) instanceof CompilableTask consumer)) {
+            return false;
+        }
+        TornadoXPUDevice device = executionContext.getDeviceForTask(taskIndex);
+        if (!device.equals(executionContext.getDeviceForTask(producerIndex)) || !device.isTaskFusionSupported()) {
+            return false;
+        }
+        if (gridScheduler != null && (gridScheduler.get(producer.getId()) != null || gridScheduler.get(consumer.getId()) != null)) {
+            // The tasks run with their own grid of threads
+            return false;
+        }
+        if (!hasFusibleArguments(producer) || !hasFusibleArguments(consumer)) {
+            return false;
+        }
+
+        Sketch producerSketch = lookupSketch(producer);
+        Sketch consumerSketch = lookupSketch(consumer);
+        if (!SketchComposition.isComposable(producerSketch) || !SketchComposition.isComposable(consumerSketch)) {
+            return false;
+        }
+        ElementWiseLoop producerLoop = producerSketch.getElementWiseLoop();
+        ElementWiseLoop consumerLoop = consumerSketch.getElementWiseLoop();
+        int upperBound = producerLoop.getUpperBound(producer.getArguments());
+        if (producerLoop.init() != consumerLoop.init() || producerLoop.stride() != consumerLoop.stride() || upperBound == -1 || upperBound != consumerLoop.getUpperBound(consumer
+                .getArguments())) {
+            return false;
+        }
+
+        Object[] producerArguments = producer.getArguments();
+        Object[] consumerArguments = consumer.getArguments();
+        Access[] producerAccesses = producerSketch.getArgumentsAccess();
+        Access[] consumerAccesses = consumerSketch.getArgumentsAccess();
+        boolean isConsumer = false;
+        for (int i = 0; i < producerArguments.length; i++) {
+            for (int j = 0; j < consumerArguments.length && isWrite(producerAccesses[i]); j++) {
+                isConsumer |= consumerArguments[j] == producerArguments[i] && isRead(consumerAccesses[j]);
+            }
+        }
+
+        return isConsumer && !hasOverlappingArrays(executionContext, groupStart, taskIndex);
+    }
+
+    /**
+     * The kernel parameters of a fused task are the native arrays and the scalar
+     * values passed to static task methods.
+     */
+    private static boolean hasFusibleArguments(CompilableTask task) {
+        if (!Modifier.isStatic(task.getMethod().getModifiers())) {
+            return false;
+        }
+        for (Object argument : task.getArguments()) {
+            if (!(argument instanceof TornadoNativeArray) && !RuntimeUtilities.isBoxedPrimitiveClass(argument.getClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Sketch lookupSketch(CompilableTask task) {
+        final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(task.getMethod());
+        return TornadoSketcher.lookup(resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
+    }
+
+    private static boolean isRead(Access access) {
+        return access == Access.READ_ONLY || access == Access.READ_WRITE;
+    }
+
+    private static boolean isWrite(Access access) {
+        return access == Access.WRITE_ONLY || access == Access.READ_WRITE;
+    }
+
+    private static int indexOf(List<Object> objects, Object object) {
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) == object) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * It checks whether two different native arrays passed to the tasks of a
+     * group share memory. For example, if a task writes an array and the next
+     * task reads a view of the same array that starts at the next element, the
+     * element read by an iteration is written by another iteration.
+     */
+    private static boolean hasOverlappingArrays(TornadoExecutionContext executionContext, int firstTask, int lastTask) {
+        List<MemorySegment> segments = new ArrayList<>();
+        List<Object> arrays = new ArrayList<>();
+        for (int i = firstTask; i <= lastTask; i++) {
+            for (Object argument : executionContext.getTask(i).getArguments()) {
+                if (argument instanceof TornadoNativeArray array && indexOf(arrays, array) == -1) {
+                    MemorySegment segment = array.getSegmentWithHeader();
+                    for (MemorySegment other : segments) {
+                        if (segment.address() < other.address() + other.byteSize() && other.address() < segment.address() + segment.byteSize()) {
+                            return true;
+                        }
+                    }
+                    segments.add(segment);
+                    arrays.add(array);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * It composes the kernel of the tasks from {@code start} to {@code end}. The
+     * tasks are launched one after the other if the sketches cannot be composed.
+     */
+    private void fuse(TornadoExecutionContext executionContext, int start, int end) {
+        final List<CompilableTask> tasks = new ArrayList<>();
+        final List<Sketch> sketches = new ArrayList<>();
+        for (int i = start; i <= end; i++) {
+            tasks.add((CompilableTask) executionContext.getTask(i));
+            sketches.add(lookupSketch(tasks.getLast()));
+        }
+        final Set<Object> intermediateArrays = findIntermediateArrays(executionContext, start, end, tasks, sketches);
+
+        // Parameters of the fused kernel: objects are passed once, and each scalar value has its own parameter
+        final List<Object> arguments = new ArrayList<>();
+        final List<Access> accesses = new ArrayList<>();
+        final List<Local> locals = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        final int[][] maps = new int[tasks.size()][];
+        for (int i = 0; i < tasks.size(); i++) {
+            final Object[] taskArguments = tasks.get(i).getArguments();
+            final Access[] taskAccesses = sketches.get(i).getArgumentsAccess();
+            final Local[] taskLocals = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(tasks.get(i).getMethod()).getLocalVariableTable().getLocalsAt(0);
+            maps[i] = new int[taskArguments.length];
+            for (int j = 0; j < taskArguments.length; j++) {
+                final Object argument = taskArguments[j];
+                final int index = (argument instanceof TornadoNativeArray) ? indexOf(arguments, argument) : -1;
+                if (intermediateArrays.contains(argument)) {
+                    maps[i][j] = -1;
+                } else if (index != -1) {
+                    maps[i][j] = index;
+                    if (accesses.get(index) == Access.READ_ONLY && isWrite(taskAccesses[j])) {
+                        accesses.set(index, Access.READ_WRITE);
+                    }
+                } else {
+                    maps[i][j] = arguments.size();
+                    String name = taskLocals[j].getName();
+                    for (int suffix = 1; !names.add(name); suffix++) {
+                        name = taskLocals[j].getName() + "_" + suffix;
+                    }
+                    locals.add(new Local(name, taskLocals[j].getType(), taskLocals[j].getStartBCI(), taskLocals[j].getEndBCI(), arguments.size()));
+                    arguments.add(argument);
+                    accesses.add(taskAccesses[j]);
+                }
+            }
+        }
+
+        // Intermediate arrays get the indexes that follow the parameters of the kernel
+        final List<Object> intermediates = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            final Object[] taskArguments = tasks.get(i).getArguments();
+            for (int j = 0; j < taskArguments.length; j++) {
+                if (maps[i][j] == -1) {
+                    int index = indexOf(intermediates, taskArguments[j]);
+                    if (index == -1) {
+                        index = intermediates.size();
+                        intermediates.add(taskArguments[j]);
+                    }
+                    maps[i][j] = arguments.size() + index;
+                }
+            }
+        }
+
+        final Access[] fusedAccesses = accesses.toArray(new Access[0]);
+        final Sketch sketch;
+        try {
+            sketch = SketchComposition.compose(sketches, maps, fusedAccesses, sketches.getFirst().getElementWiseLoop().getUpperBound(tasks.getFirst().getArguments()));
+        } catch (RuntimeException e) {
+            logger.debug("Unable to fuse tasks %d to %d: %s", start, end, e.getMessage());
+            return;
+        }
+
+        final StringBuilder id = new StringBuilder();
+        for (CompilableTask task : tasks) {
+            id.append(id.isEmpty() ? "" : "+").append(task.getId().substring(executionContext.getId().length() + 1));
+        }
+        final FusedTask fusedTask = new FusedTask(executionContext.meta(), id.toString(), tasks, arguments.toArray(), fusedAccesses, sketch, locals.toArray(new Local[0]));
+        fusedTask.setDevice(executionContext.getDeviceForTask(start));
+
+        fusedTasks[start] = fusedTask;
+        for (int i = start; i <= end; i++) {
+            groupStart[i] = start;
+            groupEnd[i] = end;
+            parameterMaps[i] = maps[i - start];
+        }
+        logger.debug("Fused tasks %d to %d into %s, %d intermediate arrays removed", start, end, fusedTask.getTaskName(), intermediates.size());
+    }
+
+    /**
+     * It finds the arrays of a group that are written by a task of the group and
+     * only read by the next tasks of the group. These arrays are not used by
+     * other tasks, and they are not copied between the host and the device.
+     */
+    private static Set<Object> findIntermediateArrays(TornadoExecutionContext executionContext, int start, int end, List<CompilableTask> tasks, List<Sketch> sketches) {
+        final List<Object> candidates = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            for (Object argument : tasks.get(i).getArguments()) {
+                if (argument instanceof TornadoNativeArray && indexOf(candidates, argument) == -1) {
+                    candidates.add(argument);
+                }
+            }
+        }
+
+        final Set<Object> intermediateArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object array : candidates) {
+            if (isIntermediateArray(executionContext, start, end, tasks, sketches, array)) {
+                intermediateArrays.add(array);
+            }
+        }
+        return intermediateArrays;
+    }
+
+    private static boolean isIntermediateArray(TornadoExecutionContext executionContext, int start, int end, List<CompilableTask> tasks, List<Sketch> sketches, Object array) {
+        final int objectIndex = indexOf(executionContext.getObjects(), array);
+        if (objectIndex == -1 || executionContext.getPersistedObjects().stream().anyMatch(object -> object == array)) {
+            return false;
+        }
+        final LocalObjectState state = executionContext.getObjectStates().get(objectIndex);
+        if (state.isStreamIn() || state.isStreamOut() || state.isUnderDemand() || state.isOnDevice() || state.isForcedStreamIn()) {
+            return false;
+        }
+        for (int i = 0; i < executionContext.getTasks().size(); i++) {
+            if ((i < start || i > end) && Arrays.stream(executionContext.getTask(i).getArguments()).anyMatch(argument -> argument == array)) {
+                return false;
+            }
+        }
+
+        // The first task that uses the array writes it, and the next tasks only read it
+        JavaKind kind = null;
+        int readers = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            final Object[] arguments = tasks.get(i).getArguments();
+            int parameterIndex = -1;
+            for (int j = 0; j < arguments.length; j++) {
+                if (arguments[j] == array) {
+                    if (parameterIndex != -1) {
+                        return false;
+                    }
+                    parameterIndex = j;
+                }
+            }
+            if (parameterIndex == -1) {
+                continue;
+            }
+            if (kind == null) {
+                kind = SketchComposition.getForwardedWriteKind(sketches.get(i), parameterIndex);
+                if (kind == null) {
+                    return false;
+                }
+            } else if (SketchComposition.canForwardReads(sketches.get(i), parameterIndex, kind)) {
+                readers++;
+            } else {
+                return false;
+            }
+        }
+        return readers > 0;
+    }
+
+    /**
+     * @return Whether the task is compiled and launched together with other
+     *     tasks.
+     */
+    public boolean isFused(int taskIndex) {
+        return taskIndex < groupStart.length && groupStart[taskIndex] != groupEnd[taskIndex];
+    }
+
+    /**
+     * @return The fused task that launches the group that starts with the given
+     *     task, or null.
+     */
+    public FusedTask getFusedTask(int taskIndex) {
+        return taskIndex < fusedTasks.length ? fusedTasks[taskIndex] : null;
+    }
+
+    /**
+     * @return The indexes of the tasks in the group of the given task.
+     */
+    public int[] getGroup(int taskIndex) {
+        int[] group = new int[groupEnd[taskIndex] - groupStart[taskIndex] + 1];
+        Arrays.setAll(group, i -> groupStart[taskIndex] + i);
+        return group;
+    }
+
+    /**
+     * @return The groups of two or more tasks.
+     */
+    public List<int[]> getGroups() {
+        List<int[]> groups = new ArrayList<>();
+        for (int i = 0; i < groupStart.length; i++) {
+            if (isFused(i) && groupStart[i] == i) {
+                groups.add(getGroup(i));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * It rewrites the high-level code of a task-graph (see
+     * {@link TornadoGraphBitcodes}), so each group of fused tasks is launched once,
+     * with the arguments of its fused task. The launch of a group keeps the
+     * context of its first task.
+     *
+     * @param buffer
+     *     High-level code of the task-graph.
+     * @return The rewritten high-level code.
+     */
+    public ByteBuffer rewrite(ByteBuffer buffer) {
+        final ByteBuffer result = ByteBuffer.allocate(buffer.remaining()).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] operations = null;
+        int[] variables = null;
+        int taskIndex = 0;
+        int argIndex = 0;
+        while (buffer.hasRemaining()) {
+            final byte op = buffer.get();
+            if (op == TornadoGraphBitcodes.CONTEXT.index()) {
+                final int globalTaskId = buffer.getInt();
+                taskIndex = buffer.getInt();
+                if (!isFused(taskIndex) || groupStart[taskIndex] == taskIndex) {
+                    result.put(op).putInt(globalTaskId).putInt(taskIndex);
+                }
+                if (fusedTasks[taskIndex] != null) {
+                    operations = new byte[fusedTasks[taskIndex].getArguments().length];
+                    variables = new int[operations.length];
+                }
+            } else if (op == TornadoGraphBitcodes.ARG_LIST.index()) {
+                final int size = buffer.getInt();
+                argIndex = 0;
+                if (!isFused(taskIndex)) {
+                    result.put(op).putInt(size);
+                }
+            } else if (op == TornadoGraphBitcodes.LOAD_REF.index() || op == TornadoGraphBitcodes.LOAD_PRIM.index()) {
+                final int variableIndex = buffer.getInt();
+                if (!isFused(taskIndex)) {
+                    result.put(op).putInt(variableIndex);
+                    continue;
+                }
+                // The argument is loaded once, at the index of its kernel parameter, and intermediate arrays are not loaded
+                final int parameterIndex = parameterMaps[taskIndex][argIndex++];
+                if (parameterIndex < operations.length && operations[parameterIndex] == 0) {
+                    operations[parameterIndex] = op;
+                    variables[parameterIndex] = variableIndex;
+                }
+            } else if (op == TornadoGraphBitcodes.LAUNCH.index()) {
+                if (!isFused(taskIndex)) {
+                    result.put(op);
+                } else if (groupEnd[taskIndex] == taskIndex) {
+                    result.put(TornadoGraphBitcodes.ARG_LIST.index()).putInt(operations.length);
+                    for (int i = 0; i < operations.length; i++) {
+                        result.put(operations[i]).putInt(variables[i]);
+                    }
+                    result.put(op);
+                }
+            } else {
+                break;
+            }
+        }
+        result.flip();
+        return result;
+    }
+
+    public static void recordFusedLaunch() {
+        fusedLaunches.incrementAndGet();
+    }
+
+    /**
+     * @return The number of launches of fused tasks since the start of the
+     *     application.
+     */
+    public static long getNumberOfFusedLaunches() {
+        return fusedLaunches.get();
+    }
+}
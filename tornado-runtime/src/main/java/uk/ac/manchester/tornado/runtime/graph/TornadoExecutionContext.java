@@ -85,6 +85,7 @@ public class TornadoExecutionContext {
     private TornadoXPUDevice[] taskToDeviceMapTable;
     private int nextTask;
     private long batchSize;
+    private int numBatchBufferSets;
     private long executionPlanMemoryLimit;
     private Set<TornadoXPUDevice> lastDevices;
     private boolean redeployOnDevice;
@@ -92,6 +93,7 @@ public class TornadoExecutionContext {
     private boolean isDataDependencyDetected;
     private TornadoProfiler profiler;
     private boolean isPrintKernel;
+    private TaskFusion taskFusion;
 
     private long executionPlanId;  // This is set at runtime. Thus, no need to clone this value.
     private long currentDeviceMemoryUsage;
@@ -113,6 +115,7 @@ public class TornadoExecutionContext {
         Arrays.fill(taskToDeviceMapTable, null);
         nextTask = 0;
         batchSize = INIT_VALUE;
+        numBatchBufferSets = 1;
         executionPlanMemoryLimit = INIT_VALUE;
         lastDevices = new HashSet<>();
         currentDeviceMemoryUsage = 0;
@@ -156,6 +159,20 @@ public class TornadoExecutionContext {
         this.batchSize = size;
     }
 
+    /**
+     * @return Number of device buffers per object used by batch processing. If
+     *     it is greater than one, the chunks of a batch rotate over the buffer
+     *     sets and the TornadoVM interpreter pipelines their transfers and
+     *     kernels.
+     */
+    public int getNumBatchBufferSets() {
+        return numBatchBufferSets;
+    }
+
+    public void setNumBatchBufferSets(int numBatchBufferSets) {
+        this.numBatchBufferSets = numBatchBufferSets;
+    }
+
     public long getExecutionPlanMemoryLimit() {
         return executionPlanMemoryLimit;
     }
@@ -303,6 +320,36 @@ public class TornadoExecutionContext {
         return tasks.get(index);
     }
 
+    /**
+     * It returns the task that is launched at the given index: the
+     * {@link uk.ac.manchester.tornado.runtime.tasks.FusedTask} of a group of fused
+     * tasks at the index of its first task, or the task itself.
+     *
+     * @param index
+     *     Index of the task.
+     * @return {@link SchedulableTask}
+     */
+    public SchedulableTask getLaunchedTask(int index) {
+        if (taskFusion != null && taskFusion.getFusedTask(index) != null) {
+            return taskFusion.getFusedTask(index);
+        }
+        return tasks.get(index);
+    }
+
+    /**
+     * @return The tasks that are launched, with the fused tasks in place of the
+     *     groups of tasks they launch.
+     */
+    public List<SchedulableTask> getLaunchedTasks() {
+        List<SchedulableTask> launchedTasks = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (taskFusion == null || !taskFusion.isFused(i) || taskFusion.getFusedTask(i) != null) {
+                launchedTasks.add(getLaunchedTask(i));
+            }
+        }
+        return launchedTasks;
+    }
+
     public void apply(Consumer<SchedulableTask> consumer) {
         for (SchedulableTask task : tasks) {
             consumer.accept(task);
@@ -674,6 +721,18 @@ public class TornadoExecutionContext {
         return newExecutionContext;
     }
 
+    /**
+     * @return The groups of tasks that are compiled into a single kernel, or null
+     *     if task fusion is disabled.
+     */
+    public TaskFusion getTaskFusion() {
+        return taskFusion;
+    }
+
+    public void setTaskFusion(TaskFusion taskFusion) {
+        this.taskFusion = taskFusion;
+    }
+
     public long getExecutionPlanId() {
         return this.executionPlanId;
     }
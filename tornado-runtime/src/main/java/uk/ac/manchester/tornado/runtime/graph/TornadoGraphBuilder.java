@@ -223,7 +223,7 @@ public class TornadoGraphBuilder {
             } else if (op == TornadoGraphBitcodes.CONTEXT.index()) {
                 final int globalTaskId = buffer.getInt();
                 taskIndex = buffer.getInt();
-                task = executionContext.getTask(taskIndex);
+                task = executionContext.getLaunchedTask(taskIndex);
 
                 /*
                  * Note, {@code executionContext.getDevices().indexOf} retrieves the device
@@ -134,6 +134,39 @@ public class TornadoVMBytecodeBuilder {
         bitcodeASM.addDependency(dep);
     }
 
+    /**
+     * It opens a loop over the chunks of a batch execution. The bytecodes emitted
+     * until {@link #endBatchLoop()} form the body of the loop, and they must be
+     * emitted with offset, size and number of threads set to zero.
+     *
+     * @param batchSize
+     *     Size of each chunk in bytes.
+     * @param totalChunks
+     *     Number of chunks of size {@code batchSize}.
+     * @param remainingChunkSize
+     *     Size of the last chunk in bytes, or zero if the input is a multiple of
+     *     the batch size.
+     * @param numBytesType
+     *     Number of bytes of the element type.
+     * @param numBufferSets
+     *     Number of device buffers per object that the chunks rotate over.
+     */
+    public void beginBatchLoop(long batchSize, int totalChunks, long remainingChunkSize, int numBytesType, int numBufferSets) {
+        bitcodeASM.beginBatchLoop(batchSize, totalChunks, remainingChunkSize, numBytesType, numBufferSets);
+    }
+
+    public void endBatchLoop() {
+        bitcodeASM.endBatchLoop();
+    }
+
+    /**
+     * @return true if the last copy-out bytecode is part of the body of a batch
+     *     loop. In this case, it is executed for every chunk.
+     */
+    public boolean isLastCopyOutInBatchLoop() {
+        return bitcodeASM.isLastCopyOutInBatchLoop();
+    }
+
     public void dump() {
         bitcodeASM.dump();
     }
@@ -153,6 +186,8 @@ public class TornadoVMBytecodeBuilder {
     private static class TornadoVMBytecodeAssembler {
         private final ByteBuffer buffer;
         private int lastCopyOutPosition;
+        private int batchLoopBeginPosition = -1;
+        private int batchLoopEndPosition = -1;
 
         /**
          * It constructs a new {@link TornadoVMBytecodeAssembler} instance.
@@ -251,6 +286,25 @@ public class TornadoVMBytecodeBuilder {
             buffer.putLong(size);
         }
 
+        void beginBatchLoop(long batchSize, int totalChunks, long remainingChunkSize, int numBytesType, int numBufferSets) {
+            batchLoopBeginPosition = buffer.position();
+            buffer.put(TornadoVMBytecodes.BEGIN_BATCH_LOOP.value);
+            buffer.putLong(batchSize);
+            buffer.putInt(totalChunks);
+            buffer.putLong(remainingChunkSize);
+            buffer.putInt(numBytesType);
+            buffer.putInt(numBufferSets);
+        }
+
+        void endBatchLoop() {
+            batchLoopEndPosition = buffer.position();
+            buffer.put(TornadoVMBytecodes.END_BATCH_LOOP.value);
+        }
+
+        boolean isLastCopyOutInBatchLoop() {
+            return batchLoopBeginPosition != -1 && lastCopyOutPosition > batchLoopBeginPosition && lastCopyOutPosition < batchLoopEndPosition;
+        }
+
         public void barrier(int dep) {
             buffer.put(TornadoVMBytecodes.BARRIER.value);
             buffer.putInt(dep);
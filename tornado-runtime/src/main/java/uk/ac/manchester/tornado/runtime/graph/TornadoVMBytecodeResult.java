@@ -50,7 +50,7 @@ public class TornadoVMBytecodeResult {
      * @param size
      *            the size of the bytecode
      */
-    TornadoVMBytecodeResult(byte[] bytecode, int size) {
+    public TornadoVMBytecodeResult(byte[] bytecode, int size) {
         this.bytecode = bytecode;
         this.buffer = setupBytecodeBuffer(bytecode, size);
         TornadoInternalError.guarantee(buffer.get() == TornadoVMBytecodes.INIT.value(), "invalid code");
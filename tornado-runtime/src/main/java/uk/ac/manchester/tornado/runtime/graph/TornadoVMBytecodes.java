@@ -203,7 +203,36 @@ public enum TornadoVMBytecodes {
      * ON_DEVICE(obj,dest)
      * </code>
      */
-    ON_DEVICE((byte) 25);
+    ON_DEVICE((byte) 25),
+
+    /**
+     * Start of a loop over the chunks of a batch execution. The bytecodes up to
+     * the next {@link #END_BATCH_LOOP} are emitted once and executed for every
+     * chunk. For each iteration, the interpreter computes the offset, the size and
+     * the number of threads of the chunk and adds them to the offset, size and
+     * thread values of the bytecodes within the loop. If the number of buffer sets
+     * is greater than one, consecutive chunks use different device buffers and
+     * their transfers and kernels are pipelined.
+     * <p>
+     * Format:
+     *
+     * <code>
+     * BEGIN_BATCH_LOOP(batch size, num chunks, remaining chunk size, num bytes type, num buffer sets)
+     * </code>
+     */
+    BEGIN_BATCH_LOOP((byte) 26),
+
+    /**
+     * End of a loop over the chunks of a batch execution. If there are chunks left,
+     * the interpreter jumps back to the matching {@link #BEGIN_BATCH_LOOP}.
+     * <p>
+     * Format:
+     *
+     * <code>
+     * END_BATCH_LOOP
+     * </code>
+     */
+    END_BATCH_LOOP((byte) 27);
 
 
     final byte value;
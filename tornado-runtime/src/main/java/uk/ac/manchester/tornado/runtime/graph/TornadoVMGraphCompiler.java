@@ -111,32 +111,31 @@ public class TornadoVMGraphCompiler {
         return isSingleDeviceExecution;
     }
 
+    /**
+     * It emits the bytecodes for batch processing. The bytecodes of the
+     * task-graph are emitted once, within a batch loop. The offset, size and
+     * number of threads of each chunk are computed by the TornadoVM interpreter
+     * at run time, so the size of the bytecodes does not depend on the number of
+     * chunks.
+     */
     private static void scheduleBatchDependentBytecodes(TornadoExecutionContext executionContext, TornadoVMBytecodeBuilder tornadoVMBytecodeBuilder, TornadoGraph graph,
             IntermediateTornadoGraph intermediateTornadoGraph) {
         final long batchSize = executionContext.getBatchSize();
 
         BatchConfiguration batchConfiguration = BatchConfiguration.computeChunkSizes(executionContext, batchSize);
 
-        long offset = 0;
-        long numberOfThreads = batchSize / batchConfiguration.getNumBytesType();
-        for (int i = 0; i < batchConfiguration.getTotalChunks(); i++) {
-            offset = (batchSize * i);
-            scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, offset, batchSize, numberOfThreads, 1, executionContext);
-        }
-        // Last chunk
-        if (batchConfiguration.getRemainingChunkSize() != 0) {
-            offset += (batchSize);
-            numberOfThreads = batchConfiguration.getRemainingChunkSize() / batchConfiguration.getNumBytesType();
-            long realBatchSize = batchConfiguration.getTotalChunks() == 0 ? 0 : batchConfiguration.getRemainingChunkSize();
-            long realOffsetSize = batchConfiguration.getTotalChunks() == 0 ? 0 : offset;
-            scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, realOffsetSize, realBatchSize, numberOfThreads, 1, executionContext);
-        }
+        tornadoVMBytecodeBuilder.beginBatchLoop(batchSize, batchConfiguration.getTotalChunks(), batchConfiguration.getRemainingChunkSize(), batchConfiguration.getNumBytesType(),
+                executionContext.getNumBatchBufferSets());
+        scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, 0, 0, 0, 1, executionContext);
+        tornadoVMBytecodeBuilder.endBatchLoop();
     }
 
     private static void synchronizeOperationLastByteCode(TornadoVMBytecodeBuilder result, int numDepLists) {
         final byte[] code = result.getCode();
         int position = result.getLastCopyOutPosition();
-        if (code[position] == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
+        // Within a batch loop, the copy-out runs for every chunk. Only the last one
+        // should block, so we emit a barrier instead.
+        if (code[position] == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value() && !result.isLastCopyOutInBatchLoop()) {
             code[position] = TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value();
         } else {
             result.barrier(numDepLists);
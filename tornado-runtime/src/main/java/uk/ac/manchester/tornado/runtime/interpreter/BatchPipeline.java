@@ -0,0 +1,169 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Event bookkeeping of a pipelined batch execution. Each chunk of the batch
+ * uses the buffer set {@code chunk % numBufferSets}, and the commands of a
+ * chunk are ordered with events as follows:
+ *
+ * <ul>
+ * <li>The copy-ins wait for the kernels and the copy-outs of the last chunk
+ * that used the same buffer set.</li>
+ * <li>The kernels wait for the copy-ins and the previous kernels of the
+ * chunk.</li>
+ * <li>The copy-outs wait for the kernels of the chunk.</li>
+ * </ul>
+ *
+ * <p>
+ * There are no dependencies between chunks that use different buffer sets.
+ * Therefore, the copy-in of chunk N+1 can overlap with the kernel of chunk N
+ * and the copy-out of chunk N-1.
+ * </p>
+ */
+class BatchPipeline {
+
+    private final EventList[] bufferSetEvents;
+    private final EventList kernelWaitEvents;
+    private final EventList kernelEvents;
+    private final EventList copyOutEvents;
+    private int bufferSet;
+
+    BatchPipeline(int numBufferSets) {
+        bufferSetEvents = new EventList[numBufferSets];
+        for (int i = 0; i < numBufferSets; i++) {
+            bufferSetEvents[i] = new EventList();
+        }
+        kernelWaitEvents = new EventList();
+        kernelEvents = new EventList();
+        copyOutEvents = new EventList();
+    }
+
+    int getNumBufferSets() {
+        return bufferSetEvents.length;
+    }
+
+    /**
+     * It clears the events of a previous execution.
+     */
+    void reset() {
+        for (EventList events : bufferSetEvents) {
+            events.clear();
+        }
+        beginChunk(0);
+    }
+
+    void beginChunk(int bufferSet) {
+        this.bufferSet = bufferSet;
+        kernelWaitEvents.clear();
+        kernelEvents.clear();
+        copyOutEvents.clear();
+    }
+
+    /**
+     * The events of the current chunk become the events that the next chunk
+     * using the same buffer set has to wait for.
+     */
+    void endChunk() {
+        EventList events = bufferSetEvents[bufferSet];
+        events.clear();
+        events.addAll(kernelEvents);
+        events.addAll(copyOutEvents);
+    }
+
+    int getBufferSet() {
+        return bufferSet;
+    }
+
+    int[] getCopyInWaitList() {
+        return bufferSetEvents[bufferSet].events;
+    }
+
+    void addCopyInEvents(List<Integer> events) {
+        if (events != null) {
+            for (int i = 0; i < events.size(); i++) {
+                kernelWaitEvents.add(events.get(i));
+            }
+        }
+    }
+
+    int[] getKernelWaitList() {
+        return kernelWaitEvents.events;
+    }
+
+    void addKernelEvent(int event) {
+        kernelWaitEvents.add(event);
+        kernelEvents.add(event);
+    }
+
+    int[] getCopyOutWaitList() {
+        return kernelEvents.events;
+    }
+
+    void addCopyOutEvent(int event) {
+        copyOutEvents.add(event);
+    }
+
+    /**
+     * List of event identifiers that can be passed as a wait list to the
+     * devices. Unused entries are set to -1.
+     */
+    private static final class EventList {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] events;
+        private int size;
+
+        EventList() {
+            events = new int[INITIAL_CAPACITY];
+            Arrays.fill(events, -1);
+        }
+
+        void add(int event) {
+            if (event == -1) {
+                return;
+            }
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+                Arrays.fill(events, size, events.length, -1);
+            }
+            events[size++] = event;
+        }
+
+        void addAll(EventList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.events[i]);
+            }
+        }
+
+        void clear() {
+            Arrays.fill(events, 0, size, -1);
+            size = 0;
+        }
+    }
+}
@@ -97,6 +97,17 @@ class DebugInterpreter {
         appendLogBuilder(verbose, logBuilder);
     }
 
+    static void logTransferToDeviceSkipped(Object object, TornadoXPUDevice deviceForInterpreter, long sizeObject, final int eventList, StringBuilder logBuilder) {
+        String verbose = String.format("bc: %s [0x%x] %s on %s, size=%d, unmodified on host [event list=%d]", //
+                InterpreterUtilities.debugHighLightBC("TRANSFER_HOST_TO_DEVICE_ALWAYS (skipped)"), //
+                object.hashCode(), //
+                object, //
+                InterpreterUtilities.debugDeviceBC(deviceForInterpreter), //
+                sizeObject, //
+                eventList); //
+        appendLogBuilder(verbose, logBuilder);
+    }
+
     static void logTransferToHostAlways(Object object, TornadoXPUDevice interpreterDevice, long sizeObject, long sizeBatch, //
             long offset, final int eventList, StringBuilder logBuilder) {
         String verbose = String.format("bc: " //
@@ -160,6 +171,18 @@ class DebugInterpreter {
         appendLogBuilder(verbose, logBuilder);
     }
 
+    public static void logBatchLoopIteration(int chunk, int numChunks, long offset, long size, long threads, int bufferSet, StringBuilder logBuilder) {
+        logBuilder.append(String.format("bc: " //
+                + InterpreterUtilities.debugHighLightBC("BATCH_LOOP") //
+                + " chunk %d/%d [offset=%d, size=%d, threads=%d, buffer set=%d]%n", //
+                chunk + 1, //
+                numChunks, //
+                offset, //
+                size, //
+                threads, //
+                bufferSet));
+    }
+
     public static void logBarrier(int enventId, StringBuilder logBuilder) {
         logBuilder.append(String.format("bc: " //
                 + InterpreterUtilities.debugHighLightBC("BARRIER") //
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+
+/**
+ * Pending profiler events of an interpreter. When the profiler is enabled, the
+ * interpreter records the events of the data transfers instead of waiting for
+ * each of them after they are enqueued. The events are resolved in bulk, once
+ * the interpreter has enqueued all the commands of an execution, and their
+ * times are then added to the {@link TornadoProfiler}.
+ *
+ * <p>
+ * Event identifiers are slots of a circular event pool in the driver. Hence,
+ * the pending events are also resolved when their number reaches half of the
+ * pool ({@link TornadoOptions#EVENT_WINDOW}), before the slots can be reused.
+ * </p>
+ */
+class ProfilerEvents {
+
+    private static final int MAX_PENDING_EVENTS = Math.max(1, TornadoOptions.EVENT_WINDOW / 2);
+
+    /**
+     * A pending event.
+     *
+     * @param eventId
+     *     Event identifier within the device event pool.
+     * @param timer
+     *     Timer in which the elapsed time of the event is accumulated.
+     * @param sizeMetric
+     *     Metric for the number of bytes transferred, or {@code null}.
+     * @param sizeBytes
+     *     Number of bytes transferred.
+     * @param addDispatchTime
+     *     Whether the driver dispatch time is added to
+     *     {@link ProfilerType#TOTAL_DISPATCH_DATA_TRANSFERS_TIME}.
+     */
+    private record PendingEvent(int eventId, ProfilerType timer, ProfilerType sizeMetric, long sizeBytes, boolean addDispatchTime) {
+    }
+
+    private final List<PendingEvent> pendingEvents = new ArrayList<>();
+
+    void addCopyIn(int eventId, long sizeBytes) {
+        pendingEvents.add(new PendingEvent(eventId, ProfilerType.COPY_IN_TIME, ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, sizeBytes, true));
+    }
+
+    void addCopyOut(int eventId, long sizeBytes) {
+        pendingEvents.add(new PendingEvent(eventId, ProfilerType.COPY_OUT_TIME, ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, sizeBytes, true));
+    }
+
+    void addAtomicsCopyIn(int eventId) {
+        pendingEvents.add(new PendingEvent(eventId, ProfilerType.COPY_IN_TIME, null, 0, false));
+    }
+
+    boolean isFull() {
+        return pendingEvents.size() >= MAX_PENDING_EVENTS;
+    }
+
+    boolean isEmpty() {
+        return pendingEvents.isEmpty();
+    }
+
+    /**
+     * It drops the pending events without resolving them. This is used when a
+     * previous execution did not finish.
+     */
+    void clear() {
+        pendingEvents.clear();
+    }
+
+    /**
+     * It waits for the pending events and adds their times to the profiler.
+     *
+     * @param device
+     *     The {@link TornadoXPUDevice} in which the events were enqueued.
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param profiler
+     *     The {@link TornadoProfiler}.
+     */
+    void harvest(TornadoXPUDevice device, long executionPlanId, TornadoProfiler profiler) {
+        for (PendingEvent pendingEvent : pendingEvents) {
+            Event event = device.resolveEvent(executionPlanId, pendingEvent.eventId());
+            event.waitForEvents(executionPlanId);
+            profiler.sum(pendingEvent.timer(), event.getElapsedTime());
+
+            if (pendingEvent.sizeMetric() != null) {
+                profiler.addValueToMetric(pendingEvent.sizeMetric(), TimeProfiler.NO_TASK_NAME, pendingEvent.sizeBytes());
+            }
+
+            if (pendingEvent.addDispatchTime()) {
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
+            }
+        }
+        pendingEvents.clear();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+
+/**
+ * Pre-decoded TornadoVM bytecode. The {@link TornadoVMInterpreter} decodes the
+ * byte stream of a {@link uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult}
+ * once, when the interpreter is built, into an array of instructions. Each
+ * execution of the interpreter iterates over this array instead of parsing
+ * the byte stream again.
+ *
+ * <p>
+ * Instructions are immutable. The arrays they hold are built by the decoder
+ * and must not be modified.
+ * </p>
+ */
+sealed interface TornadoVMInstruction {
+
+    /**
+     * {@link TornadoVMBytecodes#ALLOC}. The object indexes are split in two
+     * groups: objects to allocate, and objects that are persisted on the
+     * device by another task-graph, which only account for the memory usage.
+     *
+     * @param sizeBatch
+     *     Batch size in bytes. Zero if batch processing is not enabled.
+     * @param allocIndexes
+     *     Indexes of the objects to allocate.
+     * @param objects
+     *     Objects to allocate, in the same order as {@code allocIndexes}.
+     * @param accesses
+     *     Access of each object to allocate.
+     * @param persistentIndexes
+     *     Indexes of the objects already persisted on the device.
+     */
+    record Alloc(long sizeBatch, int[] allocIndexes, Object[] objects, Access[] accesses, int[] persistentIndexes) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#DEALLOC}.
+     */
+    record Dealloc(int objectIndex) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#TRANSFER_HOST_TO_DEVICE_ONCE}.
+     */
+    record TransferHostToDeviceOnce(int objectIndex, int eventId, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#TRANSFER_HOST_TO_DEVICE_ALWAYS}.
+     */
+    record TransferHostToDeviceAlways(int objectIndex, int eventId, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#TRANSFER_DEVICE_TO_HOST_ALWAYS}.
+     */
+    record TransferDeviceToHostAlways(int objectIndex, int eventId, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING}.
+     */
+    record TransferDeviceToHostAlwaysBlocking(int objectIndex, int eventId, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#ON_DEVICE}.
+     */
+    record OnDevice(int objectIndex, int eventId, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#LAUNCH}, including the arguments pushed with
+     * {@link TornadoVMBytecodes#PUSH_CONSTANT_ARGUMENT} and
+     * {@link TornadoVMBytecodes#PUSH_REFERENCE_ARGUMENT}.
+     *
+     * @param callWrapperIndex
+     *     Index of the kernel stack frame.
+     * @param taskIndex
+     *     Index of the task in the execution context.
+     * @param localTaskIndex
+     *     Index of the task within the tasks assigned to the device of the
+     *     interpreter.
+     * @param eventId
+     *     Event list to wait for, or -1.
+     * @param offset
+     *     Offset of the batch.
+     * @param batchThreads
+     *     Number of threads of the batch. Zero if batch processing is not
+     *     enabled.
+     * @param referenceArguments
+     *     For each argument, true if it is a reference (object index), false
+     *     if it is a constant (constant index).
+     * @param argumentIndexes
+     *     For each argument, the index of the object or constant.
+     */
+    record Launch(int callWrapperIndex, int taskIndex, int localTaskIndex, int eventId, long offset, long batchThreads, boolean[] referenceArguments, int[] argumentIndexes)
+            implements TornadoVMInstruction {
+
+        int numArgs() {
+            return argumentIndexes.length;
+        }
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#ADD_DEPENDENCY}.
+     */
+    record AddDependency(int eventList) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#BARRIER}.
+     */
+    record Barrier(int eventId) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#BEGIN_BATCH_LOOP}. It computes the offset, size
+     * and number of threads of each chunk of a batch execution. The last chunk
+     * holds the remaining bytes if the input is not a multiple of the batch
+     * size. If the input is smaller than the batch size, the only chunk is
+     * executed as a non-batched execution with the number of threads of the
+     * remaining chunk.
+     *
+     * @param batchSize
+     *     Size of each chunk in bytes.
+     * @param totalChunks
+     *     Number of chunks of size {@code batchSize}.
+     * @param remainingChunkSize
+     *     Size of the last chunk in bytes.
+     * @param numBytesType
+     *     Number of bytes of the element type.
+     * @param numBufferSets
+     *     Number of device buffers per object that the chunks rotate over.
+     * @param endIndex
+     *     Index of the matching {@link EndBatchLoop}.
+     */
+    record BeginBatchLoop(long batchSize, int totalChunks, long remainingChunkSize, int numBytesType, int numBufferSets, int endIndex) implements TornadoVMInstruction {
+
+        int numChunks() {
+            return remainingChunkSize != 0 ? totalChunks + 1 : totalChunks;
+        }
+
+        long offset(int chunk) {
+            return batchSize * chunk;
+        }
+
+        long size(int chunk) {
+            if (chunk < totalChunks) {
+                return batchSize;
+            }
+            return totalChunks == 0 ? 0 : remainingChunkSize;
+        }
+
+        long threads(int chunk) {
+            return (chunk < totalChunks ? batchSize : remainingChunkSize) / numBytesType;
+        }
+
+        int bufferSet(int chunk) {
+            return chunk % numBufferSets;
+        }
+
+        /**
+         * @return true if consecutive chunks use different buffer sets, so their
+         *     transfers and kernels can be pipelined.
+         */
+        boolean isPipelined() {
+            return numBufferSets > 1 && numChunks() > 1;
+        }
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#END_BATCH_LOOP}.
+     *
+     * @param beginIndex
+     *     Index of the matching {@link BeginBatchLoop}.
+     */
+    record EndBatchLoop(int beginIndex) implements TornadoVMInstruction {
+    }
+
+    /**
+     * {@link TornadoVMBytecodes#END}.
+     */
+    record End() implements TornadoVMInstruction {
+    }
+}
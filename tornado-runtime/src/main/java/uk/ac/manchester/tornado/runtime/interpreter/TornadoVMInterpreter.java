@@ -27,12 +27,19 @@ import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VIRTUAL_DEVICE_ENABLED;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VM_USE_DEPS;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
 
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.KernelContext;
@@ -49,10 +56,13 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.TaskContextInterface;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.BatchConfiguration;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
@@ -61,11 +71,15 @@ import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.graph.TaskFusion;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
+import uk.ac.manchester.tornado.runtime.tasks.FusedTask;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 
@@ -91,13 +105,19 @@ public class TornadoVMInterpreter {
     private final int[] eventsIndexes;
     private final TornadoXPUDevice interpreterDevice;
     private final TornadoInstalledCode[] installedCodes;
+    // Compilations submitted before the tasks are launched
+    private final List<Future<TornadoInstalledCode>> pendingCompilations;
 
     private final List<Object> constants;
     private final List<SchedulableTask> taskExecutionContexts;
     private final List<SchedulableTask> localTaskList;
     private final TornadoExecutionContext graphExecutionContext;
-    private final TornadoVMBytecodeResult bytecodeResult;
+    private final TornadoVMInstruction[] instructions;
+    private final XPUDeviceBufferState[][] allocBufferStates;
+    private final List<HashMap<Integer, Integer>> threadDeploys;
+    private final Access[][] argumentsAccesses;
     private TornadoProfiler timeProfiler;
+    private boolean traceExecution;
     private double totalTime;
     private long invocations;
     private boolean finishedWarmup;
@@ -107,8 +127,23 @@ public class TornadoVMInterpreter {
     private HashMap<Object, Integer> currentBatchNumberPerObject = new HashMap<>();
     private HashMap<Object, Integer> totalEvenBatchesPerObject = new HashMap<>();
 
+    // Buffer set used by the current chunk of a pipelined batch execution
+    private int batchBufferSet;
+    private BatchPipeline batchPipeline;
+
+    // Index of the first element of the current chunk, passed to the kernels through the kernel context
+    private long batchIndexOffset;
+
+    private static final AtomicLong taskInstallations = new AtomicLong();
+    private static final AtomicLong batchLaunches = new AtomicLong();
+
+    // Events of the data transfers that are resolved when the profiler is enabled
+    private final ProfilerEvents profilerEvents = new ProfilerEvents();
+
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
+    private static final KernelStackFrame.KernelContextArgument KERNEL_CONTEXT_ARGUMENT = new KernelStackFrame.KernelContextArgument();
+
     /**
      * It constructs a new TornadoVMInterpreter object.
      *
@@ -121,10 +156,10 @@ public class TornadoVMInterpreter {
      * @param device
      *     The {@link TornadoXPUDevice} device.
      */
+    @SuppressWarnings("unchecked")
     public TornadoVMInterpreter(TornadoExecutionContext graphExecutionContext, TornadoVMBytecodeResult bytecodeResult, TornadoProfiler timeProfiler, TornadoXPUDevice device) {
         this.graphExecutionContext = graphExecutionContext;
         this.timeProfiler = timeProfiler;
-        this.bytecodeResult = bytecodeResult;
 
         assert device != null;
         this.interpreterDevice = device;
@@ -135,15 +170,16 @@ public class TornadoVMInterpreter {
 
         logger.debug("init an instance of a TornadoVM interpreter...");
 
-        this.bytecodeResult.getLong(); // Skips bytes not needed
+        bytecodeResult.getLong(); // Skips bytes not needed
 
         kernelStackFrame = graphExecutionContext.getKernelStackFrame();
-        events = new int[this.bytecodeResult.getInt()][MAX_EVENTS];
+        events = new int[bytecodeResult.getInt()][MAX_EVENTS];
         eventsIndexes = new int[events.length];
 
         localTaskList = graphExecutionContext.getTasksForDevice(interpreterDevice.getDeviceContext());
 
         installedCodes = new TornadoInstalledCode[localTaskList.size()];
+        pendingCompilations = new ArrayList<>(Collections.nCopies(localTaskList.size(), null));
 
         for (int i = 0; i < events.length; i++) {
             Arrays.fill(events[i], -1);
@@ -158,16 +194,146 @@ public class TornadoVMInterpreter {
         dataObjectStates = new DataObjectState[objects.size()];
         fetchGlobalStates();
 
-        rewindBufferToBegin();
+        rewindBufferToBegin(bytecodeResult);
 
         constants = graphExecutionContext.getConstants();
         taskExecutionContexts = graphExecutionContext.getTasks();
+        threadDeploys = new ArrayList<>(Collections.nCopies(taskExecutionContexts.size(), null));
+        argumentsAccesses = new Access[taskExecutionContexts.size()][];
+
+        instructions = decodeBytecodes(bytecodeResult);
+        allocBufferStates = new XPUDeviceBufferState[instructions.length][];
+        for (int i = 0; i < instructions.length; i++) {
+            if (instructions[i] instanceof TornadoVMInstruction.Alloc alloc) {
+                allocBufferStates[i] = new XPUDeviceBufferState[alloc.allocIndexes().length];
+            }
+        }
 
         logger.debug("interpreter for device %s is ready to go", device.toString());
+    }
 
-        this.bytecodeResult.mark();
+    /**
+     * It decodes the bytecodes, from the current position of the buffer up to
+     * the {@link TornadoVMBytecodes#END} bytecode, into an array of
+     * {@link TornadoVMInstruction}. This is done once per interpreter, so each
+     * execution does not have to parse the byte stream again.
+     *
+     * @param bytecodeResult
+     *     The {@link TornadoVMBytecodeResult}.
+     * @return An array of {@link TornadoVMInstruction}.
+     */
+    private TornadoVMInstruction[] decodeBytecodes(TornadoVMBytecodeResult bytecodeResult) {
+        List<TornadoVMInstruction> decoded = new ArrayList<>();
+        int batchLoopIndex = -1;
+        while (bytecodeResult.hasRemaining()) {
+            final byte op = bytecodeResult.get();
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                final long sizeBatch = bytecodeResult.getLong();
+                final int argSize = bytecodeResult.getInt();
+                final int[] args = new int[argSize];
+                for (int i = 0; i < argSize; i++) {
+                    args[i] = bytecodeResult.getInt();
+                }
+                decoded.add(decodeAlloc(sizeBatch, args));
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                decoded.add(new TornadoVMInstruction.Dealloc(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
+                decoded.add(new TornadoVMInstruction.TransferHostToDeviceOnce(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
+                decoded.add(new TornadoVMInstruction.TransferHostToDeviceAlways(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
+                decoded.add(new TornadoVMInstruction.TransferDeviceToHostAlways(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
+                decoded.add(new TornadoVMInstruction.TransferDeviceToHostAlwaysBlocking(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                final int callWrapperIndex = bytecodeResult.getInt();
+                final int taskIndex = bytecodeResult.getInt();
+                final int numArgs = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long batchThreads = bytecodeResult.getLong();
+                final boolean[] referenceArguments = new boolean[numArgs];
+                final int[] argumentIndexes = new int[numArgs];
+                for (int i = 0; i < numArgs; i++) {
+                    final byte argType = bytecodeResult.get();
+                    argumentIndexes[i] = bytecodeResult.getInt();
+                    if (argType == TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()) {
+                        referenceArguments[i] = true;
+                    } else if (argType != TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value()) {
+                        throw new TornadoRuntimeException("[ERROR] Invalid argument type for TornadoVM LAUNCH bytecode: " + argType);
+                    }
+                }
+                decoded.add(new TornadoVMInstruction.Launch(callWrapperIndex, taskIndex, globalToLocalTaskIndex(taskIndex), eventId, offset, batchThreads, referenceArguments, argumentIndexes));
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                decoded.add(new TornadoVMInstruction.AddDependency(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.ON_DEVICE.value()) {
+                decoded.add(new TornadoVMInstruction.OnDevice(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
+                decoded.add(new TornadoVMInstruction.Barrier(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.BEGIN_BATCH_LOOP.value()) {
+                TornadoInternalError.guarantee(batchLoopIndex == -1, "nested batch loops are not supported");
+                batchLoopIndex = decoded.size();
+                // The index of the end of the loop is set when decoding END_BATCH_LOOP
+                decoded.add(new TornadoVMInstruction.BeginBatchLoop(bytecodeResult.getLong(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getInt(), bytecodeResult.getInt(), -1));
+            } else if (op == TornadoVMBytecodes.END_BATCH_LOOP.value()) {
+                TornadoInternalError.guarantee(batchLoopIndex != -1, "END_BATCH_LOOP without BEGIN_BATCH_LOOP");
+                TornadoVMInstruction.BeginBatchLoop begin = (TornadoVMInstruction.BeginBatchLoop) decoded.get(batchLoopIndex);
+                decoded.set(batchLoopIndex, new TornadoVMInstruction.BeginBatchLoop(begin.batchSize(), begin.totalChunks(), begin.remainingChunkSize(), begin.numBytesType(), begin.numBufferSets(),
+                        decoded.size()));
+                decoded.add(new TornadoVMInstruction.EndBatchLoop(batchLoopIndex));
+                batchLoopIndex = -1;
+            } else if (op == TornadoVMBytecodes.END.value()) {
+                decoded.add(new TornadoVMInstruction.End());
+                break;
+            } else {
+                throwErrorInterpreter(op);
+            }
+        }
+        return decoded.toArray(new TornadoVMInstruction[0]);
     }
 
+    /**
+     * It classifies the objects of an {@link TornadoVMBytecodes#ALLOC} bytecode
+     * into objects to allocate and objects that are already persisted on the
+     * device.
+     *
+     * @param sizeBatch
+     *     Batch size in bytes.
+     * @param args
+     *     Array of object indices to process from the object store.
+     * @return A {@link TornadoVMInstruction.Alloc}.
+     */
+    private TornadoVMInstruction.Alloc decodeAlloc(long sizeBatch, int[] args) {
+        int persistentObjectCount = 0;
+        for (int arg : args) {
+            if (isPersistentObject(objects.get(arg))) {
+                persistentObjectCount++;
+            }
+        }
+
+        final int objectsToAlloc = args.length - persistentObjectCount;
+        final int[] allocIndexes = new int[objectsToAlloc];
+        final Object[] allocObjects = new Object[objectsToAlloc];
+        final Access[] accesses = new Access[objectsToAlloc];
+        final int[] persistentIndexes = new int[persistentObjectCount];
+
+        int allocCounter = 0;
+        int persistentCounter = 0;
+        for (int arg : args) {
+            Object dataObject = objects.get(arg);
+            if (isPersistentObject(dataObject)) {
+                persistentIndexes[persistentCounter++] = arg;
+            } else {
+                allocIndexes[allocCounter] = arg;
+                allocObjects[allocCounter] = dataObject;
+                accesses[allocCounter] = objectAccesses.get(dataObject);
+                allocCounter++;
+            }
+        }
+        return new TornadoVMInstruction.Alloc(sizeBatch, allocIndexes, allocObjects, accesses, persistentIndexes);
+    }
+
+
     private void initBatchDataStructures(TornadoExecutionContext context) {
         long batchSize = context.getBatchSize();
         if (batchSize != -1) {
@@ -184,6 +350,17 @@ public class TornadoVMInterpreter {
         this.timeProfiler = tornadoProfiler;
     }
 
+    /**
+     * It enables the events of the {@link ChromeEventTracer} for the next
+     * execution.
+     *
+     * @param traceExecution
+     *     Whether the execution is traced.
+     */
+    public void setTraceExecution(boolean traceExecution) {
+        this.traceExecution = traceExecution;
+    }
+
     public void fetchGlobalStates() {
         for (int i = 0; i < objects.size(); i++) {
             final Object object = objects.get(i);
@@ -193,7 +370,7 @@ public class TornadoVMInterpreter {
         }
     }
 
-    private void rewindBufferToBegin() {
+    private void rewindBufferToBegin(TornadoVMBytecodeResult bytecodeResult) {
         byte op = bytecodeResult.get();
         while (op != TornadoVMBytecodes.BEGIN.value()) {
             TornadoInternalError.guarantee(op == TornadoVMBytecodes.CONTEXT.value(), "invalid code: 0x%x", op);
@@ -217,7 +394,7 @@ public class TornadoVMInterpreter {
     }
 
     public void clearProfiles() {
-        for (final SchedulableTask task : taskExecutionContexts) {
+        for (final SchedulableTask task : graphExecutionContext.getLaunchedTasks()) {
             task.meta().getProfiles(graphExecutionContext.getExecutionPlanId()).clear();
         }
     }
@@ -247,7 +424,7 @@ public class TornadoVMInterpreter {
     }
 
     public void dumpProfiles() {
-        for (final SchedulableTask task : taskExecutionContexts) {
+        for (final SchedulableTask task : graphExecutionContext.getLaunchedTasks()) {
             final TaskDataContext meta = (TaskDataContext) task.meta();
             meta.getProfiles(graphExecutionContext.getExecutionPlanId()).forEach(eventSet -> dumpEventProfiled(eventSet, meta));
         }
@@ -273,6 +450,11 @@ public class TornadoVMInterpreter {
         final long t0 = System.nanoTime();
         int lastEvent = -1;
         initWaitEventList();
+        profilerEvents.clear();
+
+        if (TornadoOptions.PARALLEL_COMPILATION) {
+            submitCompilations();
+        }
 
         StringBuilder logBuilder = null;
         if (TornadoOptions.PRINT_BYTECODES) {
@@ -281,108 +463,155 @@ public class TornadoVMInterpreter {
                     " Running in thread: ")).append(Thread.currentThread().getName()).append("\n");
         }
 
-        while (bytecodeResult.hasRemaining()) {
-            final byte op = bytecodeResult.get();
-            if (op == TornadoVMBytecodes.ALLOC.value()) {
-                final long sizeBatch = bytecodeResult.getLong();
-                final int argSize = bytecodeResult.getInt();
-                final int[] args = new int[argSize];
-                for (int i = 0; i < argSize; i++) {
-                    args[i] = bytecodeResult.getInt();
+        // Registers of the current chunk within a batch loop. They are added to the
+        // offset, size and number of threads of the instructions in the loop.
+        int batchChunk = 0;
+        long batchOffset = 0;
+        long batchSize = 0;
+        long batchThreads = 0;
+        // Not null while running the chunks of a pipelined batch loop
+        BatchPipeline pipeline = null;
+
+        final boolean traceInstructions = traceExecution && !isWarmup;
+        for (int pc = 0; pc < instructions.length; pc++) {
+            final TornadoVMInstruction instruction = instructions[pc];
+            final long traceStart = traceInstructions ? System.nanoTime() : 0;
+            switch (instruction) {
+                case TornadoVMInstruction.Alloc alloc -> {
+                    if (!isWarmup) {
+                        lastEvent = executeAlloc(logBuilder, alloc, alloc.sizeBatch() + batchSize, allocBufferStates[pc], pipeline != null);
+                    }
                 }
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.Dealloc dealloc -> {
+                    // In a pipelined batch loop, buffers are released when the loop finishes
+                    if (!isWarmup && pipeline == null) {
+                        lastEvent = executeDeAlloc(logBuilder, dealloc.objectIndex());
+                    }
                 }
-                lastEvent = executeAlloc(logBuilder, args, sizeBatch);
-            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.TransferHostToDeviceOnce transfer -> {
+                    if (!isWarmup) {
+                        final int[] waitList = (pipeline != null) ? pipeline.getCopyInWaitList() : (useDependencies && transfer.eventId() != -1) ? events[transfer.eventId()] : null;
+                        List<Integer> copyInEvents = transferHostToDeviceOnce(logBuilder, transfer.objectIndex(), transfer.offset() + batchOffset, transfer.eventId(), transfer.sizeBatch() + batchSize,
+                                waitList);
+                        if (pipeline != null) {
+                            pipeline.addCopyInEvents(copyInEvents);
+                        }
+                    }
                 }
-                lastEvent = executeDeAlloc(logBuilder, objectIndex);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.TransferHostToDeviceAlways transfer -> {
+                    if (!isWarmup) {
+                        final int[] waitList = (pipeline != null) ? pipeline.getCopyInWaitList() : (useDependencies && transfer.eventId() != -1) ? events[transfer.eventId()] : null;
+                        List<Integer> copyInEvents = transferHostToDeviceAlways(logBuilder, transfer.objectIndex(), transfer.offset() + batchOffset, transfer.eventId(), transfer.sizeBatch() + batchSize,
+                                waitList);
+                        if (pipeline != null) {
+                            pipeline.addCopyInEvents(copyInEvents);
+                        }
+                    }
                 }
-                transferHostToDeviceOnce(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.TransferDeviceToHostAlways transfer -> {
+                    if (!isWarmup) {
+                        if (pipeline != null) {
+                            // Non-blocking copy-out. The loop waits for all chunks when it finishes
+                            lastEvent = transferDeviceToHost(logBuilder, transfer.objectIndex(), transfer.offset() + batchOffset, transfer.eventId(), transfer.sizeBatch() + batchSize, pipeline
+                                    .getCopyOutWaitList(), false);
+                            pipeline.addCopyOutEvent(lastEvent);
+                        } else {
+                            final int[] waitList = (useDependencies) ? events[transfer.eventId()] : null;
+                            lastEvent = transferDeviceToHost(logBuilder, transfer.objectIndex(), transfer.offset() + batchOffset, transfer.eventId(), transfer.sizeBatch() + batchSize, waitList,
+                                    true);
+                        }
+                    }
                 }
-                transferHostToDeviceAlways(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.TransferDeviceToHostAlwaysBlocking transfer -> {
+                    if (!isWarmup) {
+                        final int[] waitList = (useDependencies) ? events[transfer.eventId()] : null;
+                        transferDeviceToHostBlocking(logBuilder, transfer.objectIndex(), transfer.offset() + batchOffset, transfer.eventId(), transfer.sizeBatch() + batchSize, waitList);
+                    }
                 }
-                lastEvent = transferDeviceToHost(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.Launch launch -> {
+                    final long threads = launch.batchThreads() + batchThreads;
+                    KernelStackFrame stackFrame = compileTaskFromBytecodeToBinary(launch, threads);
+                    if (!isWarmup) {
+                        lastEvent = executeLaunch(logBuilder, launch, stackFrame, launch.offset() + batchOffset, threads, (pipeline != null) ? pipeline.getKernelWaitList() : null);
+                        if (pipeline != null) {
+                            pipeline.addKernelEvent(lastEvent);
+                        }
+                    }
                 }
-                transferDeviceToHostBlocking(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
-                final int callWrapperIndex = bytecodeResult.getInt();
-                final int taskIndex = bytecodeResult.getInt();
-                final int numArgs = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long batchThreads = bytecodeResult.getLong();
-                XPUExecutionFrame executionFrame = compileTaskFromBytecodeToBinary(callWrapperIndex, numArgs, eventId, taskIndex, batchThreads);
-                if (isWarmup) {
-                    popArgumentsFromCall(numArgs);
-                    continue;
+                case TornadoVMInstruction.AddDependency dependency -> {
+                    if (!isWarmup) {
+                        executeDependency(logBuilder, lastEvent, dependency.eventList());
+                    }
                 }
-                lastEvent = executeLaunch(logBuilder, numArgs, eventId, taskIndex, batchThreads, offset, executionFrame);
-            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
-                final int eventList = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.OnDevice onDevice -> {
+                    if (!isWarmup) {
+                        lastEvent = executeOnDevice(logBuilder, onDevice.objectIndex(), onDevice.eventId());
+                    }
                 }
-                executeDependency(logBuilder, lastEvent, eventList);
-            } else if (op == TornadoVMBytecodes.ON_DEVICE.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventId = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.Barrier barrier -> {
+                    if (!isWarmup) {
+                        final int[] waitList = (useDependencies && barrier.eventId() != -1) ? events[barrier.eventId()] : null;
+                        lastEvent = executeBarrier(logBuilder, barrier.eventId(), waitList);
+                    }
                 }
-                lastEvent = executeOnDevice(logBuilder, objectIndex, eventId);
-            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
-                final int eventId = bytecodeResult.getInt();
-                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
-                if (isWarmup) {
-                    continue;
+                case TornadoVMInstruction.BeginBatchLoop loop -> {
+                    if (loop.numChunks() == 0) {
+                        pc = loop.endIndex();
+                    } else {
+                        batchChunk = 0;
+                        batchBufferSet = 0;
+                        batchOffset = loop.offset(batchChunk);
+                        batchSize = loop.size(batchChunk);
+                        batchThreads = loop.threads(batchChunk);
+                        batchIndexOffset = 0;
+                        if (!isWarmup && loop.isPipelined()) {
+                            pipeline = getBatchPipeline(loop.numBufferSets());
+                            pipeline.reset();
+                        }
+                        if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
+                            DebugInterpreter.logBatchLoopIteration(batchChunk, loop.numChunks(), batchOffset, batchSize, batchThreads, batchBufferSet, logBuilder);
+                        }
+                    }
                 }
-                lastEvent = executeBarrier(logBuilder, eventId, waitList);
-            } else if (op == TornadoVMBytecodes.END.value()) {
-                if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
-                    logBuilder.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                case TornadoVMInstruction.EndBatchLoop end -> {
+                    final TornadoVMInstruction.BeginBatchLoop loop = (TornadoVMInstruction.BeginBatchLoop) instructions[end.beginIndex()];
+                    batchChunk++;
+                    if (pipeline != null) {
+                        pipeline.endChunk();
+                    }
+                    if (batchChunk < loop.numChunks()) {
+                        batchOffset = loop.offset(batchChunk);
+                        batchSize = loop.size(batchChunk);
+                        batchThreads = loop.threads(batchChunk);
+                        batchIndexOffset = batchChunk * loop.threads(0);
+                        if (pipeline != null) {
+                            pipeline.beginChunk(loop.bufferSet(batchChunk));
+                            batchBufferSet = pipeline.getBufferSet();
+                        }
+                        if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
+                            DebugInterpreter.logBatchLoopIteration(batchChunk, loop.numChunks(), batchOffset, batchSize, batchThreads, batchBufferSet, logBuilder);
+                        }
+                        // Jump to the first instruction of the loop
+                        pc = end.beginIndex();
+                    } else {
+                        if (pipeline != null) {
+                            finishBatchPipeline(logBuilder, end.beginIndex(), loop.endIndex(), pipeline.getNumBufferSets());
+                            pipeline = null;
+                        }
+                        batchOffset = 0;
+                        batchSize = 0;
+                        batchThreads = 0;
+                        batchIndexOffset = 0;
+                    }
                 }
-                break;
-            } else {
-                throwErrorInterpreter(op);
+                case TornadoVMInstruction.End end -> {
+                    if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
+                        logBuilder.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                    }
+                }
+            }
+            if (traceInstructions) {
+                traceInstruction(instruction, traceStart);
             }
         }
 
@@ -396,6 +625,10 @@ public class TornadoVMInterpreter {
             if (TornadoOptions.USE_VM_FLUSH) {
                 interpreterDevice.flush(graphExecutionContext.getExecutionPlanId());
             }
+
+            // All commands have been enqueued, so waiting for the profiled events no
+            // longer serialises the execution
+            harvestProfilerEvents();
         }
 
         final long t1 = System.nanoTime();
@@ -409,8 +642,6 @@ public class TornadoVMInterpreter {
             logger.debug("bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)", elapsed, invocations, (totalTime / invocations));
         }
 
-        bytecodeResult.reset();
-
         if (TornadoOptions.PRINT_BYTECODES) {
             System.out.println(logBuilder);
         }
@@ -422,12 +653,83 @@ public class TornadoVMInterpreter {
         return barrier;
     }
 
+    /**
+     * It records the time spent by the interpreter to dispatch an instruction in
+     * the {@link ChromeEventTracer}. This is the host time, which includes the
+     * time of the blocking operations.
+     */
+    private void traceInstruction(TornadoVMInstruction instruction, long startNs) {
+        final long endNs = System.nanoTime();
+        switch (instruction) {
+            case TornadoVMInstruction.Alloc ignored -> ChromeEventTracer.enqueueEventIfEnabled("alloc", "memory", startNs, endNs);
+            case TornadoVMInstruction.TransferHostToDeviceOnce transfer -> traceTransfer("copyIn", transfer.objectIndex(), startNs, endNs);
+            case TornadoVMInstruction.TransferHostToDeviceAlways transfer -> traceTransfer("copyIn", transfer.objectIndex(), startNs, endNs);
+            case TornadoVMInstruction.TransferDeviceToHostAlways transfer -> traceTransfer("copyOut", transfer.objectIndex(), startNs, endNs);
+            case TornadoVMInstruction.TransferDeviceToHostAlwaysBlocking transfer -> traceTransfer("copyOut", transfer.objectIndex(), startNs, endNs);
+            case TornadoVMInstruction.Launch launch -> ChromeEventTracer.enqueueEventIfEnabled(graphExecutionContext.getLaunchedTask(launch.taskIndex()).getId(), "launch", startNs, endNs);
+            case TornadoVMInstruction.Barrier ignored -> ChromeEventTracer.enqueueEventIfEnabled("barrier", "sync", startNs, endNs);
+            default -> {
+            }
+        }
+    }
+
+    private void traceTransfer(String name, int objectIndex, long startNs, long endNs) {
+        final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+        final long sizeBytes = objectState.getXPUBuffer() != null ? objectState.getXPUBuffer().size() : 0;
+        ChromeEventTracer.enqueueEventIfEnabled(name, "transfer", startNs, endNs, "bytes", sizeBytes);
+    }
+
+    private void harvestProfilerEvents() {
+        if (!profilerEvents.isEmpty()) {
+            profilerEvents.harvest(interpreterDevice, graphExecutionContext.getExecutionPlanId(), timeProfiler);
+        }
+    }
+
+    private void harvestProfilerEventsIfFull() {
+        if (profilerEvents.isFull()) {
+            harvestProfilerEvents();
+        }
+    }
+
     private void initWaitEventList() {
         for (int[] waitList : events) {
             Arrays.fill(waitList, -1);
         }
     }
 
+    private BatchPipeline getBatchPipeline(int numBufferSets) {
+        if (batchPipeline == null || batchPipeline.getNumBufferSets() != numBufferSets) {
+            batchPipeline = new BatchPipeline(numBufferSets);
+        }
+        return batchPipeline;
+    }
+
+    /**
+     * It waits for the commands of all chunks of a pipelined batch loop, and it
+     * executes the {@link TornadoVMBytecodes#DEALLOC} bytecodes of the loop for
+     * every buffer set.
+     *
+     * @param logBuilder
+     *     Log of the bytecodes.
+     * @param beginIndex
+     *     Index of the {@link TornadoVMInstruction.BeginBatchLoop}.
+     * @param endIndex
+     *     Index of the {@link TornadoVMInstruction.EndBatchLoop}.
+     * @param numBufferSets
+     *     Number of buffer sets of the loop.
+     */
+    private void finishBatchPipeline(StringBuilder logBuilder, int beginIndex, int endIndex, int numBufferSets) {
+        interpreterDevice.sync(graphExecutionContext.getExecutionPlanId());
+        for (int bufferSet = numBufferSets - 1; bufferSet >= 0; bufferSet--) {
+            batchBufferSet = bufferSet;
+            for (int i = beginIndex + 1; i < endIndex; i++) {
+                if (instructions[i] instanceof TornadoVMInstruction.Dealloc dealloc) {
+                    executeDeAlloc(logBuilder, dealloc.objectIndex());
+                }
+            }
+        }
+    }
+
     /**
      * Checks if the given object exists in the persistent task objects map in
      * order to prevent excess allocations.
@@ -443,63 +745,30 @@ public class TornadoVMInterpreter {
         return graphExecutionContext.getPersistedTaskToObjectsMap().values().stream().filter(Objects::nonNull).anyMatch(taskObjects -> taskObjects.contains(object));
     }
 
-    /**
-     * Counts and classifies objects in the args array by determining which objects are persistent
-     * and which need to be allocated.
-     *
-     * @param args
-     *     Array of object indices to process from the object store
-     * @return Information about objects to allocate including counts of persistent and non-persistent objects
-     */
-    private ObjectAllocationInfo countAndClassifyObjects(int[] args) {
-        // Count only persistent objects that are actually in the current args array
-        int persistentObjectsInArgs = 0;
-        for (int arg : args) {
-            Object dataObject = this.objects.get(arg);
-            if (isPersistentObject(dataObject)) {
-                persistentObjectsInArgs++;
-            }
+    private int executeAlloc(StringBuilder logBuilder, TornadoVMInstruction.Alloc alloc, final long sizeBatch, XPUDeviceBufferState[] objectStates, boolean isPipelinedBatch) {
+        final Object[] objects = alloc.objects();
+        final int[] allocIndexes = alloc.allocIndexes();
+        for (int i = 0; i < allocIndexes.length; i++) {
+            objectStates[i] = resolveObjectState(allocIndexes[i]);
         }
 
-        // Calculate allocation based on non-persistent objects in args
-        int objectsToAlloc = args.length - persistentObjectsInArgs;
-
-        return new ObjectAllocationInfo(persistentObjectsInArgs, objectsToAlloc);
-    }
-
-    private int executeAlloc(StringBuilder logBuilder, int[] args, long sizeBatch) {
-        // Extract the counting and classification of objects into a separate method
-        ObjectAllocationInfo allocationInfo = countAndClassifyObjects(args);
-
-        Object[] objects = new Object[allocationInfo.objectsToAlloc];
-        Access[] accesses = new Access[allocationInfo.objectsToAlloc];
-        XPUDeviceBufferState[] objectStates = new XPUDeviceBufferState[allocationInfo.objectsToAlloc];
-
-        int allocCounter = 0;
         long preAllocatedSizes = 0L;
-
-        for (int arg : args) {
-            Object dataObject = this.objects.get(arg);
-            if (!isPersistentObject(dataObject)) {
-                objects[allocCounter] = this.objects.get(arg);
-                objectStates[allocCounter] = resolveObjectState(arg);
-                accesses[allocCounter] = this.objectAccesses.get(objects[allocCounter]);
-                allocCounter++;
-            } else {
-                XPUDeviceBufferState state = resolveObjectState(arg);
-                preAllocatedSizes += state.getXPUBuffer().size();
-            }
+        for (int persistentIndex : alloc.persistentIndexes()) {
+            XPUDeviceBufferState state = resolveObjectState(persistentIndex);
+            preAllocatedSizes += state.getXPUBuffer().size();
         }
 
         // total size of objects pre-allocated and current allocation
-        long allocationSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, accesses);
+        long allocationSize = isPipelinedBatch
+                ? allocateBatchBufferSet(logBuilder, alloc, sizeBatch, objectStates)
+                : interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, alloc.accesses());
         long allocationsTotalSize = allocationSize + preAllocatedSizes;
         increaseBatchNumber(sizeBatch);
 
         // Dump printing after object allocation, so the XPU-Buffer is created,
         // and we can query the size without having to use Java type analysis
         // to obtain the size at this point. 
-        if (TornadoOptions.PRINT_BYTECODES) {
+        if (TornadoOptions.PRINT_BYTECODES && !isPipelinedBatch) {
             int objIndex = 0;
             for (XPUDeviceBufferState state : objectStates) {
                 long size = state.getXPUBuffer().size();
@@ -521,6 +790,34 @@ public class TornadoVMInterpreter {
         return -1;
     }
 
+    /**
+     * It allocates the buffers of the current buffer set of a pipelined batch
+     * execution. The buffers are allocated through the device (and therefore its
+     * buffer provider) the first time a buffer set is used, and they are reused by
+     * the following chunks that use the same buffer set. The buffer sets follow the
+     * lock of the default buffer of each object.
+     */
+    private long allocateBatchBufferSet(StringBuilder logBuilder, TornadoVMInstruction.Alloc alloc, final long sizeBatch, XPUDeviceBufferState[] objectStates) {
+        final Object[] objects = alloc.objects();
+        final int[] allocIndexes = alloc.allocIndexes();
+        long allocationSize = 0L;
+        for (int i = 0; i < objectStates.length; i++) {
+            XPUDeviceBufferState state = objectStates[i];
+            if (batchBufferSet != 0) {
+                state.setLockBuffer(dataObjectStates[allocIndexes[i]].getDeviceBufferState(interpreterDevice).isLockedBuffer());
+            }
+            if (state.hasObjectBuffer()) {
+                state.getXPUBuffer().setSizeSubRegion(sizeBatch);
+            } else {
+                allocationSize += interpreterDevice.allocate(objects[i], sizeBatch, state, alloc.accesses()[i]);
+                if (TornadoOptions.PRINT_BYTECODES) {
+                    DebugInterpreter.logAllocObject(objects[i], interpreterDevice, state.getXPUBuffer().size(), sizeBatch, logBuilder);
+                }
+            }
+        }
+        return allocationSize;
+    }
+
     private void increaseBatchNumber(long sizeBatch) {
         if (sizeBatch != 0) {
             for (Object object : objects) {
@@ -562,11 +859,11 @@ public class TornadoVMInterpreter {
         return -1;
     }
 
-    private void transferHostToDeviceOnce(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList) {
+    private List<Integer> transferHostToDeviceOnce(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList) {
         Object object = objects.get(objectIndex);
 
         if (isObjectKernelContext(object)) {
-            return;
+            return null;
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
@@ -587,28 +884,37 @@ public class TornadoVMInterpreter {
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
             for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
-                timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+                profilerEvents.addCopyIn(e, objectState.getXPUBuffer().size());
             }
+            harvestProfilerEventsIfFull();
         }
+        return allEvents;
     }
 
-    private void transferHostToDeviceAlways(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList) {
+    private List<Integer> transferHostToDeviceAlways(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList) {
         Object object = objects.get(objectIndex);
 
         if (isObjectKernelContext(object)) {
-            return;
+            return null;
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+
+        // Skip the copy if the host object was not modified since it was last copied to the buffer
+        final long writeVersion = (sizeBatch == 0 && object instanceof TornadoNativeArray nativeArray) ? nativeArray.getWriteVersion() : TornadoNativeArray.UNTRACKED_WRITE_VERSION;
+        if (objectState.isInSync(writeVersion)) {
+            resetEventIndexes(eventId);
+            if (TornadoOptions.PRINT_BYTECODES) {
+                DebugInterpreter.logTransferToDeviceSkipped(object, interpreterDevice, objectState.getXPUBuffer().size(), eventId, logBuilder);
+            }
+            if (TornadoOptions.isProfilerEnabled()) {
+                timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SKIPPED_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
+            }
+            return null;
+        }
+
         List<Integer> allEvents = interpreterDevice.streamIn(graphExecutionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, eventWaitList);
+        objectState.setWriteVersion(writeVersion);
 
         resetEventIndexes(eventId);
 
@@ -619,22 +925,14 @@ public class TornadoVMInterpreter {
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
             for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
-
-                timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+                profilerEvents.addCopyIn(e, objectState.getXPUBuffer().size());
             }
+            harvestProfilerEventsIfFull();
         }
+        return allEvents;
     }
 
-    private int transferDeviceToHost(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList) {
+    private int transferDeviceToHost(StringBuilder logBuilder, final int objectIndex, final long offset, final int eventId, final long sizeBatch, final int[] eventWaitList, boolean blocking) {
         Object object = objects.get(objectIndex);
 
         if (isObjectKernelContext(object)) {
@@ -647,22 +945,16 @@ public class TornadoVMInterpreter {
             DebugInterpreter.logTransferToHostAlways(object, interpreterDevice, sizeObject, sizeBatch, offset, eventId, logBuilder);
         }
 
-        int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList);
+        int readEvent = blocking
+                ? interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList)
+                : interpreterDevice.streamOut(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList);
+        objectState.updatedHostObject(object, sizeBatch == 0 && offset == 0);
 
         resetEventIndexes(eventId);
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
-
-            timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            profilerEvents.addCopyOut(readEvent, objectState.getXPUBuffer().size());
+            harvestProfilerEventsIfFull();
         }
         return readEvent;
     }
@@ -681,31 +973,27 @@ public class TornadoVMInterpreter {
             DebugInterpreter.logTransferToHostAlwaysBlocking(object, interpreterDevice, logBuilder, sizeOfObject, sizeBatch, offset, eventId);
         }
         final int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList);
+        objectState.updatedHostObject(object, sizeBatch == 0 && offset == 0);
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
-
-            timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            profilerEvents.addCopyOut(readEvent, objectState.getXPUBuffer().size());
+            harvestProfilerEventsIfFull();
         }
         resetEventIndexes(eventId);
     }
 
-    private boolean isRecompilationNeededForLastBatch(int taskIndex, SchedulableTask task, long batchThreads) {
-        return (!shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads);
+    private boolean isRecompilationNeededForLastBatch(int localTaskIndex, SchedulableTask task, long batchThreads) {
+        return (!shouldCompile(installedCodes[localTaskIndex]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads);
     }
 
     private boolean currentBatchUsesThreadId(int currentBatch, boolean indexInWrite) {
         return (currentBatch > 0 && indexInWrite);
     }
 
+    private static boolean isDynamicBatchChunk(SchedulableTask task, long batchThreads) {
+        return batchThreads != 0 && task.meta().getNumThreads() <= 0;
+    }
+
     private void updateBatchThreads(SchedulableTask task, long batchThreads, boolean indexInWrite, int currentBatch) {
         // Set the batch size in the task information
         task.setBatchThreads(batchThreads);
@@ -729,7 +1017,9 @@ public class TornadoVMInterpreter {
         meta.setCompilerFlags(TornadoVMBackendType.SPIRV, graphExecutionContext.meta().getCompilerFlags(TornadoVMBackendType.SPIRV));
     }
 
-    private XPUExecutionFrame compileTaskFromBytecodeToBinary(final int callWrapperIndex, final int numArgs, final int eventId, final int taskIndex, final long batchThreads) {
+    private KernelStackFrame compileTaskFromBytecodeToBinary(final TornadoVMInstruction.Launch launch, final long batchThreads) {
+        final int taskIndex = launch.taskIndex();
+        final int localTaskIndex = launch.localTaskIndex();
 
         if (interpreterDevice.getDeviceContext().wasReset() && finishedWarmup) {
             throw new TornadoFailureException("[ERROR] reset() was called after warmup() on device: " + interpreterDevice + "!");
@@ -737,99 +1027,212 @@ public class TornadoVMInterpreter {
 
         boolean redeployOnDevice = graphExecutionContext.redeployOnDevice();
 
-        final KernelStackFrame kernelStackFrame = resolveCallWrapper(callWrapperIndex, numArgs, this.kernelStackFrame, interpreterDevice, redeployOnDevice);
+        final KernelStackFrame kernelStackFrame = resolveCallWrapper(launch.callWrapperIndex(), launch.numArgs(), this.kernelStackFrame, interpreterDevice, redeployOnDevice);
 
-        final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
-        final SchedulableTask task = taskExecutionContexts.get(taskIndex);
+        awaitCompilation(localTaskIndex);
+
+        final SchedulableTask task = graphExecutionContext.getLaunchedTask(taskIndex);
         int currentBatch = task.getBatchNumber();
         TaskContextInterface meta = task.meta();
         updateMeta(meta);
 
         boolean indexInWrite = interpreterDevice.loopIndexInWrite(task);
+        // Batch kernels read the number of threads and the index offset of each chunk from
+        // the kernel context, so the kernel compiled for the first chunk runs all chunks.
+        // Kernels with a fixed number of threads are specialised for each chunk instead.
+        final boolean dynamicChunk = isDynamicBatchChunk(task, batchThreads);
         // Check if a different batch size was used for the same kernel or
         // if the loop index is written in the output buffer, and we are not in the first batch.
-        // If any is true, then the kernel needs to be recompiled.
-        if (isRecompilationNeededForLastBatch(taskIndex, task, batchThreads) || currentBatchUsesThreadId(currentBatch, indexInWrite)) {
+        // If any is true, then the kernel needs to be recompiled. Outside batch processing, the
+        // batch number is fixed (e.g., the offset of a data-parallel split), so the kernel is reused.
+        if (!dynamicChunk && (isRecompilationNeededForLastBatch(localTaskIndex, task, batchThreads) || (batchThreads != 0 && currentBatchUsesThreadId(currentBatch, indexInWrite)))) {
             task.forceCompilation();
-            installedCodes[globalToLocalTaskIndex(taskIndex)].invalidate();
+            installedCodes[localTaskIndex].invalidate();
         }
 
-        updateBatchThreads(task, batchThreads, indexInWrite, currentBatch);
+        // The batch information of a compiled batch kernel is kept, so its name and cache key do not change
+        if (!dynamicChunk || shouldCompile(installedCodes[localTaskIndex])) {
+            updateBatchThreads(task, batchThreads, indexInWrite, currentBatch);
+        }
 
+        configureThreadScheduler(task);
+
+        if (timeProfiler instanceof TimeProfiler) {
+            // Register the backends only when the profiler is enabled
+            timeProfiler.registerBackend(task.getId(), task.getDevice().getTornadoVMBackend().name());
+            timeProfiler.registerDeviceID(task.getId(), task.meta().getBackendIndex() + ":" + task.meta().getDeviceIndex());
+            timeProfiler.registerDeviceName(task.getId(), task.getDevice().getPhysicalDevice().getDeviceName());
+        }
+
+        if (shouldCompile(installedCodes[localTaskIndex])) {
+            installedCodes[localTaskIndex] = installTask(taskIndex, task);
+            // After the compilation has been completed, increment
+            // the batch number of the task and update it.
+            if (indexInWrite && batchThreads != 0 && !dynamicChunk) {
+                task.setBatchNumber(++currentBatch);
+            }
+        }
+        return kernelStackFrame;
+    }
+
+    private void configureThreadScheduler(SchedulableTask task) {
         task.enableDefaultThreadScheduler(graphExecutionContext.useDefaultThreadScheduler());
 
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
             task.setUseGridScheduler(true);
             task.setGridScheduler(gridScheduler);
         }
+    }
 
-        if (timeProfiler instanceof TimeProfiler) {
-            // Register the backends only when the profiler is enabled
-            timeProfiler.registerBackend(task.getId(), task.getDevice().getTornadoVMBackend().name());
-            timeProfiler.registerDeviceID(task.getId(), task.meta().getBackendIndex() + ":" + task.meta().getDeviceIndex());
-            timeProfiler.registerDeviceName(task.getId(), task.getDevice().getPhysicalDevice().getDeviceName());
+    private TornadoInstalledCode installTask(int taskIndex, SchedulableTask task) {
+        task.setDevice(interpreterDevice);
+        taskInstallations.incrementAndGet();
+        try {
+            task.attachProfiler(timeProfiler);
+            if (taskIndex == (taskExecutionContexts.size() - 1)) {
+                // If it is the last task within the task-schedule or doUpdate is true -> we
+                // force compilation. This is useful when compiling code for Xilinx/Altera
+                // FPGAs, that has to be a single source.
+                task.forceCompilation();
+            }
+
+            TornadoInstalledCode installedCode = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
+            profilerUpdateForPreCompiledTask(task);
+            return installedCode;
+        } catch (TornadoBailoutRuntimeException e) {
+            throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
+                    .getStackTrace()), e);
+        } catch (TornadoDeviceFP64NotSupported e) {
+            throw e;
+        } catch (InternalError e) {
+            throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
         }
+    }
 
-        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
-            task.setDevice(interpreterDevice);
-            try {
-                task.attachProfiler(timeProfiler);
-                if (taskIndex == (taskExecutionContexts.size() - 1)) {
-                    // If it is the last task within the task-schedule or doUpdate is true -> we
-                    // force compilation. This is useful when compiling code for Xilinx/Altera
-                    // FPGAs, that has to be a single source.
-                    task.forceCompilation();
+    /**
+     * It submits the compilation of all tasks that are not compiled yet to the
+     * compiler pool. The data transfers that precede the first launch run while
+     * the tasks are compiled, and each launch only waits for the compilation of
+     * its own task. Task-graphs with batch processing and FPGAs compile the tasks
+     * one after the other, when they are launched.
+     */
+    private void submitCompilations() {
+        if (interpreterDevice.getDeviceContext().isPlatformFPGA()) {
+            return;
+        }
+        for (TornadoVMInstruction instruction : instructions) {
+            if (instruction instanceof TornadoVMInstruction.BeginBatchLoop) {
+                return;
+            }
+        }
+        for (TornadoVMInstruction instruction : instructions) {
+            if (instruction instanceof TornadoVMInstruction.Launch launch) {
+                final int localTaskIndex = launch.localTaskIndex();
+                if (pendingCompilations.get(localTaskIndex) != null || !shouldCompile(installedCodes[localTaskIndex])) {
+                    continue;
                 }
+                final SchedulableTask task = graphExecutionContext.getLaunchedTask(launch.taskIndex());
+                // The task is configured in the interpreter thread, as it is at launch time
+                updateMeta(task.meta());
+                task.setBatchThreads(launch.batchThreads());
+                configureThreadScheduler(task);
+                pendingCompilations.set(localTaskIndex, TornadoCoreRuntime.getTornadoCompilerExecutor().submit(() -> {
+                    // The device context (e.g., the CUDA context) must be current in the compiler thread
+                    interpreterDevice.enableThreadSharing();
+                    return installTask(launch.taskIndex(), task);
+                }));
+            }
+        }
+    }
 
-                installedCodes[globalToLocalTaskIndex(taskIndex)] = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
-                profilerUpdateForPreCompiledTask(task);
-                // After the compilation has been completed, increment
-                // the batch number of the task and update it.
-                if (indexInWrite && batchThreads != 0) {
-                    task.setBatchNumber(++currentBatch);
-                }
-            } catch (TornadoBailoutRuntimeException e) {
-                throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
-                        .getStackTrace()), e);
-            } catch (TornadoDeviceFP64NotSupported e) {
-                throw e;
-            } catch (InternalError e) {
-                throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
+    /**
+     * @return The number of times that a task was compiled (or taken from the
+     *     code cache) and installed on a device since the start of the
+     *     application.
+     */
+    public static long getNumberOfTaskInstallations() {
+        return taskInstallations.get();
+    }
+
+    /**
+     * @return The number of times that a task was launched on a chunk of a batch
+     *     since the start of the application.
+     */
+    public static long getNumberOfBatchLaunches() {
+        return batchLaunches.get();
+    }
+
+    private void awaitCompilation(int localTaskIndex) {
+        final Future<TornadoInstalledCode> compilation = pendingCompilations.get(localTaskIndex);
+        if (compilation == null) {
+            return;
+        }
+        pendingCompilations.set(localTaskIndex, null);
+        try {
+            installedCodes[localTaskIndex] = compilation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TornadoRuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
             }
+            throw new TornadoRuntimeException(e);
         }
-        return new XPUExecutionFrame(kernelStackFrame, waitList);
     }
 
-    private void popArgumentsFromCall(int numArgs) {
-        for (int i = 0; i < numArgs; i++) {
-            bytecodeResult.get();
-            bytecodeResult.getInt();
+    private boolean isReadOnlyArgument(int taskIndex, SchedulableTask task, int argumentIndex) {
+        Access[] accesses = argumentsAccesses[taskIndex];
+        if (accesses == null) {
+            if (task instanceof CompilableTask compilableTask) {
+                ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
+                accesses = TornadoSketcher.lookup(resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex()).getArgumentsAccess();
+            } else {
+                accesses = task.getArgumentsAccess();
+            }
+            argumentsAccesses[taskIndex] = accesses;
         }
+        return accesses != null && argumentIndex < accesses.length && accesses[argumentIndex] == Access.READ_ONLY;
     }
 
-    private int executeLaunch(StringBuilder logBuilder, final int numArgs, final int eventId, final int taskIndex, final long batchThreads, final long offset, XPUExecutionFrame executionFrame) {
+    private int executeLaunch(StringBuilder logBuilder, final TornadoVMInstruction.Launch launch, final KernelStackFrame stackFrame, final long offset, final long batchThreads,
+            final int[] pipelineWaitList) {
+        final int taskIndex = launch.taskIndex();
+        final int localTaskIndex = launch.localTaskIndex();
+        final int eventId = launch.eventId();
+        final int[] waitList = (pipelineWaitList != null) ? pipelineWaitList : (useDependencies && eventId != -1) ? events[eventId] : null;
 
-        final SchedulableTask task = taskExecutionContexts.get(taskIndex);
-        KernelStackFrame stackFrame = executionFrame.stackFrame;
-        int[] waitList = executionFrame.waitList;
+        final SchedulableTask task = graphExecutionContext.getLaunchedTask(taskIndex);
 
-        if (installedCodes[globalToLocalTaskIndex(taskIndex)] == null) {
+        if (installedCodes[localTaskIndex] == null) {
             // After warming-up, it is possible to get a null pointer in the task-cache due
             // to lazy compilation for FPGAs. In tha case, we check again the code cache.
-            installedCodes[globalToLocalTaskIndex(taskIndex)] = interpreterDevice.getCodeFromCache(graphExecutionContext.getExecutionPlanId(), task);
+            installedCodes[localTaskIndex] = interpreterDevice.getCodeFromCache(graphExecutionContext.getExecutionPlanId(), task);
         }
 
-        final TornadoInstalledCode installedCode = installedCodes[globalToLocalTaskIndex(taskIndex)];
+        final TornadoInstalledCode installedCode = installedCodes[localTaskIndex];
 
         if (installedCode == null) {
             throw new TornadoBailoutRuntimeException("Code generator Failed");
         }
+        if (task instanceof FusedTask) {
+            TaskFusion.recordFusedLaunch();
+        }
 
         int[] atomicsArray;
 
         atomicsArray = (task instanceof PrebuiltTask prebuiltTask) ? prebuiltTask.getAtomics() : interpreterDevice.checkAtomicsForTask(task);
 
-        HashMap<Integer, Integer> threadDeploy = new HashMap<>();
+        // The map of threads to deploy is reused across executions of the same task
+        HashMap<Integer, Integer> threadDeploy = threadDeploys.get(taskIndex);
+        if (threadDeploy == null) {
+            threadDeploy = new HashMap<>();
+            threadDeploys.set(taskIndex, threadDeploy);
+        } else {
+            threadDeploy.clear();
+        }
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
             WorkerGrid workerGrid = gridScheduler.get(task.getId());
             long[] global = workerGrid.getGlobalWork();
@@ -838,28 +1241,36 @@ public class TornadoVMInterpreter {
                 threadDeploy.put(i++, (int) maxThread);
             }
         }
+        if (batchThreads != 0) {
+            threadDeploy.put(KernelStackFrame.BATCH_THREADS_SLOT, (int) batchThreads);
+            threadDeploy.put(KernelStackFrame.BATCH_INDEX_OFFSET_SLOT, (int) batchIndexOffset);
+        }
         stackFrame.reset();
         stackFrame.setKernelContext(threadDeploy);
 
         XPUBuffer bufferAtomics = null;
 
-        for (int i = 0; i < numArgs; i++) {
-            final byte argType = bytecodeResult.get();
-            final int argIndex = bytecodeResult.getInt();
+        final boolean[] referenceArguments = launch.referenceArguments();
+        final int[] argumentIndexes = launch.argumentIndexes();
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            final int argIndex = argumentIndexes[i];
 
-            if (argType == TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value()) {
+            if (!referenceArguments[i]) {
                 // Add a constant argument
                 stackFrame.addCallArgument(constants.get(argIndex), false);
-            } else if (argType == TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()) {
+            } else {
 
                 if (isObjectKernelContext(objects.get(argIndex))) {
                     // Mark a kernel context
-                    stackFrame.addCallArgument(new KernelStackFrame.KernelContextArgument(), false);
+                    stackFrame.addCallArgument(KERNEL_CONTEXT_ARGUMENT, false);
                     continue;
                 }
 
-                final DataObjectState globalState = resolveGlobalObjectState(argIndex);
-                final XPUDeviceBufferState objectState = globalState.getDeviceBufferState(interpreterDevice);
+                final XPUDeviceBufferState objectState = resolveObjectState(argIndex);
+                if (TornadoNativeArray.DIRTY_TRACKING && !isReadOnlyArgument(taskIndex, task, i)) {
+                    // The kernel might modify the buffer
+                    objectState.setWriteVersion(TornadoNativeArray.UNTRACKED_WRITE_VERSION);
+                }
                 if (!isObjectInAtomicRegion(objectState, interpreterDevice, task)) {
                     // Add a reference (arrays, vector types, panama regions)
                     stackFrame.addCallArgument(objectState.getXPUBuffer().toBuffer(), true);
@@ -867,9 +1278,6 @@ public class TornadoVMInterpreter {
                     // Add the atomic buffer
                     atomicsArray = interpreterDevice.updateAtomicRegionAndObjectState(task, atomicsArray, i, objects.get(argIndex), objectState);
                 }
-
-            } else {
-                TornadoInternalError.shouldNotReachHere();
             }
         }
 
@@ -878,12 +1286,9 @@ public class TornadoVMInterpreter {
             List<Integer> allEvents = bufferAtomics.enqueueWrite(graphExecutionContext.getExecutionPlanId(), null, 0, 0, null, false);
             if (TornadoOptions.isProfilerEnabled()) {
                 for (Integer e : allEvents) {
-                    Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                    event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                    long value = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                    value += event.getElapsedTime();
-                    timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, value);
+                    profilerEvents.addAtomicsCopyIn(e);
                 }
+                harvestProfilerEventsIfFull();
             }
             if (TornadoOptions.PRINT_BYTECODES) {
                 DebugInterpreter.logStreamInAtomic(bufferAtomics, interpreterDevice, eventId, logBuilder);
@@ -902,9 +1307,12 @@ public class TornadoVMInterpreter {
             dataContext.setThreadInfoEnabled(graphExecutionContext.meta().isThreadInfoEnabled());
 
             try {
-                int lastEvent = useDependencies
+                int lastEvent = (useDependencies || pipelineWaitList != null)
                         ? installedCode.launchWithDependencies(graphExecutionContext.getExecutionPlanId(), stackFrame, bufferAtomics, dataContext, batchThreads, waitList)
                         : installedCode.launchWithoutDependencies(graphExecutionContext.getExecutionPlanId(), stackFrame, bufferAtomics, dataContext, batchThreads);
+                if (batchThreads != 0) {
+                    batchLaunches.incrementAndGet();
+                }
 
                 resetEventIndexes(eventId);
                 return lastEvent;
@@ -950,7 +1358,7 @@ public class TornadoVMInterpreter {
     }
 
     private XPUDeviceBufferState resolveObjectState(int index) {
-        return dataObjectStates[index].getDeviceBufferState(interpreterDevice);
+        return dataObjectStates[index].getDeviceBufferState(interpreterDevice, batchBufferSet);
     }
 
     private boolean isObjectKernelContext(Object object) {
@@ -999,10 +1407,6 @@ public class TornadoVMInterpreter {
         }
     }
 
-    private DataObjectState resolveGlobalObjectState(int index) {
-        return dataObjectStates[index];
-    }
-
     private boolean isObjectInAtomicRegion(XPUDeviceBufferState objectState, TornadoXPUDevice device, SchedulableTask task) {
         return objectState.isAtomicRegionPresent() && device.checkAtomicsParametersForTask(task);
     }
@@ -1018,25 +1422,4 @@ public class TornadoVMInterpreter {
     public void clearInstalledCode() {
         Arrays.fill(installedCodes, null);
     }
-
-    /**
-     * Container class that holds information about object allocation counts.
-     * Used to track the number of persistent objects and the number of objects
-     * that need to be allocated.
-     *
-     * @param persistentObjectCount Number of persistent objects that don't need allocation
-     * @param objectsToAlloc Number of objects that need to be allocated
-     */
-    public record ObjectAllocationInfo(int persistentObjectCount, int objectsToAlloc) {
-    }
-
-    private static class XPUExecutionFrame {
-        private KernelStackFrame stackFrame;
-        private int[] waitList;
-
-        XPUExecutionFrame(KernelStackFrame callWrapper, int[] waitList) {
-            this.stackFrame = callWrapper;
-            this.waitList = waitList;
-        }
-    }
 }
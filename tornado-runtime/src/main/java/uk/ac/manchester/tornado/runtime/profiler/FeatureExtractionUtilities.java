@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.graalvm.compiler.nodes.StructuredGraph;
 
@@ -45,6 +46,11 @@ public final class FeatureExtractionUtilities {
     private static final String FEATURES_DIRECTORY = Tornado.getProperty("tornado.features.dump.dir", "");
     private static final String LOOKUP_BUFFER_ADDRESS_NAME = "kernellookupBufferAddress";
 
+    /**
+     * Features of the compiled methods, by class and method name.
+     */
+    private static final Map<String, LinkedHashMap<ProfilerCodeFeatures, Integer>> methodFeatures = new ConcurrentHashMap<>();
+
     private FeatureExtractionUtilities() {
     }
 
@@ -52,6 +58,7 @@ public final class FeatureExtractionUtilities {
         String name = graph.name.split("-")[1];
 
         if (!name.equals(LOOKUP_BUFFER_ADDRESS_NAME)) {
+            methodFeatures.put(graph.method().getDeclaringClass().toJavaName() + "." + graph.method().getName(), entry);
             HashMap<String, HashMap<String, Integer>> task = new HashMap<>();
             String fullName = getBaseClass(graph.method().getDeclaringClass().toClassName()) + "." + name;
             task.put(fullName, encodeFeatureMap(entry));
@@ -100,6 +107,20 @@ public final class FeatureExtractionUtilities {
         return encodeMap;
     }
 
+    /**
+     * It returns the features extracted when a method was compiled.
+     *
+     * @param className
+     *     Binary name of the class that declares the method.
+     * @param methodName
+     *     Name of the method.
+     * @return The features, or {@code null} if the method has not been compiled
+     *     with the feature extraction enabled.
+     */
+    public static LinkedHashMap<ProfilerCodeFeatures, Integer> getFeatures(String className, String methodName) {
+        return methodFeatures.get(className + "." + methodName);
+    }
+
     public static LinkedHashMap<ProfilerCodeFeatures, Integer> initializeFeatureMap() {
         LinkedHashMap<ProfilerCodeFeatures, Integer> myMap = new LinkedHashMap<>();
         for (ProfilerCodeFeatures feature : ProfilerCodeFeatures.values()) {
@@ -23,14 +23,32 @@
  */
 package uk.ac.manchester.tornado.runtime.profiler;
 
-import java.util.HashMap;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
+/**
+ * Profiler that can be updated concurrently by multiple interpreters without
+ * locks. Metrics are stored in slots indexed by {@link ProfilerType#ordinal()}:
+ * timers in atomic arrays, and sizes in striped counters ({@link LongAdder}).
+ * The slots of each task are created the first time the task is profiled, so
+ * the following updates do not allocate.
+ *
+ * <p>
+ * In addition, the profiler keeps a {@link LatencyHistogram} of the kernel
+ * times ({@link ProfilerType#TASK_KERNEL_TIME}) and of the copy-in and copy-out
+ * times accumulated with {@link #sum}. Histograms are not cleared between
+ * executions, so they can answer percentile queries across all executions.
+ * </p>
+ */
 public class TimeProfiler implements TornadoProfiler {
 
     /**
@@ -40,161 +58,202 @@ public class TimeProfiler implements TornadoProfiler {
      */
     public static String NO_TASK_NAME = "noTask";
 
-    private HashMap<ProfilerType, Long> profilerTime;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskTimers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskPowerMetrics;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskSizeMetrics;
-    private HashMap<String, HashMap<ProfilerType, String>> taskDeviceIdentifiers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskMethodNames;
+    private static final ProfilerType[] PROFILER_TYPES = ProfilerType.values();
+
+    // Value of the timers that were not set
+    private static final long NO_VALUE = Long.MIN_VALUE;
 
-    private HashMap<String, HashMap<ProfilerType, String>> taskBackends;
+    private final AtomicLongArray profilerTime;
+    private final Map<String, TaskMetrics> taskMetrics;
+    private final LatencyHistogram[] histograms;
 
     private StringBuilder indent;
 
+    /**
+     * Metrics of a task. The string metrics (device, backend, method name and
+     * power) are kept after cleaning the profiler.
+     */
+    private static final class TaskMetrics {
+        private final AtomicLongArray timers;
+        private final AtomicReferenceArray<LongAdder> sizes;
+        private final AtomicReferenceArray<String> identifiers;
+        private final AtomicReferenceArray<String> powerMetrics;
+        private volatile boolean hasTimers;
+
+        private TaskMetrics() {
+            timers = newTimerSlots();
+            sizes = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+            identifiers = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+            powerMetrics = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+        }
+
+        private void addSize(ProfilerType type, long value) {
+            LongAdder size = sizes.get(type.ordinal());
+            if (size == null) {
+                sizes.compareAndSet(type.ordinal(), null, new LongAdder());
+                size = sizes.get(type.ordinal());
+            }
+            size.add(value);
+        }
+
+        private long getSize(ProfilerType type) {
+            LongAdder size = sizes.get(type.ordinal());
+            return size == null ? 0 : size.sum();
+        }
+
+        private void setTimer(ProfilerType type, long value) {
+            timers.set(type.ordinal(), value);
+            hasTimers = true;
+        }
+
+        private void clean() {
+            hasTimers = false;
+            for (int i = 0; i < PROFILER_TYPES.length; i++) {
+                timers.set(i, NO_VALUE);
+                sizes.set(i, null);
+            }
+        }
+    }
+
     public TimeProfiler() {
-        profilerTime = new HashMap<>();
-        taskTimers = new HashMap<>();
-        taskPowerMetrics = new HashMap<>();
-        taskDeviceIdentifiers = new HashMap<>();
-        taskMethodNames = new HashMap<>();
-        taskSizeMetrics = new HashMap<>();
-        taskBackends = new HashMap<>();
+        profilerTime = newTimerSlots();
+        taskMetrics = new ConcurrentHashMap<>();
+        histograms = new LatencyHistogram[PROFILER_TYPES.length];
+        histograms[ProfilerType.TASK_KERNEL_TIME.ordinal()] = new LatencyHistogram();
+        histograms[ProfilerType.COPY_IN_TIME.ordinal()] = new LatencyHistogram();
+        histograms[ProfilerType.COPY_OUT_TIME.ordinal()] = new LatencyHistogram();
         indent = new StringBuilder("");
     }
 
-    @Override
-    public synchronized void addValueToMetric(ProfilerType type, String taskName, long value) {
-        if (!taskSizeMetrics.containsKey(taskName)) {
-            taskSizeMetrics.put(taskName, new HashMap<>());
+    private static AtomicLongArray newTimerSlots() {
+        AtomicLongArray slots = new AtomicLongArray(PROFILER_TYPES.length);
+        for (int i = 0; i < PROFILER_TYPES.length; i++) {
+            slots.set(i, NO_VALUE);
+        }
+        return slots;
+    }
+
+    private TaskMetrics getTaskMetrics(String taskName) {
+        TaskMetrics metrics = taskMetrics.get(taskName);
+        if (metrics == null) {
+            metrics = taskMetrics.computeIfAbsent(taskName, name -> new TaskMetrics());
+        }
+        return metrics;
+    }
+
+    private void recordLatency(ProfilerType type, long value) {
+        LatencyHistogram histogram = histograms[type.ordinal()];
+        if (histogram != null) {
+            histogram.record(value);
         }
-        HashMap<ProfilerType, Long> profilerType = taskSizeMetrics.get(taskName);
-        profilerType.put(type, profilerType.get(type) != null ? profilerType.get(type) + value : value);
-        taskSizeMetrics.put(taskName, profilerType);
     }
 
     @Override
-    public synchronized void start(ProfilerType type) {
-        long start = System.nanoTime();
-        profilerTime.put(type, start);
+    public void addValueToMetric(ProfilerType type, String taskName, long value) {
+        getTaskMetrics(taskName).addSize(type, value);
     }
 
     @Override
-    public synchronized void start(ProfilerType type, String taskName) {
-        long start = System.nanoTime();
-        if (!taskTimers.containsKey(taskName)) {
-            taskTimers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, Long> profilerType = taskTimers.get(taskName);
-        profilerType.put(type, start);
-        taskTimers.put(taskName, profilerType);
+    public void start(ProfilerType type) {
+        profilerTime.set(type.ordinal(), System.nanoTime());
     }
 
     @Override
-    public synchronized void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
-        if (!taskMethodNames.containsKey(taskName)) {
-            taskMethodNames.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskMethodNames.get(taskName);
-        profilerType.put(type, methodName);
-        taskMethodNames.put(methodName, profilerType);
+    public void start(ProfilerType type, String taskName) {
+        getTaskMetrics(taskName).setTimer(type, System.nanoTime());
     }
 
     @Override
-    public synchronized void registerDeviceName(String taskName, String deviceInfo) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE, deviceInfo);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
+        getTaskMetrics(taskName).identifiers.set(type.ordinal(), methodName);
     }
 
     @Override
-    public synchronized void registerBackend(String taskName, String backend) {
-        if (!taskBackends.containsKey(taskName)) {
-            taskBackends.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskBackends.get(taskName);
+    public void registerDeviceName(String taskName, String deviceInfo) {
+        getTaskMetrics(taskName).identifiers.set(ProfilerType.DEVICE.ordinal(), deviceInfo);
+    }
 
-        profilerType.put(ProfilerType.BACKEND, backend);
-        taskBackends.put(taskName, profilerType);
+    @Override
+    public void registerBackend(String taskName, String backend) {
+        getTaskMetrics(taskName).identifiers.set(ProfilerType.BACKEND.ordinal(), backend);
     }
 
     @Override
-    public synchronized void registerDeviceID(String taskName, String deviceID) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE_ID, deviceID);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerDeviceID(String taskName, String deviceID) {
+        getTaskMetrics(taskName).identifiers.set(ProfilerType.DEVICE_ID.ordinal(), deviceID);
     }
 
     @Override
-    public synchronized void stop(ProfilerType type) {
+    public void stop(ProfilerType type) {
         long end = System.nanoTime();
-        long start = profilerTime.get(type);
-        long total = end - start;
-        profilerTime.put(type, total);
+        long start = profilerTime.get(type.ordinal());
+        if (start != NO_VALUE) {
+            profilerTime.set(type.ordinal(), end - start);
+        }
     }
 
     @Override
-    public synchronized void stop(ProfilerType type, String taskName) {
+    public void stop(ProfilerType type, String taskName) {
         long end = System.nanoTime();
-        HashMap<ProfilerType, Long> profiledType = taskTimers.get(taskName);
-        long start = profiledType.get(type);
-        long total = end - start;
-        profiledType.put(type, total);
-        taskTimers.put(taskName, profiledType);
+        TaskMetrics metrics = getTaskMetrics(taskName);
+        long start = metrics.timers.get(type.ordinal());
+        if (start != NO_VALUE) {
+            metrics.setTimer(type, end - start);
+        }
     }
 
     @Override
     public long getTimer(ProfilerType type) {
-        if (!profilerTime.containsKey(type)) {
-            return 0;
-        }
-        return profilerTime.get(type);
+        long value = profilerTime.get(type.ordinal());
+        return value == NO_VALUE ? 0 : value;
     }
 
     @Override
     public long getSize(ProfilerType type) {
         // for all tasks in the task graph, accumulate the size
-        Set<String> strings = taskSizeMetrics.keySet();
         long size = 0;
-        for (String s : taskSizeMetrics.keySet()) {
-            HashMap<ProfilerType, Long> copySizes = taskSizeMetrics.get(s);
-            if (copySizes.containsKey(type)) {
-                size += copySizes.get(type);
-            }
+        for (TaskMetrics metrics : taskMetrics.values()) {
+            size += metrics.getSize(type);
         }
         return size;
     }
 
     @Override
     public long getTaskTimer(ProfilerType type, String taskName) {
-        if (!taskTimers.containsKey(taskName)) {
+        TaskMetrics metrics = taskMetrics.get(taskName);
+        if (metrics == null) {
             return 0;
         }
-        if (!taskTimers.get(taskName).containsKey(type)) {
-            return 0;
-        }
-        return taskTimers.get(taskName).get(type);
+        long value = metrics.timers.get(type.ordinal());
+        return value == NO_VALUE ? 0 : value;
     }
 
     @Override
-    public synchronized void setTimer(ProfilerType type, long time) {
-        profilerTime.put(type, time);
+    public void setTimer(ProfilerType type, long time) {
+        profilerTime.set(type.ordinal(), time);
     }
 
     @Override
     public synchronized void dump() {
-        for (ProfilerType p : profilerTime.keySet()) {
-            System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p));
+        for (ProfilerType p : PROFILER_TYPES) {
+            if (profilerTime.get(p.ordinal()) != NO_VALUE) {
+                System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p.ordinal()));
+            }
         }
 
-        for (String p : taskTimers.keySet()) {
-            System.out.println("[PROFILER-TASK] " + p + ": " + taskTimers.get(p));
-
+        for (Map.Entry<String, TaskMetrics> entry : taskMetrics.entrySet()) {
+            TaskMetrics metrics = entry.getValue();
+            if (!metrics.hasTimers) {
+                continue;
+            }
+            StringBuilder timers = new StringBuilder("{");
+            for (ProfilerType p : PROFILER_TYPES) {
+                long value = metrics.timers.get(p.ordinal());
+                if (value != NO_VALUE) {
+                    timers.append(timers.length() > 1 ? ", " : "").append(p).append("=").append(value);
+                }
+            }
+            System.out.println("[PROFILER-TASK] " + entry.getKey() + ": " + timers.append("}"));
         }
     }
 
@@ -214,54 +273,73 @@ public class TimeProfiler implements TornadoProfiler {
         json.append("\n");
     }
 
+    private void appendValue(StringBuilder json, Object key, Object value) {
+        json.append(indent.toString() + "\"" + key + "\"" + ": " + "\"" + value + "\",\n");
+    }
+
+    private void appendSizes(StringBuilder json, TaskMetrics metrics) {
+        for (ProfilerType p : PROFILER_TYPES) {
+            LongAdder size = metrics.sizes.get(p.ordinal());
+            if (size != null) {
+                appendValue(json, p, size.sum());
+            }
+        }
+    }
+
     @Override
-    public String createJson(StringBuilder json, String sectionName) {
+    public synchronized String createJson(StringBuilder json, String sectionName) {
         json.append("{\n");
         increaseIndent();
         json.append(indent.toString() + "\"" + sectionName + "\": " + "{\n");
         increaseIndent();
-        for (ProfilerType p : profilerTime.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + profilerTime.get(p) + "\",\n");
-        }
-        if (taskSizeMetrics.containsKey(NO_TASK_NAME)) {
-            HashMap<ProfilerType, Long> noTaskValues = taskSizeMetrics.get(NO_TASK_NAME);
-            for (ProfilerType p : noTaskValues.keySet()) {
-                json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + noTaskValues.get(p) + "\",\n");
+        for (ProfilerType p : PROFILER_TYPES) {
+            long value = profilerTime.get(p.ordinal());
+            if (value != NO_VALUE) {
+                appendValue(json, p, value);
             }
         }
+        TaskMetrics noTaskMetrics = taskMetrics.get(NO_TASK_NAME);
+        if (noTaskMetrics != null) {
+            appendSizes(json, noTaskMetrics);
+        }
 
-        final int size = taskTimers.keySet().size();
-        int counter = 0;
-        for (String p : taskTimers.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": {\n");
+        boolean firstTask = true;
+        for (Map.Entry<String, TaskMetrics> entry : taskMetrics.entrySet()) {
+            TaskMetrics metrics = entry.getValue();
+            if (!metrics.hasTimers) {
+                continue;
+            }
+            if (!firstTask) {
+                json.delete(json.length() - 1, json.length()); // remove the last new line
+                json.append(", ");
+                newLine(json);
+            }
+            firstTask = false;
+            json.append(indent.toString() + "\"" + entry.getKey() + "\"" + ": {\n");
             increaseIndent();
-            counter++;
             if (TornadoOptions.LOG_IP) {
-                json.append(indent.toString() + "\"" + "IP" + "\"" + ": " + "\"" + RuntimeUtilities.getTornadoInstanceIP() + "\",\n");
+                appendValue(json, "IP", RuntimeUtilities.getTornadoInstanceIP());
             }
-            json.append(indent.toString() + "\"" + ProfilerType.BACKEND + "\"" + ": " + "\"" + taskBackends.get(p).get(ProfilerType.BACKEND) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.METHOD + "\"" + ": " + "\"" + taskMethodNames.get(p).get(ProfilerType.METHOD) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE_ID + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE_ID) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE) + "\",\n");
-            if (taskSizeMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskSizeMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskSizeMetrics.get(p).get(p1) + "\",\n");
+            appendValue(json, ProfilerType.BACKEND, metrics.identifiers.get(ProfilerType.BACKEND.ordinal()));
+            appendValue(json, ProfilerType.METHOD, metrics.identifiers.get(ProfilerType.METHOD.ordinal()));
+            appendValue(json, ProfilerType.DEVICE_ID, metrics.identifiers.get(ProfilerType.DEVICE_ID.ordinal()));
+            appendValue(json, ProfilerType.DEVICE, metrics.identifiers.get(ProfilerType.DEVICE.ordinal()));
+            appendSizes(json, metrics);
+            for (ProfilerType p : PROFILER_TYPES) {
+                String power = metrics.powerMetrics.get(p.ordinal());
+                if (power != null) {
+                    appendValue(json, p, power);
                 }
             }
-            if (taskPowerMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskPowerMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskPowerMetrics.get(p).get(p1) + "\",\n");
+            for (ProfilerType p : PROFILER_TYPES) {
+                long value = metrics.timers.get(p.ordinal());
+                if (value != NO_VALUE) {
+                    appendValue(json, p, value);
                 }
             }
-            for (ProfilerType p2 : taskTimers.get(p).keySet()) {
-                json.append(indent.toString() + "\"" + p2 + "\"" + ": " + "\"" + taskTimers.get(p).get(p2) + "\",\n");
-            }
             json.delete(json.length() - 2, json.length() - 1); // remove last comma
             decreaseIndent();
             closeScope(json);
-            if (counter != size) {
-                json.append(", ");
-            }
             newLine(json);
         }
         decreaseIndent();
@@ -281,60 +359,53 @@ public class TimeProfiler implements TornadoProfiler {
 
     @Override
     public synchronized void clean() {
-        taskSizeMetrics.clear();
-        profilerTime.clear();
-        taskTimers.clear();
+        for (int i = 0; i < PROFILER_TYPES.length; i++) {
+            profilerTime.set(i, NO_VALUE);
+        }
+        for (TaskMetrics metrics : taskMetrics.values()) {
+            metrics.clean();
+        }
         indent = new StringBuilder("");
     }
 
     @Override
-    public synchronized void setTaskTimer(ProfilerType type, String taskID, long timer) {
-        if (!taskTimers.containsKey(taskID)) {
-            taskTimers.put(taskID, new HashMap<>());
+    public void setTaskTimer(ProfilerType type, String taskID, long timer) {
+        getTaskMetrics(taskID).setTimer(type, timer);
+        if (type == ProfilerType.TASK_KERNEL_TIME) {
+            recordLatency(type, timer);
         }
-        taskTimers.get(taskID).put(type, timer);
+    }
+
+    private void setPowerMetric(ProfilerType type, String taskID, String value) {
+        getTaskMetrics(taskID).powerMetrics.set(type.ordinal(), value);
     }
 
     @Override
-    public synchronized void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
-        if (!taskPowerMetrics.containsKey(taskID)) {
-            taskPowerMetrics.put(taskID, new HashMap<>());
-        }
-        if (power > 0) {
-            taskPowerMetrics.get(taskID).put(type, Long.toString(power));
-        } else {
-            taskPowerMetrics.get(taskID).put(type, "n/a");
-        }
+    public void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
+        setPowerMetric(type, taskID, power > 0 ? Long.toString(power) : "n/a");
     }
 
     @Override
     public void setSystemPowerConsumption(ProfilerType systemPowerConsumptionType, String taskID, long powerConsumption) {
-        if (!taskPowerMetrics.containsKey(taskID)) {
-            taskPowerMetrics.put(taskID, new HashMap<>());
-        }
-        if (powerConsumption > 0) {
-            taskPowerMetrics.get(taskID).put(systemPowerConsumptionType, Long.toString(powerConsumption));
-        } else {
-            taskPowerMetrics.get(taskID).put(systemPowerConsumptionType, "n/a");
-        }
+        setPowerMetric(systemPowerConsumptionType, taskID, powerConsumption > 0 ? Long.toString(powerConsumption) : "n/a");
     }
 
     @Override
     public void setSystemVoltage(ProfilerType systemPowerVoltageType, String taskID, long voltage) {
-        if (!taskPowerMetrics.containsKey(taskID)) {
-            taskPowerMetrics.put(taskID, new HashMap<>());
-        }
-        if (voltage > 0) {
-            taskPowerMetrics.get(taskID).put(systemPowerVoltageType, Float.toString(voltage));
-        } else {
-            taskPowerMetrics.get(taskID).put(systemPowerVoltageType, "n/a");
+        setPowerMetric(systemPowerVoltageType, taskID, voltage > 0 ? Float.toString(voltage) : "n/a");
+    }
+
+    @Override
+    public void sum(ProfilerType acc, long value) {
+        profilerTime.accumulateAndGet(acc.ordinal(), value, (previous, v) -> previous == NO_VALUE ? v : previous + v);
+        if (acc == ProfilerType.COPY_IN_TIME || acc == ProfilerType.COPY_OUT_TIME) {
+            recordLatency(acc, value);
         }
     }
 
     @Override
-    public synchronized void sum(ProfilerType acc, long value) {
-        long sum = getTimer(acc) + value;
-        profilerTime.put(acc, sum);
+    public LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        return histograms[type.ordinal()];
     }
 
 }
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.sketcher;
+
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Iteration space of a task with a single parallel loop, in which all arrays
+ * are only accessed at the index of the parallel loop (e.g.,
+ * {@code c.set(i, a.get(i) + b.get(i))}). Each range of iterations of such a
+ * task only accesses the same range of elements of the arrays, so the ranges
+ * can run independently (e.g., on different devices).
+ *
+ * @param init
+ *     Initial value of the loop index.
+ * @param stride
+ *     Stride of the loop index.
+ * @param boundKind
+ *     How the upper bound of the loop is obtained.
+ * @param bound
+ *     The constant upper bound, or the index of the parameter that
+ *     provides it.
+ */
+public record ElementWiseLoop(int init, int stride, BoundKind boundKind, int bound) {
+
+    public enum BoundKind {
+        /**
+         * The upper bound is a constant.
+         */
+        CONSTANT,
+        /**
+         * The upper bound is an integer parameter.
+         */
+        SCALAR_PARAMETER,
+        /**
+         * The upper bound is the size of a native array parameter.
+         */
+        ARRAY_SIZE
+    }
+
+    /**
+     * It computes the upper bound of the loop for the arguments of a task.
+     *
+     * @param arguments
+     *     Arguments of the task.
+     * @return The upper bound, or -1 if it cannot be computed.
+     */
+    public int getUpperBound(Object[] arguments) {
+        return switch (boundKind) {
+            case CONSTANT -> bound;
+            case SCALAR_PARAMETER -> (bound < arguments.length && arguments[bound] instanceof Integer value) ? value : -1;
+            case ARRAY_SIZE -> (bound < arguments.length && arguments[bound] instanceof TornadoNativeArray array) ? array.getSize() : -1;
+        };
+    }
+}
@@ -33,16 +33,23 @@ public class Sketch {
 
     private boolean batchWriteThreadIndex;
 
+    /**
+     * Iteration space of the {@link #graph} if it is an element-wise computation,
+     * or null otherwise.
+     */
+    private final ElementWiseLoop elementWiseLoop;
+
     /**
      * Argument accesses of the {@link #graph}. If arguments escape to callees, it
      * will contain the updated accesses based on what the non-inlined methods do.
      */
     private final Access[] argumentsAccess;
 
-    Sketch(Graph graph, Access[] argumentAccesses, boolean batchWriteThreadIndex) {
+    Sketch(Graph graph, Access[] argumentAccesses, boolean batchWriteThreadIndex, ElementWiseLoop elementWiseLoop) {
         this.graph = graph;
         this.argumentsAccess = argumentAccesses;
         this.batchWriteThreadIndex = batchWriteThreadIndex;
+        this.elementWiseLoop = elementWiseLoop;
     }
 
     public Graph getGraph() {
@@ -57,4 +64,8 @@ public class Sketch {
         return this.batchWriteThreadIndex;
     }
 
+    public ElementWiseLoop getElementWiseLoop() {
+        return elementWiseLoop;
+    }
+
 }
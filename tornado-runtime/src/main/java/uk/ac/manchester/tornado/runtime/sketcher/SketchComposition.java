@@ -0,0 +1,396 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.sketcher;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.core.common.type.StampPair;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedGuardNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+
+/**
+ * Composition of the sketches of element-wise tasks (see
+ * {@link ElementWiseLoop}) into the sketch of a single kernel. The body of the
+ * parallel loop of each task is appended to the body of the loop of the first
+ * task, so iteration {@code i} of the composed loop runs iteration {@code i} of
+ * every task, in order.
+ *
+ * <p>
+ * The parameters of the composed sketch are given by the caller. Arrays that
+ * are only used inside the composed kernel (intermediate arrays) are removed:
+ * the value written to element {@code i} by a task is forwarded to the reads
+ * of element {@code i} in the following tasks, so the array does not need a
+ * device buffer.
+ * </p>
+ */
+public final class SketchComposition {
+
+    private static final String NATIVE_ARRAY_SIZE_FIELD = "numberOfElements";
+
+    private SketchComposition() {
+    }
+
+    /**
+     * Nodes of the parallel loop of a sketch.
+     */
+    private record ParallelLoop(LoopBeginNode loopBegin, LoopEndNode loopEnd, IfNode exitCondition, AbstractBeginNode body, ValuePhiNode index, ParallelRangeNode range,
+            List<FixedWithNextNode> header, List<FixedWithNextNode> statements) {
+    }
+
+    /**
+     * It checks whether the sketch of a task can be composed with other sketches:
+     * the task is an element-wise computation, and the body of its parallel loop
+     * is straight-line code (no control flow, inner loops or calls).
+     *
+     * @param sketch
+     *     {@link Sketch} of the task.
+     * @return boolean
+     */
+    public static boolean isComposable(Sketch sketch) {
+        return sketch.getElementWiseLoop() != null && sketch.getGraph() instanceof StructuredGraph graph && findParallelLoop(graph) != null;
+    }
+
+    private static ParallelLoop findParallelLoop(StructuredGraph graph) {
+        if (graph.getNodes(LoopBeginNode.TYPE).count() != 1 || graph.getNodes().filter(ParallelRangeNode.class).count() != 1) {
+            return null;
+        }
+        LoopBeginNode loopBegin = graph.getNodes(LoopBeginNode.TYPE).first();
+        ParallelRangeNode range = graph.getNodes().filter(ParallelRangeNode.class).first();
+        if (loopBegin.getLoopEndCount() != 1 || loopBegin.loopExits().count() != 1 || loopBegin.phis().count() != 1) {
+            return null;
+        }
+        LoopExitNode loopExit = loopBegin.loopExits().first();
+        if (!(loopBegin.phis().first() instanceof ValuePhiNode index) || !(loopExit.predecessor() instanceof IfNode exitCondition)) {
+            return null;
+        }
+        AbstractBeginNode body = (exitCondition.trueSuccessor() == loopExit) ? exitCondition.falseSuccessor() : exitCondition.trueSuccessor();
+
+        List<FixedWithNextNode> header = collectStatements(loopBegin.next(), exitCondition);
+        List<FixedWithNextNode> statements = collectStatements(body.next(), loopBegin.getSingleLoopEnd());
+        if (header == null || statements == null) {
+            return null;
+        }
+        return new ParallelLoop(loopBegin, loopBegin.getSingleLoopEnd(), exitCondition, body, index, range, header, statements);
+    }
+
+    /**
+     * @return The fixed nodes from {@code first} up to {@code last} (excluded),
+     *     or null if there is a control-flow split or a call in between.
+     */
+    private static List<FixedWithNextNode> collectStatements(FixedNode first, FixedNode last) {
+        List<FixedWithNextNode> statements = new ArrayList<>();
+        FixedNode node = first;
+        while (node != last) {
+            if (!(node instanceof FixedWithNextNode statement) || node instanceof AbstractBeginNode || node instanceof Invoke) {
+                return null;
+            }
+            statements.add(statement);
+            node = statement.next();
+        }
+        return statements;
+    }
+
+    /**
+     * It checks whether the values written to an array parameter by a task can be
+     * forwarded to the tasks that read the array afterwards. The task must write
+     * each element once, with a single store, without reading the array.
+     *
+     * @param sketch
+     *     {@link Sketch} of the task.
+     * @param parameterIndex
+     *     Index of the array parameter.
+     * @return The kind of the elements written, or null if the writes cannot be
+     *     forwarded.
+     */
+    public static JavaKind getForwardedWriteKind(Sketch sketch, int parameterIndex) {
+        ParameterNode parameter = ((StructuredGraph) sketch.getGraph()).getParameter(parameterIndex);
+        if (parameter == null || sketch.getArgumentsAccess()[parameterIndex] != Access.WRITE_ONLY || !hasOnlyRemovableUsages(parameter)) {
+            return null;
+        }
+        List<JavaWriteNode> writes = getWrites(parameter);
+        return (writes.size() == 1 && getReads(parameter).isEmpty()) ? writes.getFirst().getWriteKind() : null;
+    }
+
+    /**
+     * It checks whether the reads of an array parameter by a task can be replaced
+     * with the values written by a previous task.
+     *
+     * @param sketch
+     *     {@link Sketch} of the task.
+     * @param parameterIndex
+     *     Index of the array parameter.
+     * @param kind
+     *     Kind of the elements written by the previous task.
+     * @return boolean
+     */
+    public static boolean canForwardReads(Sketch sketch, int parameterIndex, JavaKind kind) {
+        ParameterNode parameter = ((StructuredGraph) sketch.getGraph()).getParameter(parameterIndex);
+        if (parameter == null || sketch.getArgumentsAccess()[parameterIndex] != Access.READ_ONLY || !hasOnlyRemovableUsages(parameter) || !getWrites(parameter).isEmpty()) {
+            return false;
+        }
+        return getReads(parameter).stream().allMatch(read -> read.getReadKind() == kind);
+    }
+
+    /**
+     * It checks that a parameter is only used by memory accesses of native arrays,
+     * null checks and frame states, and by the size of the array as the bound of
+     * the parallel loop, so it can be removed once its accesses are forwarded.
+     */
+    private static boolean hasOnlyRemovableUsages(ValueNode value) {
+        for (Node usage : value.usages()) {
+            boolean removable = switch (usage) {
+                case PiNode pi -> hasOnlyRemovableUsages(pi);
+                case OffsetAddressNode address -> address.getBase() == value && address.usages().filter(n -> !(n instanceof JavaReadNode) && !(n instanceof JavaWriteNode)).isEmpty();
+                case LoadFieldNode loadField -> NATIVE_ARRAY_SIZE_FIELD.equals(loadField.field().getName()) && loadField.usages().filter(n -> !(n instanceof ParallelRangeNode)).isEmpty();
+                case IsNullNode isNull -> isNull.usages().filter(n -> !(n instanceof FixedGuardNode)).isEmpty();
+                case FrameState ignored -> true;
+                default -> false;
+            };
+            if (!removable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<JavaWriteNode> getWrites(ParameterNode parameter) {
+        List<JavaWriteNode> writes = new ArrayList<>();
+        for (JavaWriteNode write : parameter.graph().getNodes().filter(JavaWriteNode.class)) {
+            if (write.getAddress() instanceof OffsetAddressNode address && GraphUtil.unproxify(address.getBase()) == parameter) {
+                writes.add(write);
+            }
+        }
+        return writes;
+    }
+
+    private static List<JavaReadNode> getReads(ParameterNode parameter) {
+        List<JavaReadNode> reads = new ArrayList<>();
+        for (JavaReadNode read : parameter.graph().getNodes().filter(JavaReadNode.class)) {
+            if (read.getAddress() instanceof OffsetAddressNode address && GraphUtil.unproxify(address.getBase()) == parameter) {
+                reads.add(read);
+            }
+        }
+        return reads;
+    }
+
+    /**
+     * It composes the sketches of a chain of element-wise tasks into a single
+     * sketch. All sketches must be composable (see
+     * {@link #isComposable(Sketch)}) and have the same iteration space.
+     *
+     * @param sketches
+     *     Sketches of the tasks, in the order in which they are launched.
+     * @param parameterMaps
+     *     For each task, the index of the parameter of the composed sketch
+     *     that replaces each parameter of the task. Indexes equal or greater
+     *     than {@code accesses.length} denote intermediate arrays, which are
+     *     removed: the values written to them are forwarded to their reads.
+     * @param accesses
+     *     Accesses of the parameters of the composed sketch.
+     * @param upperBound
+     *     The upper bound of the parallel loop.
+     * @return The composed {@link Sketch}.
+     */
+    public static Sketch compose(List<Sketch> sketches, int[][] parameterMaps, Access[] accesses, int upperBound) {
+        final StructuredGraph graph = (StructuredGraph) sketches.getFirst().getGraph().copy(getDebugContext());
+        final ParallelLoop loop = findParallelLoop(graph);
+        final List<ParameterNode> parameters = new ArrayList<>();
+
+        // The parameters of the first task are replaced in place
+        for (ParameterNode parameter : graph.getNodes(ParameterNode.TYPE).snapshot()) {
+            parameter.replaceAtUsages(getParameter(graph, parameters, parameterMaps[0][parameter.index()], parameter));
+            parameter.safeDelete();
+        }
+
+        for (int i = 1; i < sketches.size(); i++) {
+            final StructuredGraph taskGraph = (StructuredGraph) sketches.get(i).getGraph();
+            final ParallelLoop taskLoop = findParallelLoop(taskGraph);
+            final EconomicMap<Node, Node> replacements = EconomicMap.create(Equivalence.IDENTITY);
+            for (ParameterNode parameter : taskGraph.getNodes(ParameterNode.TYPE)) {
+                replacements.put(parameter, getParameter(graph, parameters, parameterMaps[i][parameter.index()], parameter));
+            }
+            replacements.put(taskGraph.start(), graph.start());
+            replacements.put(taskLoop.loopBegin(), loop.loopBegin());
+            replacements.put(taskLoop.body(), loop.body());
+            replacements.put(taskLoop.index(), loop.index());
+            replacements.put(taskLoop.range(), loop.range());
+            replacements.put(taskLoop.range().offset(), loop.range().offset());
+            replacements.put(taskLoop.range().stride(), loop.range().stride());
+            appendStatements(graph, loop, taskLoop, replacements);
+        }
+
+        // The loop bound might be the size of an intermediate array, and the bounds
+        // of the appended loops are no longer used
+        loop.range().replaceFirstInput(loop.range().value(), ConstantNode.forInt(upperBound, graph));
+        for (LoadFieldNode loadField : graph.getNodes().filter(LoadFieldNode.class).snapshot()) {
+            if (loadField.hasNoUsages() && !loadField.field().isVolatile()) {
+                graph.removeFixed(loadField);
+            }
+        }
+
+        for (int i = accesses.length; i < parameters.size(); i++) {
+            if (parameters.get(i) != null) {
+                removeIntermediateArray(graph, parameters.get(i));
+            }
+        }
+
+        return new Sketch(graph, accesses, false, new ElementWiseLoop(sketches.getFirst().getElementWiseLoop().init(), sketches.getFirst().getElementWiseLoop().stride(),
+                ElementWiseLoop.BoundKind.CONSTANT, upperBound));
+    }
+
+    private static ParameterNode getParameter(StructuredGraph graph, List<ParameterNode> parameters, int index, ParameterNode original) {
+        while (parameters.size() <= index) {
+            parameters.add(null);
+        }
+        if (parameters.get(index) == null) {
+            parameters.set(index, graph.addWithoutUnique(new ParameterNode(index, StampPair.createSingle(original.stamp(NodeView.DEFAULT)))));
+        }
+        return parameters.get(index);
+    }
+
+    /**
+     * It copies the statements of the parallel loop of a task (with the floating
+     * nodes they use) to the end of the body of the composed loop.
+     */
+    private static void appendStatements(StructuredGraph graph, ParallelLoop loop, ParallelLoop taskLoop, EconomicMap<Node, Node> replacements) {
+        final List<FixedWithNextNode> statements = new ArrayList<>(taskLoop.header());
+        statements.addAll(taskLoop.statements());
+
+        final Set<Node> nodes = new LinkedHashSet<>(statements);
+        final List<Node> worklist = new ArrayList<>(statements);
+        while (!worklist.isEmpty()) {
+            for (Node input : worklist.removeLast().inputs()) {
+                if (replacements.containsKey(input) || nodes.contains(input)) {
+                    continue;
+                }
+                if (input instanceof ConstantNode constant) {
+                    replacements.put(constant, ConstantNode.forConstant(constant.stamp(NodeView.DEFAULT), constant.getValue(), null, graph));
+                } else if (input instanceof FixedNode || input instanceof PhiNode) {
+                    throw new TornadoRuntimeException("Unable to compose the task " + taskLoop.loopBegin().graph().method().getName() + ": unexpected input " + input);
+                } else {
+                    nodes.add(input);
+                    worklist.add(input);
+                }
+            }
+        }
+
+        final EconomicMap<Node, Node> duplicates = graph.addDuplicates(nodes, taskLoop.loopBegin().graph(), nodes.size(), replacements);
+        FixedWithNextNode last = (FixedWithNextNode) loop.loopEnd().predecessor();
+        last.setNext(null);
+        for (FixedWithNextNode statement : statements) {
+            FixedWithNextNode duplicate = (FixedWithNextNode) duplicates.get(statement);
+            if (duplicate.next() != null) {
+                duplicate.setNext(null);
+            }
+            last.setNext(duplicate);
+            last = duplicate;
+        }
+        last.setNext(loop.loopEnd());
+    }
+
+    /**
+     * It forwards the value written to an intermediate array to the reads of the
+     * array, and removes the store, the null checks and the parameter itself.
+     */
+    private static void removeIntermediateArray(StructuredGraph graph, ParameterNode parameter) {
+        final List<JavaWriteNode> writes = getWrites(parameter);
+        if (writes.size() != 1) {
+            throw new TornadoRuntimeException("Unable to remove the intermediate array " + parameter + ": " + writes.size() + " stores");
+        }
+        final JavaWriteNode write = writes.getFirst();
+        for (JavaReadNode read : getReads(parameter)) {
+            final ValueNode address = read.getAddress();
+            read.replaceAtUsages(write.value());
+            graph.removeFixed(read);
+            GraphUtil.tryKillUnused(address);
+        }
+        final ValueNode address = write.getAddress();
+        final FrameState state = write.stateAfter();
+        graph.removeFixed(write);
+        GraphUtil.tryKillUnused(address);
+        if (state != null) {
+            GraphUtil.tryKillUnused(state);
+        }
+
+        // The remaining usages are null checks and frame states
+        final ConstantNode nullConstant = ConstantNode.defaultForKind(JavaKind.Object, graph);
+        final List<ValueNode> values = new ArrayList<>(List.of(parameter));
+        for (int i = 0; i < values.size(); i++) {
+            values.addAll(values.get(i).usages().filter(PiNode.class).snapshot());
+        }
+        for (ValueNode value : values) {
+            value.replaceAtMatchingUsages(nullConstant, FrameState.class::isInstance);
+        }
+        for (int i = values.size() - 1; i > 0; i--) {
+            GraphUtil.tryKillUnused(values.get(i));
+        }
+        for (FixedGuardNode guard : graph.getNodes(FixedGuardNode.TYPE).snapshot()) {
+            if (guard.condition() instanceof IsNullNode isNull && GraphUtil.unproxify(isNull.getValue()) == parameter) {
+                if (guard.hasNoUsages()) {
+                    graph.removeFixed(guard);
+                    GraphUtil.tryKillUnused(isNull);
+                }
+            }
+        }
+        // The parameter is removed with its last usage
+        if (parameter.isAlive()) {
+            throw new TornadoRuntimeException("Unable to remove the intermediate array " + parameter + ": " + parameter.usages().snapshot());
+        }
+    }
+}
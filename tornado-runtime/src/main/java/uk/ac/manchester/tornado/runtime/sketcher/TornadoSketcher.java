@@ -31,12 +31,11 @@ import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContex
 import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getOptions;
 import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getTornadoExecutor;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -57,58 +56,72 @@ import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
 import org.graalvm.compiler.phases.util.Providers;
 
+import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.common.Access;
-import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.TornadoAcceleratorBackend;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.OCLTokens;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCompilerIdentifier;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSketchTier;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
 
+/**
+ * It builds the sketches of the methods to compile, and keeps them in a cache
+ * shared by all task graphs.
+ *
+ * <p>
+ * Each sketch holds a copy of the Graal IR of a method for a backend and a
+ * device. The cache is bounded to {@link TornadoOptions#SKETCHER_CACHE_SIZE}
+ * sketches, and the least recently used sketches are evicted when the bound is
+ * exceeded. Nothing is kept of an evicted sketch: it is rebuilt with the
+ * providers and the sketch tier of its backend if it is looked up again. Sketches of
+ * the methods of a class loader can be removed with
+ * {@link #invalidate(ClassLoader)} when the class loader is discarded.
+ * </p>
+ */
 public class TornadoSketcher {
 
     private static final AtomicInteger sketchId = new AtomicInteger(0);
-    private static final Map<ResolvedJavaMethod, List<TornadoSketcherCacheEntry>> cache = new ConcurrentHashMap<>();
+    private static final LinkedHashMap<SketchKey, TornadoSketcherCacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
     private static final TimerKey Sketcher = DebugContext.timer("Sketcher");
     private static final OptimisticOptimizations optimisticOpts = OptimisticOptimizations.ALL;
     private static TornadoLogger logger = new TornadoLogger();
     public static Access[] methodAccesses;
 
-    private static boolean cacheContainsSketch(ResolvedJavaMethod method, int driverIndex, int deviceIndex) {
-        List<TornadoSketcherCacheEntry> entries = cache.get(method);
-        if (entries == null) {
-            return false;
-        }
-
-        synchronized (entries) {
-            for (TornadoSketcherCacheEntry entry : entries) {
-                if (entry.matchesDriverAndDevice(driverIndex, deviceIndex)) {
-                    return true;
-                }
+    private static long cacheHits;
+    private static long cacheMisses;
+    private static long cacheEvictions;
+    private static long cacheInvalidations;
+
+    private static Future<Sketch> getSketchFuture(SketchKey key) {
+        synchronized (cache) {
+            TornadoSketcherCacheEntry entry = cache.get(key);
+            if (entry != null) {
+                cacheHits++;
+                return entry.getSketchFuture();
             }
+            // The sketch was evicted or invalidated: it is rebuilt as the task-graph requests it
+            logger.debug("Rebuilding sketch of %s", key.resolvedMethod.getName());
+            TornadoAcceleratorBackend backend = TornadoCoreRuntime.getTornadoRuntime().getBackend(key.driverIndex);
+            TornadoSuitesProvider suites = backend.getSuitesProvider();
+            SketchRequest request = new SketchRequest(key.resolvedMethod, backend.getProviders(), suites.getGraphBuilderSuite(), suites.getSketchTier(), key.driverIndex, key.deviceIndex);
+            return submitSketch(key, request);
         }
-        return false;
     }
 
     public static Sketch lookup(ResolvedJavaMethod resolvedMethod, int driverIndex, int deviceIndex) {
         Sketch sketch = null;
-        guarantee(cache.containsKey(resolvedMethod), "cache miss for: %s", resolvedMethod.getName());
-        List<TornadoSketcherCacheEntry> entries = cache.get(resolvedMethod);
+        Future<Sketch> sketchFuture = getSketchFuture(new SketchKey(resolvedMethod, driverIndex, deviceIndex));
         try {
-            synchronized (entries) {
-                for (TornadoSketcherCacheEntry entry : entries) {
-                    if (entry.matchesDriverAndDevice(driverIndex, deviceIndex)) {
-                        sketch = entry.getSketchFuture().get();
-                        break;
-                    }
-                }
-            }
+            // Wait outside the lock: sketches of callees are built while building the caller
+            sketch = sketchFuture.get();
             guarantee(sketch != null, "No sketch available for %d:%d %s", driverIndex, deviceIndex, resolvedMethod.getName());
         } catch (InterruptedException | ExecutionException e) {
             logger.fatal("Failed to retrieve sketch for %d:%d %s ", driverIndex, deviceIndex, resolvedMethod.getName());
@@ -128,12 +141,70 @@ public class TornadoSketcher {
     }
 
     static void buildSketch(SketchRequest request) {
-        if (cacheContainsSketch(request.resolvedMethod, request.driverIndex, request.deviceIndex)) {
-            return;
+        SketchKey key = new SketchKey(request.resolvedMethod, request.driverIndex, request.deviceIndex);
+        synchronized (cache) {
+            if (cache.containsKey(key)) {
+                return;
+            }
+            submitSketch(key, request);
         }
-        List<TornadoSketcherCacheEntry> sketches = cache.computeIfAbsent(request.resolvedMethod, k -> Collections.synchronizedList(new ArrayList<>(TornadoVMBackendType.values().length)));
+    }
+
+    private static Future<Sketch> submitSketch(SketchKey key, SketchRequest request) {
+        cacheMisses++;
         Future<Sketch> result = getTornadoExecutor().submit(new TornadoSketcherCallable(request));
-        sketches.add(new TornadoSketcherCacheEntry(request.driverIndex, request.deviceIndex, result));
+        cache.put(key, new TornadoSketcherCacheEntry(result));
+        evictLeastRecentlyUsedSketches();
+        return result;
+    }
+
+    /**
+     * It evicts the least recently used sketches while the cache exceeds its
+     * capacity. Sketches that are still being built are not evicted.
+     */
+    private static void evictLeastRecentlyUsedSketches() {
+        Iterator<Map.Entry<SketchKey, TornadoSketcherCacheEntry>> iterator = cache.entrySet().iterator();
+        while (cache.size() > TornadoOptions.SKETCHER_CACHE_SIZE && iterator.hasNext()) {
+            Map.Entry<SketchKey, TornadoSketcherCacheEntry> entry = iterator.next();
+            if (entry.getValue().getSketchFuture().isDone()) {
+                iterator.remove();
+                cacheEvictions++;
+                logger.debug("Evicted sketch of %s", entry.getKey().resolvedMethod.getName());
+            }
+        }
+    }
+
+    /**
+     * It removes from the cache all the sketches of the methods declared by
+     * classes of the given class loader. This allows the class loader to be
+     * garbage collected when it is discarded.
+     *
+     * @param classLoader
+     *     The {@link ClassLoader} of the classes to invalidate.
+     * @return The number of sketches removed.
+     */
+    public static int invalidate(ClassLoader classLoader) {
+        synchronized (cache) {
+            int numSketches = cache.size();
+            cache.keySet().removeIf(key -> getClassLoader(key.resolvedMethod) == classLoader);
+            int numInvalidated = numSketches - cache.size();
+            cacheInvalidations += numInvalidated;
+            return numInvalidated;
+        }
+    }
+
+    private static ClassLoader getClassLoader(ResolvedJavaMethod resolvedMethod) {
+        return HotSpotJVMCIRuntime.runtime().getMirror(resolvedMethod.getDeclaringClass()).getClassLoader();
+    }
+
+    /**
+     * @return The counters of the sketch cache since the start of the
+     *     application.
+     */
+    public static CacheStatistics getCacheStatistics() {
+        synchronized (cache) {
+            return new CacheStatistics(cacheHits, cacheMisses, cacheEvictions, cacheInvalidations, cache.size());
+        }
     }
 
     @SuppressWarnings("checkstyle:LineLength")
@@ -184,7 +255,7 @@ public class TornadoSketcher {
 
             methodAccesses = highTierAccesses;
 
-            return new Sketch(graph.copy(TornadoCoreRuntime.getDebugContext()), methodAccesses, highTierContext.getBatchWriteThreadIndex());
+            return new Sketch(graph.copy(TornadoCoreRuntime.getDebugContext()), methodAccesses, highTierContext.getBatchWriteThreadIndex(), highTierContext.getElementWiseLoop());
 
         } catch (Throwable e) {
             logger.fatal("unable to build sketch for method: %s (%s)", resolvedMethod.getName(), e.getMessage());
@@ -232,27 +303,40 @@ public class TornadoSketcher {
         }
     }
 
+    private record SketchKey(ResolvedJavaMethod resolvedMethod, int driverIndex, int deviceIndex) {
+    }
+
     private static final class TornadoSketcherCacheEntry {
 
-        private final int driverIndex;
-        private final int deviceIndex;
         private final Future<Sketch> sketchFuture;
 
-        private TornadoSketcherCacheEntry(int driverIndex, int deviceIndex, Future<Sketch> sketchFuture) {
-            this.driverIndex = driverIndex;
-            this.deviceIndex = deviceIndex;
+        private TornadoSketcherCacheEntry(Future<Sketch> sketchFuture) {
             this.sketchFuture = sketchFuture;
         }
 
-        public boolean matchesDriverAndDevice(int driverIndex, int deviceIndex) {
-            return this.driverIndex == driverIndex && this.deviceIndex == deviceIndex;
-        }
-
         public Future<Sketch> getSketchFuture() {
             return sketchFuture;
         }
     }
 
+    /**
+     * Counters of the sketch cache.
+     *
+     * @param hits
+     *     Number of lookups of a sketch in the cache.
+     * @param misses
+     *     Number of sketches built, including the ones rebuilt after an
+     *     eviction.
+     * @param evictions
+     *     Number of sketches evicted from the cache.
+     * @param invalidations
+     *     Number of sketches removed by {@link #invalidate(ClassLoader)}.
+     * @param size
+     *     Number of sketches in the cache.
+     */
+    public record CacheStatistics(long hits, long misses, long evictions, long invalidations, int size) {
+    }
+
     private static class TornadoSketcherCallable implements Callable<Sketch> {
         private final SketchRequest request;
 
@@ -23,6 +23,8 @@
  */
 package uk.ac.manchester.tornado.runtime.tasks;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
@@ -34,9 +36,11 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 public class DataObjectState implements ObjectState {
 
     private ConcurrentHashMap<TornadoXPUDevice, XPUDeviceBufferState> deviceStates;
+    private ConcurrentHashMap<TornadoXPUDevice, List<XPUDeviceBufferState>> batchBufferStates;
 
     public DataObjectState() {
         deviceStates = new ConcurrentHashMap<>();
+        batchBufferStates = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -50,6 +54,42 @@ public class DataObjectState implements ObjectState {
         return deviceStates.get(device);
     }
 
+    /**
+     * It returns the state of one of the buffer sets used by a pipelined batch
+     * execution. The buffer set 0 is the default state of the object on the
+     * device. The rest of the buffer sets are created on demand.
+     *
+     * @param device
+     *     {@link TornadoDevice}
+     * @param bufferSet
+     *     Index of the buffer set.
+     * @return {@link XPUDeviceBufferState}
+     */
+    public XPUDeviceBufferState getDeviceBufferState(TornadoDevice device, int bufferSet) {
+        if (bufferSet == 0) {
+            return getDeviceBufferState(device);
+        }
+        if (!(device instanceof TornadoXPUDevice)) {
+            throw new TornadoRuntimeException("[ERROR] Device not compatible: " + device.getClass());
+        }
+        List<XPUDeviceBufferState> states = batchBufferStates.computeIfAbsent((TornadoXPUDevice) device, xpuDevice -> new ArrayList<>());
+        while (states.size() < bufferSet) {
+            states.add(new XPUDeviceBufferState());
+        }
+        return states.get(bufferSet - 1);
+    }
+
+    /**
+     * @param device
+     *     {@link TornadoDevice}
+     * @return The states of the additional buffer sets (all but the buffer set 0)
+     *     that a pipelined batch execution created for the device.
+     */
+    public List<XPUDeviceBufferState> getBatchBufferStates(TornadoDevice device) {
+        List<XPUDeviceBufferState> states = batchBufferStates.get(device);
+        return states != null ? states : List.of();
+    }
+
     @Override
     public DataObjectState clone() {
         DataObjectState dataObjectState = new DataObjectState();
@@ -64,6 +104,7 @@ public class DataObjectState implements ObjectState {
     @Override
     public void clear() {
         deviceStates.clear();
+        batchBufferStates.clear();
     }
 
     @Override
@@ -0,0 +1,436 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
+import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
+import uk.ac.manchester.tornado.api.types.arrays.CharArray;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.TornadoVMDispatcher;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.sketcher.ElementWiseLoop;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+
+/**
+ * Splits the iteration space of a single-task task-graph across multiple
+ * devices. The task must be an element-wise loop (see {@link ElementWiseLoop})
+ * bounded by the size of its arrays, as found by the sketcher, so each
+ * iteration only accesses the elements at its own index. The arrays of the task
+ * are partitioned into contiguous ranges, and each range is passed as a view to
+ * a task-graph generated for one of the devices. Scalar parameters are shared
+ * by all devices. Since the views share the memory of the original arrays, the
+ * results of each device are copied back directly in place.
+ *
+ * <p>
+ * The task is compiled for each device with the offset of its range as the
+ * batch offset. Thus, the loop indexes that are stored in the outputs (e.g.,
+ * {@code output.set(i, i)}) are global indexes, as in batch processing.
+ * </p>
+ *
+ * <p>
+ * The first partition is even. Every execution measures the time that each
+ * device takes to process its range. When the devices are unbalanced, the
+ * ranges are recomputed proportionally to the throughput of each device. The
+ * task is recompiled after each repartition, so the number of repartitions is
+ * bounded.
+ * </p>
+ */
+class DataParallelSplit {
+
+    private static final String TASK_GRAPH_PREFIX = "XXX__GENERATED_SPLIT";
+
+    /**
+     * Ranges are multiples of this number of elements, if the input is large
+     * enough.
+     */
+    private static final int GRANULARITY = 256;
+
+    /**
+     * Difference between the slowest and the fastest device (relative to the
+     * slowest one) that triggers a new partition.
+     */
+    private static final double IMBALANCE_THRESHOLD = 0.1;
+
+    /**
+     * Weight of the last measurement in the throughput of each device.
+     */
+    private static final double THROUGHPUT_SMOOTHING = 0.5;
+
+    private static final int MAX_REPARTITIONS = 4;
+
+    private static final AtomicInteger counterName = new AtomicInteger(0);
+
+    private final TornadoDevice[] devices;
+    private final TaskPackage taskPackage;
+    private final List<StreamingObject> inputModeObjects;
+    private final List<StreamingObject> outputModeObjects;
+    private final TornadoVMDispatcher dispatcher;
+    private final Set<Object> partitionedArrays;
+    private final String reasonNotEligible;
+
+    private int numElements;
+    private int[] offsets;
+    private int[] lengths;
+    private double[] throughputs;
+    private long[] partitionTimes;
+    private long totalTime;
+    private int numRepartitions;
+    private boolean warmUpExecution;
+    private List<TornadoTaskGraph> subTaskGraphs;
+
+    DataParallelSplit(TornadoDevice[] devices, List<TaskPackage> taskPackages, List<SchedulableTask> tasks, List<StreamingObject> inputModeObjects, List<StreamingObject> outputModeObjects,
+            boolean isBatchEnabled, boolean isGridSchedulerEnabled, TornadoVMDispatcher dispatcher) {
+        this.devices = devices.clone();
+        this.taskPackage = taskPackages.size() == 1 ? taskPackages.getFirst() : null;
+        this.partitionedArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.inputModeObjects = new ArrayList<>(inputModeObjects);
+        this.outputModeObjects = new ArrayList<>(outputModeObjects);
+        this.dispatcher = dispatcher;
+        this.throughputs = new double[devices.length];
+        this.partitionTimes = new long[devices.length];
+        this.reasonNotEligible = checkEligibility(tasks, isBatchEnabled, isGridSchedulerEnabled);
+        if (reasonNotEligible != null) {
+            new TornadoLogger().warn(String.format("The data-parallel split is not applicable (%s). The task-graph runs on a single device.", reasonNotEligible));
+        }
+    }
+
+    private String checkEligibility(List<SchedulableTask> tasks, boolean isBatchEnabled, boolean isGridSchedulerEnabled) {
+        if (taskPackage == null || tasks.size() != 1) {
+            return "the task-graph must contain a single task";
+        } else if (taskPackage.isPrebuiltTask()) {
+            return "pre-built tasks cannot be split";
+        } else if (isBatchEnabled) {
+            return "batch processing is enabled";
+        } else if (isGridSchedulerEnabled) {
+            return "a grid scheduler is set";
+        } else if (outputModeObjects.isEmpty()) {
+            return "the task-graph has no outputs";
+        }
+
+        numElements = -1;
+        for (StreamingObject outputObject : outputModeObjects) {
+            if (outputObject.getMode() == DataTransferMode.UNDER_DEMAND) {
+                return "outputs transferred under demand are not supported";
+            } else if (!(outputObject.getObject() instanceof TornadoNativeArray array) || !isPartitionable(array)) {
+                return "all outputs must be TornadoVM native arrays";
+            } else if (numElements != -1 && numElements != array.getSize()) {
+                return "all outputs must have the same number of elements";
+            }
+            numElements = ((TornadoNativeArray) outputObject.getObject()).getSize();
+        }
+
+        // Each view only holds the elements of its range, so every access to an array must be at the index
+        // of the parallel loop, and the loop must be bounded by the size of the (partitioned) arrays.
+        Sketch sketch = lookupSketch((CompilableTask) tasks.getFirst());
+        ElementWiseLoop elementWiseLoop = sketch.getElementWiseLoop();
+        Object[] arguments = getArguments();
+        if (elementWiseLoop == null) {
+            return "the arrays must only be accessed at the index of a single parallel loop";
+        } else if (elementWiseLoop.init() != 0 || elementWiseLoop.stride() != 1) {
+            return "the parallel loop must start at 0 with a stride of 1";
+        } else if (elementWiseLoop.boundKind() != ElementWiseLoop.BoundKind.ARRAY_SIZE || elementWiseLoop.getUpperBound(arguments) != numElements) {
+            return "the parallel loop must be bounded by the size of the outputs";
+        }
+
+        Access[] accesses = sketch.getArgumentsAccess();
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            if (argument instanceof Number) {
+                continue;
+            }
+            if (!(argument instanceof TornadoNativeArray array) || !isPartitionable(array)) {
+                return "unsupported parameter type " + argument.getClass().getSimpleName();
+            } else if (array.getSize() == numElements) {
+                partitionedArrays.add(array);
+            } else if (isOutput(array)) {
+                return "all outputs must have the same number of elements";
+            } else if (i >= accesses.length || accesses[i] != Access.NONE) {
+                return "all arrays must have the same number of elements as the outputs";
+            }
+        }
+
+        if (numElements < devices.length) {
+            return "the number of elements is lower than the number of devices";
+        }
+        return null;
+    }
+
+    private static Sketch lookupSketch(CompilableTask task) {
+        ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(task.getMethod());
+        return TornadoSketcher.lookup(resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex());
+    }
+
+    private static boolean isPartitionable(TornadoNativeArray array) {
+        return array instanceof ByteArray || array instanceof CharArray || array instanceof DoubleArray || array instanceof FloatArray //
+                || array instanceof HalfFloatArray || array instanceof IntArray || array instanceof LongArray || array instanceof ShortArray;
+    }
+
+    private static TornadoNativeArray view(TornadoNativeArray array, int offset, int length) {
+        return switch (array) {
+            case ByteArray byteArray -> byteArray.view(offset, length);
+            case CharArray charArray -> charArray.view(offset, length);
+            case DoubleArray doubleArray -> doubleArray.view(offset, length);
+            case FloatArray floatArray -> floatArray.view(offset, length);
+            case HalfFloatArray halfFloatArray -> halfFloatArray.view(offset, length);
+            case IntArray intArray -> intArray.view(offset, length);
+            case LongArray longArray -> longArray.view(offset, length);
+            case ShortArray shortArray -> shortArray.view(offset, length);
+            default -> throw new TornadoRuntimeException("[ERROR] Array type not supported for the data-parallel split: " + array.getClass().getName());
+        };
+    }
+
+    private Object[] getArguments() {
+        Object[] parameters = taskPackage.getTaskParameters();
+        return Arrays.copyOfRange(parameters, 1, parameters.length);
+    }
+
+    private boolean isOutput(Object object) {
+        return outputModeObjects.stream().anyMatch(outputObject -> outputObject.getObject() == object);
+    }
+
+    private boolean isPartitioned(Object object) {
+        return partitionedArrays.contains(object);
+    }
+
+    boolean isEligible() {
+        return reasonNotEligible == null;
+    }
+
+    boolean isSplitOn(TornadoDevice[] otherDevices) {
+        return Arrays.equals(devices, otherDevices);
+    }
+
+    List<TornadoTaskGraph> getSubTaskGraphs() {
+        return subTaskGraphs == null ? List.of() : subTaskGraphs;
+    }
+
+    /**
+     * @return Elapsed time, in nanoseconds, of the last execution across all
+     *     devices.
+     */
+    long getTotalTime() {
+        return totalTime;
+    }
+
+    int[] getPartitionLengths() {
+        return lengths.clone();
+    }
+
+    /**
+     * It computes the ranges of each device proportionally to the given weights.
+     * Each range is a multiple of the granularity, except for the last one, which
+     * takes the remaining elements.
+     */
+    private void partition(double[] weights) {
+        int numDevices = devices.length;
+        int granularity = numElements >= numDevices * GRANULARITY ? GRANULARITY : 1;
+        double totalWeight = Arrays.stream(weights).sum();
+        offsets = new int[numDevices];
+        lengths = new int[numDevices];
+        int remaining = numElements;
+        for (int i = 0; i < numDevices - 1; i++) {
+            int length = (int) Math.round(numElements * (weights[i] / totalWeight) / granularity) * granularity;
+            // Every device processes, at least, one block of elements
+            length = Math.max(granularity, Math.min(length, remaining - granularity * (numDevices - 1 - i)));
+            offsets[i] = numElements - remaining;
+            lengths[i] = length;
+            remaining -= length;
+        }
+        offsets[numDevices - 1] = numElements - remaining;
+        lengths[numDevices - 1] = remaining;
+        warmUpExecution = true;
+    }
+
+    private void buildSubTaskGraphs() {
+        subTaskGraphs = new ArrayList<>(devices.length);
+        for (int i = 0; i < devices.length; i++) {
+            subTaskGraphs.add(buildSubTaskGraph(devices[i], offsets[i], lengths[i]));
+        }
+    }
+
+    private TornadoTaskGraph buildSubTaskGraph(TornadoDevice device, int offset, int length) {
+        Map<Object, Object> views = new IdentityHashMap<>();
+        Object[] arguments = getArguments();
+        for (int i = 0; i < arguments.length; i++) {
+            if (isPartitioned(arguments[i])) {
+                arguments[i] = views.computeIfAbsent(arguments[i], array -> view((TornadoNativeArray) array, offset, length));
+            }
+        }
+
+        TornadoTaskGraph taskGraph = new TornadoTaskGraph(TASK_GRAPH_PREFIX + counterName.getAndIncrement());
+        for (StreamingObject inputObject : inputModeObjects) {
+            Object object = inputObject.getObject();
+            taskGraph.transferToDevice(inputObject.getMode(), isPartitioned(object) ? views.computeIfAbsent(object, array -> view((TornadoNativeArray) array, offset, length)) : object);
+        }
+        taskGraph.addTask(taskPackage.withArguments(arguments));
+        for (StreamingObject outputObject : outputModeObjects) {
+            taskGraph.transferToHost(outputObject.getMode(), views.get(outputObject.getObject()));
+        }
+
+        TornadoTaskGraph immutableTaskGraph = taskGraph.createImmutableTaskGraph();
+        immutableTaskGraph.setDevice(device);
+        // The loop indexes that are written into the outputs are shifted by the offset of the range,
+        // as in batch processing.
+        immutableTaskGraph.apply(task -> setRangeOffset(task, offset));
+        return immutableTaskGraph;
+    }
+
+    private static void setRangeOffset(SchedulableTask task, int offset) {
+        if (offset > 0) {
+            task.setBatchNumber(1);
+            task.setBatchSize(offset);
+        }
+    }
+
+    /**
+     * It runs the task on all devices concurrently and waits for the results.
+     * Then, it updates the throughput of each device, and it repartitions the
+     * arrays if the execution is unbalanced.
+     *
+     * @param executorFrame
+     *     {@link ExecutorFrame} of the original task-graph.
+     */
+    void execute(ExecutorFrame executorFrame) {
+        if (subTaskGraphs == null) {
+            double[] evenWeights = new double[devices.length];
+            Arrays.fill(evenWeights, 1.0);
+            partition(evenWeights);
+            buildSubTaskGraphs();
+        }
+
+        long start = System.nanoTime();
+        runSubTaskGraphs(executorFrame.getExecutionPlanId(), executorFrame.getProfilerMode());
+        totalTime = System.nanoTime() - start;
+
+        if (warmUpExecution) {
+            // The first execution of each partition includes the JIT compilation
+            warmUpExecution = false;
+            return;
+        }
+        updateThroughputs();
+        if (numRepartitions < MAX_REPARTITIONS && isUnbalanced()) {
+            numRepartitions++;
+            new TornadoLogger().debug("Data-parallel split rebalanced across %d devices: %s", devices.length, Arrays.toString(throughputs));
+            releaseSubTaskGraphs();
+            partition(throughputs);
+            buildSubTaskGraphs();
+        }
+    }
+
+    private void runSubTaskGraphs(long executionPlanId, ProfilerMode profilerMode) {
+        ExecutorService executor = dispatcher.getExecutor(devices.length);
+        List<Future<?>> futures = new ArrayList<>(devices.length);
+        for (int i = 0; i < devices.length; i++) {
+            final int deviceIndex = i;
+            final TornadoTaskGraph taskGraph = subTaskGraphs.get(i);
+            futures.add(executor.submit(() -> {
+                ExecutorFrame executorFrame = new ExecutorFrame(executionPlanId);
+                executorFrame.setProfilerMode(profilerMode);
+                long start = System.nanoTime();
+                taskGraph.execute(executorFrame).waitOn();
+                partitionTimes[deviceIndex] = System.nanoTime() - start;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof TornadoBailoutRuntimeException) {
+                throw new TornadoBailoutRuntimeException(e.getMessage());
+            } else if (cause instanceof TornadoRuntimeException) {
+                throw new TornadoRuntimeException(e);
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void updateThroughputs() {
+        for (int i = 0; i < devices.length; i++) {
+            double throughput = (double) lengths[i] / Math.max(1, partitionTimes[i]);
+            throughputs[i] = throughputs[i] == 0 ? throughput : THROUGHPUT_SMOOTHING * throughput + (1 - THROUGHPUT_SMOOTHING) * throughputs[i];
+        }
+    }
+
+    private boolean isUnbalanced() {
+        long slowest = Arrays.stream(partitionTimes).max().orElse(0);
+        long fastest = Arrays.stream(partitionTimes).min().orElse(0);
+        return slowest > 0 && (double) (slowest - fastest) / slowest > IMBALANCE_THRESHOLD;
+    }
+
+    private void releaseSubTaskGraphs() {
+        if (subTaskGraphs == null) {
+            return;
+        }
+        for (TornadoTaskGraph taskGraph : subTaskGraphs) {
+            taskGraph.freeDeviceMemory();
+            taskGraph.close();
+        }
+        subTaskGraphs = null;
+    }
+
+    void freeDeviceMemory() {
+        if (subTaskGraphs != null) {
+            subTaskGraphs.forEach(TornadoTaskGraph::freeDeviceMemory);
+        }
+    }
+
+    void close() {
+        releaseSubTaskGraphs();
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Cost model used by the {@link uk.ac.manchester.tornado.api.Policy#COST_MODEL}
+ * policy of the dynamic reconfiguration. Instead of running a task-graph on
+ * every device to find the fastest one, it predicts the execution time of the
+ * task-graph on each device and runs it only on the device with the lowest
+ * prediction.
+ *
+ * <p>
+ * Task-graphs are identified by a signature built from the methods of their
+ * tasks. For each signature and device, the model keeps the most recent
+ * execution times and fits a power law between the size of the input data and
+ * the execution time ({@code time = a * size^b}) with least squares in log-log
+ * space. When a task-graph has never run on a device, the prediction is taken
+ * from the task-graph with the closest code features (see
+ * {@link uk.ac.manchester.tornado.runtime.profiler.ProfilerCodeFeatures}) that
+ * ran on that device, scaled by the ratio between both task-graphs on a device
+ * in which both ran. Devices without any prediction are explored first, and
+ * a random device is explored with a small probability
+ * ({@code -Dtornado.dr.exploration}) to keep the model up to date.
+ * </p>
+ *
+ * <p>
+ * The history is stored in the file given by {@code -Dtornado.dr.history}
+ * when the JVM exits, and it is loaded the first time the policy is used.
+ * </p>
+ */
+public final class DeviceCostModel {
+
+    private static final String HEADER = "# TornadoVM device cost model v1";
+    private static final String TIME = "time";
+    private static final String FEATURES = "features";
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * Number of execution times kept for each signature and device.
+     */
+    private static final int MAX_SAMPLES = 32;
+
+    /**
+     * Bounds of the exponent of the power law. The time of a task-graph does not
+     * decrease with the input size, and it is assumed to grow at most
+     * quadratically.
+     */
+    private static final double MIN_EXPONENT = 0.0;
+    private static final double MAX_EXPONENT = 2.0;
+
+    private static final TornadoLogger logger = new TornadoLogger(DeviceCostModel.class);
+
+    private static DeviceCostModel instance;
+
+    private final Path path;
+    private final double explorationRate;
+    private final SplittableRandom random;
+    private final Map<String, Map<String, Samples>> history = new LinkedHashMap<>();
+    private final Map<String, double[]> features = new HashMap<>();
+    private int explorations;
+
+    /**
+     * Execution times of a task-graph on a device. They are stored as the
+     * logarithm of the input size and of the time, in a circular buffer.
+     */
+    private static final class Samples {
+        private final double[] logSizes = new double[MAX_SAMPLES];
+        private final double[] logTimes = new double[MAX_SAMPLES];
+        private int count;
+        private int next;
+
+        void add(long sizeBytes, long timeNs) {
+            logSizes[next] = Math.log(Math.max(1, sizeBytes));
+            logTimes[next] = Math.log(Math.max(1, timeNs));
+            next = (next + 1) % MAX_SAMPLES;
+            count = Math.min(count + 1, MAX_SAMPLES);
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        double predict(long sizeBytes) {
+            double meanSize = 0;
+            double meanTime = 0;
+            for (int i = 0; i < count; i++) {
+                meanSize += logSizes[i];
+                meanTime += logTimes[i];
+            }
+            meanSize /= count;
+            meanTime /= count;
+
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < count; i++) {
+                covariance += (logSizes[i] - meanSize) * (logTimes[i] - meanTime);
+                variance += (logSizes[i] - meanSize) * (logSizes[i] - meanSize);
+            }
+            // With a single input size, the time is assumed to grow linearly
+            double exponent = (variance < 1e-9) ? 1.0 : Math.clamp(covariance / variance, MIN_EXPONENT, MAX_EXPONENT);
+            return Math.exp(meanTime + exponent * (Math.log(Math.max(1, sizeBytes)) - meanSize));
+        }
+    }
+
+    public DeviceCostModel(Path path, double explorationRate, long seed) {
+        this.path = path;
+        this.explorationRate = explorationRate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * It returns the cost model of the JVM. The history is loaded from
+     * {@code -Dtornado.dr.history} the first time this method is called, and it
+     * is saved when the JVM exits.
+     *
+     * @return {@link DeviceCostModel}
+     */
+    public static synchronized DeviceCostModel getInstance() {
+        if (instance == null) {
+            instance = new DeviceCostModel(Paths.get(TornadoOptions.DR_COST_MODEL_HISTORY), TornadoOptions.DR_COST_MODEL_EXPLORATION, System.nanoTime());
+            if (Files.isRegularFile(instance.path)) {
+                try {
+                    instance.load();
+                } catch (IOException e) {
+                    logger.warn("Ignoring the history of the cost model %s: %s", instance.path, e.getMessage());
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::saveQuietly, "TornadoVM device cost model"));
+        }
+        return instance;
+    }
+
+    /**
+     * It computes the size, in bytes, of the data of a task-graph. It is used as
+     * the input size of the model.
+     *
+     * @param objects
+     *     Parameters of the tasks.
+     * @return Total number of bytes of the arrays.
+     */
+    static long getSizeBytes(Iterable<Object> objects) {
+        long size = 0;
+        for (Object object : objects) {
+            if (object instanceof TornadoNativeArray nativeArray) {
+                size += nativeArray.getNumBytesOfSegment();
+            } else if (object != null && object.getClass().isArray()) {
+                Class<?> componentType = object.getClass().getComponentType();
+                int elementSize = (componentType == long.class || componentType == double.class) ? 8 : (componentType == short.class || componentType == char.class) ? 2 : (componentType == byte.class || componentType == boolean.class) ? 1 : 4;
+                size += (long) Array.getLength(object) * elementSize;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * It selects the device in which a task-graph runs.
+     *
+     * @param signature
+     *     Signature of the task-graph.
+     * @param devices
+     *     Names of the candidate devices.
+     * @param sizeBytes
+     *     Size of the input data.
+     * @return Index of the selected device within {@code devices}.
+     */
+    public synchronized int selectDevice(String signature, String[] devices, long sizeBytes) {
+        double[] predictions = new double[devices.length];
+        int best = -1;
+        for (int i = 0; i < devices.length; i++) {
+            OptionalDouble prediction = predict(signature, devices[i], sizeBytes);
+            if (prediction.isEmpty()) {
+                // Nothing is known about the device: explore it
+                explorations++;
+                return i;
+            }
+            predictions[i] = prediction.getAsDouble();
+            if (best == -1 || predictions[i] < predictions[best]) {
+                best = i;
+            }
+        }
+
+        if (devices.length > 1 && random.nextDouble() < explorationRate) {
+            explorations++;
+            int other = random.nextInt(devices.length - 1);
+            return (other >= best) ? other + 1 : other;
+        }
+        return best;
+    }
+
+    /**
+     * It predicts the execution time of a task-graph on a device.
+     *
+     * @param signature
+     *     Signature of the task-graph.
+     * @param device
+     *     Name of the device.
+     * @param sizeBytes
+     *     Size of the input data.
+     * @return The predicted time in nanoseconds, or an empty value if there is
+     *     not enough history.
+     */
+    public synchronized OptionalDouble predict(String signature, String device, long sizeBytes) {
+        Samples samples = getSamples(signature, device);
+        if (samples != null) {
+            return OptionalDouble.of(samples.predict(sizeBytes));
+        }
+        return predictFromClosestTaskGraph(signature, device, sizeBytes);
+    }
+
+    private Samples getSamples(String signature, String device) {
+        Map<String, Samples> devices = history.get(signature);
+        Samples samples = (devices != null) ? devices.get(device) : null;
+        return (samples != null && !samples.isEmpty()) ? samples : null;
+    }
+
+    private OptionalDouble predictFromClosestTaskGraph(String signature, String device, long sizeBytes) {
+        double[] codeFeatures = features.get(signature);
+        if (codeFeatures == null) {
+            return OptionalDouble.empty();
+        }
+        String closest = null;
+        double minDistance = Double.MAX_VALUE;
+        for (Map.Entry<String, double[]> entry : features.entrySet()) {
+            if (entry.getKey().equals(signature) || getSamples(entry.getKey(), device) == null) {
+                continue;
+            }
+            double distance = distance(codeFeatures, entry.getValue());
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = entry.getKey();
+            }
+        }
+        if (closest == null) {
+            return OptionalDouble.empty();
+        }
+
+        double prediction = getSamples(closest, device).predict(sizeBytes);
+
+        // Scale the prediction by the relative cost of both task-graphs on a device in which both ran
+        Map<String, Samples> devices = history.get(signature);
+        if (devices != null) {
+            for (Map.Entry<String, Samples> entry : devices.entrySet()) {
+                Samples closestSamples = getSamples(closest, entry.getKey());
+                if (!entry.getValue().isEmpty() && closestSamples != null) {
+                    return OptionalDouble.of(prediction * entry.getValue().predict(sizeBytes) / closestSamples.predict(sizeBytes));
+                }
+            }
+        }
+        return OptionalDouble.of(prediction);
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double distance = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            double difference = Math.log1p(a[i]) - Math.log1p(b[i]);
+            distance += difference * difference;
+        }
+        return distance;
+    }
+
+    /**
+     * It records the execution time of a task-graph on a device.
+     *
+     * @param signature
+     *     Signature of the task-graph.
+     * @param device
+     *     Name of the device.
+     * @param sizeBytes
+     *     Size of the input data.
+     * @param timeNs
+     *     Execution time in nanoseconds.
+     */
+    public synchronized void record(String signature, String device, long sizeBytes, long timeNs) {
+        history.computeIfAbsent(signature, k -> new LinkedHashMap<>()).computeIfAbsent(device, k -> new Samples()).add(sizeBytes, timeNs);
+    }
+
+    /**
+     * It sets the code features of a task-graph. They are used to predict the
+     * time on devices in which the task-graph did not run.
+     *
+     * @param signature
+     *     Signature of the task-graph.
+     * @param codeFeatures
+     *     Values of the code features.
+     */
+    public synchronized void setFeatures(String signature, double[] codeFeatures) {
+        features.put(signature, codeFeatures.clone());
+    }
+
+    /**
+     * @return Number of times a device was selected to explore it, instead of the
+     *     device with the lowest predicted time.
+     */
+    public synchronized int getExplorations() {
+        return explorations;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            logger.error("Unable to write the history of the cost model %s: %s", path, e.getMessage());
+        }
+    }
+
+    /**
+     * It writes the history to disk. The file is written to a temporary file
+     * first and then moved, so a concurrent reader never sees a partial file.
+     *
+     * @throws IOException
+     *     if the file cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, double[]> entry : features.entrySet()) {
+                String values = Arrays.stream(entry.getValue()).mapToObj(Double::toString).collect(Collectors.joining(","));
+                writer.write(String.join(SEPARATOR, FEATURES, entry.getKey(), values));
+                writer.newLine();
+            }
+            for (Map.Entry<String, Map<String, Samples>> graph : history.entrySet()) {
+                for (Map.Entry<String, Samples> device : graph.getValue().entrySet()) {
+                    Samples samples = device.getValue();
+                    // Oldest samples first, so they are replaced first when the file is loaded
+                    for (int i = 0; i < samples.count; i++) {
+                        int index = (samples.next - samples.count + i + MAX_SAMPLES) % MAX_SAMPLES;
+                        long sizeBytes = Math.round(Math.exp(samples.logSizes[index]));
+                        long timeNs = Math.round(Math.exp(samples.logTimes[index]));
+                        writer.write(String.join(SEPARATOR, TIME, graph.getKey(), device.getKey(), Long.toString(sizeBytes), Long.toString(timeNs)));
+                        writer.newLine();
+                    }
+                }
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * It loads the history from disk.
+     *
+     * @throws IOException
+     *     if the file cannot be read or it is not a valid history.
+     */
+    public synchronized void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException("Invalid header: " + line);
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] tokens = line.split(SEPARATOR);
+                switch (tokens[0]) {
+                    case FEATURES -> {
+                        checkTokens(line, tokens, 3);
+                        features.put(tokens[1], Arrays.stream(tokens[2].split(",")).mapToDouble(Double::parseDouble).toArray());
+                    }
+                    case TIME -> {
+                        checkTokens(line, tokens, 5);
+                        record(tokens[1], tokens[2], Long.parseLong(tokens[3]), Long.parseLong(tokens[4]));
+                    }
+                    case "" -> {
+                    }
+                    default -> throw new IOException("Invalid line: " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkTokens(String line, String[] tokens, int expected) throws IOException {
+        if (tokens.length != expected) {
+            throw new IOException("Invalid line: " + line);
+        }
+    }
+}
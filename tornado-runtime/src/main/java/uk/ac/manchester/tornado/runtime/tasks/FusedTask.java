@@ -0,0 +1,240 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.util.List;
+import java.util.Objects;
+
+import jdk.vm.ci.meta.Local;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * A group of element-wise tasks of a task-graph that is compiled into a single
+ * kernel (see {@link uk.ac.manchester.tornado.runtime.graph.TaskFusion}). The
+ * kernel is compiled from the composition of the sketches of the tasks, and
+ * its parameters are the objects and scalar values passed to the tasks,
+ * without the intermediate arrays that are only used inside the kernel.
+ */
+public class FusedTask implements SchedulableTask {
+
+    private final List<CompilableTask> tasks;
+    private final Object[] args;
+    private final Access[] argumentsAccess;
+    private final Sketch sketch;
+    private final Local[] kernelParameters;
+    private final String entryPoint;
+    private TaskDataContext meta;
+    protected long batchThreads;
+    protected int batchNumber;
+    protected long batchSize;
+
+    private TornadoProfiler profiler;
+    private boolean forceCompiler;
+
+    public FusedTask(ScheduleContext scheduleMeta, String id, List<CompilableTask> tasks, Object[] args, Access[] access, Sketch sketch, Local[] kernelParameters) {
+        this.tasks = tasks;
+        this.args = args;
+        this.argumentsAccess = access;
+        this.sketch = sketch;
+        this.kernelParameters = kernelParameters;
+        this.entryPoint = String.join("_", tasks.stream().map(task -> task.getMethod().getName()).toList());
+        meta = new TaskDataContext(scheduleMeta, id, access.length);
+        meta.setArgumentsAccess(access);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append("task: ").append(entryPoint).append("()\n");
+        for (int i = 0; i < args.length; i++) {
+            sb.append(String.format("arg  : [%s] %s\n", argumentsAccess[i], args[i]));
+        }
+
+        sb.append("meta : ").append(meta.toString());
+
+        return sb.toString();
+    }
+
+    /**
+     * @return The tasks of the group, in the order in which they are launched.
+     */
+    public List<CompilableTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * @return The composed {@link Sketch} of the tasks of the group.
+     */
+    public Sketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * @return The name and type of each parameter of the kernel, in the order of
+     *     {@link #getArguments()}.
+     */
+    public Local[] getKernelParameters() {
+        return kernelParameters;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return args;
+    }
+
+    @Override
+    public Access[] getArgumentsAccess() {
+        return argumentsAccess;
+    }
+
+    @Override
+    public TaskDataContext meta() {
+        return meta;
+    }
+
+    @Override
+    public void setDevice(TornadoDevice device) {
+        meta.setDevice(device);
+    }
+
+    @Override
+    public TornadoXPUDevice getDevice() {
+        return meta.getXPUDevice();
+    }
+
+    @Override
+    public String getFullName() {
+        return "task - " + meta.getId() + "[" + entryPoint + "]";
+    }
+
+    @Override
+    public String getNormalizedName() {
+        return meta.getId() + "." + entryPoint;
+    }
+
+    @Override
+    public String getTaskName() {
+        return entryPoint;
+    }
+
+    @Override
+    public String getId() {
+        return meta.getId();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof FusedTask other) {
+            return getId().equals(other.getId());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 71 * hash + Objects.hashCode(getId());
+        hash = 71 * hash + Objects.hashCode(this.entryPoint);
+        return hash;
+    }
+
+    @Override
+    public long getBatchThreads() {
+        return batchThreads;
+    }
+
+    @Override
+    public void setBatchThreads(long batchThreads) {
+        this.batchThreads = batchThreads;
+    }
+
+    @Override
+    public void setBatchNumber(int batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+
+    @Override
+    public int getBatchNumber() {
+        return this.batchNumber;
+    }
+
+    @Override
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void attachProfiler(TornadoProfiler tornadoProfiler) {
+        this.profiler = tornadoProfiler;
+    }
+
+    @Override
+    public TornadoProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    @Override
+    public void forceCompilation() {
+        this.forceCompiler = true;
+    }
+
+    @Override
+    public boolean shouldCompile() {
+        return forceCompiler;
+    }
+
+    @Override
+    public void enableDefaultThreadScheduler(boolean useDefaultScheduler) {
+        meta.enableDefaultThreadScheduler(useDefaultScheduler);
+    }
+
+    @Override
+    public void setUseGridScheduler(boolean use) {
+        meta.setUseGridScheduler(use);
+    }
+
+    @Override
+    public void setGridScheduler(GridScheduler gridScheduler) {
+        meta.setGridScheduler(gridScheduler);
+    }
+
+    @Override
+    public boolean isGridSchedulerEnabled() {
+        return meta.isGridSchedulerEnabled();
+    }
+}
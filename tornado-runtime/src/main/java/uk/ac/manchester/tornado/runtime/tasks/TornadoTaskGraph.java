@@ -36,18 +36,23 @@ import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -95,6 +100,8 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDynamicReconfigurationException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
@@ -106,6 +113,7 @@ import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
+import uk.ac.manchester.tornado.runtime.TornadoVMDispatcher;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
 import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis;
 import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
@@ -117,11 +125,14 @@ import uk.ac.manchester.tornado.runtime.common.TornadoVMClient;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+import uk.ac.manchester.tornado.runtime.graph.TaskFusion;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeBuilder;
 import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.FeatureExtractionUtilities;
+import uk.ac.manchester.tornado.runtime.profiler.ProfilerCodeFeatures;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
@@ -170,6 +181,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     // HashMap to keep an instance of the TornadoVM per Device
     private Map<TornadoXPUDevice, TornadoVM> vmTable;
+
+    // Java threads to run the interpreters concurrently. Shared by all TornadoVM instances
+    private final TornadoVMDispatcher dispatcher;
     private Event event;
     private String taskGraphName;
     private List<TaskPackage> taskPackages;
@@ -188,6 +202,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerOutputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, TaskGraph> taskGraphIndex = new ConcurrentHashMap<>();
+    private final BitSet costModelWarmDevices = new BitSet();
     private StringBuilder bufferLogProfiler = new StringBuilder();
     private Graph compilationGraph;
     /**
@@ -195,6 +210,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
      */
     private boolean reduceExpressionRewritten = false;
     private ReduceTaskGraph reduceTaskGraph;
+    private DataParallelSplit dataParallelSplit;
     private boolean reduceAnalysis = false;
     private TornadoProfiler timeProfiler;
     private boolean updateData;
@@ -204,10 +220,20 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private ProfilerMode profilerMode;
 
     private boolean isConcurrentDevicesEnabled;
+
+    private boolean traceExecution;
     private long executionPlanId;
     private boolean bailout;
     private Access[] accesses;
 
+    // Background compilation of a task-graph recorded in the warm-up manifest
+    private ExecutorFrame precompilationFrame;
+    private Future<?> precompilation;
+
+    // Set when the last execution ran the Java code of the tasks on the host
+    private boolean executedOnHostTier;
+    private static final AtomicLong hostTierExecutions = new AtomicLong();
+
     /**
      * Task Schedule implementation that uses GPU/FPGA and multicore backends. This constructor must be public. It is invoked using the reflection API.
      *
@@ -223,6 +249,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         event = null;
         this.taskGraphName = taskScheduleName;
         vmTable = new HashMap<>();
+        dispatcher = new TornadoVMDispatcher();
         argumentsLookUp = new HashSet<>();
         taskPackages = new ArrayList<>();
         streamOutObjects = new ArrayList<>();
@@ -389,6 +416,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void useDefaultThreadScheduler(boolean use) {
+        awaitPrecompilation();
         executionContext.setDefaultThreadScheduler(use);
     }
 
@@ -424,11 +452,12 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         newTaskGraph.analysisTaskGraph = this.analysisTaskGraph;
         newTaskGraph.highLevelCode = this.highLevelCode;
 
-        newTaskGraph.timeProfiler = this.timeProfiler;
+        // Profilers keep the metrics across executions, so they are not shared
+        newTaskGraph.timeProfiler = (this.timeProfiler instanceof TimeProfiler) ? new TimeProfiler() : this.timeProfiler;
         newTaskGraph.gridScheduler = this.gridScheduler;
 
         // Pass the profiler to the execution context
-        newTaskGraph.executionContext.withProfiler(timeProfiler);
+        newTaskGraph.executionContext.withProfiler(newTaskGraph.timeProfiler);
 
         // The graph object is used when rewriting task-graphs (e.g., reductions)
         newTaskGraph.compilationGraph = this.compilationGraph;
@@ -438,6 +467,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void enableProfiler(ProfilerMode profilerMode) {
+        awaitPrecompilation();
         this.profilerMode = profilerMode;
         TornadoOptions.TORNADO_PROFILER = true;
         if (profilerMode == ProfilerMode.SILENT) {
@@ -452,6 +482,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void disableProfiler() {
+        awaitPrecompilation();
         TornadoOptions.TORNADO_PROFILER = false;
         TornadoOptions.TORNADO_PROFILER_LOG = false;
         this.timeProfiler = null;
@@ -460,38 +491,46 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void withConcurrentDevices() {
+        awaitPrecompilation();
         this.isConcurrentDevicesEnabled = true;
     }
 
     @Override
     public void withoutConcurrentDevices() {
+        awaitPrecompilation();
         this.isConcurrentDevicesEnabled = false;
     }
 
     @Override
     public void withThreadInfo() {
+        awaitPrecompilation();
         meta().enableThreadInfo();
     }
 
     @Override
     public void withoutThreadInfo() {
+        awaitPrecompilation();
         meta().disableThreadInfo();
     }
 
     @Override
     public void withPrintKernel() {
+        awaitPrecompilation();
         meta().enablePrintKernel();
     }
 
     @Override
     public void withoutPrintKernel() {
+        awaitPrecompilation();
         meta().disablePrintKernel();
     }
 
     @Override
     public void withGridScheduler(GridScheduler gridScheduler) {
+        awaitPrecompilation();
         this.gridScheduler = gridScheduler;
         checkGridSchedulerNames();
+        schedulePrecompilation();
     }
 
     @Override
@@ -506,11 +545,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags) {
+        awaitPrecompilation();
         executionContext.meta().setCompilerFlags(backendType, compilerFlags);
     }
 
     @Override
     public void mapOnDeviceMemoryRegion(Object destArray, Object srcArray, long offset, TornadoTaskGraphInterface taskGraphSrc) {
+        awaitPrecompilation();
 
         TornadoTaskGraph graphSrc = (TornadoTaskGraph) taskGraphSrc;
         Access objectAccessSrc = graphSrc.getObjectAccess(srcArray);
@@ -541,6 +582,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void updateObjectAccess() {
+        awaitPrecompilation();
         // iterate over stream-in and stream-out objects and, if the mode is UNDER_DEMAND, update their Access to READ-WRITE
         HashMap<Object, Access> objectAccesses = executionContext.getObjectsAccesses();
 
@@ -608,6 +650,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void setDevice(TornadoDevice device) {
+        awaitPrecompilation();
 
         TornadoDevice oldDevice = meta().getXPUDevice();
 
@@ -647,6 +690,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             task.meta().resetThreadBlocks();
         }
 
+        schedulePrecompilation();
     }
 
     private void reuseDeviceBuffersForSameDevice(TornadoDevice device) {
@@ -688,6 +732,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void setDevice(String taskName, TornadoDevice device) {
+        awaitPrecompilation();
 
         TornadoDevice oldDevice = meta().getXPUDevice();
 
@@ -722,6 +767,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             task.meta().resetThreadBlocks();
         }
 
+        schedulePrecompilation();
     }
 
     @Override
@@ -821,7 +867,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.limit(hlBuffer.position());
 
-        final TornadoGraph tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, buffer);
+        // Groups of element-wise tasks that are compiled into a single kernel
+        executionContext.setTaskFusion(TornadoOptions.TASK_FUSION ? TaskFusion.analyze(executionContext, gridScheduler) : null);
+        final ByteBuffer code = (executionContext.getTaskFusion() != null) ? executionContext.getTaskFusion().rewrite(buffer) : buffer;
+
+        final TornadoGraph tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, code);
 
         if (setNewDevice) {
             // setNewDevice does not need to propagate any further as executionContext is
@@ -830,7 +880,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
 
         // TornadoVM byte-code generation
-        TornadoVM tornadoVM = new TornadoVM(executionContext, tornadoGraph, timeProfiler);
+        TornadoVM tornadoVM = new TornadoVM(executionContext, tornadoGraph, timeProfiler, dispatcher);
 
         if (meta().isDebug()) {
             executionContext.dumpExecutionContextMeta();
@@ -904,6 +954,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             TornadoVM tornadoVM = compileGraphAndBuildVM(compileInfo.updateDevice);
             vmTable.put(meta().getXPUDevice(), tornadoVM);
             timeProfiler.stop(ProfilerType.TOTAL_BYTE_CODE_GENERATION);
+            WarmUpManifest.record(WarmUpManifest.describe(taskGraphName, executionContext, gridScheduler));
         }
         executionContext.addLastDevice(meta().getXPUDevice());
 
@@ -956,6 +1007,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             return;
         }
 
+        TornadoSketcher.CacheStatistics sketchCacheStatistics = TornadoSketcher.getCacheStatistics();
+        timeProfiler.setTimer(ProfilerType.SKETCH_CACHE_HITS, sketchCacheStatistics.hits());
+        timeProfiler.setTimer(ProfilerType.SKETCH_CACHE_MISSES, sketchCacheStatistics.misses());
+        timeProfiler.setTimer(ProfilerType.SKETCH_CACHE_EVICTIONS, sketchCacheStatistics.evictions());
+
         if (!TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
             timeProfiler.dumpJson(new StringBuilder(), this.getId());
         } else {
@@ -1002,7 +1058,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
 
         try {
-            event = vm.execute(isConcurrentDevicesEnabled, timeProfiler);
+            event = vm.execute(isConcurrentDevicesEnabled, timeProfiler, traceExecution);
             timeProfiler.stop(ProfilerType.TOTAL_TASK_GRAPH_TIME);
             updateProfiler();
         } catch (TornadoBailoutRuntimeException e) {
@@ -1045,6 +1101,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void clearProfiles() {
+        awaitPrecompilation();
         vm.clearProfiles();
     }
 
@@ -1193,6 +1250,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void warmup(ExecutorFrame executionPackage) {
+        awaitPrecompilation();
+        precompilationFrame = null;
+        compileAndInstall(executionPackage);
+
+        if (TornadoOptions.isProfilerEnabled() && !TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
+            timeProfiler.dumpJson(new StringBuilder(), this.getId());
+        }
+    }
+
+    private void compileAndInstall(ExecutorFrame executionPackage) {
         setupProfiler();
         getDevice().getDeviceContext().setResetToFalse();
         timeProfiler.clean();
@@ -1201,12 +1268,54 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         executionPlanId = executionPackage.getExecutionPlanId();
         executionContext.setExecutionPlanId(executionPlanId);
         vm.warmup();
+    }
 
-        if (TornadoOptions.isProfilerEnabled() && !TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
-            timeProfiler.dumpJson(new StringBuilder(), this.getId());
+    @Override
+    public void precompile(ExecutorFrame executionPackage) {
+        if (WarmUpManifest.isReplayEnabled()) {
+            precompilationFrame = executionPackage;
+            schedulePrecompilation();
         }
     }
 
+    /**
+     * It starts compiling the task-graph in the background if its current
+     * configuration is recorded in the warm-up manifest. The configuration is
+     * checked again every time it changes (e.g., when a device or a worker grid
+     * is set), until the task-graph is compiled or executed for the first time.
+     */
+    private void schedulePrecompilation() {
+        if (precompilationFrame == null || precompilation != null || vm != null) {
+            return;
+        }
+        if (WarmUpManifest.contains(WarmUpManifest.describe(taskGraphName, executionContext, gridScheduler))) {
+            final ExecutorFrame executionPackage = precompilationFrame;
+            precompilation = TornadoCoreRuntime.getTornadoTaskGraphCompilerExecutor().submit(() -> {
+                compileAndInstall(executionPackage);
+                WarmUpManifest.precompiled();
+            });
+        }
+    }
+
+    /**
+     * It waits for the background compilation of the task-graph, if any, before
+     * its state is updated or it is executed. A failed background compilation is
+     * not reported here: the compilation is retried when the task-graph runs.
+     */
+    private void awaitPrecompilation() {
+        if (precompilation == null) {
+            return;
+        }
+        try {
+            precompilation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            new TornadoLogger().debug("Background compilation of %s failed: %s", taskGraphName, e.getCause());
+        }
+        precompilation = null;
+    }
+
     private Access getObjectAccess(Object object) {
         boolean isRead = false;
         boolean isWrite = false;
@@ -1261,7 +1370,18 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void freeDeviceMemory() {
+        awaitPrecompilation();
         free();
+        if (dataParallelSplit != null) {
+            dataParallelSplit.freeDeviceMemory();
+        }
+    }
+
+    @Override
+    public void close() {
+        awaitPrecompilation();
+        closeDataParallelSplit();
+        dispatcher.close();
     }
 
     private void free() {
@@ -1300,6 +1420,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (deviceBufferState.hasObjectBuffer()) {
             device.deallocate(deviceBufferState);
         }
+        // Buffers of the additional buffer sets used by pipelined batches
+        for (XPUDeviceBufferState batchBufferState : dataObjectState.getBatchBufferStates(device)) {
+            batchBufferState.setLockBuffer(false);
+            if (batchBufferState.hasObjectBuffer()) {
+                device.deallocate(batchBufferState);
+            }
+        }
     }
 
     private void syncField(Object object) {
@@ -1321,7 +1448,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final TornadoXPUDevice device = meta().getXPUDevice();
         final XPUDeviceBufferState deviceState = dataObjectState.getDeviceBufferState(device);
         if (deviceState.isLockedBuffer()) {
-            return device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, 0, deviceState, null));
+            Event event = device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, 0, deviceState, null));
+            deviceState.updatedHostObject(object, true);
+            return event;
         }
         return null;
     }
@@ -1334,7 +1463,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final XPUDeviceBufferState deviceState = dataObjectState.getDeviceBufferState(device);
         deviceState.setPartialCopySize(partialCopySize);
         if (deviceState.isLockedBuffer()) {
-            return device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, offset, deviceState, null));
+            Event event = device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, offset, deviceState, null));
+            deviceState.updatedHostObject(object, false);
+            return event;
         }
         return null;
     }
@@ -1347,7 +1478,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final XPUDeviceBufferState deviceBufferState = dataObjectState.getDeviceBufferState(device);
         if (deviceBufferState.isLockedBuffer()) {
             deviceBufferState.getXPUBuffer().setSizeSubRegion(bufferSize);
-            return device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, hostOffset, deviceBufferState, null));
+            Event event = device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, hostOffset, deviceBufferState, null));
+            deviceBufferState.updatedHostObject(object, false);
+            return event;
         }
         return null;
     }
@@ -1394,7 +1527,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void syncRuntimeTransferToHost(Object... objects) {
-        if (vm == null) {
+        if (vm == null || executedOnHostTier) {
             return;
         }
 
@@ -1442,7 +1575,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void syncRuntimeTransferToHost(Object object, long offset, long partialCopySize) {
 
-        if (vm == null) {
+        if (vm == null || executedOnHostTier) {
             return;
         }
 
@@ -1579,9 +1712,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private void setupProfiler() {
+        // The profiler is reused across executions, so the latency histograms
+        // accumulate the values of all executions
         if (isProfilerEnabled()) {
-            this.timeProfiler = new TimeProfiler();
-        } else {
+            if (!(timeProfiler instanceof TimeProfiler)) {
+                this.timeProfiler = new TimeProfiler();
+            }
+        } else if (!(timeProfiler instanceof EmptyProfiler)) {
             this.timeProfiler = new EmptyProfiler();
         }
         executionContext.withProfiler(timeProfiler);
@@ -1650,6 +1787,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private TornadoTaskGraphInterface executeWithDynamicReconfiguration(ExecutorFrame executorFrame) {
+        if (executorFrame.getDynamicReconfigurationPolicy() == Policy.COST_MODEL) {
+            // The task-graph runs on a single device in both modes
+            return scheduleDynamicReconfigurationWithCostModel();
+        }
         return switch (executorFrame.getDRMode()) {
             case SERIAL -> scheduleDynamicReconfigurationSequential(executorFrame.getDynamicReconfigurationPolicy());
             case PARALLEL -> scheduleDynamicReconfigurationParallel(executorFrame.getDynamicReconfigurationPolicy());
@@ -1657,15 +1798,102 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         };
     }
 
+    private TornadoTaskGraphInterface executeWithDataParallelSplit(ExecutorFrame executorFrame) {
+        TornadoDevice[] devices = executorFrame.getDataParallelDevices();
+        if (dataParallelSplit == null || !dataParallelSplit.isSplitOn(devices)) {
+            closeDataParallelSplit();
+            dataParallelSplit = new DataParallelSplit(devices, taskPackages, executionContext.getTasks(), inputModesObjects, outputModeObjects, batchSizeBytes != -1, gridScheduler != null, dispatcher);
+        }
+        if (!dataParallelSplit.isEligible()) {
+            return execute();
+        }
+        isFinished = false;
+        dataParallelSplit.execute(executorFrame);
+        isFinished = true;
+        return this;
+    }
+
+    private void closeDataParallelSplit() {
+        if (dataParallelSplit != null) {
+            dataParallelSplit.close();
+            dataParallelSplit = null;
+        }
+    }
+
+    private boolean isDataParallelSplitActive() {
+        return dataParallelSplit != null && dataParallelSplit.isEligible();
+    }
+
     @Override
     public TornadoTaskGraphInterface execute(ExecutorFrame executorFrame) {
+        if (executorFrame.isTieredExecution() && executeOnHostTier(executorFrame)) {
+            return this;
+        }
+        executedOnHostTier = false;
+        awaitPrecompilation();
+        precompilationFrame = null;
         executionPlanId = executorFrame.getExecutionPlanId();
         checkProfilerOn(executorFrame);
+        traceExecution = executorFrame.isTraceExecution();
+        final long traceStart = traceExecution ? System.nanoTime() : 0;
+        TornadoTaskGraphInterface taskGraph;
         if (executorFrame.getDynamicReconfigurationPolicy() == null) {
-            return execute();
+            taskGraph = executorFrame.getDataParallelDevices() == null ? execute() : executeWithDataParallelSplit(executorFrame);
         } else {
-            return executeWithDynamicReconfiguration(executorFrame);
+            taskGraph = executeWithDynamicReconfiguration(executorFrame);
+        }
+        if (traceExecution) {
+            ChromeEventTracer.enqueueEventIfEnabled(taskGraphName, "taskgraph", traceStart, System.nanoTime(), "executionPlan", executionPlanId);
+        }
+        return taskGraph;
+    }
+
+    /**
+     * Tiered execution: the first execution starts compiling the task-graph in
+     * the background, and the executions run the Java code of the tasks on the
+     * host until the compilation finishes.
+     *
+     * @return {@code true} if the task-graph was executed on the host.
+     */
+    private boolean executeOnHostTier(ExecutorFrame executorFrame) {
+        if (precompilation == null) {
+            if (vm != null || !isTieredExecutionEligible(executorFrame)) {
+                return false;
+            }
+            executionPlanId = executorFrame.getExecutionPlanId();
+            // The profiler is set before the compilation starts, as the results of the host executions query it
+            checkProfilerOn(executorFrame);
+            setupProfiler();
+            precompilation = TornadoCoreRuntime.getTornadoTaskGraphCompilerExecutor().submit(() -> compileAndInstall(executorFrame));
+        } else if (precompilation.isDone()) {
+            return false;
         }
+        isFinished = false;
+        runAllTasksJavaSequential();
+        executedOnHostTier = true;
+        hostTierExecutions.incrementAndGet();
+        isFinished = true;
+        return true;
+    }
+
+    private boolean isTieredExecutionEligible(ExecutorFrame executorFrame) {
+        if (bailout || batchSizeBytes != -1 || executorFrame.getDynamicReconfigurationPolicy() != null || executorFrame.getDataParallelDevices() != null) {
+            return false;
+        }
+        for (TaskPackage taskPackage : taskPackages) {
+            if (taskPackage.isPrebuiltTask() || Arrays.stream(taskPackage.getTaskParameters()).anyMatch(KernelContext.class::isInstance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of executions of task-graphs that ran on the host while
+     *     the tasks were compiled for the device.
+     */
+    public static long getNumberOfHostTierExecutions() {
+        return hostTierExecutions.get();
     }
 
     private boolean isTaskNamePresent(String taskName) {
@@ -2297,6 +2525,89 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return this;
     }
 
+    /**
+     * The signature of the task-graph for the cost model. It identifies the
+     * task-graph by the methods of its tasks, so it does not change across runs.
+     */
+    private String getCostModelSignature() {
+        StringBuilder signature = new StringBuilder();
+        for (TaskPackage taskPackage : taskPackages) {
+            Method method = TaskUtils.resolveMethodHandle(taskPackage.getTaskParameters()[0]);
+            signature.append(method.toGenericString()).append(";");
+        }
+        return signature.toString();
+    }
+
+    /**
+     * It adds the code features of all tasks. The features are only available
+     * after the tasks are compiled with the feature extraction enabled.
+     *
+     * @return The code features, or {@code null} if they are not available.
+     */
+    private double[] getCostModelCodeFeatures() {
+        double[] codeFeatures = new double[ProfilerCodeFeatures.values().length];
+        for (TaskPackage taskPackage : taskPackages) {
+            Method method = TaskUtils.resolveMethodHandle(taskPackage.getTaskParameters()[0]);
+            Map<ProfilerCodeFeatures, Integer> taskFeatures = FeatureExtractionUtilities.getFeatures(method.getDeclaringClass().getName(), method.getName());
+            if (taskFeatures == null) {
+                return null;
+            }
+            taskFeatures.forEach((feature, value) -> codeFeatures[feature.ordinal()] += value);
+        }
+        return codeFeatures;
+    }
+
+    private List<Object> getCostModelArguments() {
+        Set<Object> arguments = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TaskPackage taskPackage : taskPackages) {
+            Object[] parameters = taskPackage.getTaskParameters();
+            arguments.addAll(Arrays.asList(parameters).subList(1, parameters.length));
+        }
+        return new ArrayList<>(arguments);
+    }
+
+    private TornadoTaskGraphInterface scheduleDynamicReconfigurationWithCostModel() {
+        DeviceCostModel costModel = DeviceCostModel.getInstance();
+        String signature = getCostModelSignature();
+        double[] codeFeatures = getCostModelCodeFeatures();
+        if (codeFeatures != null) {
+            costModel.setFeatures(signature, codeFeatures);
+        }
+
+        // The last device is the Java sequential code
+        TornadoBackend backend = TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX);
+        int numDevices = backend.getNumDevices();
+        String[] deviceNames = new String[numDevices + 1];
+        for (int i = 0; i < numDevices; i++) {
+            TornadoDevice device = backend.getDevice(i);
+            deviceNames[i] = device.getTornadoVMBackend() + ":" + device.getPhysicalDevice().getDeviceName();
+        }
+        deviceNames[numDevices] = "JAVA";
+
+        long sizeBytes = DeviceCostModel.getSizeBytes(getCostModelArguments());
+        int deviceIndex = costModel.selectDevice(signature, deviceNames, sizeBytes);
+
+        final long start = System.nanoTime();
+        if (deviceIndex == numDevices) {
+            runSequential();
+        } else {
+            runTaskGraphParallelSelected(deviceIndex);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        // The first execution on each device includes the JIT compilation
+        if (costModelWarmDevices.get(deviceIndex)) {
+            costModel.record(signature, deviceNames[deviceIndex], sizeBytes, elapsed);
+        } else {
+            costModelWarmDevices.set(deviceIndex);
+        }
+
+        if (DEBUG) {
+            System.out.println("[Cost model] " + taskGraphName + " on " + deviceNames[deviceIndex] + ": " + elapsed + " ns for " + sizeBytes + " bytes");
+        }
+        return this;
+    }
+
     private void addInner(int index, int type, Method method, ScheduleContext meta, String id, Object[] parameters) {
         switch (type) {
             case 0:
@@ -2487,19 +2798,27 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     @Override
-    public void withBatch(String batchSize) {
+    public void withBatch(String batchSize, int numBufferSets) {
+        awaitPrecompilation();
+        if (numBufferSets < 1) {
+            throw new TornadoRuntimeException("[ERROR] The number of buffer sets for batch processing must be at least 1. Received: " + numBufferSets);
+        }
         this.batchSizeBytes = parseSizeToBytes(batchSize);
         executionContext.setBatchSize(this.batchSizeBytes);
+        executionContext.setNumBatchBufferSets(numBufferSets);
+        schedulePrecompilation();
     }
 
     @Override
     public void withMemoryLimit(String memoryLimit) {
+        awaitPrecompilation();
         this.memoryLimitSizeBytes = parseSizeToBytes(memoryLimit);
         executionContext.setExecutionPlanMemoryLimit(this.memoryLimitSizeBytes);
     }
 
     @Override
     public void withoutMemoryLimit() {
+        awaitPrecompilation();
         executionContext.setExecutionPlanMemoryLimit(TornadoExecutionContext.INIT_VALUE);
     }
 
@@ -2581,6 +2900,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             case TOTAL_TASK_GRAPH_TIME -> reduceTaskGraph.getExecutionResult().getProfilerResult().getTotalTime();
             case TOTAL_COPY_IN_SIZE_BYTES -> reduceTaskGraph.getExecutionResult().getProfilerResult().getTotalBytesCopyIn();
             case TOTAL_COPY_OUT_SIZE_BYTES -> reduceTaskGraph.getExecutionResult().getProfilerResult().getTotalBytesCopyOut();
+            case TOTAL_COPY_IN_SKIPPED_SIZE_BYTES -> reduceTaskGraph.getExecutionResult().getProfilerResult().getTotalBytesCopyInSkipped();
             case ALLOCATION_BYTES -> reduceTaskGraph.getExecutionResult().getProfilerResult().getTotalDeviceMemoryUsage();
             default -> 0L;
         };
@@ -2598,14 +2918,29 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             case TOTAL_TASK_GRAPH_TIME -> timeProfiler.getTimer(ProfilerType.TOTAL_TASK_GRAPH_TIME);
             case TOTAL_COPY_IN_SIZE_BYTES -> timeProfiler.getSize(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES);
             case TOTAL_COPY_OUT_SIZE_BYTES -> timeProfiler.getSize(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES);
+            case TOTAL_COPY_IN_SKIPPED_SIZE_BYTES -> timeProfiler.getSize(ProfilerType.TOTAL_COPY_IN_SKIPPED_SIZE_BYTES);
             case ALLOCATION_BYTES -> timeProfiler.getSize(ProfilerType.ALLOCATION_BYTES);
             default -> 0L;
         };
     }
 
+    private long getProfilerValueFromDataParallelSplit(ProfilerType profilerType) {
+        if (profilerType == ProfilerType.TOTAL_TASK_GRAPH_TIME) {
+            // The devices run concurrently
+            return dataParallelSplit.getTotalTime();
+        }
+        long value = 0;
+        for (TornadoTaskGraph subTaskGraph : dataParallelSplit.getSubTaskGraphs()) {
+            value += subTaskGraph.getProfilerValue(profilerType);
+        }
+        return value;
+    }
+
     private long getProfilerValue(ProfilerType profilerType) {
         if (reduceTaskGraph != null) {
             return getProfilerValueFromReduceTaskGraph(profilerType);
+        } else if (isDataParallelSplitActive()) {
+            return getProfilerValueFromDataParallelSplit(profilerType);
         } else {
             return __getProfilerValue(profilerType);
         }
@@ -2626,6 +2961,26 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return getProfilerValue(TOTAL_COPY_OUT_SIZE_BYTES);
     }
 
+    @Override
+    public long getTotalBytesCopyInSkipped() {
+        return getProfilerValue(ProfilerType.TOTAL_COPY_IN_SKIPPED_SIZE_BYTES);
+    }
+
+    @Override
+    public LatencyHistogram getLatencyHistogram(ProfilerType type) {
+        if (isDataParallelSplitActive()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (TornadoTaskGraph subTaskGraph : dataParallelSplit.getSubTaskGraphs()) {
+                LatencyHistogram subHistogram = subTaskGraph.getLatencyHistogram(type);
+                if (subHistogram != null) {
+                    histogram.add(subHistogram);
+                }
+            }
+            return histogram;
+        }
+        return timeProfiler != null ? timeProfiler.getLatencyHistogram(type) : null;
+    }
+
     boolean isProfilerEnabled() {
         return (getProfilerMode() != null || TornadoOptions.isProfilerEnabled());
     }
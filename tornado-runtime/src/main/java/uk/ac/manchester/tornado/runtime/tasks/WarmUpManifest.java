@@ -0,0 +1,387 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getTornadoExecutor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.runtime.TornadoAcceleratorBackend;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
+import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
+
+/**
+ * Manifest of the task-graph configurations compiled by TornadoVM during a
+ * run. Each entry describes a task-graph by its name, the batch size and, for
+ * each task, the device it runs on, the Java method it compiles and its worker
+ * grid.
+ *
+ * <p>
+ * When {@code -Dtornado.warmup.manifest.record=true} is set, the entries are
+ * written to the file given by {@code -Dtornado.warmup.manifest} when the JVM
+ * exits. On the next start, the manifest is replayed in two steps:
+ * <ul>
+ * <li>At start-up, the sketches of all recorded methods are built on the
+ * TornadoVM executor threads.</li>
+ * <li>When an execution plan is created for a task-graph whose configuration
+ * matches an entry, the task-graph is compiled in the background, as
+ * {@code withWarmUp()} does. The first execution waits for it to finish.</li>
+ * </ul>
+ * </p>
+ */
+public final class WarmUpManifest {
+
+    private static final String HEADER = "# TornadoVM warm-up manifest v1";
+    private static final String GRAPH = "graph";
+    private static final String TASK = "task";
+    private static final String END = "end";
+    private static final String NO_GRID = "-";
+    private static final String SEPARATOR = "\t";
+
+    private static final TornadoLogger logger = new TornadoLogger(WarmUpManifest.class);
+
+    private static final Set<GraphEntry> recordedGraphs = new LinkedHashSet<>();
+    private static Set<GraphEntry> replayedGraphs = Collections.emptySet();
+
+    private static int sketchesSubmitted;
+    private static int precompiledGraphs;
+
+    static {
+        if (TornadoOptions.WARMUP_MANIFEST_RECORD) {
+            if (TornadoOptions.WARMUP_MANIFEST == null) {
+                logger.info("tornado.warmup.manifest is not set. The warm-up manifest will not be recorded");
+            } else {
+                Runtime.getRuntime().addShutdownHook(new Thread(WarmUpManifest::save, "TornadoVM warm-up manifest"));
+            }
+        }
+    }
+
+    private WarmUpManifest() {
+    }
+
+    /**
+     * Description of a task within a recorded task-graph.
+     *
+     * @param taskId
+     *     Name of the task.
+     * @param backendIndex
+     *     Index of the backend the task is compiled for.
+     * @param deviceIndex
+     *     Index of the device within the backend.
+     * @param declaringClass
+     *     Binary name of the class that declares the method of the task.
+     * @param methodName
+     *     Name of the method of the task.
+     * @param descriptor
+     *     Method descriptor of the method of the task.
+     * @param grid
+     *     Global and local work of the worker grid, or {@code -} if the task
+     *     does not use a worker grid.
+     */
+    public record TaskEntry(String taskId, int backendIndex, int deviceIndex, String declaringClass, String methodName, String descriptor, String grid) {
+    }
+
+    /**
+     * Description of a task-graph configuration.
+     *
+     * @param taskGraphName
+     *     Name of the task-graph.
+     * @param batchSize
+     *     Batch size in bytes, or -1 if the task-graph does not run in batches.
+     * @param tasks
+     *     Description of the compilable tasks of the task-graph.
+     */
+    public record GraphEntry(String taskGraphName, long batchSize, List<TaskEntry> tasks) {
+    }
+
+    /**
+     * Statistics of the warm-up manifest in the current run.
+     *
+     * @param recordedGraphs
+     *     Number of task-graph configurations compiled and recorded.
+     * @param replayedGraphs
+     *     Number of task-graph configurations loaded from the manifest.
+     * @param sketchesSubmitted
+     *     Number of sketches submitted at start-up from the manifest.
+     * @param precompiledGraphs
+     *     Number of task-graphs compiled in the background.
+     */
+    public record Statistics(int recordedGraphs, int replayedGraphs, int sketchesSubmitted, int precompiledGraphs) {
+    }
+
+    /**
+     * It builds the description of the current configuration of a task-graph.
+     * Prebuilt tasks are not part of the description, since they are not
+     * compiled by TornadoVM.
+     */
+    static GraphEntry describe(String taskGraphName, TornadoExecutionContext executionContext, GridScheduler gridScheduler) {
+        List<TaskEntry> tasks = new ArrayList<>();
+        for (int i = 0; i < executionContext.getTaskCount(); i++) {
+            if (executionContext.getTask(i) instanceof CompilableTask task) {
+                Method method = task.getMethod();
+                String descriptor = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+                WorkerGrid workerGrid = gridScheduler != null ? gridScheduler.get(task.getId()) : null;
+                tasks.add(new TaskEntry(task.getId(), task.meta().getBackendIndex(), task.meta().getDeviceIndex(), method.getDeclaringClass().getName(), method.getName(), descriptor, describeGrid(
+                        workerGrid)));
+            }
+        }
+        return new GraphEntry(taskGraphName, executionContext.getBatchSize(), List.copyOf(tasks));
+    }
+
+    private static String describeGrid(WorkerGrid workerGrid) {
+        if (workerGrid == null) {
+            return NO_GRID;
+        }
+        String local = workerGrid.getLocalWork() != null ? join(workerGrid.getLocalWork()) : NO_GRID;
+        return join(workerGrid.getGlobalWork()) + "/" + local;
+    }
+
+    private static String join(long[] values) {
+        return Arrays.stream(values).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    static void record(GraphEntry graphEntry) {
+        if (!TornadoOptions.WARMUP_MANIFEST_RECORD || graphEntry.tasks().isEmpty()) {
+            return;
+        }
+        synchronized (recordedGraphs) {
+            recordedGraphs.add(graphEntry);
+        }
+    }
+
+    static boolean isReplayEnabled() {
+        synchronized (recordedGraphs) {
+            return !replayedGraphs.isEmpty();
+        }
+    }
+
+    static boolean contains(GraphEntry graphEntry) {
+        synchronized (recordedGraphs) {
+            return replayedGraphs.contains(graphEntry);
+        }
+    }
+
+    static void precompiled() {
+        synchronized (recordedGraphs) {
+            precompiledGraphs++;
+        }
+    }
+
+    public static Statistics getStatistics() {
+        synchronized (recordedGraphs) {
+            return new Statistics(recordedGraphs.size(), replayedGraphs.size(), sketchesSubmitted, precompiledGraphs);
+        }
+    }
+
+    /**
+     * It writes the task-graph configurations compiled so far to the file given
+     * by {@code -Dtornado.warmup.manifest}.
+     */
+    public static void save() {
+        if (TornadoOptions.WARMUP_MANIFEST == null) {
+            return;
+        }
+        List<GraphEntry> graphs;
+        synchronized (recordedGraphs) {
+            graphs = new ArrayList<>(recordedGraphs);
+        }
+        try {
+            write(Paths.get(TornadoOptions.WARMUP_MANIFEST), graphs);
+        } catch (IOException e) {
+            logger.error("Unable to write the warm-up manifest %s: %s", TornadoOptions.WARMUP_MANIFEST, e.getMessage());
+        }
+    }
+
+    static void write(Path path, List<GraphEntry> graphs) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (GraphEntry graph : graphs) {
+                writer.write(String.join(SEPARATOR, GRAPH, graph.taskGraphName(), Long.toString(graph.batchSize())));
+                writer.newLine();
+                for (TaskEntry task : graph.tasks()) {
+                    writer.write(String.join(SEPARATOR, TASK, task.taskId(), task.backendIndex() + ":" + task.deviceIndex(), task.declaringClass(), task.methodName(), task.descriptor(), task.grid()));
+                    writer.newLine();
+                }
+                writer.write(END);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * It reads a warm-up manifest.
+     *
+     * @param path
+     *     Path of the manifest.
+     * @return The task-graph configurations of the manifest.
+     * @throws IOException
+     *     if the file cannot be read or it is not a valid manifest.
+     */
+    public static List<GraphEntry> read(Path path) throws IOException {
+        List<GraphEntry> graphs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException("Invalid warm-up manifest header: " + line);
+            }
+            String graphName = null;
+            long batchSize = 0;
+            List<TaskEntry> tasks = new ArrayList<>();
+            while ((line = reader.readLine()) != null) {
+                String[] tokens = line.split(SEPARATOR);
+                switch (tokens[0]) {
+                    case GRAPH -> {
+                        checkTokens(line, tokens, 3);
+                        graphName = tokens[1];
+                        batchSize = Long.parseLong(tokens[2]);
+                        tasks = new ArrayList<>();
+                    }
+                    case TASK -> {
+                        checkTokens(line, tokens, 7);
+                        String[] device = tokens[2].split(":");
+                        tasks.add(new TaskEntry(tokens[1], Integer.parseInt(device[0]), Integer.parseInt(device[1]), tokens[3], tokens[4], tokens[5], tokens[6]));
+                    }
+                    case END -> {
+                        if (graphName == null) {
+                            throw new IOException("Unexpected end of task-graph in the warm-up manifest");
+                        }
+                        graphs.add(new GraphEntry(graphName, batchSize, List.copyOf(tasks)));
+                        graphName = null;
+                    }
+                    case "" -> {
+                    }
+                    default -> throw new IOException("Invalid line in the warm-up manifest: " + line);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid warm-up manifest: " + e.getMessage(), e);
+        }
+        return graphs;
+    }
+
+    private static void checkTokens(String line, String[] tokens, int expected) throws IOException {
+        if (tokens.length != expected) {
+            throw new IOException("Invalid line in the warm-up manifest: " + line);
+        }
+    }
+
+    /**
+     * It loads the manifest given by {@code -Dtornado.warmup.manifest}, if it
+     * exists, and submits the sketches of the recorded methods to the TornadoVM
+     * executor. The task-graphs are compiled later, when an execution plan is
+     * created for them.
+     */
+    public static void replay() {
+        if (TornadoOptions.WARMUP_MANIFEST == null) {
+            return;
+        }
+        Path path = Paths.get(TornadoOptions.WARMUP_MANIFEST);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        List<GraphEntry> graphs;
+        try {
+            graphs = read(path);
+        } catch (IOException e) {
+            logger.error("Ignoring the warm-up manifest %s: %s", path, e.getMessage());
+            return;
+        }
+        synchronized (recordedGraphs) {
+            replayedGraphs = Set.copyOf(graphs);
+        }
+        getTornadoExecutor().execute(() -> submitSketches(graphs));
+    }
+
+    private static void submitSketches(List<GraphEntry> graphs) {
+        Set<String> submitted = new LinkedHashSet<>();
+        for (GraphEntry graph : graphs) {
+            for (TaskEntry task : graph.tasks()) {
+                submitSketch(task, task.backendIndex(), task.deviceIndex(), submitted);
+                // Tasks are first sketched for the default device when they are added to the task-graph
+                submitSketch(task, TornadoOptions.DEFAULT_BACKEND_INDEX, TornadoOptions.DEFAULT_DEVICE_INDEX, submitted);
+            }
+        }
+    }
+
+    private static void submitSketch(TaskEntry task, int backendIndex, int deviceIndex, Set<String> submitted) {
+        if (!submitted.add(task.declaringClass() + "." + task.methodName() + task.descriptor() + "@" + backendIndex + ":" + deviceIndex)) {
+            return;
+        }
+        TornadoCoreRuntime runtime = TornadoCoreRuntime.getTornadoRuntime();
+        if (backendIndex >= runtime.getNumBackends() || deviceIndex >= runtime.getBackend(backendIndex).getNumDevices()) {
+            logger.debug("Device %d:%d of the warm-up manifest is not available", backendIndex, deviceIndex);
+            return;
+        }
+        Method method = findMethod(task);
+        if (method == null) {
+            return;
+        }
+        TornadoAcceleratorBackend backend = runtime.getBackend(backendIndex);
+        ResolvedJavaMethod resolvedMethod = runtime.resolveMethod(method);
+        new SketchRequest(resolvedMethod, backend.getProviders(), backend.getSuitesProvider().getGraphBuilderSuite(), backend.getSuitesProvider().getSketchTier(), backendIndex, deviceIndex).run();
+        synchronized (recordedGraphs) {
+            sketchesSubmitted++;
+        }
+    }
+
+    private static Method findMethod(TaskEntry task) {
+        try {
+            // Do not initialise the class: its static initialisers belong to the application
+            Class<?> klass = Class.forName(task.declaringClass(), false, ClassLoader.getSystemClassLoader());
+            for (Method method : klass.getDeclaredMethods()) {
+                if (method.getName().equals(task.methodName()) && MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString().equals(task.descriptor())) {
+                    return method;
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("Unable to load %s from the warm-up manifest: %s", task.declaringClass(), e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Empirical tuner of the local work sizes (block dimensions in CUDA) of the
+ * kernels, used when {@code -Dtornado.autotune=True}.
+ *
+ * <p>
+ * The first executions of a kernel with a given global work size explore a
+ * set of candidate local work sizes: powers of two that divide the global work
+ * size and fit on the device, starting with the one selected by the scheduler
+ * of the backend and followed by the closest ones. Each execution runs the
+ * next candidate and reports the kernel time measured with the events of the
+ * device. After {@code -Dtornado.autotune.iterations} executions, or when all
+ * candidates were measured, the fastest candidate is used for the rest of the
+ * run.
+ * </p>
+ *
+ * <p>
+ * The winners are identified by the kernel signature (name and hash of the
+ * generated code), the device and the global work size. They are stored in the
+ * file given by {@code -Dtornado.autotune.db} when the JVM exits, and they are
+ * loaded the first time a kernel is tuned, so later runs do not explore again.
+ * </p>
+ */
+public final class WorkGroupTuner {
+
+    private static final String HEADER = "# TornadoVM work-group tuning database v1";
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * Candidates smaller than a warp are only explored when the global work size
+     * is smaller than a warp.
+     */
+    private static final long MIN_GROUP_SIZE = 32;
+
+    private static final TornadoLogger logger = new TornadoLogger(WorkGroupTuner.class);
+
+    private static WorkGroupTuner instance;
+
+    private final Path path;
+    private final int maxIterations;
+    private final Map<String, long[]> winners = new LinkedHashMap<>();
+    private final Map<String, Search> searches = new HashMap<>();
+
+    /**
+     * Exploration of the candidate local work sizes of a kernel. It does not
+     * depend on the device, so it can be driven by a simulated cost function.
+     */
+    public static final class Search {
+        private final List<long[]> candidates;
+        private final long[] times;
+        private int next;
+
+        public Search(List<long[]> candidates) {
+            if (candidates.isEmpty()) {
+                throw new IllegalArgumentException("No candidate local work sizes");
+            }
+            this.candidates = candidates;
+            this.times = new long[candidates.size()];
+        }
+
+        /**
+         * @return The local work size for the next execution: the next candidate to
+         *     measure, or the fastest candidate once the search is done.
+         */
+        public long[] nextCandidate() {
+            return isDone() ? getBest() : candidates.get(next);
+        }
+
+        /**
+         * It records the time of an execution. Times of other local work sizes than
+         * the one returned by {@link #nextCandidate()} are ignored.
+         *
+         * @param localWork
+         *     Local work size used by the execution.
+         * @param timeNs
+         *     Kernel time in nanoseconds.
+         */
+        public void report(long[] localWork, long timeNs) {
+            if (!isDone() && Arrays.equals(candidates.get(next), localWork)) {
+                times[next++] = timeNs;
+            }
+        }
+
+        public boolean isDone() {
+            return next == candidates.size();
+        }
+
+        /**
+         * @return The fastest candidate measured so far, or the first candidate if
+         *     none was measured.
+         */
+        public long[] getBest() {
+            int best = 0;
+            for (int i = 1; i < next; i++) {
+                if (times[i] < times[best]) {
+                    best = i;
+                }
+            }
+            return candidates.get(best);
+        }
+    }
+
+    public WorkGroupTuner(Path path, int maxIterations) {
+        this.path = path;
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
+    /**
+     * It returns the tuner of the JVM. The database is loaded from
+     * {@code -Dtornado.autotune.db} the first time this method is called, and it is
+     * saved when the JVM exits.
+     *
+     * @return {@link WorkGroupTuner}
+     */
+    public static synchronized WorkGroupTuner getInstance() {
+        if (instance == null) {
+            instance = new WorkGroupTuner(Paths.get(TornadoOptions.WORKGROUP_AUTOTUNE_DB), TornadoOptions.WORKGROUP_AUTOTUNE_ITERATIONS);
+            if (Files.isRegularFile(instance.path)) {
+                try {
+                    instance.load();
+                } catch (IOException e) {
+                    logger.warn("Ignoring the work-group tuning database %s: %s", instance.path, e.getMessage());
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::saveQuietly, "TornadoVM work-group tuner"));
+        }
+        return instance;
+    }
+
+    /**
+     * It builds the signature of a kernel. The hash of the code is part of the
+     * signature, so a kernel is tuned again when its code changes.
+     *
+     * @param name
+     *     Name of the kernel.
+     * @param code
+     *     Generated code of the kernel.
+     * @return Signature of the kernel.
+     */
+    public static String getKernelSignature(String name, byte[] code) {
+        return name + "-" + Integer.toHexString(Arrays.hashCode(code));
+    }
+
+    /**
+     * It checks whether the result of a kernel is independent of its local work
+     * size. Kernels that use local memory, barriers, atomics or work-group
+     * built-ins (e.g., reductions) are not tuned.
+     *
+     * @param code
+     *     Generated code of the kernel.
+     * @param markers
+     *     Keywords of the backend that make the kernel depend on the local work
+     *     size.
+     * @return True if the kernel can be tuned.
+     */
+    public static boolean isTunable(byte[] code, String[] markers) {
+        String source = new String(code);
+        return Arrays.stream(markers).noneMatch(source::contains);
+    }
+
+    /**
+     * It computes the candidate local work sizes of a kernel, ordered by their
+     * distance to the default local work size. The default is always the first
+     * candidate.
+     *
+     * @param globalWork
+     *     Global work size.
+     * @param defaultLocalWork
+     *     Local work size selected by the scheduler of the backend.
+     * @param maxWorkItemSizes
+     *     Maximum local work size of each dimension.
+     * @param maxWorkGroupSize
+     *     Maximum number of threads of a work-group.
+     * @param dims
+     *     Number of dimensions.
+     * @return List of candidates, each one with {@code dims} elements.
+     */
+    public static List<long[]> getCandidates(long[] globalWork, long[] defaultLocalWork, long[] maxWorkItemSizes, long maxWorkGroupSize, int dims) {
+        long totalGlobal = 1;
+        List<long[]> candidates = new ArrayList<>();
+        candidates.add(new long[0]);
+        for (int i = 0; i < dims; i++) {
+            totalGlobal *= globalWork[i];
+            List<long[]> extended = new ArrayList<>();
+            for (long size = 1; size <= Math.min(globalWork[i], maxWorkItemSizes[i]); size <<= 1) {
+                if (globalWork[i] % size == 0) {
+                    for (long[] prefix : candidates) {
+                        long[] candidate = Arrays.copyOf(prefix, i + 1);
+                        candidate[i] = size;
+                        extended.add(candidate);
+                    }
+                }
+            }
+            candidates = extended;
+        }
+
+        final long minGroupSize = Math.min(MIN_GROUP_SIZE, totalGlobal);
+        final long[] defaults = Arrays.copyOf(defaultLocalWork, dims);
+        List<long[]> result = candidates.stream() //
+                .filter(c -> !Arrays.equals(c, defaults)) //
+                .filter(c -> Arrays.stream(c).reduce(1, (a, b) -> a * b) <= maxWorkGroupSize) //
+                .filter(c -> Arrays.stream(c).reduce(1, (a, b) -> a * b) >= minGroupSize) //
+                .sorted(Comparator.comparingDouble(c -> distance(c, defaults))) //
+                .collect(Collectors.toCollection(ArrayList::new));
+        result.add(0, defaults);
+        return result;
+    }
+
+    private static double distance(long[] a, long[] b) {
+        double distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Math.abs(Math.log(a[i]) - Math.log(Math.max(1, b[i])));
+        }
+        return distance;
+    }
+
+    private static String getKey(String kernel, String device, long[] globalWork, int dims) {
+        return String.join(SEPARATOR, kernel, device, join(Arrays.copyOf(globalWork, dims)));
+    }
+
+    private static String join(long[] values) {
+        return Arrays.stream(values).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    /**
+     * It selects the local work size of the next execution of a kernel.
+     *
+     * @param kernel
+     *     Signature of the kernel.
+     * @param device
+     *     Name of the device.
+     * @param globalWork
+     *     Global work size.
+     * @param defaultLocalWork
+     *     Local work size selected by the scheduler of the backend.
+     * @param maxWorkItemSizes
+     *     Maximum local work size of each dimension.
+     * @param maxWorkGroupSize
+     *     Maximum number of threads of a work-group.
+     * @param dims
+     *     Number of dimensions.
+     * @return Local work size with {@code dims} elements.
+     */
+    public synchronized long[] getLocalWork(String kernel, String device, long[] globalWork, long[] defaultLocalWork, long[] maxWorkItemSizes, long maxWorkGroupSize, int dims) {
+        String key = getKey(kernel, device, globalWork, dims);
+        long[] winner = winners.get(key);
+        if (winner != null) {
+            return winner;
+        }
+        return searches.computeIfAbsent(key, k -> {
+            List<long[]> candidates = getCandidates(globalWork, defaultLocalWork, maxWorkItemSizes, maxWorkGroupSize, dims);
+            return new Search(new ArrayList<>(candidates.subList(0, Math.min(maxIterations, candidates.size()))));
+        }).nextCandidate();
+    }
+
+    /**
+     * @return True if the executions of the kernel with the given global work size
+     *     are still being measured.
+     */
+    public synchronized boolean isExploring(String kernel, String device, long[] globalWork, int dims) {
+        return searches.containsKey(getKey(kernel, device, globalWork, dims));
+    }
+
+    /**
+     * It records the time of an execution of a kernel. When all candidates are
+     * measured, the fastest one is stored in the database.
+     *
+     * @param kernel
+     *     Signature of the kernel.
+     * @param device
+     *     Name of the device.
+     * @param globalWork
+     *     Global work size.
+     * @param localWork
+     *     Local work size used by the execution.
+     * @param dims
+     *     Number of dimensions.
+     * @param timeNs
+     *     Kernel time in nanoseconds.
+     */
+    public synchronized void record(String kernel, String device, long[] globalWork, long[] localWork, int dims, long timeNs) {
+        String key = getKey(kernel, device, globalWork, dims);
+        Search search = searches.get(key);
+        if (search == null) {
+            return;
+        }
+        search.report(Arrays.copyOf(localWork, dims), timeNs);
+        if (search.isDone()) {
+            winners.put(key, search.getBest());
+            searches.remove(key);
+        }
+    }
+
+    /**
+     * @return Number of kernel configurations with a selected local work size.
+     */
+    public synchronized int getNumberOfTunedKernels() {
+        return winners.size();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            logger.error("Unable to write the work-group tuning database %s: %s", path, e.getMessage());
+        }
+    }
+
+    /**
+     * It writes the selected local work sizes to disk. The file is written to a
+     * temporary file first and then moved, so a concurrent reader never sees a
+     * partial file.
+     *
+     * @throws IOException
+     *     if the file cannot be written.
+     */
+    public synchronized void save() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, long[]> entry : winners.entrySet()) {
+                writer.write(String.join(SEPARATOR, entry.getKey(), join(entry.getValue())));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * It loads the selected local work sizes from disk.
+     *
+     * @throws IOException
+     *     if the file cannot be read or it is not a valid database.
+     */
+    public synchronized void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException("Invalid header: " + line);
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] tokens = line.split(SEPARATOR);
+                if (tokens.length != 4) {
+                    throw new IOException("Invalid line: " + line);
+                }
+                long[] localWork = Arrays.stream(tokens[3].split(",")).mapToLong(Long::parseLong).toArray();
+                winners.put(String.join(SEPARATOR, tokens[0], tokens[1], tokens[2]), localWork);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + e.getMessage(), e);
+        }
+    }
+}
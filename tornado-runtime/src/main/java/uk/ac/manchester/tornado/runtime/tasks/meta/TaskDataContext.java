@@ -57,6 +57,7 @@ public class TaskDataContext extends AbstractRTContext {
     private long[] globalWork;
     private long[] localWork;
     private boolean localWorkDefined;
+    private int localMemoryTileSize;
     private boolean globalWorkDefined;
 
     public TaskDataContext(ScheduleContext scheduleMetaData, String taskID, int numParameters) {
@@ -231,6 +232,21 @@ public class TaskDataContext extends AbstractRTContext {
         localWorkDefined = true;
     }
 
+    /**
+     * It returns the size of the tiles that the last compiled kernel of the task
+     * stages in local memory, or 0 if the kernel is not tiled. A tiled kernel must
+     * be launched with work-groups of {@code tileSize x tileSize} threads.
+     *
+     * @return int
+     */
+    public int getLocalMemoryTileSize() {
+        return localMemoryTileSize;
+    }
+
+    public void setLocalMemoryTileSize(int tileSize) {
+        localMemoryTileSize = tileSize;
+    }
+
     @Override
     public int getOpenCLGpuBlock2DX() {
         return isOpenclGpuBlock2DXDefined() ? super.getOpenCLGpuBlock2DX() : scheduleMetaData.getOpenCLGpuBlock2DX();
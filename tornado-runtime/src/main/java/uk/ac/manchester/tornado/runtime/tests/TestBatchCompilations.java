@@ -0,0 +1,109 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInterpreter;
+
+/**
+ * Test for the compilation of batch kernels. It runs a task that writes its
+ * loop index into the output over ten chunks, the last one smaller than the
+ * others, and it checks that the ten chunks are launched on the device with a
+ * task compiled only once. The JVM backend does not support batch processing,
+ * so the test is not run on it.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestBatchCompilations
+ * </code>
+ */
+public class TestBatchCompilations {
+
+    // 1MB chunks of integers: nine full chunks and a half chunk
+    private static final int CHUNK_ELEMENTS = 250_000;
+    private static final int NUM_CHUNKS = 10;
+    private static final int SIZE = 9 * CHUNK_ELEMENTS + CHUNK_ELEMENTS / 2;
+
+    public static void addIndex(IntArray a, IntArray b) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i) + i);
+        }
+    }
+
+    private static boolean testRaggedTail() {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        a.init(1);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestBatchCompilations::addIndex, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        final long installations = TornadoVMInterpreter.getNumberOfTaskInstallations();
+        final long batchLaunches = TornadoVMInterpreter.getNumberOfBatchLaunches();
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withBatch("1MB").execute();
+        } catch (Exception e) {
+            return false;
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            if (b.get(i) != i + 1) {
+                return false;
+            }
+        }
+        // A run that bails out to the sequential code also computes the expected output
+        boolean batched = TornadoVMInterpreter.getNumberOfBatchLaunches() - batchLaunches == NUM_CHUNKS;
+        return batched && TornadoVMInterpreter.getNumberOfTaskInstallations() - installations == 1;
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestBatchCompilations");
+
+        if (TornadoRuntimeProvider.getTornadoRuntime().getDefaultDevice().getTornadoVMBackend() == TornadoVMBackendType.JAVA) {
+            System.out.println(" ................ [NOT SUPPORTED]");
+            return;
+        }
+
+        boolean pass = testRaggedTail();
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
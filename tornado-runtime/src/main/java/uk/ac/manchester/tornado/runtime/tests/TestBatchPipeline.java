@@ -0,0 +1,370 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInterpreter;
+import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Test for pipelined batch executions. It runs a batch loop with one task
+ * {@code t0(a, b)} on a mock device that records the commands sent by the
+ * {@link TornadoVMInterpreter} (copy-ins, kernels and copy-outs) with their
+ * events and wait lists.
+ *
+ * <p>
+ * The test checks the dependencies between the commands of each chunk and
+ * the rotation of the chunks over the buffer sets. Then, it simulates the
+ * timeline of a device with one copy-in engine, one compute engine and one
+ * copy-out engine, in which a command starts when its engine is free and all
+ * the events of its wait list have completed. The copy-in of a chunk must
+ * overlap with the kernel of the previous chunk.
+ * </p>
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestBatchPipeline
+ * </code>
+ */
+public class TestBatchPipeline {
+
+    private static final int ELEMENTS = 1024;
+    private static final long BATCH_SIZE = 1024;
+
+    private static final long COPY_TIME = 2;
+    private static final long KERNEL_TIME = 3;
+
+    private enum Kind {
+        COPY_IN, KERNEL, COPY_OUT
+    }
+
+    private record Command(Kind kind, int event, int[] waitList, long buffer) {
+    }
+
+    private static class TimelineBuffer extends TestInterpreterAllocations.MockBuffer {
+
+        private final long id;
+
+        TimelineBuffer(long id, long size) {
+            super(size);
+            this.id = id;
+        }
+
+        @Override
+        public long toBuffer() {
+            return id;
+        }
+    }
+
+    private static class TimelineInstalledCode implements TornadoInstalledCode {
+
+        private final TimelineDevice device;
+
+        TimelineInstalledCode(TimelineDevice device) {
+            this.device = device;
+        }
+
+        @Override
+        public int launchWithDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads, int[] waitEvents) {
+            // The output buffer is the second argument of the kernel
+            long buffer = (Long) ((TestInterpreterAllocations.MockKernelStackFrame) callWrapper).getCallArgument(1);
+            return device.record(Kind.KERNEL, waitEvents, buffer);
+        }
+
+        @Override
+        public int launchWithoutDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads) {
+            return launchWithDependencies(executionPlanId, callWrapper, atomicSpace, meta, batchThreads, null);
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void invalidate() {
+        }
+    }
+
+    /**
+     * Mock device that records the commands in the order they are enqueued.
+     * Every command gets a new event.
+     */
+    private static class TimelineDevice extends TestInterpreterAllocations.MockXPUDevice {
+
+        private final List<Command> commands = new ArrayList<>();
+        private final TimelineInstalledCode installedCode = new TimelineInstalledCode(this);
+        private long nextBuffer = 1;
+        private int allocations;
+        private int deallocations;
+        private int deallocationsBeforeSync;
+        private int syncs;
+
+        int record(Kind kind, int[] waitList, long buffer) {
+            int event = commands.size();
+            int[] dependencies = (waitList == null) ? new int[0] : Arrays.stream(waitList).filter(e -> e != -1).toArray();
+            commands.add(new Command(kind, event, dependencies, buffer));
+            return event;
+        }
+
+        @Override
+        public long allocate(Object object, long batchSize, DeviceBufferState state, Access access) {
+            if (!state.hasObjectBuffer()) {
+                state.setXPUBuffer(new TimelineBuffer(nextBuffer++, batchSize));
+                allocations++;
+            }
+            return state.getXPUBuffer().size();
+        }
+
+        @Override
+        public long deallocate(DeviceBufferState state) {
+            if (syncs == 0) {
+                deallocationsBeforeSync++;
+            }
+            deallocations++;
+            long size = state.getXPUBuffer().size();
+            state.setXPUBuffer(null);
+            return size;
+        }
+
+        @Override
+        public List<Integer> streamIn(long executionPlanId, Object object, long batchSize, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return List.of(record(Kind.COPY_IN, events, objectState.getXPUBuffer().toBuffer()));
+        }
+
+        @Override
+        public int streamOut(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return record(Kind.COPY_OUT, events, objectState.getXPUBuffer().toBuffer());
+        }
+
+        @Override
+        public int streamOutBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return record(Kind.COPY_OUT, events, objectState.getXPUBuffer().toBuffer());
+        }
+
+        @Override
+        public void sync(long executionPlanId) {
+            syncs++;
+        }
+
+        @Override
+        public TornadoInstalledCode installCode(long executionPlanId, SchedulableTask task) {
+            return installedCode;
+        }
+
+        @Override
+        public TornadoInstalledCode getCodeFromCache(long executionPlanId, SchedulableTask task) {
+            return installedCode;
+        }
+    }
+
+    /**
+     * Builds the bytecodes of a batch loop for the task-graph
+     * {@code t0(a, b)}, as emitted by the TornadoVM graph compiler.
+     */
+    private static TornadoVMBytecodeResult buildBytecodes(int indexA, int indexB, int totalChunks, long remainingChunkSize, int numBufferSets) {
+        ByteBuffer buffer = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(TornadoVMBytecodes.INIT.value());
+        buffer.putInt(1); // contexts
+        buffer.putInt(1); // stacks
+        buffer.putInt(1); // event lists
+        buffer.put(TornadoVMBytecodes.CONTEXT.value());
+        buffer.putInt(0);
+        buffer.put(TornadoVMBytecodes.BEGIN.value());
+
+        buffer.put(TornadoVMBytecodes.BEGIN_BATCH_LOOP.value());
+        buffer.putLong(BATCH_SIZE).putInt(totalChunks).putLong(remainingChunkSize).putInt(Float.BYTES).putInt(numBufferSets);
+
+        buffer.put(TornadoVMBytecodes.ALLOC.value());
+        buffer.putLong(0);
+        buffer.putInt(2);
+        buffer.putInt(indexA);
+        buffer.putInt(indexB);
+
+        buffer.put(TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value());
+        buffer.putInt(indexA).putInt(-1).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        buffer.putInt(0);
+
+        buffer.put(TornadoVMBytecodes.LAUNCH.value());
+        buffer.putInt(0).putInt(0).putInt(2).putInt(0).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(indexA);
+        buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(indexB);
+        buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        buffer.putInt(0);
+
+        buffer.put(TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value());
+        buffer.putInt(indexB).putInt(0).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.DEALLOC.value());
+        buffer.putInt(indexA);
+        buffer.put(TornadoVMBytecodes.DEALLOC.value());
+        buffer.putInt(indexB);
+        buffer.put(TornadoVMBytecodes.END_BATCH_LOOP.value());
+
+        buffer.put(TornadoVMBytecodes.BARRIER.value());
+        buffer.putInt(-1);
+        buffer.put(TornadoVMBytecodes.END.value());
+
+        return new TornadoVMBytecodeResult(buffer.array(), buffer.position());
+    }
+
+    private static boolean contains(int[] values, int value) {
+        return Arrays.stream(values).anyMatch(v -> v == value);
+    }
+
+    private static boolean checkDependencies(List<Command> commands, int numChunks, int numBufferSets) {
+        // Each chunk enqueues one copy-in, one kernel and one copy-out
+        if (commands.size() != numChunks * 3) {
+            return false;
+        }
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            Command copyIn = commands.get(chunk * 3);
+            Command kernel = commands.get(chunk * 3 + 1);
+            Command copyOut = commands.get(chunk * 3 + 2);
+            if (copyIn.kind() != Kind.COPY_IN || kernel.kind() != Kind.KERNEL || copyOut.kind() != Kind.COPY_OUT) {
+                return false;
+            }
+            if (kernel.waitList().length != 1 || !contains(kernel.waitList(), copyIn.event())) {
+                return false;
+            }
+            if (copyOut.waitList().length != 1 || !contains(copyOut.waitList(), kernel.event())) {
+                return false;
+            }
+            if (chunk < numBufferSets) {
+                // First use of the buffer set
+                if (copyIn.waitList().length != 0) {
+                    return false;
+                }
+            } else {
+                // The copy-in reuses the buffers of chunk - numBufferSets: it waits only for its kernel and copy-out
+                Command previousKernel = commands.get((chunk - numBufferSets) * 3 + 1);
+                Command previousCopyOut = commands.get((chunk - numBufferSets) * 3 + 2);
+                if (copyIn.waitList().length != 2 || !contains(copyIn.waitList(), previousKernel.event()) || !contains(copyIn.waitList(), previousCopyOut.event())) {
+                    return false;
+                }
+                if (copyOut.buffer() != previousCopyOut.buffer()) {
+                    return false;
+                }
+            }
+            if (chunk > 0 && copyOut.buffer() == commands.get((chunk - 1) * 3 + 2).buffer()) {
+                // Consecutive chunks must use different buffer sets
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * It computes the start time of each command of a device with one engine
+     * per kind of command.
+     *
+     * @return The end time of each command.
+     */
+    private static long[] simulateTimeline(List<Command> commands, long[] startTimes) {
+        long[] endTimes = new long[commands.size()];
+        long[] engineFree = new long[Kind.values().length];
+        for (Command command : commands) {
+            long start = engineFree[command.kind().ordinal()];
+            for (int event : command.waitList()) {
+                start = Math.max(start, endTimes[event]);
+            }
+            long duration = (command.kind() == Kind.KERNEL) ? KERNEL_TIME : COPY_TIME;
+            startTimes[command.event()] = start;
+            endTimes[command.event()] = start + duration;
+            engineFree[command.kind().ordinal()] = start + duration;
+        }
+        return endTimes;
+    }
+
+    private static boolean runPipeline(int numBufferSets, int totalChunks, long remainingChunkSize) {
+        TimelineDevice device = new TimelineDevice();
+        final int numElements = (int) ((totalChunks * BATCH_SIZE + remainingChunkSize) / Float.BYTES);
+        float[] a = new float[numElements];
+        float[] b = new float[numElements];
+
+        TornadoExecutionContext executionContext = new TornadoExecutionContext("s0");
+        int indexA = executionContext.insertVariable(a, Access.READ_ONLY);
+        int indexB = executionContext.insertVariable(b, Access.WRITE_ONLY);
+        TestInterpreterAllocations.MockTask task = new TestInterpreterAllocations.MockTask(executionContext.meta(), "t0", new Object[] { a, b }, new Access[] { Access.READ_ONLY,
+                Access.WRITE_ONLY });
+        task.setDevice(device);
+        executionContext.addTask(task);
+        executionContext.setDevice(device);
+        executionContext.setBatchSize(BATCH_SIZE);
+        executionContext.setNumBatchBufferSets(numBufferSets);
+
+        TornadoVMInterpreter interpreter = new TornadoVMInterpreter(executionContext, buildBytecodes(indexA, indexB, totalChunks, remainingChunkSize, numBufferSets), new EmptyProfiler(), device);
+        interpreter.execute();
+
+        final int numChunks = remainingChunkSize != 0 ? totalChunks + 1 : totalChunks;
+        final int usedBufferSets = Math.min(numBufferSets, numChunks);
+        boolean dependencies = checkDependencies(device.commands, numChunks, numBufferSets);
+        // Two buffers per buffer set, released once after all the chunks have completed
+        boolean buffers = device.allocations == 2 * usedBufferSets && device.deallocations == 2 * usedBufferSets && device.deallocationsBeforeSync == 0 && device.syncs == 1;
+
+        long[] startTimes = new long[device.commands.size()];
+        long[] endTimes = simulateTimeline(device.commands, startTimes);
+        long makespan = Arrays.stream(endTimes).max().orElse(0);
+        long sequentialTime = numChunks * (2 * COPY_TIME + KERNEL_TIME);
+        // The copy-in of chunk 1 overlaps with the kernel of chunk 0
+        boolean overlap = dependencies && startTimes[3] < endTimes[1] && makespan < sequentialTime;
+
+        if (!(dependencies && buffers && overlap)) {
+            System.out.printf("%n\tBuffer sets: %d, chunks: %d, dependencies: %b, buffers: %b, overlap: %b, time: %d (sequential: %d)", numBufferSets, numChunks, dependencies, buffers, overlap,
+                    makespan, sequentialTime);
+        }
+        return dependencies && buffers && overlap;
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestBatchPipeline");
+
+        boolean doubleBuffering = runPipeline(2, 4, 0);
+        boolean tripleBuffering = runPipeline(3, 5, 512);
+
+        if (doubleBuffering && tripleBuffering) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalDouble;
+
+import uk.ac.manchester.tornado.api.DRMode;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.tasks.DeviceCostModel;
+
+/**
+ * Test for the cost model of the dynamic reconfiguration. It checks the
+ * selection of the devices, the predictions from the execution times and from
+ * the code features, the history on disk, and the
+ * {@link Policy#COST_MODEL} policy with an execution plan.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestDeviceCostModel
+ * </code>
+ */
+public class TestDeviceCostModel {
+
+    private static final int SIZE = 4096;
+    private static final int NUM_EXECUTIONS = 8;
+
+    private static final String[] DEVICES = { "gpu", "cpu" };
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    private static boolean testSelection() {
+        DeviceCostModel costModel = new DeviceCostModel(null, 0.0, 7);
+
+        // Devices without history are explored in order
+        if (costModel.selectDevice("s0", DEVICES, 1024) != 0) {
+            return false;
+        }
+        costModel.record("s0", "gpu", 1024, 5000);
+        if (costModel.selectDevice("s0", DEVICES, 1024) != 1) {
+            return false;
+        }
+        costModel.record("s0", "cpu", 1024, 1000);
+
+        // The fastest device is selected once all devices are known
+        return costModel.selectDevice("s0", DEVICES, 1024) == 1 && costModel.getExplorations() == 2;
+    }
+
+    private static boolean testExploration() {
+        DeviceCostModel costModel = new DeviceCostModel(null, 1.0, 7);
+        costModel.record("s0", "gpu", 1024, 5000);
+        costModel.record("s0", "cpu", 1024, 1000);
+
+        // With an exploration rate of 1, the device with the lowest prediction is never selected
+        for (int i = 0; i < 16; i++) {
+            if (costModel.selectDevice("s0", DEVICES, 1024) != 0) {
+                return false;
+            }
+        }
+        return costModel.getExplorations() == 16;
+    }
+
+    private static boolean testPowerLaw() {
+        DeviceCostModel costModel = new DeviceCostModel(null, 0.0, 7);
+
+        // The GPU has a fixed cost, while the time on the CPU grows linearly
+        for (long size = 1024; size <= 65536; size *= 2) {
+            costModel.record("s0", "gpu", size, 100_000);
+            costModel.record("s0", "cpu", size, size * 4);
+        }
+        OptionalDouble cpu = costModel.predict("s0", "cpu", 1 << 20);
+        if (cpu.isEmpty() || Math.abs(cpu.getAsDouble() - (4 << 20)) > (4 << 20) * 0.01) {
+            return false;
+        }
+        return costModel.selectDevice("s0", DEVICES, 1024) == 1 && costModel.selectDevice("s0", DEVICES, 1 << 20) == 0;
+    }
+
+    private static boolean testFeatures() {
+        DeviceCostModel costModel = new DeviceCostModel(null, 0.0, 7);
+        costModel.setFeatures("small", new double[] { 1, 2, 0 });
+        costModel.setFeatures("large", new double[] { 100, 200, 50 });
+        costModel.setFeatures("new", new double[] { 90, 210, 40 });
+        costModel.record("small", "gpu", 1024, 1000);
+        costModel.record("large", "gpu", 1024, 8000);
+        costModel.record("large", "cpu", 1024, 2000);
+
+        // The prediction on the GPU comes from the closest task-graph
+        OptionalDouble gpu = costModel.predict("new", "gpu", 1024);
+        if (gpu.isEmpty() || Math.abs(gpu.getAsDouble() - 8000) > 1) {
+            return false;
+        }
+
+        // Once it ran on the CPU, it is scaled by the ratio of the times on the CPU
+        costModel.record("new", "cpu", 1024, 4000);
+        gpu = costModel.predict("new", "gpu", 1024);
+        return gpu.isPresent() && Math.abs(gpu.getAsDouble() - 16000) < 1 && costModel.predict("unknown", "gpu", 1024).isEmpty();
+    }
+
+    private static boolean testSaveAndLoad(Path directory) throws IOException {
+        Path history = directory.resolve("history");
+        DeviceCostModel costModel = new DeviceCostModel(history, 0.0, 7);
+        costModel.setFeatures("s0", new double[] { 1, 2, 3 });
+        for (int i = 0; i < 40; i++) {
+            costModel.record("s0", "gpu", 1024L << (i % 4), 1000L * (i + 1));
+        }
+        costModel.record("s1", "cpu", 2048, 3000);
+        costModel.save();
+
+        DeviceCostModel loaded = new DeviceCostModel(history, 0.0, 7);
+        loaded.load();
+        double expected = costModel.predict("s0", "gpu", 4096).getAsDouble();
+        double actual = loaded.predict("s0", "gpu", 4096).getAsDouble();
+        if (Math.abs(expected - actual) > expected * 0.001 || loaded.predict("s1", "cpu", 2048).isEmpty()) {
+            return false;
+        }
+
+        Files.writeString(history, "not a history\n");
+        try {
+            new DeviceCostModel(history, 0.0, 7).load();
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static boolean testPolicy() throws TornadoExecutionPlanException, NoSuchMethodException {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        IntArray c = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, i);
+            b.set(i, 2 * i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("costModel") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestDeviceCostModel::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDynamicReconfiguration(Policy.COST_MODEL, DRMode.SERIAL);
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                c.init(0);
+                executionPlan.execute();
+                for (int i = 0; i < SIZE; i++) {
+                    if (c.get(i) != 3 * i) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        // Every device was explored, so the sequential code has a prediction
+        String signature = TestDeviceCostModel.class.getMethod("add", IntArray.class, IntArray.class, IntArray.class).toGenericString() + ";";
+        return DeviceCostModel.getInstance().predict(signature, "JAVA", a.getNumBytesOfSegment() * 3).isPresent();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestDeviceCostModel");
+
+        // The options are read when the TornadoVM runtime is loaded
+        Path directory = Files.createTempDirectory("tornado-dr");
+        System.setProperty("tornado.dr.history", directory.resolve("dr-history").toString());
+        System.setProperty("tornado.dr.exploration", "0");
+
+        // The history is written again when the JVM exits: remove it afterwards
+        directory.toFile().deleteOnExit();
+        directory.resolve("history").toFile().deleteOnExit();
+        directory.resolve("dr-history").toFile().deleteOnExit();
+
+        boolean pass = testSelection() && testExploration() && testPowerLaw() && testFeatures() && testSaveAndLoad(directory) && testPolicy();
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.sketcher.ElementWiseLoop;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+
+/**
+ * Test for the element-wise analysis of the sketcher. It checks that the
+ * sketch of an element-wise task describes its loop and how the loop is
+ * bounded, while the sketches of tasks that access other elements of the
+ * arrays (e.g., stencils) do not.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestElementWiseAnalysis
+ * </code>
+ */
+public class TestElementWiseAnalysis {
+
+    private static final int SIZE = 1024;
+
+    public static void add(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void scale(FloatArray a, FloatArray b, float alpha, int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            b.set(i, alpha * a.get(i));
+        }
+    }
+
+    public static void reverse(FloatArray a, FloatArray b) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(a.getSize() - 1 - i));
+        }
+    }
+
+    public static void stencil(FloatArray a, FloatArray b, int size) {
+        for (@Parallel int i = 1; i < size; i++) {
+            b.set(i, a.get(i - 1) + a.get(i));
+        }
+    }
+
+    private static ElementWiseLoop getElementWiseLoop(String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        TornadoCoreRuntime runtime = TornadoCoreRuntime.getTornadoRuntime();
+        return TornadoSketcher.lookup(runtime.resolveMethod(TestElementWiseAnalysis.class.getMethod(methodName, parameterTypes)), 0, 0).getElementWiseLoop();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestElementWiseAnalysis");
+
+        FloatArray a = new FloatArray(SIZE);
+        FloatArray b = new FloatArray(SIZE);
+        FloatArray c = new FloatArray(SIZE);
+
+        // The tasks are sketched when they are added to the task-graph
+        new TaskGraph("sketches") //
+                .task("t0", TestElementWiseAnalysis::add, a, b, c) //
+                .task("t1", TestElementWiseAnalysis::scale, a, b, 2.0f, SIZE) //
+                .task("t2", TestElementWiseAnalysis::reverse, a, b) //
+                .task("t3", TestElementWiseAnalysis::stencil, a, b, SIZE);
+
+        ElementWiseLoop add = getElementWiseLoop("add", FloatArray.class, FloatArray.class, FloatArray.class);
+        ElementWiseLoop scale = getElementWiseLoop("scale", FloatArray.class, FloatArray.class, float.class, int.class);
+        ElementWiseLoop reverse = getElementWiseLoop("reverse", FloatArray.class, FloatArray.class);
+        ElementWiseLoop stencil = getElementWiseLoop("stencil", FloatArray.class, FloatArray.class, int.class);
+
+        boolean pass = add != null && add.boundKind() == ElementWiseLoop.BoundKind.ARRAY_SIZE && add.getUpperBound(new Object[] { a, b, c }) == SIZE //
+                && scale != null && scale.boundKind() == ElementWiseLoop.BoundKind.SCALAR_PARAMETER && scale.getUpperBound(new Object[] { a, b, 2.0f, SIZE }) == SIZE //
+                && reverse == null && stencil == null;
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
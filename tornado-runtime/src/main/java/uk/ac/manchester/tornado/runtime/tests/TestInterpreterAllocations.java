@@ -0,0 +1,874 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.api.runtime.TaskContextInterface;
+import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInterpreter;
+import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Micro-benchmark for the {@link TornadoVMInterpreter}. It runs a hand-written
+ * TornadoVM bytecode program (allocation, copy-in, launch, copy-out,
+ * barrier and deallocation) on a mock {@link TornadoXPUDevice} that does not
+ * perform any work. Therefore, the only cost measured is the cost of the
+ * interpreter itself.
+ *
+ * <p>
+ * After warming up the JIT compiler, the test checks that the interpreter
+ * does not allocate any Java objects per execution.
+ * </p>
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestInterpreterAllocations
+ * </code>
+ */
+public class TestInterpreterAllocations {
+
+    private static final int WARMUP_ITERATIONS = Integer.parseInt(System.getProperty("tornado.test.interpreter.warmup", "200000"));
+    private static final int ITERATIONS = Integer.parseInt(System.getProperty("tornado.test.interpreter.iterations", "100000"));
+
+    private static final Event EMPTY_EVENT = new EmptyEvent();
+
+    private static class MockTargetDevice implements TornadoTargetDevice {
+
+        @Override
+        public String getDeviceName() {
+            return "mock-device";
+        }
+
+        @Override
+        public long getDeviceGlobalMemorySize() {
+            return Runtime.getRuntime().maxMemory();
+        }
+
+        @Override
+        public long getDeviceLocalMemorySize() {
+            return 0;
+        }
+
+        @Override
+        public int getDeviceMaxComputeUnits() {
+            return 1;
+        }
+
+        @Override
+        public long[] getDeviceMaxWorkItemSizes() {
+            return new long[] { 1, 1, 1 };
+        }
+
+        @Override
+        public long[] getDeviceMaxWorkGroupSize() {
+            return new long[] { 1 };
+        }
+
+        @Override
+        public int getMaxThreadsPerBlock() {
+            return 1;
+        }
+
+        @Override
+        public int getDeviceMaxClockFrequency() {
+            return 0;
+        }
+
+        @Override
+        public long getDeviceMaxConstantBufferSize() {
+            return 0;
+        }
+
+        @Override
+        public long getDeviceMaxAllocationSize() {
+            return Runtime.getRuntime().maxMemory();
+        }
+
+        @Override
+        public String getDeviceInfo() {
+            return getDeviceName();
+        }
+    }
+
+    private static class MockDeviceContext implements TornadoDeviceContext {
+
+        private final TornadoTargetDevice device = new MockTargetDevice();
+
+        @Override
+        public TornadoTargetDevice getDevice() {
+            return device;
+        }
+
+        @Override
+        public TornadoMemoryProvider getMemoryManager() {
+            return null;
+        }
+
+        @Override
+        public boolean wasReset() {
+            return false;
+        }
+
+        @Override
+        public void reset(long executionPlanId) {
+        }
+
+        @Override
+        public void setResetToFalse() {
+        }
+
+        @Override
+        public boolean isPlatformFPGA() {
+            return false;
+        }
+
+        @Override
+        public boolean isPlatformXilinxFPGA() {
+            return false;
+        }
+
+        @Override
+        public boolean isFP64Supported() {
+            return true;
+        }
+
+        @Override
+        public boolean isCached(long executionPlanId, String methodName, SchedulableTask task) {
+            return false;
+        }
+
+        @Override
+        public int getDeviceIndex() {
+            return 0;
+        }
+
+        @Override
+        public int getDevicePlatform() {
+            return 0;
+        }
+
+        @Override
+        public String getDeviceName() {
+            return device.getDeviceName();
+        }
+
+        @Override
+        public int getDriverIndex() {
+            return 0;
+        }
+
+        @Override
+        public Set<Long> getRegisteredPlanIds() {
+            return Set.of();
+        }
+    }
+
+    static class MockBuffer implements XPUBuffer {
+
+        private final long size;
+
+        MockBuffer(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long toBuffer() {
+            // Small values are cached by Long.valueOf, so passing the buffer
+            // as a call argument does not box a new object.
+            return 0;
+        }
+
+        @Override
+        public void setBuffer(XPUBufferWrapper bufferWrapper) {
+        }
+
+        @Override
+        public long getBufferOffset() {
+            return 0;
+        }
+
+        @Override
+        public void read(long executionPlanId, Object reference) {
+        }
+
+        @Override
+        public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
+            return -1;
+        }
+
+        @Override
+        public void write(long executionPlanId, Object reference) {
+        }
+
+        @Override
+        public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
+            return -1;
+        }
+
+        @Override
+        public List<Integer> enqueueWrite(long executionPlanId, Object reference, long batchSize, long hostOffset, int[] events, boolean useDeps) {
+            return null;
+        }
+
+        @Override
+        public void allocate(Object reference, long batchSize, Access access) {
+        }
+
+        @Override
+        public void markAsFreeBuffer() {
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void setSizeSubRegion(long batchSize) {
+        }
+
+        @Override
+        public long getSizeSubRegionSize() {
+            return 0;
+        }
+
+        @Override
+        public long deallocate() {
+            return size;
+        }
+
+        @Override
+        public void mapOnDeviceMemoryRegion(long executionPlanId, XPUBuffer srcPointer, long offset) {
+        }
+
+        @Override
+        public int getSizeOfType() {
+            return 0;
+        }
+    }
+
+    static class MockKernelStackFrame implements KernelStackFrame {
+
+        private final Object[] arguments;
+        private int numArguments;
+        private boolean valid;
+
+        MockKernelStackFrame(int numArgs) {
+            arguments = new Object[numArgs];
+            valid = true;
+        }
+
+        @Override
+        public void reset() {
+            numArguments = 0;
+        }
+
+        @Override
+        public List<CallArgument> getCallArguments() {
+            return List.of();
+        }
+
+        @Override
+        public void addCallArgument(Object value, boolean isReferenceType) {
+            arguments[numArguments++] = value;
+        }
+
+        Object getCallArgument(int index) {
+            return arguments[index];
+        }
+
+        @Override
+        public void setKernelContext(HashMap<Integer, Integer> map) {
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+
+        @Override
+        public void invalidate() {
+            valid = false;
+        }
+    }
+
+    private static class MockInstalledCode implements TornadoInstalledCode {
+
+        private long launches;
+
+        @Override
+        public int launchWithDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads, int[] waitEvents) {
+            launches++;
+            return -1;
+        }
+
+        @Override
+        public int launchWithoutDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskDataContext meta, long batchThreads) {
+            launches++;
+            return -1;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void invalidate() {
+        }
+    }
+
+    static class MockTask implements SchedulableTask {
+
+        private final TaskDataContext meta;
+        private final Object[] arguments;
+        private final Access[] accesses;
+        private TornadoDevice device;
+        private long batchThreads;
+        private int batchNumber;
+        private long batchSize;
+        private TornadoProfiler profiler;
+        private GridScheduler gridScheduler;
+        private boolean useGridScheduler;
+
+        MockTask(ScheduleContext scheduleContext, String id, Object[] arguments, Access[] accesses) {
+            this.meta = new TaskDataContext(scheduleContext, id, arguments.length);
+            this.arguments = arguments;
+            this.accesses = accesses;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return arguments;
+        }
+
+        @Override
+        public Access[] getArgumentsAccess() {
+            return accesses;
+        }
+
+        @Override
+        public TaskContextInterface meta() {
+            return meta;
+        }
+
+        @Override
+        public void setDevice(TornadoDevice device) {
+            this.device = device;
+        }
+
+        @Override
+        public TornadoDevice getDevice() {
+            return device;
+        }
+
+        @Override
+        public String getFullName() {
+            return "task - " + meta.getId();
+        }
+
+        @Override
+        public String getNormalizedName() {
+            return meta.getId();
+        }
+
+        @Override
+        public String getTaskName() {
+            return meta.getId();
+        }
+
+        @Override
+        public String getId() {
+            return meta.getId();
+        }
+
+        @Override
+        public void setBatchThreads(long batchThreads) {
+            this.batchThreads = batchThreads;
+        }
+
+        @Override
+        public long getBatchThreads() {
+            return batchThreads;
+        }
+
+        @Override
+        public void setBatchNumber(int batchNumber) {
+            this.batchNumber = batchNumber;
+        }
+
+        @Override
+        public int getBatchNumber() {
+            return batchNumber;
+        }
+
+        @Override
+        public void setBatchSize(long batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public long getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void attachProfiler(TornadoProfiler tornadoProfiler) {
+            this.profiler = tornadoProfiler;
+        }
+
+        @Override
+        public TornadoProfiler getProfiler() {
+            return profiler;
+        }
+
+        @Override
+        public void forceCompilation() {
+        }
+
+        @Override
+        public boolean shouldCompile() {
+            return false;
+        }
+
+        @Override
+        public void enableDefaultThreadScheduler(boolean useDefaultScheduler) {
+        }
+
+        @Override
+        public void setUseGridScheduler(boolean use) {
+            this.useGridScheduler = use;
+        }
+
+        @Override
+        public void setGridScheduler(GridScheduler gridScheduler) {
+            this.gridScheduler = gridScheduler;
+        }
+
+        @Override
+        public boolean isGridSchedulerEnabled() {
+            return useGridScheduler && gridScheduler != null;
+        }
+    }
+
+    /**
+     * Device that accepts every request from the interpreter without doing
+     * any work. Buffers are created on the first allocation and kept in the
+     * {@link XPUDeviceBufferState} afterwards, as the drivers do with the
+     * buffers provided by the {@link uk.ac.manchester.tornado.runtime.common.TornadoBufferProvider}.
+     */
+    static class MockXPUDevice implements TornadoXPUDevice {
+
+        private final MockDeviceContext deviceContext = new MockDeviceContext();
+        private final MockInstalledCode installedCode = new MockInstalledCode();
+        private int compilations;
+
+        @Override
+        public long allocate(Object object, long batchSize, DeviceBufferState state, Access access) {
+            if (!state.hasObjectBuffer()) {
+                state.setXPUBuffer(new MockBuffer(1024));
+            }
+            return state.getXPUBuffer().size();
+        }
+
+        @Override
+        public long allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states, Access[] accesses) {
+            long allocatedSpace = 0;
+            for (int i = 0; i < objects.length; i++) {
+                allocatedSpace += allocate(objects[i], batchSize, states[i], accesses[i]);
+            }
+            return allocatedSpace;
+        }
+
+        @Override
+        public long deallocate(DeviceBufferState state) {
+            return state.getXPUBuffer().size();
+        }
+
+        @Override
+        public List<Integer> ensurePresent(long executionPlanId, Object object, DeviceBufferState objectState, int[] events, long batchSize, long hostOffset) {
+            return null;
+        }
+
+        @Override
+        public List<Integer> streamIn(long executionPlanId, Object object, long batchSize, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return null;
+        }
+
+        @Override
+        public int streamOut(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return -1;
+        }
+
+        @Override
+        public int streamOutBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+            return -1;
+        }
+
+        @Override
+        public Event resolveEvent(long executionPlanId, int event) {
+            return EMPTY_EVENT;
+        }
+
+        @Override
+        public void ensureLoaded(long executionPlanId) {
+        }
+
+        @Override
+        public void flushEvents(long executionPlanId) {
+        }
+
+        @Override
+        public int enqueueBarrier(long executionPlanId) {
+            return -1;
+        }
+
+        @Override
+        public int enqueueBarrier(long executionPlanId, int[] events) {
+            return -1;
+        }
+
+        @Override
+        public int enqueueMarker(long executionPlanId) {
+            return -1;
+        }
+
+        @Override
+        public int enqueueMarker(long executionPlanId, int[] events) {
+            return -1;
+        }
+
+        @Override
+        public void sync(long executionPlanId) {
+        }
+
+        @Override
+        public void flush(long executionPlanId) {
+        }
+
+        @Override
+        public void clean() {
+        }
+
+        @Override
+        public void dumpEvents(long executionPlanId) {
+        }
+
+        @Override
+        public String getDeviceName() {
+            return deviceContext.getDeviceName();
+        }
+
+        @Override
+        public String getDescription() {
+            return deviceContext.getDeviceName();
+        }
+
+        @Override
+        public String getPlatformName() {
+            return "mock";
+        }
+
+        @Override
+        public TornadoDeviceContext getDeviceContext() {
+            return deviceContext;
+        }
+
+        @Override
+        public TornadoTargetDevice getPhysicalDevice() {
+            return deviceContext.getDevice();
+        }
+
+        @Override
+        public TornadoMemoryProvider getMemoryProvider() {
+            return null;
+        }
+
+        @Override
+        public TornadoDeviceType getDeviceType() {
+            return TornadoDeviceType.CPU;
+        }
+
+        @Override
+        public long getMaxAllocMemory() {
+            return Runtime.getRuntime().maxMemory();
+        }
+
+        @Override
+        public long getMaxGlobalMemory() {
+            return Runtime.getRuntime().maxMemory();
+        }
+
+        @Override
+        public long getDeviceLocalMemorySize() {
+            return 0;
+        }
+
+        @Override
+        public long[] getDeviceMaxWorkgroupDimensions() {
+            return new long[] { 1, 1, 1 };
+        }
+
+        @Override
+        public String getDeviceOpenCLCVersion() {
+            return "N/A";
+        }
+
+        @Override
+        public Object getDeviceInfo() {
+            return getDeviceName();
+        }
+
+        @Override
+        public int getBackendIndex() {
+            return 0;
+        }
+
+        @Override
+        public Object getAtomic() {
+            return null;
+        }
+
+        @Override
+        @Deprecated
+        public void setAtomicsMapping(ConcurrentHashMap<Object, Integer> mappingAtomics) {
+        }
+
+        @Override
+        public TornadoVMBackendType getTornadoVMBackend() {
+            return TornadoVMBackendType.JAVA;
+        }
+
+        @Override
+        public boolean isSPIRVSupported() {
+            return false;
+        }
+
+        @Override
+        public void mapDeviceRegion(long executionPlanId, Object destArray, Object srcArray, DeviceBufferState deviceStateSrc, DeviceBufferState deviceStateDest, long offset) {
+        }
+
+        @Override
+        public TornadoSchedulingStrategy getPreferredSchedule() {
+            return TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+        }
+
+        @Override
+        public KernelStackFrame createKernelStackFrame(long executionId, int numArgs, Access access) {
+            return new MockKernelStackFrame(numArgs);
+        }
+
+        @Override
+        public XPUBuffer createOrReuseAtomicsBuffer(int[] arr, Access access) {
+            return null;
+        }
+
+        @Override
+        public TornadoInstalledCode installCode(long executionPlanId, SchedulableTask task) {
+            compilations++;
+            return installedCode;
+        }
+
+        @Override
+        public boolean isFullJITMode(long executionPlanId, SchedulableTask task) {
+            return false;
+        }
+
+        @Override
+        public TornadoInstalledCode getCodeFromCache(long executionPlanId, SchedulableTask task) {
+            return installedCode;
+        }
+
+        @Override
+        public int[] checkAtomicsForTask(SchedulableTask task) {
+            return null;
+        }
+
+        @Override
+        public int[] checkAtomicsForTask(SchedulableTask task, int[] array, int paramIndex, Object value) {
+            return null;
+        }
+
+        @Override
+        public int[] updateAtomicRegionAndObjectState(SchedulableTask task, int[] array, int paramIndex, Object value, XPUDeviceBufferState objectState) {
+            return null;
+        }
+
+        @Override
+        public int getAtomicsGlobalIndexForTask(SchedulableTask task, int paramIndex) {
+            return -1;
+        }
+
+        @Override
+        public boolean checkAtomicsParametersForTask(SchedulableTask task) {
+            return false;
+        }
+
+        @Override
+        public void enableThreadSharing() {
+        }
+
+        @Override
+        public void setAtomicRegion(XPUBuffer bufferAtomics) {
+        }
+
+        @Override
+        public boolean loopIndexInWrite(SchedulableTask task) {
+            return false;
+        }
+    }
+
+    /**
+     * Builds the bytecodes for a task-graph with one task {@code t0(a, b, 42)}
+     * that copies {@code a} in every execution, and {@code b} out.
+     */
+    private static TornadoVMBytecodeResult buildBytecodes(int indexA, int indexB, int indexConstant) {
+        ByteBuffer buffer = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(TornadoVMBytecodes.INIT.value());
+        buffer.putInt(1); // contexts
+        buffer.putInt(1); // stacks
+        buffer.putInt(1); // event lists
+        buffer.put(TornadoVMBytecodes.CONTEXT.value());
+        buffer.putInt(0);
+        buffer.put(TornadoVMBytecodes.BEGIN.value());
+
+        buffer.put(TornadoVMBytecodes.ALLOC.value());
+        buffer.putLong(0);
+        buffer.putInt(2);
+        buffer.putInt(indexA);
+        buffer.putInt(indexB);
+
+        buffer.put(TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value());
+        buffer.putInt(indexA).putInt(-1).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        buffer.putInt(0);
+        buffer.put(TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value());
+        buffer.putInt(indexB).putInt(-1).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        buffer.putInt(0);
+
+        buffer.put(TornadoVMBytecodes.LAUNCH.value());
+        buffer.putInt(0).putInt(0).putInt(3).putInt(0).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(indexA);
+        buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(indexB);
+        buffer.put(TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value()).putInt(indexConstant);
+        buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        buffer.putInt(0);
+
+        buffer.put(TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value());
+        buffer.putInt(indexB).putInt(0).putLong(0).putLong(0);
+        buffer.put(TornadoVMBytecodes.BARRIER.value());
+        buffer.putInt(-1);
+        buffer.put(TornadoVMBytecodes.DEALLOC.value());
+        buffer.putInt(indexA);
+        buffer.put(TornadoVMBytecodes.DEALLOC.value());
+        buffer.putInt(indexB);
+        buffer.put(TornadoVMBytecodes.END.value());
+
+        return new TornadoVMBytecodeResult(buffer.array(), buffer.position());
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestInterpreterAllocations");
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean) || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            System.out.println(" ................ [NOT SUPPORTED]");
+            return;
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        MockXPUDevice device = new MockXPUDevice();
+        float[] a = new float[256];
+        float[] b = new float[256];
+
+        TornadoExecutionContext executionContext = new TornadoExecutionContext("s0");
+        int indexA = executionContext.insertVariable(a, Access.READ_ONLY);
+        int indexB = executionContext.insertVariable(b, Access.WRITE_ONLY);
+        int indexConstant = executionContext.insertVariable(42, Access.NONE);
+        MockTask task = new MockTask(executionContext.meta(), "t0", new Object[] { a, b, 42 }, new Access[] { Access.READ_ONLY, Access.WRITE_ONLY, Access.NONE });
+        task.setDevice(device);
+        executionContext.addTask(task);
+        executionContext.setDevice(device);
+
+        TornadoVMInterpreter interpreter = new TornadoVMInterpreter(executionContext, buildBytecodes(indexA, indexB, indexConstant), new EmptyProfiler(), device);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            interpreter.execute();
+        }
+
+        final long threadId = Thread.currentThread().threadId();
+        final long bytesStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        final long t0 = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            interpreter.execute();
+        }
+        final long t1 = System.nanoTime();
+        final long bytesEnd = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        final double bytesPerExecution = (double) (bytesEnd - bytesStart) / ITERATIONS;
+        final double nsPerExecution = (double) (t1 - t0) / ITERATIONS;
+
+        boolean allocationFree = bytesEnd == bytesStart;
+        boolean compiledOnce = device.compilations == 1 && device.installedCode.launches == WARMUP_ITERATIONS + ITERATIONS;
+        if (allocationFree && compiledOnce) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+        System.out.printf("\tExecutions: %d, Time: %.2f ns/execution, Allocated: %.2f bytes/execution, Compilations: %d%n", ITERATIONS, nsPerExecution, bytesPerExecution, device.compilations);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Test for the parallel compilation of the tasks of a task-graph. It runs a
+ * task-graph with multiple tasks and checks that the tasks were compiled by the
+ * threads of the compiler pool.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestParallelCompilation
+ * </code>
+ */
+public class TestParallelCompilation {
+
+    private static final int SIZE = 1024;
+    private static final int NUM_TASKS = 8;
+
+    public static void increment(IntArray a, IntArray b) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i) + 1);
+        }
+    }
+
+    private static boolean compilerThreadsStarted() {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> thread.getName().startsWith("TornadoCompilerThread"));
+    }
+
+    private static boolean testTaskGraph() {
+        IntArray[] arrays = new IntArray[NUM_TASKS + 1];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = new IntArray(SIZE);
+            arrays[i].init(0);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, arrays[0]);
+        for (int i = 0; i < NUM_TASKS; i++) {
+            taskGraph.task("t" + i, TestParallelCompilation::increment, arrays[i], arrays[i + 1]);
+        }
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, arrays[NUM_TASKS]);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        } catch (Exception e) {
+            return false;
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            if (arrays[NUM_TASKS].get(i) != NUM_TASKS) {
+                return false;
+            }
+        }
+        return compilerThreadsStarted();
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestParallelCompilation");
+
+        // The options are read when the TornadoVM runtime is loaded
+        System.setProperty("tornado.parallel.compilation", "true");
+
+        boolean pass = !compilerThreadsStarted() && testTaskGraph();
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.graph.TaskFusion;
+
+/**
+ * Test for the fusion of element-wise tasks. It checks that a chain of
+ * element-wise tasks is launched as a single kernel once per execution on the
+ * devices that support task fusion, and that the intermediate array of the
+ * chain is not allocated on the device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestTaskFusion
+ * </code>
+ */
+public class TestTaskFusion {
+
+    private static final int SIZE = 1024;
+    private static final int NUM_EXECUTIONS = 4;
+
+    public static void add(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void scale(FloatArray a, FloatArray b, float alpha) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, alpha * a.get(i));
+        }
+    }
+
+    private static boolean testFusedChain() {
+        FloatArray a = new FloatArray(SIZE);
+        FloatArray b = new FloatArray(SIZE);
+        FloatArray c = new FloatArray(SIZE);
+        FloatArray d = new FloatArray(SIZE);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        // c is only used on the device
+        TaskGraph taskGraph = new TaskGraph("fusion") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestTaskFusion::add, a, b, c) //
+                .task("t1", TestTaskFusion::scale, c, d, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+        final boolean isFusionSupported = TornadoCoreRuntime.getTornadoRuntime().getDefaultDevice().isTaskFusionSupported();
+        final long fusedLaunches = TaskFusion.getNumberOfFusedLaunches();
+        long memoryUsage;
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                executionPlan.execute();
+            }
+            memoryUsage = executionPlan.getCurrentDeviceMemoryUsage();
+        } catch (Exception e) {
+            return false;
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            if (d.get(i) != 6.0f) {
+                return false;
+            }
+        }
+
+        // The fused kernel only needs a, b and d
+        final long numArrays = isFusionSupported ? 3 : 4;
+        final long expectedLaunches = isFusionSupported ? NUM_EXECUTIONS : 0;
+        return TaskFusion.getNumberOfFusedLaunches() - fusedLaunches == expectedLaunches && memoryUsage == numArrays * a.getNumBytesOfSegmentWithHeader();
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestTaskFusion");
+
+        // The options are read when the TornadoVM runtime is loaded
+        System.setProperty("tornado.fusion", "true");
+
+        boolean pass = testFusedChain();
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
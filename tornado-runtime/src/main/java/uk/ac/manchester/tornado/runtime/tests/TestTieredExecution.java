@@ -0,0 +1,118 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.tasks.TornadoTaskGraph;
+
+/**
+ * Test for the tiered execution of task-graphs. It checks that the first
+ * execution of a task-graph runs on the host, and that the executions switch
+ * to the device once the compilation finishes.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestTieredExecution
+ * </code>
+ */
+public class TestTieredExecution {
+
+    private static final int SIZE = 1024;
+    private static final long TIMEOUT_NS = 60_000_000_000L;
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    private static boolean check(IntArray c, int expected) {
+        for (int i = 0; i < SIZE; i++) {
+            if (c.get(i) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean testTiers() {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        IntArray c = new IntArray(SIZE);
+        b.init(1);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestTieredExecution::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withTieredExecution();
+
+            // The compilation starts with the first execution, which runs on the host
+            long hostExecutions = TornadoTaskGraph.getNumberOfHostTierExecutions();
+            a.init(1);
+            executionPlan.execute();
+            if (!check(c, 2) || TornadoTaskGraph.getNumberOfHostTierExecutions() != hostExecutions + 1) {
+                return false;
+            }
+
+            final long start = System.nanoTime();
+            boolean onDevice = false;
+            for (int k = 2; !onDevice && System.nanoTime() - start < TIMEOUT_NS; k++) {
+                hostExecutions = TornadoTaskGraph.getNumberOfHostTierExecutions();
+                a.init(k);
+                executionPlan.execute();
+                if (!check(c, k + 1)) {
+                    return false;
+                }
+                onDevice = TornadoTaskGraph.getNumberOfHostTierExecutions() == hostExecutions;
+            }
+            return onDevice;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestTieredExecution");
+
+        boolean pass = testTiers();
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
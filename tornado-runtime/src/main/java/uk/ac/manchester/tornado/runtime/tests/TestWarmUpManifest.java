@@ -0,0 +1,153 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.tasks.WarmUpManifest;
+
+/**
+ * Test for the warm-up manifest. It runs a task-graph with the recording of
+ * the manifest enabled, writes the manifest and reads it back. Then, it
+ * replays the manifest and checks that a new execution plan for the same
+ * task-graph is compiled in the background, while a task-graph that is not
+ * recorded is not.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestWarmUpManifest
+ * </code>
+ */
+public class TestWarmUpManifest {
+
+    private static final int SIZE = 256;
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    private static boolean run(String taskGraphName) throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        IntArray c = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, i);
+            b.set(i, 2 * i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph(taskGraphName) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestWarmUpManifest::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            if (c.get(i) != 3 * i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean testRecord(Path manifest) throws IOException, TornadoExecutionPlanException {
+        if (!run("warmup") || WarmUpManifest.getStatistics().recordedGraphs() != 1) {
+            return false;
+        }
+        WarmUpManifest.save();
+        List<WarmUpManifest.GraphEntry> graphs = WarmUpManifest.read(manifest);
+        if (graphs.size() != 1 || !graphs.getFirst().taskGraphName().equals("warmup") || graphs.getFirst().tasks().size() != 1) {
+            return false;
+        }
+        WarmUpManifest.TaskEntry task = graphs.getFirst().tasks().getFirst();
+        return task.declaringClass().equals(TestWarmUpManifest.class.getName()) && task.methodName().equals("add") && task.grid().equals("-");
+    }
+
+    private static boolean testReplay() throws TornadoExecutionPlanException {
+        WarmUpManifest.replay();
+        if (WarmUpManifest.getStatistics().replayedGraphs() != 1) {
+            return false;
+        }
+
+        // Same task-graph as the recorded one: compiled in the background
+        if (!run("warmup") || WarmUpManifest.getStatistics().precompiledGraphs() != 1) {
+            return false;
+        }
+
+        // Task-graph not recorded in the manifest
+        return run("other") && WarmUpManifest.getStatistics().precompiledGraphs() == 1;
+    }
+
+    private static boolean testInvalidManifest(Path manifest) throws IOException {
+        Files.writeString(manifest, "not a manifest\n");
+        try {
+            WarmUpManifest.read(manifest);
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestWarmUpManifest");
+
+        // The options are read when the TornadoVM runtime is loaded
+        Path directory = Files.createTempDirectory("tornado-warmup");
+        Path manifest = directory.resolve("warmup.manifest");
+        System.setProperty("tornado.warmup.manifest", manifest.toString());
+        System.setProperty("tornado.warmup.manifest.record", "true");
+
+        // The manifest is written again when the JVM exits: remove it afterwards
+        directory.toFile().deleteOnExit();
+        File manifestFile = manifest.toFile();
+        manifestFile.deleteOnExit();
+
+        boolean pass = testRecord(manifest) && testReplay() && testInvalidManifest(manifest);
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.runtime.tasks.WorkGroupTuner;
+
+/**
+ * Test for the search of the work-group auto-tuner. The kernel times come from
+ * a simulated cost function, so the test does not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado uk.ac.manchester.tornado.runtime.tests.TestWorkGroupTuner
+ * </code>
+ */
+public class TestWorkGroupTuner {
+
+    private static final String KERNEL = WorkGroupTuner.getKernelSignature("vectorAdd", "__kernel void vectorAdd() {}".getBytes());
+    private static final String DEVICE = "Simulated GPU";
+    private static final long[] GLOBAL_WORK = { 4096 };
+    private static final long[] DEFAULT_LOCAL_WORK = { 1024 };
+    private static final long[] MAX_WORK_ITEM_SIZES = { 1024, 1024, 64 };
+    private static final long MAX_WORK_GROUP_SIZE = 1024;
+
+    /**
+     * Simulated kernel time: the fastest local work size is 128.
+     */
+    private static long simulatedTime(long[] localWork) {
+        return 1000 + 100 * Math.abs(Long.numberOfTrailingZeros(localWork[0]) - 7);
+    }
+
+    private static boolean testCandidates() {
+        List<long[]> candidates = WorkGroupTuner.getCandidates(new long[] { 256, 96 }, new long[] { 16, 16 }, MAX_WORK_ITEM_SIZES, 256, 2);
+        for (long[] candidate : candidates) {
+            if (256 % candidate[0] != 0 || 96 % candidate[1] != 0 || candidate[0] * candidate[1] > 256) {
+                return false;
+            }
+        }
+        return Arrays.equals(candidates.get(0), new long[] { 16, 16 });
+    }
+
+    private static boolean testSearch(WorkGroupTuner tuner) {
+        int executions = 0;
+        while (tuner.isExploring(KERNEL, DEVICE, GLOBAL_WORK, 1) || executions == 0) {
+            long[] localWork = tuner.getLocalWork(KERNEL, DEVICE, GLOBAL_WORK, DEFAULT_LOCAL_WORK, MAX_WORK_ITEM_SIZES, MAX_WORK_GROUP_SIZE, 1);
+            tuner.record(KERNEL, DEVICE, GLOBAL_WORK, localWork, 1, simulatedTime(localWork));
+            if (++executions > 16) {
+                return false;
+            }
+        }
+        long[] best = tuner.getLocalWork(KERNEL, DEVICE, GLOBAL_WORK, DEFAULT_LOCAL_WORK, MAX_WORK_ITEM_SIZES, MAX_WORK_GROUP_SIZE, 1);
+        return best[0] == 128 && tuner.getNumberOfTunedKernels() == 1;
+    }
+
+    private static boolean testDatabase(WorkGroupTuner tuner, Path path) throws IOException {
+        tuner.save();
+        WorkGroupTuner reloaded = new WorkGroupTuner(path, 16);
+        reloaded.load();
+        long[] localWork = reloaded.getLocalWork(KERNEL, DEVICE, GLOBAL_WORK, DEFAULT_LOCAL_WORK, MAX_WORK_ITEM_SIZES, MAX_WORK_GROUP_SIZE, 1);
+        return localWork[0] == 128 && !reloaded.isExploring(KERNEL, DEVICE, GLOBAL_WORK, 1);
+    }
+
+    private static boolean testTunable() {
+        String[] keywords = { "__local", "barrier(" };
+        return WorkGroupTuner.isTunable("c[i] = a[i] + b[i];".getBytes(), keywords) && !WorkGroupTuner.isTunable("barrier(CLK_LOCAL_MEM_FENCE);".getBytes(), keywords);
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.print("Running Native: uk.ac.manchester.tornado.runtime.tests.TestWorkGroupTuner");
+
+        Path path = Files.createTempFile("tornado-autotune", ".db");
+        boolean pass;
+        try {
+            WorkGroupTuner tuner = new WorkGroupTuner(path, 16);
+            pass = testCandidates() && testSearch(tuner) && testDatabase(tuner, path) && testTunable();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        if (pass) {
+            System.out.println(" ................ [PASS]");
+        } else {
+            System.out.println(" ................ [FAIL]");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * How to run?
+ *
+ * <p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestViews
+ * </code>
+ * </p>
+ */
+public class TestViews extends TornadoTestBase {
+    private final int numElements = 256;
+
+    public static void scale(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    public static void increment(IntArray array) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, array.get(i) + 1);
+        }
+    }
+
+    @Test
+    public void testFloatArrayViewSharesMemory() {
+        FloatArray a = new FloatArray(numElements * 2);
+        a.init(1.0f);
+
+        FloatArray view = a.view(numElements, numElements);
+        assertTrue(view.isView());
+        assertFalse(a.isView());
+        assertEquals(numElements, view.getSize());
+
+        view.set(0, 10.0f);
+        a.set(a.getSize() - 1, 20.0f);
+
+        assertEquals(10.0f, a.get(numElements), 0.0f);
+        assertEquals(20.0f, view.get(numElements - 1), 0.0f);
+        assertEquals(1.0f, a.get(numElements - 1), 0.0f);
+    }
+
+    @Test
+    public void testNestedViews() {
+        DoubleArray a = new DoubleArray(numElements);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, i);
+        }
+
+        DoubleArray view = a.view(16, 128).view(8, 32);
+        assertEquals(32, view.getSize());
+        for (int i = 0; i < view.getSize(); i++) {
+            assertEquals(24 + i, view.get(i), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testViewOutOfBounds() {
+        IntArray a = new IntArray(numElements);
+        a.view(numElements - 8, 16);
+    }
+
+    @Test
+    public void testViewsInTaskGraph() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(numElements * 3);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, i);
+        }
+
+        // Read the first partition and write the second one, in place
+        FloatArray input = a.view(0, numElements);
+        FloatArray output = a.view(numElements, numElements);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestViews::scale, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(i, a.get(i), 0.0f);
+            assertEquals(i * 2.0f, a.get(numElements + i), 0.0f);
+            // The elements after the output view are not written back
+            assertEquals(2 * numElements + i, a.get(2 * numElements + i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testViewsInTaskGraphPartitions() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(numElements * 4);
+        a.init(0);
+
+        // The header bytes of each view overlap with the previous partition
+        IntArray[] partitions = new IntArray[4];
+        for (int p = 0; p < partitions.length; p++) {
+            partitions[p] = a.view(p * numElements, numElements);
+        }
+
+        for (int p = 0; p < partitions.length; p++) {
+            TaskGraph taskGraph = new TaskGraph("s" + p) //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, partitions[p]) //
+                    .task("t0", TestViews::increment, partitions[p]) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, partitions[p]);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+            }
+            // Update the parent between executions: the next partitions must not overwrite it
+            for (int i = 0; i < numElements; i++) {
+                a.set(p * numElements + i, a.get(p * numElements + i) + 10);
+            }
+        }
+
+        for (int i = 0; i < a.getSize(); i++) {
+            assertEquals(11, a.get(i));
+        }
+    }
+}
@@ -20,6 +20,10 @@ package uk.ac.manchester.tornado.unittests.batches;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.stream.IntStream;
 
@@ -39,6 +43,7 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
 
@@ -472,6 +477,80 @@ public class TestBatches extends TornadoTestBase {
 
     }
 
+    @Test
+    public void test50MBDoubleBuffering() throws TornadoExecutionPlanException {
+
+        long maxAllocMemory = checkMaxHeapAllocationOnDevice(50, MemoryUnit.MB);
+
+        // Fill 80MB of input Array
+        int size = 20000000;
+        // or as much as we can. Each object needs two buffers on the device
+        if (size * 4 > maxAllocMemory) {
+            size = (int) ((maxAllocMemory / 4 / 6) * 0.9);
+        }
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+        FloatArray arrayC = new FloatArray(size);
+
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> {
+            arrayA.set(idx, idx);
+            arrayB.set(idx, idx);
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, arrayA, arrayB) //
+                .task("t0", TestBatches::compute, arrayA, arrayB, arrayC) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayC);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withBatch("50MB", 2) // Slots of 50 MB, two buffers per object
+                    .execute();
+        }
+
+        for (int i = 0; i < arrayA.getSize(); i++) {
+            assertEquals(arrayA.get(i) + arrayB.get(i), arrayC.get(i), 0.1f);
+        }
+    }
+
+    @Test
+    public void test50MBTripleBuffering() throws TornadoExecutionPlanException {
+
+        long maxAllocMemory = checkMaxHeapAllocationOnDevice(50, MemoryUnit.MB);
+
+        // Fill 80MB of input Array
+        int size = 20000000;
+        // or as much as we can. Each object needs three buffers on the device
+        if (size * 4 > maxAllocMemory) {
+            size = (int) ((maxAllocMemory / 4 / 9) * 0.9);
+        }
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+        FloatArray arrayC = new FloatArray(size);
+
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> {
+            arrayA.set(idx, idx);
+            arrayB.set(idx, idx);
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, arrayA, arrayB) //
+                .task("t0", TestBatches::compute, arrayA, arrayB, arrayC) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayC);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withBatch("50MB", 3) // Slots of 50 MB, three buffers per object
+                    .execute();
+            // Second execution reuses the buffer sets
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < arrayA.getSize(); i++) {
+            assertEquals(arrayA.get(i) + arrayB.get(i), arrayC.get(i), 0.1f);
+        }
+    }
+
     @Test
     public void test50MBInteger() throws TornadoExecutionPlanException {
 
@@ -935,6 +1014,37 @@ public class TestBatches extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testBatchFromMappedFile() throws TornadoExecutionPlanException, IOException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // 64MB of floats in the file. The batches are copied from the mapped file to the device
+        final int size = 1024 * 1024 * 16;
+        Path inputPath = Files.createTempFile("tornado-batch", ".bin");
+        inputPath.toFile().deleteOnExit();
+        FloatArray input = FloatArray.fromFile(inputPath, FileChannel.MapMode.READ_WRITE, TornadoNativeArray.ARRAY_HEADER, size);
+        for (int i = 0; i < size; i++) {
+            input.set(i, i);
+        }
+        input = FloatArray.fromFile(inputPath, FileChannel.MapMode.READ_ONLY);
+
+        FloatArray output = new FloatArray(size);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestBatches::compute, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withBatch("16MB") // Batches of 16MB
+                    .execute();
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(input.get(i) + 100, output.get(i), 0.1f);
+        }
+    }
+
     private long checkMaxHeapAllocationOnDevice(int size, MemoryUnit memoryUnit) throws UnsupportedConfigurationException {
         long maxAllocMemory = getTornadoRuntime().getDefaultDevice().getDeviceContext().getMemoryManager().getHeapSize();
 
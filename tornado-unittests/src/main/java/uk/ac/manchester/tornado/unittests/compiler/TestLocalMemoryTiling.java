@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the tiling of the sequential loops and of the stencils of 2D
+ * kernels in local memory. The loops are only tiled by the OpenCL backend on
+ * GPUs; on other devices, the tests only check the results.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.tiling=True" uk.ac.manchester.tornado.unittests.compiler.TestLocalMemoryTiling
+ * </code>
+ */
+public class TestLocalMemoryTiling extends TornadoTestBase {
+
+    private static final float DELTA = 0.01f;
+
+    private static final Pattern GLOBAL_WORK_SIZE = Pattern.compile("Global work size  : \\[(\\d+), (\\d+)");
+
+    private static final Pattern LOCAL_WORK_SIZE = Pattern.compile("Local  work size  : \\[(\\d+), (\\d+)");
+
+    public static void matrixMultiplication(FloatArray a, FloatArray b, FloatArray c, final int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            for (@Parallel int j = 0; j < size; j++) {
+                float sum = 0.0f;
+                for (int k = 0; k < size; k++) {
+                    sum += a.get(i * size + k) * b.get(k * size + j);
+                }
+                c.set(i * size + j, sum);
+            }
+        }
+    }
+
+    public static void jacobi(FloatArray a, FloatArray b, final int n) {
+        for (@Parallel int i = 1; i < n - 1; i++) {
+            for (@Parallel int j = 1; j < n - 1; j++) {
+                b.set(i * n + j, 0.2f * (a.get(i * n + j) + a.get((i - 1) * n + j) + a.get((i + 1) * n + j) + a.get(i * n + j - 1) + a.get(i * n + j + 1)));
+            }
+        }
+    }
+
+    public static void stencil3d(int n, int sz, FloatArray a0, FloatArray a1, float fac) {
+        for (@Parallel int i = 1; i < n + 1; i++) {
+            for (@Parallel int j = 1; j < n + 1; j++) {
+                for (int k = 1; k < n + 1; k++) {
+                    a1.set(i * sz * sz + j * sz + k, (a0.get(i * sz * sz + (j - 1) * sz + k) + a0.get(i * sz * sz + (j + 1) * sz + k) //
+                            + a0.get((i - 1) * sz * sz + j * sz + k) + a0.get((i + 1) * sz * sz + j * sz + k) //
+                            + a0.get((i - 1) * sz * sz + (j - 1) * sz + (k - 1)) + a0.get((i + 1) * sz * sz + (j + 1) * sz + (k + 1)) //
+                            + a0.get(i * sz * sz + j * sz + (k - 1)) + a0.get(i * sz * sz + j * sz + (k + 1))) * fac);
+                }
+            }
+        }
+    }
+
+    private static boolean isTilingSupported() {
+        TornadoDevice device = getTornadoRuntime().getDefaultDevice();
+        return getTornadoRuntime().getBackendType(device.getBackendIndex()) == TornadoVMBackendType.OPENCL && device.getDeviceType() == TornadoDeviceType.GPU;
+    }
+
+    /**
+     * It runs the task-graph on the device and returns the thread information
+     * printed by the execution.
+     */
+    private static String run(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream threadInfo = new ByteArrayOutputStream();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            System.setOut(new PrintStream(threadInfo, true));
+            executionPlan.withThreadInfo().execute();
+        } finally {
+            System.setOut(stdout);
+        }
+        return threadInfo.toString();
+    }
+
+    private static void checkMatrixMultiplication(int size) throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(size * size);
+        FloatArray b = new FloatArray(size * size);
+        FloatArray c = new FloatArray(size * size);
+        FloatArray sequential = new FloatArray(size * size);
+        for (int i = 0; i < size * size; i++) {
+            a.set(i, (i % 7) * 0.5f);
+            b.set(i, (i % 5) * 0.25f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestLocalMemoryTiling::matrixMultiplication, a, b, c, size) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        String threadInfo = run(taskGraph);
+        matrixMultiplication(a, b, sequential, size);
+
+        for (int i = 0; i < size * size; i++) {
+            assertEquals(sequential.get(i), c.get(i), DELTA);
+        }
+
+        if (isTilingSupported() && size % 16 == 0) {
+            checkTiledWork(threadInfo, size);
+        }
+    }
+
+    /**
+     * The tiled kernel runs one thread per iteration of the parallel loops, with
+     * square work-groups whose size divides the iterations.
+     */
+    private static void checkTiledWork(String threadInfo, int iterations) {
+        Matcher globalWorkSize = GLOBAL_WORK_SIZE.matcher(threadInfo);
+        Matcher localWorkSize = LOCAL_WORK_SIZE.matcher(threadInfo);
+        assertTrue("The thread information of the task was not printed", globalWorkSize.find() && localWorkSize.find());
+        assertEquals(iterations, Integer.parseInt(globalWorkSize.group(1)));
+        assertEquals(iterations, Integer.parseInt(globalWorkSize.group(2)));
+        int tileSize = Integer.parseInt(localWorkSize.group(1));
+        assertEquals(tileSize, Integer.parseInt(localWorkSize.group(2)));
+        assertTrue("Unexpected tile size " + tileSize, (tileSize == 4 || tileSize == 8 || tileSize == 16) && iterations % tileSize == 0);
+    }
+
+    private static void checkJacobi(int n) throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(n * n);
+        FloatArray b = new FloatArray(n * n);
+        FloatArray sequential = new FloatArray(n * n);
+        for (int i = 0; i < n * n; i++) {
+            a.set(i, (i % 11) * 0.5f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+                .task("t0", TestLocalMemoryTiling::jacobi, a, b, n) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        String threadInfo = run(taskGraph);
+        jacobi(a, sequential, n);
+
+        for (int i = 0; i < n * n; i++) {
+            assertEquals(sequential.get(i), b.get(i), DELTA);
+        }
+
+        if (isTilingSupported() && (n - 2) % 16 == 0) {
+            checkTiledWork(threadInfo, n - 2);
+        }
+    }
+
+    @Test
+    public void testJacobiTiled() throws TornadoExecutionPlanException {
+        checkJacobi(258);
+    }
+
+    /**
+     * The number of iterations of the parallel loops is not a multiple of any tile
+     * size, so the neighbours are not tiled.
+     */
+    @Test
+    public void testJacobiNotTiled() throws TornadoExecutionPlanException {
+        checkJacobi(252);
+    }
+
+    @Test
+    public void testStencil3DTiled() throws TornadoExecutionPlanException {
+        final int n = 64;
+        final int sz = n + 2;
+        FloatArray a0 = new FloatArray(sz * sz * sz);
+        FloatArray a1 = new FloatArray(sz * sz * sz);
+        FloatArray sequential = new FloatArray(sz * sz * sz);
+        for (int i = 0; i < sz * sz * sz; i++) {
+            a0.set(i, (i % 13) * 0.25f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a0) //
+                .task("t0", TestLocalMemoryTiling::stencil3d, n, sz, a0, a1, 0.5f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a1);
+
+        String threadInfo = run(taskGraph);
+        stencil3d(n, sz, a0, sequential, 0.5f);
+
+        for (int i = 0; i < sz * sz * sz; i++) {
+            assertEquals(sequential.get(i), a1.get(i), DELTA);
+        }
+
+        if (isTilingSupported()) {
+            checkTiledWork(threadInfo, n);
+        }
+    }
+
+    @Test
+    public void testMatrixMultiplicationTiled() throws TornadoExecutionPlanException {
+        checkMatrixMultiplication(256);
+    }
+
+    /**
+     * The size is not a multiple of any tile size, so the loops are not tiled and
+     * the local work size is selected as for any other kernel.
+     */
+    @Test
+    public void testMatrixMultiplicationNotTiled() throws TornadoExecutionPlanException {
+        checkMatrixMultiplication(250);
+    }
+
+}
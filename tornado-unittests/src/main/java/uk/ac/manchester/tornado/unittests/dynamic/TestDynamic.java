@@ -248,4 +248,32 @@ public class TestDynamic extends TornadoTestBase {
             assertEquals(a.get(i) * 2, b.get(i));
         }
     }
+
+    @Test
+    public void testDynamicCostModel() throws TornadoExecutionPlanException {
+        int numElements = 16000;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+
+        a.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestDynamic::compute, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDynamicReconfiguration(Policy.COST_MODEL, DRMode.SERIAL);
+
+            // Each execution might run on a different device while the model explores them
+            for (int i = 0; i < 10; i++) {
+                b.init(0);
+                executionPlan.execute();
+                for (int j = 0; j < b.getSize(); j++) {
+                    assertEquals(a.get(j) * 2, b.get(j));
+                }
+            }
+        }
+    }
 }
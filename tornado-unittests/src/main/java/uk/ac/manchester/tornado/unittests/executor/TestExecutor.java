@@ -19,10 +19,14 @@ package uk.ac.manchester.tornado.unittests.executor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 
@@ -34,6 +38,7 @@ import uk.ac.manchester.tornado.api.TornadoExecutionResult;
 import uk.ac.manchester.tornado.api.TornadoProfilerResult;
 import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
@@ -52,6 +57,12 @@ import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
  */
 public class TestExecutor extends TornadoTestBase {
     // CHECKSTYLE:OFF
+
+    public static void increment(IntArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1);
+        }
+    }
     @Test
     public void test01() throws TornadoExecutionPlanException {
         int numElements = 16;
@@ -403,5 +414,68 @@ public class TestExecutor extends TornadoTestBase {
         }
     }
 
+    /**
+     * Test multiple queued executions of the same execution plan. The executions
+     * are run in submission order, so each one observes the result of the
+     * previous one.
+     *
+     * @throws TornadoExecutionPlanException
+     */
+    @Test
+    public void test08() throws TornadoExecutionPlanException {
+        int numElements = 256;
+        final int numExecutions = 8;
+        IntArray a = new IntArray(numElements);
+        a.init(0);
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestExecutor::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(tg.snapshot())) {
+            List<CompletableFuture<TornadoExecutionResult>> futures = new ArrayList<>();
+            for (int i = 0; i < numExecutions; i++) {
+                futures.add(executionPlan.submit());
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            for (CompletableFuture<TornadoExecutionResult> future : futures) {
+                assertTrue(future.join().isReady());
+            }
+        }
+
+        for (int i = 0; i < a.getSize(); i++) {
+            assertEquals(numExecutions, a.get(i));
+        }
+    }
+
+    /**
+     * Test that a synchronous execution waits for the asynchronous executions in
+     * flight.
+     *
+     * @throws TornadoExecutionPlanException
+     */
+    @Test
+    public void test09() throws TornadoExecutionPlanException {
+        int numElements = 256;
+        IntArray a = new IntArray(numElements);
+        a.init(0);
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestExecutor::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(tg.snapshot())) {
+            executionPlan.submit();
+            executionPlan.submit();
+            executionPlan.execute();
+            for (int i = 0; i < a.getSize(); i++) {
+                assertEquals(3, a.get(i));
+            }
+        }
+    }
+
     // CHECKSTYLE:ON
 }
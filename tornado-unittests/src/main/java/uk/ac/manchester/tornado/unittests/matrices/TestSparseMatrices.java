@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.matrices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.sparse.COOMatrixFloat;
+import uk.ac.manchester.tornado.api.types.sparse.CSRMatrixDouble;
+import uk.ac.manchester.tornado.api.types.sparse.CSRMatrixFloat;
+import uk.ac.manchester.tornado.api.types.sparse.ELLMatrixFloat;
+import uk.ac.manchester.tornado.api.types.sparse.MatrixMarketReader;
+import uk.ac.manchester.tornado.api.types.sparse.SELLMatrixFloat;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the sparse matrix types and the Matrix Market reader.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.matrices.TestSparseMatrices
+ * </code>
+ */
+public class TestSparseMatrices extends TornadoTestBase {
+
+    private static final float DELTA = 0.001f;
+
+    public static void spmvCSR(CSRMatrixFloat matrix, FloatArray x, FloatArray y, final int numRows) {
+        for (@Parallel int i = 0; i < numRows; i++) {
+            float sum = 0.0f;
+            for (int j = matrix.getRowPointers().get(i); j < matrix.getRowPointers().get(i + 1); j++) {
+                sum += matrix.getValues().get(j) * x.get(matrix.getColumnIndices().get(j));
+            }
+            y.set(i, sum);
+        }
+    }
+
+    public static void spmvELL(ELLMatrixFloat matrix, FloatArray x, FloatArray y, final int numRows) {
+        for (@Parallel int i = 0; i < numRows; i++) {
+            float sum = 0.0f;
+            for (int k = 0; k < matrix.getRowLengths().get(i); k++) {
+                int index = k * numRows + i;
+                sum += matrix.getValues().get(index) * x.get(matrix.getColumnIndices().get(index));
+            }
+            y.set(i, sum);
+        }
+    }
+
+    public static void spmvSELL(SELLMatrixFloat matrix, FloatArray x, FloatArray y, final int numRows, final int chunkSize) {
+        for (@Parallel int p = 0; p < numRows; p++) {
+            int start = matrix.getChunkPointers().get(p / chunkSize) + p % chunkSize;
+            float sum = 0.0f;
+            for (int k = 0; k < matrix.getRowLengths().get(p); k++) {
+                int index = start + k * chunkSize;
+                sum += matrix.getValues().get(index) * x.get(matrix.getColumnIndices().get(index));
+            }
+            y.set(matrix.getRowPermutation().get(p), sum);
+        }
+    }
+
+    /**
+     * Random matrix in which the length of the rows follows a power law, as in
+     * graphs.
+     */
+    private static float[][] createMatrix(int numRows, int numColumns, long seed) {
+        Random random = new Random(seed);
+        float[][] matrix = new float[numRows][numColumns];
+        for (int i = 0; i < numRows; i++) {
+            int length = Math.min(numColumns, (int) (2 / Math.pow(1 - random.nextDouble(), 1.5)));
+            for (int k = 0; k < length; k++) {
+                matrix[i][random.nextInt(numColumns)] = random.nextFloat() + 0.5f;
+            }
+        }
+        return matrix;
+    }
+
+    private static FloatArray createVector(int size) {
+        FloatArray x = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            x.set(i, (i % 7) * 0.25f);
+        }
+        return x;
+    }
+
+    private static void assertEqualsDense(float[][] expected, CSRMatrixFloat matrix) {
+        assertEquals(expected.length, matrix.getNumRows());
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j], matrix.get(i, j), DELTA);
+            }
+        }
+    }
+
+    private static void assertEqualsArray(FloatArray expected, FloatArray actual) {
+        for (int i = 0; i < expected.getSize(); i++) {
+            assertEquals(expected.get(i), actual.get(i), DELTA * Math.max(1.0f, Math.abs(expected.get(i))));
+        }
+    }
+
+    private static Path writeMatrixMarket(String contents) throws IOException {
+        Path path = Files.createTempFile("tornado-sparse", ".mtx");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, contents);
+        return path;
+    }
+
+    @Test
+    public void testCSRFromDense() {
+        float[][] dense = createMatrix(64, 48, 1);
+        CSRMatrixFloat matrix = new CSRMatrixFloat(dense);
+        assertEqualsDense(dense, matrix);
+
+        FloatArray x = createVector(48);
+        FloatArray y = new FloatArray(64);
+        matrix.multiply(x, y);
+        for (int i = 0; i < 64; i++) {
+            float expected = 0.0f;
+            for (int j = 0; j < 48; j++) {
+                expected += dense[i][j] * x.get(j);
+            }
+            assertEquals(expected, y.get(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testCOOToCSR() {
+        float[][] dense = createMatrix(100, 80, 2);
+        CSRMatrixFloat csr = new CSRMatrixFloat(dense);
+
+        // Shuffle the elements of the COO matrix
+        COOMatrixFloat coo = csr.toCOO();
+        Random random = new Random(3);
+        for (int i = coo.getNumNonZeros() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int row = coo.getRowIndices().get(i);
+            int column = coo.getColumnIndices().get(i);
+            float value = coo.getValues().get(i);
+            coo.getRowIndices().set(i, coo.getRowIndices().get(j));
+            coo.getColumnIndices().set(i, coo.getColumnIndices().get(j));
+            coo.getValues().set(i, coo.getValues().get(j));
+            coo.getRowIndices().set(j, row);
+            coo.getColumnIndices().set(j, column);
+            coo.getValues().set(j, value);
+        }
+
+        CSRMatrixFloat result = coo.toCSR();
+        assertEquals(csr.getNumNonZeros(), result.getNumNonZeros());
+        for (int i = 0; i < csr.getNumNonZeros(); i++) {
+            assertEquals(csr.getColumnIndices().get(i), result.getColumnIndices().get(i));
+            assertEquals(csr.getValues().get(i), result.getValues().get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testELLAndSELL() {
+        float[][] dense = createMatrix(1000, 1000, 4);
+        CSRMatrixFloat csr = new CSRMatrixFloat(dense);
+        ELLMatrixFloat ell = csr.toELL();
+        SELLMatrixFloat sell = csr.toSELL(32, 256);
+
+        FloatArray x = createVector(1000);
+        FloatArray expected = new FloatArray(1000);
+        FloatArray y = new FloatArray(1000);
+        csr.multiply(x, expected);
+        ell.multiply(x, y);
+        assertEqualsArray(expected, y);
+        y.init(0.0f);
+        sell.multiply(x, y);
+        assertEqualsArray(expected, y);
+
+        // Sorting the rows by length reduces the padding of rows with very different lengths
+        assertTrue(sell.getPaddingOverhead() < ell.getPaddingOverhead());
+        assertTrue(sell.getPaddingOverhead() >= 1.0f);
+    }
+
+    @Test
+    public void testSpmvCSR() throws TornadoExecutionPlanException {
+        final int numRows = 2048;
+        CSRMatrixFloat matrix = new CSRMatrixFloat(createMatrix(numRows, numRows, 5));
+        FloatArray x = createVector(numRows);
+        FloatArray y = new FloatArray(numRows);
+        FloatArray expected = new FloatArray(numRows);
+        matrix.multiply(x, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, matrix, x) //
+                .task("t0", TestSparseMatrices::spmvCSR, matrix, x, y, numRows) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        assertEqualsArray(expected, y);
+    }
+
+    @Test
+    public void testSpmvELL() throws TornadoExecutionPlanException {
+        final int numRows = 2048;
+        CSRMatrixFloat csr = new CSRMatrixFloat(createMatrix(numRows, numRows, 6));
+        ELLMatrixFloat matrix = csr.toELL();
+        FloatArray x = createVector(numRows);
+        FloatArray y = new FloatArray(numRows);
+        FloatArray expected = new FloatArray(numRows);
+        csr.multiply(x, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, matrix, x) //
+                .task("t0", TestSparseMatrices::spmvELL, matrix, x, y, numRows) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        assertEqualsArray(expected, y);
+    }
+
+    @Test
+    public void testSpmvSELL() throws TornadoExecutionPlanException {
+        final int numRows = 2048;
+        final int chunkSize = 32;
+        CSRMatrixFloat csr = new CSRMatrixFloat(createMatrix(numRows, numRows, 7));
+        SELLMatrixFloat matrix = csr.toSELL(chunkSize, 512);
+        FloatArray x = createVector(numRows);
+        FloatArray y = new FloatArray(numRows);
+        FloatArray expected = new FloatArray(numRows);
+        csr.multiply(x, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, matrix, x) //
+                .task("t0", TestSparseMatrices::spmvSELL, matrix, x, y, numRows, chunkSize) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        assertEqualsArray(expected, y);
+    }
+
+    @Test
+    public void testReadSymmetric() throws IOException {
+        String contents = """
+                %%MatrixMarket matrix coordinate real symmetric
+                % comment
+                %
+                4 4 5
+                1 1 2.5
+                3 1 -1.0e-1
+                2 2 4
+                4 2 .5
+                4 4 1E2
+                """;
+        CSRMatrixFloat matrix = MatrixMarketReader.readCSRFloat(writeMatrixMarket(contents));
+        float[][] expected = { //
+                { 2.5f, 0, -0.1f, 0 }, //
+                { 0, 4.0f, 0, 0.5f }, //
+                { -0.1f, 0, 0, 0 }, //
+                { 0, 0.5f, 0, 100.0f } };
+        assertEquals(7, matrix.getNumNonZeros());
+        assertEqualsDense(expected, matrix);
+
+        CSRMatrixDouble matrixDouble = MatrixMarketReader.readCSRDouble(new ByteArrayInputStream(contents.getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(7, matrixDouble.getNumNonZeros());
+        assertEquals(-0.1, matrixDouble.get(0, 2), 0.0);
+        assertEquals(100.0, matrixDouble.get(3, 3), 0.0);
+    }
+
+    @Test
+    public void testReadPatternAndSkewSymmetric() throws IOException {
+        CSRMatrixFloat pattern = MatrixMarketReader.readCSRFloat(writeMatrixMarket("""
+                %%MatrixMarket matrix coordinate pattern general
+                2 3 2
+                1 3
+                2 1
+                """));
+        assertEquals(1.0f, pattern.get(0, 2), 0.0f);
+        assertEquals(1.0f, pattern.get(1, 0), 0.0f);
+        assertEquals(0.0f, pattern.get(1, 1), 0.0f);
+
+        CSRMatrixFloat skew = MatrixMarketReader.readCSRFloat(writeMatrixMarket("""
+                %%MatrixMarket matrix coordinate integer skew-symmetric
+                3 3 2
+                2 1 3
+                3 2 -7
+                """));
+        assertEquals(3.0f, skew.get(1, 0), 0.0f);
+        assertEquals(-3.0f, skew.get(0, 1), 0.0f);
+        assertEquals(7.0f, skew.get(1, 2), 0.0f);
+    }
+
+    @Test
+    public void testReadInvalid() throws IOException {
+        String[] invalid = { //
+                "%%MatrixMarket matrix array real general\n2 2\n1\n2\n3\n4\n", //
+                "%%MatrixMarket matrix coordinate complex general\n1 1 1\n1 1 1 0\n", //
+                "%%MatrixMarket matrix coordinate real general\n2 2 2\n1 1 1\n", //
+                "%%MatrixMarket matrix coordinate real general\n2 2 1\n3 1 1\n", //
+                "%%MatrixMarket matrix coordinate real general\n2 2 1\n1 1 x\n", //
+                "not a matrix\n" };
+        for (String contents : invalid) {
+            try {
+                MatrixMarketReader.readCSRFloat(writeMatrixMarket(contents));
+                throw new AssertionError("Expected an IOException for: " + contents);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testReadLargeFile() throws IOException {
+        // Large enough to be parsed in several chunks
+        final int numRows = 20000;
+        final int numEntries = 400000;
+        Random random = new Random(8);
+        COOMatrixFloat coo = new COOMatrixFloat(numRows, numRows, numEntries);
+        Path path = Files.createTempFile("tornado-sparse", ".mtx");
+        path.toFile().deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write("%%MatrixMarket matrix coordinate real general\n");
+            writer.write(numRows + " " + numRows + " " + numEntries + "\n");
+            // Unique coordinates: each column has one entry in every block of 1000 rows
+            for (int i = 0; i < numEntries; i++) {
+                int row = (i / numRows) * 1000 + random.nextInt(1000);
+                int column = i % numRows;
+                float value = random.nextInt(100000) / 1000.0f;
+                coo.getRowIndices().set(i, row);
+                coo.getColumnIndices().set(i, column);
+                coo.getValues().set(i, value);
+                writer.write((row + 1) + " " + (column + 1) + " " + value + "\n");
+            }
+        }
+        assertTrue(Files.size(path) > 4 << 20);
+
+        CSRMatrixFloat expected = coo.toCSR();
+        CSRMatrixFloat matrix = MatrixMarketReader.readCSRFloat(path);
+        assertEquals(expected.getNumNonZeros(), matrix.getNumNonZeros());
+        IntArray expectedRows = expected.getRowPointers();
+        for (int i = 0; i <= numRows; i++) {
+            assertEquals(expectedRows.get(i), matrix.getRowPointers().get(i));
+        }
+        for (int i = 0; i < expected.getNumNonZeros(); i++) {
+            assertEquals(expected.getColumnIndices().get(i), matrix.getColumnIndices().get(i));
+            assertEquals(expected.getValues().get(i), matrix.getValues().get(i), 0.0f);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for skipping the copies of the arrays that were not modified on the
+ * host since the last execution.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.dirty.tracking=True" uk.ac.manchester.tornado.unittests.memory.TestDirtyTracking
+ * </code>
+ */
+public class TestDirtyTracking extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    public static void add(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void increment(FloatArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1.0f);
+        }
+    }
+
+    public static void copy(FloatArray a, FloatArray b) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i));
+        }
+    }
+
+    @Test
+    public void testUnmodifiedInputs() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestDirtyTracking::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withProfiler(ProfilerMode.SILENT).execute();
+
+            // Only b is modified: a is copied if writes are not tracked
+            b.set(0, 10.0f);
+            TornadoExecutionResult executionResult = executionPlan.execute();
+
+            assertEquals(11.0f, c.get(0), 0.001f);
+            for (int i = 1; i < NUM_ELEMENTS; i++) {
+                assertEquals(3.0f, c.get(i), 0.001f);
+            }
+
+            if (TornadoNativeArray.DIRTY_TRACKING) {
+                assertEquals(a.getNumBytesOfSegment(), executionResult.getProfilerResult().getTotalBytesCopyInSkipped());
+            } else {
+                assertEquals(0, executionResult.getProfilerResult().getTotalBytesCopyInSkipped());
+            }
+        }
+    }
+
+    @Test
+    public void testModifiedByKernel() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        a.init(0.0f);
+
+        // The input is modified on the device, so it must be copied in every execution
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestDirtyTracking::increment, a) //
+                .task("t1", TestDirtyTracking::copy, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int k = 0; k < 4; k++) {
+                // Backends that share the memory with the host also update the input
+                float hostValue = a.get(0);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(hostValue + 1.0f, b.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCopyOutAndReuse() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        a.init(0.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestDirtyTracking::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int k = 0; k < 4; k++) {
+                executionPlan.execute();
+            }
+            // Host writes after the last copy-out
+            a.init(10.0f);
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(11.0f, a.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testViewModification() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestDirtyTracking::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+
+            // Writes through a view modify the array it comes from
+            FloatArray view = a.view(NUM_ELEMENTS / 2, NUM_ELEMENTS / 2);
+            view.init(5.0f);
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            float expected = (i < NUM_ELEMENTS / 2) ? 3.0f : 7.0f;
+            assertEquals(expected, c.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testMarkDirty() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestDirtyTracking::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+
+            // Writes to the memory segment must be notified
+            a.getSegment().setAtIndex(JAVA_FLOAT, 0, 20.0f);
+            a.markDirty();
+            executionPlan.execute();
+        }
+
+        assertEquals(22.0f, c.get(0), 0.001f);
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the native arrays backed by memory-mapped files.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestMappedArrays
+ * </code>
+ */
+public class TestMappedArrays extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+
+    public static void saxpy(FloatArray x, FloatArray y, float alpha) {
+        for (@Parallel int i = 0; i < y.getSize(); i++) {
+            y.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    private static Path createTempFile() throws IOException {
+        Path path = Files.createTempFile("tornado-mapped", ".bin");
+        path.toFile().deleteOnExit();
+        return path;
+    }
+
+    /**
+     * Writes a file with the given floats after a region of {@code dataOffset} bytes filled with zeros.
+     */
+    private static Path writeFloats(long dataOffset, float[] values) throws IOException {
+        Path path = createTempFile();
+        ByteBuffer buffer = ByteBuffer.allocate((int) dataOffset + values.length * Float.BYTES).order(ByteOrder.nativeOrder());
+        buffer.position((int) dataOffset);
+        buffer.asFloatBuffer().put(values);
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static float[] sequence(int size) {
+        float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    @Test
+    public void testReadWriteRoundTrip() throws IOException {
+        Path path = createTempFile();
+        FloatArray array = FloatArray.fromFile(path, FileChannel.MapMode.READ_WRITE, TornadoNativeArray.ARRAY_HEADER, NUM_ELEMENTS);
+        assertEquals(NUM_ELEMENTS, array.getSize());
+        assertEquals(TornadoNativeArray.ARRAY_HEADER + (long) NUM_ELEMENTS * Float.BYTES, Files.size(path));
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            array.set(i, i * 2.0f);
+        }
+        array.getSegmentWithHeader().force();
+
+        // The file can be mapped again without the number of elements
+        FloatArray mapped = FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY);
+        assertEquals(NUM_ELEMENTS, mapped.getSize());
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i * 2.0f, mapped.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testReadOnlyDoesNotModifyFile() throws IOException {
+        // The header region of the file does not store the number of elements
+        Path path = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        byte[] contents = Files.readAllBytes(path);
+
+        FloatArray array = FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY);
+        assertEquals(NUM_ELEMENTS, array.getSize());
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i, array.get(i), 0.0f);
+        }
+        assertArrayEquals(contents, Files.readAllBytes(path));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnlyWrite() throws IOException {
+        Path path = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        FloatArray array = FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY);
+        array.set(0, 1.0f);
+    }
+
+    @Test
+    public void testPrivateDoesNotModifyFile() throws IOException {
+        Path path = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        byte[] contents = Files.readAllBytes(path);
+
+        FloatArray array = FloatArray.fromFile(path, FileChannel.MapMode.PRIVATE);
+        array.init(-1.0f);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(-1.0f, array.get(i), 0.0f);
+        }
+        assertArrayEquals(contents, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void testDataOffset() throws IOException {
+        // 4KB of user-defined header before the elements
+        final long dataOffset = 4096;
+        Path path = writeFloats(dataOffset, sequence(NUM_ELEMENTS));
+
+        FloatArray array = FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY, dataOffset, NUM_ELEMENTS / 2);
+        assertEquals(NUM_ELEMENTS / 2, array.getSize());
+        for (int i = 0; i < array.getSize(); i++) {
+            assertEquals(i, array.get(i), 0.0f);
+        }
+
+        // Second half of the file
+        FloatArray secondHalf = FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY, dataOffset + (NUM_ELEMENTS / 2) * Float.BYTES, NUM_ELEMENTS / 2);
+        for (int i = 0; i < secondHalf.getSize(); i++) {
+            assertEquals(i + NUM_ELEMENTS / 2, secondHalf.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testOtherTypes() throws IOException {
+        Path path = createTempFile();
+        IntArray ints = IntArray.fromFile(path, FileChannel.MapMode.READ_WRITE, TornadoNativeArray.ARRAY_HEADER, NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            ints.set(i, i);
+        }
+        IntArray readInts = IntArray.fromFile(path, FileChannel.MapMode.READ_ONLY);
+        assertEquals(NUM_ELEMENTS, readInts.getSize());
+        assertEquals(NUM_ELEMENTS - 1, readInts.get(NUM_ELEMENTS - 1));
+
+        Path doublesPath = createTempFile();
+        DoubleArray doubles = DoubleArray.fromFile(doublesPath, FileChannel.MapMode.READ_WRITE, 64, NUM_ELEMENTS);
+        doubles.init(3.0);
+        DoubleArray readDoubles = DoubleArray.fromFile(doublesPath, FileChannel.MapMode.READ_ONLY, 64, NUM_ELEMENTS);
+        assertEquals(3.0, readDoubles.get(NUM_ELEMENTS - 1), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOffsetWithoutHeader() throws IOException {
+        Path path = writeFloats(0, sequence(NUM_ELEMENTS));
+        FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY, 0, NUM_ELEMENTS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnalignedOffset() throws IOException {
+        Path path = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY, TornadoNativeArray.ARRAY_HEADER + 2, NUM_ELEMENTS - 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void testFileTooSmall() throws IOException {
+        Path path = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        FloatArray.fromFile(path, FileChannel.MapMode.READ_ONLY, TornadoNativeArray.ARRAY_HEADER, NUM_ELEMENTS + 1);
+    }
+
+    @Test
+    public void testTaskGraphWithMappedArrays() throws IOException, TornadoExecutionPlanException {
+        Path inputPath = writeFloats(TornadoNativeArray.ARRAY_HEADER, sequence(NUM_ELEMENTS));
+        Path outputPath = createTempFile();
+
+        FloatArray x = FloatArray.fromFile(inputPath, FileChannel.MapMode.READ_ONLY);
+        FloatArray y = FloatArray.fromFile(outputPath, FileChannel.MapMode.READ_WRITE, TornadoNativeArray.ARRAY_HEADER, NUM_ELEMENTS);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                .task("t0", TestMappedArrays::saxpy, x, y, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        y.getSegmentWithHeader().force();
+
+        FloatArray result = FloatArray.fromFile(outputPath, FileChannel.MapMode.READ_ONLY);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(2.0f * i + 1.0f, result.get(i), 0.001f);
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
+import uk.ac.manchester.tornado.api.profiler.ChromeTraceStream;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the streaming trace writer of the {@link ChromeEventTracer}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.profiler.TestChromeEventTracer
+ * </code>
+ */
+public class TestChromeEventTracer extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 1024;
+
+    public static void increment(IntArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1);
+        }
+    }
+
+    private static long countLines(Path file, String pattern) throws IOException {
+        try (var lines = Files.lines(file)) {
+            return lines.filter(line -> line.contains(pattern)).count();
+        }
+    }
+
+    @Test
+    public void testTraceFile() throws IOException {
+        Path directory = Files.createTempDirectory("tornado-trace");
+        Path file = directory.resolve("trace.json");
+        try (ChromeTraceStream stream = new ChromeTraceStream(file, 1024, 1024 * 1024, 2)) {
+            for (int i = 0; i < 100; i++) {
+                stream.complete("event", "test", i * 1000L, i * 1000L + 500, "index", i);
+            }
+            // The events must be on disk before the file is closed
+            stream.flush();
+            assertEquals(100, stream.getRecordedEvents() + stream.getDroppedEvents());
+            assertEquals(stream.getRecordedEvents(), countLines(file, "\"name\":\"event\""));
+            assertTrue(Files.readString(file).startsWith("["));
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("]", lines.getLast());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"args\":{\"index\":99}")));
+    }
+
+    @Test
+    public void testFileRotation() throws IOException {
+        Path directory = Files.createTempDirectory("tornado-trace");
+        Path file = directory.resolve("trace.json");
+        final int maxFiles = 3;
+        final long maxFileSize = 4096;
+        try (ChromeTraceStream stream = new ChromeTraceStream(file, 64, maxFileSize, maxFiles)) {
+            for (int i = 0; i < 10000; i++) {
+                stream.complete("event", "test", i, i + 1);
+                if (i % 32 == 31) {
+                    // Do not overrun the ring buffer
+                    stream.flush();
+                }
+            }
+            stream.flush();
+            assertEquals(0, stream.getDroppedEvents());
+            assertTrue(stream.getNumRotations() > maxFiles);
+        }
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("trace.1.json")));
+        assertTrue(Files.exists(directory.resolve("trace.2.json")));
+        assertFalse(Files.exists(directory.resolve("trace.3.json")));
+        for (Path trace : List.of(file, directory.resolve("trace.1.json"), directory.resolve("trace.2.json"))) {
+            assertTrue(Files.size(trace) <= maxFileSize + 256);
+        }
+    }
+
+    @Test
+    public void testExecutionPlanSampling() throws TornadoExecutionPlanException, IOException {
+        boolean wasEnabled = ChromeEventTracer.isEnabled();
+        if (ChromeEventTracer.getTraceStream() == null) {
+            Path directory = Files.createTempDirectory("tornado-trace");
+            System.setProperty(ChromeEventTracer.CHROME_EVENT_TRACER_FILENAME_KEY, directory.resolve("chrome.json").toString());
+        }
+
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        a.init(0);
+
+        TaskGraph taskGraph = new TaskGraph("traceSampling") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestChromeEventTracer::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            // Trace one in every two executions
+            executionPlan.withChromeEventTracer(2);
+            for (int i = 0; i < 6; i++) {
+                executionPlan.execute();
+            }
+            // Executions are not traced after the tracer is disabled in the plan
+            executionPlan.withoutChromeEventTracer();
+            for (int i = 0; i < 2; i++) {
+                executionPlan.execute();
+            }
+        } finally {
+            if (!wasEnabled) {
+                ChromeEventTracer.stop();
+            }
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(8, a.get(i));
+        }
+
+        ChromeTraceStream stream = ChromeEventTracer.getTraceStream();
+        stream.flush();
+        assertEquals(0, stream.getDroppedEvents());
+        assertEquals(3, countLines(stream.getFile(), "\"name\":\"traceSampling\",\"cat\":\"taskgraph\""));
+        assertEquals(3, countLines(stream.getFile(), "\"name\":\"traceSampling.t0\",\"cat\":\"launch\""));
+    }
+
+}
@@ -36,6 +36,8 @@ import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.TestHello;
@@ -390,4 +392,79 @@ public class TestProfiler extends TornadoTestBase {
             executionPlan.withoutThreadInfo().execute();
         }
     }
+
+    @Test
+    public void testLatencyPercentiles() throws TornadoExecutionPlanException {
+        final int numElements = 1024;
+        final int numExecutions = 20;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b)//
+                .task("t0", TestHello::add, a, b, c)//
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan plan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            plan.withProfiler(ProfilerMode.SILENT);
+            TornadoExecutionResult executionResult = null;
+            for (int i = 0; i < numExecutions; i++) {
+                executionResult = plan.execute();
+            }
+
+            // The histograms keep the latencies of all executions
+            TornadoProfilerResult profilerResult = executionResult.getProfilerResult();
+            assertEquals(numExecutions, profilerResult.getLatencyHistogram(ProfilerType.TASK_KERNEL_TIME).getCount());
+            // Backends that share the memory with the host do not report the copies
+            long numCopyIns = profilerResult.getLatencyHistogram(ProfilerType.COPY_IN_TIME).getCount();
+            long numCopyOuts = profilerResult.getLatencyHistogram(ProfilerType.COPY_OUT_TIME).getCount();
+            assertTrue(numCopyIns == 0 || numCopyIns == 2 * numExecutions);
+            assertTrue(numCopyOuts == 0 || numCopyOuts == numExecutions);
+
+            long p50 = profilerResult.getKernelTimePercentile(50);
+            long p99 = profilerResult.getKernelTimePercentile(99);
+            assertTrue(p50 > 0);
+            assertTrue(p50 <= p99);
+            assertTrue(p99 <= profilerResult.getLatencyHistogram(ProfilerType.TASK_KERNEL_TIME).getMax());
+            assertTrue(profilerResult.getCopyInTimePercentile(50) <= profilerResult.getCopyInTimePercentile(99));
+            assertTrue(profilerResult.getCopyOutTimePercentile(50) <= profilerResult.getCopyOutTimePercentile(99));
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        final int numThreads = 4;
+        final int valuesPerThread = 100000;
+
+        // Record the values 1..400000 concurrently
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int threadId = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= valuesPerThread; i++) {
+                    histogram.record((long) i * numThreads - threadId);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final long numValues = (long) numThreads * valuesPerThread;
+        assertEquals(numValues, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(numValues, histogram.getMax());
+
+        // Values are reported with a relative error below 1%
+        for (double percentile : new double[] { 10, 50, 90, 99, 99.9 }) {
+            double expected = percentile / 100.0 * numValues;
+            assertEquals(expected, histogram.getValueAtPercentile(percentile), expected * 0.01);
+        }
+        assertEquals(numValues, histogram.getValueAtPercentile(100));
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.common.TornadoVMMultiDeviceNotSupported;
+
+/**
+ * Tests for splitting a parallel task across multiple devices.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestDataParallelSplit
+ * </code>
+ */
+public class TestDataParallelSplit extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+    private static final int NUM_EXECUTIONS = 8;
+
+    public static void saxpy(FloatArray x, FloatArray y, FloatArray z, float alpha) {
+        for (@Parallel int i = 0; i < z.getSize(); i++) {
+            z.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void addIndex(IntArray input, IntArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, input.get(i) + i);
+        }
+    }
+
+    public static void scale(FloatArray x, float alpha) {
+        for (@Parallel int i = 0; i < x.getSize(); i++) {
+            x.set(i, alpha * x.get(i));
+        }
+    }
+
+    public static void reverse(IntArray input, IntArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, input.get(input.getSize() - 1 - i));
+        }
+    }
+
+    public static void increment(IntArray input, IntArray output, int n) {
+        for (@Parallel int i = 0; i < n; i++) {
+            output.set(i, input.get(i) + 1);
+        }
+    }
+
+    private static TornadoDevice[] getTwoDevices() {
+        if (TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getNumDevices() < 2) {
+            throw new TornadoVMMultiDeviceNotSupported("This test needs at least + " + 2 + " devices enabled");
+        }
+        return new TornadoDevice[] { TornadoExecutionPlan.getDevice(0, 0), TornadoExecutionPlan.getDevice(0, 1) };
+    }
+
+    @Test
+    public void testSplitOnSingleDevice() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            x.set(i, i);
+            y.set(i, 1.0f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestDataParallelSplit::saxpy, x, y, z, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(TornadoExecutionPlan.DEFAULT_DEVICE);
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                z.init(0.0f);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(2.0f * i + 1.0f, z.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitOnTwoDevices() throws TornadoExecutionPlanException {
+        TornadoDevice[] devices = getTwoDevices();
+
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            x.set(i, i);
+            y.set(i, 1.0f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestDataParallelSplit::saxpy, x, y, z, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(devices);
+            // The partition might change across executions
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                z.init(0.0f);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(2.0f * i + 1.0f, z.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitWithLoopIndex() throws TornadoExecutionPlanException {
+        TornadoDevice[] devices = getTwoDevices();
+
+        IntArray input = new IntArray(NUM_ELEMENTS);
+        IntArray output = new IntArray(NUM_ELEMENTS);
+        input.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestDataParallelSplit::addIndex, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(devices);
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(10 + i, output.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitNotApplicable() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        x.init(1.0f);
+
+        // Task-graphs with more than one task run on a single device
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                .task("t0", TestDataParallelSplit::scale, x, 2.0f) //
+                .task("t1", TestDataParallelSplit::scale, x, 3.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, x);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(TornadoExecutionPlan.DEFAULT_DEVICE).execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(6.0f, x.get(i), 0.001f);
+        }
+    }
+
+    /**
+     * Each range of the output reads the elements of another range of the input,
+     * so the task is not split.
+     */
+    @Test
+    public void testSplitNotApplicableReversedRead() throws TornadoExecutionPlanException {
+        TornadoDevice[] devices = getTwoDevices();
+
+        IntArray input = new IntArray(NUM_ELEMENTS);
+        IntArray output = new IntArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            input.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestDataParallelSplit::reverse, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(devices);
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                output.init(0);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(NUM_ELEMENTS - 1 - i, output.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * The loop is bounded by a scalar parameter instead of the size of the
+     * arrays, so it would run out of the range of each device if the task was
+     * split.
+     */
+    @Test
+    public void testSplitNotApplicableScalarBound() throws TornadoExecutionPlanException {
+        TornadoDevice[] devices = getTwoDevices();
+
+        IntArray input = new IntArray(NUM_ELEMENTS);
+        IntArray output = new IntArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            input.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestDataParallelSplit::increment, input, output, NUM_ELEMENTS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDataParallelSplit(devices);
+            for (int k = 0; k < NUM_EXECUTIONS; k++) {
+                output.init(0);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(i + 1, output.get(i));
+                }
+            }
+        }
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testRepeatedDevices() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .task("t0", TestDataParallelSplit::scale, x, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, x);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withDataParallelSplit(TornadoExecutionPlan.DEFAULT_DEVICE, TornadoExecutionPlan.DEFAULT_DEVICE);
+        }
+    }
+
+}
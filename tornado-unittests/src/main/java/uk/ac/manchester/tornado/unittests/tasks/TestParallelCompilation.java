@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.common.TornadoVMPTXNotSupported;
+
+/**
+ * Tests for the compilation of all tasks of a task-graph before they are
+ * launched.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.parallel.compilation=True" uk.ac.manchester.tornado.unittests.tasks.TestParallelCompilation
+ * </code>
+ */
+public class TestParallelCompilation extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 2048;
+    private static final int NUM_TASKS = 16;
+
+    public static void add(IntArray a, IntArray b, int value) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i) + value);
+        }
+    }
+
+    public static void multiply(IntArray a, IntArray b, int value) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i) * value);
+        }
+    }
+
+    public static void addIndex(IntArray a, IntArray b) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, a.get(i) + i);
+        }
+    }
+
+    private static IntArray[] createArrays() {
+        IntArray[] arrays = new IntArray[NUM_TASKS + 1];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = new IntArray(NUM_ELEMENTS);
+            arrays[i].init(0);
+        }
+        arrays[0].init(1);
+        return arrays;
+    }
+
+    private static TaskGraph createTaskGraph(IntArray[] arrays) {
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, arrays[0]);
+        for (int i = 0; i < NUM_TASKS; i++) {
+            switch (i % 3) {
+                case 0 -> taskGraph.task("t" + i, TestParallelCompilation::add, arrays[i], arrays[i + 1], 2);
+                case 1 -> taskGraph.task("t" + i, TestParallelCompilation::multiply, arrays[i], arrays[i + 1], 3);
+                default -> taskGraph.task("t" + i, TestParallelCompilation::addIndex, arrays[i], arrays[i + 1]);
+            }
+        }
+        return taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, arrays[NUM_TASKS]);
+    }
+
+    private static void checkResult(IntArray[] arrays) {
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            int expected = 1;
+            for (int k = 0; k < NUM_TASKS; k++) {
+                expected = switch (k % 3) {
+                    case 0 -> expected + 2;
+                    case 1 -> expected * 3;
+                    default -> expected + i;
+                };
+            }
+            assertEquals(expected, arrays[NUM_TASKS].get(i));
+        }
+    }
+
+    @Test
+    public void testManyTasks() throws TornadoExecutionPlanException {
+        IntArray[] arrays = createArrays();
+        ImmutableTaskGraph immutableTaskGraph = createTaskGraph(arrays).snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int k = 0; k < 3; k++) {
+                executionPlan.execute();
+                checkResult(arrays);
+            }
+        }
+    }
+
+    /**
+     * The PTX backend loads the modules in the CUDA context of the device, so the
+     * context must be current in the threads of the compiler pool.
+     */
+    @Test
+    public void testManyTasksPTX() throws TornadoExecutionPlanException {
+        TornadoDevice device = getPTXDevice();
+        if (device == null) {
+            throw new TornadoVMPTXNotSupported("Test requires a PTX device");
+        }
+        IntArray[] arrays = createArrays();
+        ImmutableTaskGraph immutableTaskGraph = createTaskGraph(arrays).snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(device);
+            for (int k = 0; k < 3; k++) {
+                executionPlan.execute();
+                checkResult(arrays);
+            }
+        }
+    }
+
+    private static TornadoDevice getPTXDevice() {
+        for (int i = 0; i < getTornadoRuntime().getNumBackends(); i++) {
+            TornadoBackend backend = getTornadoRuntime().getBackend(i);
+            if (backend.getBackendType() == TornadoVMBackendType.PTX && backend.getNumDevices() > 0) {
+                return backend.getDevice(0);
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testWarmUp() throws TornadoExecutionPlanException {
+        IntArray[] arrays = createArrays();
+        ImmutableTaskGraph immutableTaskGraph = createTaskGraph(arrays).snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withWarmUp().execute();
+        }
+        checkResult(arrays);
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the fusion of chains of element-wise tasks. The results must be
+ * the same whether the tasks are fused or not.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.fusion=True" uk.ac.manchester.tornado.unittests.tasks.TestTaskFusion
+ * </code>
+ */
+public class TestTaskFusion extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+
+    public static void add(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void scale(FloatArray a, FloatArray b, float alpha) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            b.set(i, alpha * a.get(i));
+        }
+    }
+
+    public static void increment(FloatArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1.0f);
+        }
+    }
+
+    public static void stencil(FloatArray a, FloatArray b, int size) {
+        for (@Parallel int i = 1; i < size; i++) {
+            b.set(i, a.get(i - 1) + a.get(i));
+        }
+    }
+
+    @Test
+    public void testFusedChain() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        FloatArray d = new FloatArray(NUM_ELEMENTS);
+        FloatArray e = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            a.set(i, i);
+            b.set(i, 1.0f);
+        }
+
+        // c and d are only used on the device
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestTaskFusion::add, a, b, c) //
+                .task("t1", TestTaskFusion::scale, c, d, 2.0f) //
+                .task("t2", TestTaskFusion::add, d, a, e) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, e);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int k = 0; k < 4; k++) {
+                e.init(0.0f);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(3.0f * i + 2.0f, e.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInPlaceChain() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        a.init(0.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+                .task("t0", TestTaskFusion::increment, a) //
+                .task("t1", TestTaskFusion::increment, a) //
+                .task("t2", TestTaskFusion::scale, a, b, 3.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(6.0f, b.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testIntermediateCopiedOut() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        FloatArray d = new FloatArray(NUM_ELEMENTS);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        // c is needed on the host, so the tasks are launched one after the other
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestTaskFusion::add, a, b, c) //
+                .task("t1", TestTaskFusion::scale, c, d, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c, d);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(3.0f, c.get(i), 0.001f);
+            assertEquals(6.0f, d.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testStencilNotFused() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        FloatArray d = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            a.set(i, i);
+            b.set(i, i);
+        }
+        d.init(0.0f);
+
+        // The stencil reads elements written by other threads of the first task
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b, d) //
+                .task("t0", TestTaskFusion::add, a, b, c) //
+                .task("t1", TestTaskFusion::stencil, c, d, NUM_ELEMENTS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        assertEquals(0.0f, d.get(0), 0.001f);
+        for (int i = 1; i < NUM_ELEMENTS; i++) {
+            assertEquals(4.0f * i - 2.0f, d.get(i), 0.001f);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the tiered execution of task-graphs: the first executions run on
+ * the host while the tasks are compiled for the device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ *
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestTieredExecution
+ * </code>
+ */
+public class TestTieredExecution extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    /**
+     * Maximum time for the compilation of the task-graph.
+     */
+    private static final long TIMEOUT_NS = 60_000_000_000L;
+
+    public static void saxpy(FloatArray x, FloatArray y, FloatArray z, float alpha) {
+        for (@Parallel int i = 0; i < z.getSize(); i++) {
+            z.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void increment(FloatArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1.0f);
+        }
+    }
+
+    @Test
+    public void testSwitchToDevice() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestTieredExecution::saxpy, x, y, z, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withTieredExecution().withProfiler(ProfilerMode.SILENT);
+            final long start = System.nanoTime();
+            boolean onDevice = false;
+            for (int k = 0; !onDevice && System.nanoTime() - start < TIMEOUT_NS; k++) {
+                x.init(k);
+                TornadoExecutionResult executionResult = executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(2.0f * k + 1.0f, z.get(i), 0.001f);
+                }
+                // The executions on the host do not launch kernels
+                onDevice = executionResult.getProfilerResult().getDeviceKernelTime() > 0;
+            }
+            assertTrue(onDevice);
+        }
+    }
+
+    @Test
+    public void testStateAcrossTiers() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        a.init(0.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+                .task("t0", TestTieredExecution::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withTieredExecution();
+            for (int k = 1; k <= 16; k++) {
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(k, a.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWithoutTieredExecution() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        x.init(1.0f);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestTieredExecution::saxpy, x, y, z, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            // The first execution waits for the compilation and runs on the device
+            TornadoExecutionResult executionResult = executionPlan.withTieredExecution().withoutTieredExecution().withProfiler(ProfilerMode.SILENT).execute();
+            assertTrue(executionResult.getProfilerResult().getDeviceKernelTime() > 0);
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(3.0f, z.get(i), 0.001f);
+        }
+    }
+
+}